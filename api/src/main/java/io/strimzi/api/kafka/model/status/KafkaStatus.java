@@ -21,12 +21,14 @@ import java.util.List;
         builderPackage = "io.fabric8.kubernetes.api.builder"
 )
 @JsonInclude(JsonInclude.Include.NON_NULL)
-@JsonPropertyOrder({ "conditions", "observedGeneration", "listeners" })
+@JsonPropertyOrder({ "conditions", "observedGeneration", "listeners", "reconciliationFingerprint", "dynamicallyUpdatedConfiguration" })
 @EqualsAndHashCode
 public class KafkaStatus extends Status {
     private static final long serialVersionUID = 1L;
 
     private List<ListenerStatus> listeners;
+    private String reconciliationFingerprint;
+    private List<String> dynamicallyUpdatedConfiguration;
 
     @Description("Addresses of the internal and external listeners")
     public List<ListenerStatus> getListeners() {
@@ -36,4 +38,24 @@ public class KafkaStatus extends Status {
     public void setListeners(List<ListenerStatus> listeners) {
         this.listeners = listeners;
     }
+
+    @Description("A fingerprint of the resource and of the resources it depends on, " +
+            "as of the last successful reconciliation by the operator.")
+    public String getReconciliationFingerprint() {
+        return reconciliationFingerprint;
+    }
+
+    public void setReconciliationFingerprint(String reconciliationFingerprint) {
+        this.reconciliationFingerprint = reconciliationFingerprint;
+    }
+
+    @Description("The broker configuration options which were last changed by updating the configuration of " +
+            "the running brokers, rather than by a rolling update.")
+    public List<String> getDynamicallyUpdatedConfiguration() {
+        return dynamicallyUpdatedConfiguration;
+    }
+
+    public void setDynamicallyUpdatedConfiguration(List<String> dynamicallyUpdatedConfiguration) {
+        this.dynamicallyUpdatedConfiguration = dynamicallyUpdatedConfiguration;
+    }
 }
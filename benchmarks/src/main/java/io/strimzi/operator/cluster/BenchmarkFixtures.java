@@ -0,0 +1,137 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster;
+
+import io.fabric8.kubernetes.api.model.Quantity;
+import io.fabric8.kubernetes.api.model.ResourceRequirementsBuilder;
+import io.strimzi.api.kafka.model.Kafka;
+import io.strimzi.api.kafka.model.KafkaBuilder;
+import io.strimzi.api.kafka.model.storage.PersistentClaimStorageBuilder;
+import io.strimzi.operator.cluster.model.KafkaVersion;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+
+/**
+ * Realistic custom resources for the benchmarks, modelled on the examples shipped in {@code examples/}.
+ */
+public class BenchmarkFixtures {
+
+    public static final String NAMESPACE = "my-namespace";
+    public static final String NAME = "my-cluster";
+
+    /**
+     * The versions from the {@code kafka-versions} file, with the images which the operator would be deployed with.
+     */
+    public static final KafkaVersion.Lookup VERSIONS = new KafkaVersion.Lookup(
+            images("strimzi/kafka:latest-kafka-"), emptyMap(), emptyMap(), emptyMap());
+
+    private BenchmarkFixtures() { }
+
+    private static Map<String, String> images(String prefix) {
+        Map<String, String> images = new HashMap<>();
+        for (String version : new String[] {"2.2.1", "2.3.0"}) {
+            images.put(version, prefix + version);
+        }
+        return images;
+    }
+
+    /**
+     * The broker configuration which is typically set in the Kafka custom resource.
+     * @param brokers The number of brokers.
+     * @return The configuration.
+     */
+    public static Map<String, Object> kafkaConfig(int brokers) {
+        int replicationFactor = Math.min(brokers, 3);
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("offsets.topic.replication.factor", replicationFactor);
+        config.put("transaction.state.log.replication.factor", replicationFactor);
+        config.put("transaction.state.log.min.isr", Math.max(replicationFactor - 1, 1));
+        config.put("default.replication.factor", replicationFactor);
+        config.put("min.insync.replicas", Math.max(replicationFactor - 1, 1));
+        config.put("num.partitions", 12);
+        config.put("log.message.format.version", "2.3");
+        config.put("log.retention.hours", 168);
+        config.put("log.segment.bytes", 1073741824);
+        config.put("auto.create.topics.enable", false);
+        config.put("unclean.leader.election.enable", false);
+        config.put("num.network.threads", 8);
+        config.put("num.io.threads", 16);
+        config.put("compression.type", "producer");
+        return config;
+    }
+
+    /**
+     * A Kafka cluster with the given number of brokers, with rack awareness, JBOD storage, plain, TLS and external
+     * listeners and metrics. Clusters of more than 3 brokers use an ensemble of 5 ZooKeeper nodes.
+     * @param brokers The number of brokers.
+     * @return The custom resource.
+     */
+    public static Kafka kafka(int brokers) {
+        return new KafkaBuilder()
+                .withNewMetadata()
+                    .withNamespace(NAMESPACE)
+                    .withName(NAME)
+                    .withLabels(singletonMap("app", "benchmark"))
+                .endMetadata()
+                .withNewSpec()
+                    .withNewKafka()
+                        .withReplicas(brokers)
+                        .withVersion("2.3.0")
+                        .withNewListeners()
+                            .withNewPlain()
+                            .endPlain()
+                            .withNewTls()
+                                .withNewKafkaListenerAuthenticationTlsAuth()
+                                .endKafkaListenerAuthenticationTlsAuth()
+                            .endTls()
+                            .withNewKafkaListenerExternalRoute()
+                                .withNewKafkaListenerAuthenticationTlsAuth()
+                                .endKafkaListenerAuthenticationTlsAuth()
+                            .endKafkaListenerExternalRoute()
+                        .endListeners()
+                        .withConfig(kafkaConfig(brokers))
+                        .withNewJbodStorage()
+                            .withVolumes(
+                                new PersistentClaimStorageBuilder().withId(0).withSize("100Gi").withDeleteClaim(false).build(),
+                                new PersistentClaimStorageBuilder().withId(1).withSize("100Gi").withDeleteClaim(false).build())
+                        .endJbodStorage()
+                        .withNewRack()
+                            .withTopologyKey("failure-domain.beta.kubernetes.io/zone")
+                        .endRack()
+                        .withResources(new ResourceRequirementsBuilder()
+                                .addToRequests("cpu", new Quantity("2"))
+                                .addToRequests("memory", new Quantity("8Gi"))
+                                .addToLimits("cpu", new Quantity("4"))
+                                .addToLimits("memory", new Quantity("8Gi"))
+                                .build())
+                        .withNewJvmOptions()
+                            .withXms("4g")
+                            .withXmx("4g")
+                        .endJvmOptions()
+                        .withMetrics(singletonMap("lowercaseOutputName", true))
+                    .endKafka()
+                    .withNewZookeeper()
+                        .withReplicas(brokers > 3 ? 5 : 3)
+                        .withNewPersistentClaimStorage()
+                            .withSize("10Gi")
+                            .withDeleteClaim(false)
+                        .endPersistentClaimStorage()
+                        .withMetrics(singletonMap("lowercaseOutputName", true))
+                    .endZookeeper()
+                    .withNewEntityOperator()
+                        .withNewTopicOperator()
+                        .endTopicOperator()
+                        .withNewUserOperator()
+                        .endUserOperator()
+                    .endEntityOperator()
+                .endSpec()
+                .build();
+    }
+}
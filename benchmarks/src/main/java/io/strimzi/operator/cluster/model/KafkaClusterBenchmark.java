@@ -0,0 +1,76 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.model;
+
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.strimzi.api.kafka.model.Kafka;
+import io.strimzi.operator.cluster.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.strimzi.operator.cluster.BenchmarkFixtures.VERSIONS;
+
+/**
+ * Benchmarks the generation of the Kafka and ZooKeeper models and StatefulSets from the Kafka custom resource,
+ * which the operator does on every reconciliation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KafkaClusterBenchmark {
+
+    @Param({"3", "100"})
+    public int brokers;
+
+    private Kafka kafka;
+    private KafkaCluster kafkaCluster;
+    private ZookeeperCluster zookeeperCluster;
+
+    @Setup
+    public void setup() {
+        kafka = BenchmarkFixtures.kafka(brokers);
+        kafkaCluster = KafkaCluster.fromCrd(kafka, VERSIONS);
+        zookeeperCluster = ZookeeperCluster.fromCrd(kafka, VERSIONS);
+    }
+
+    @Benchmark
+    public KafkaCluster kafkaFromCrd() {
+        return KafkaCluster.fromCrd(kafka, VERSIONS);
+    }
+
+    @Benchmark
+    public StatefulSet kafkaGenerateStatefulSet() {
+        return kafkaCluster.generateStatefulSet(false, null, null);
+    }
+
+    @Benchmark
+    public StatefulSet kafkaFromCrdAndGenerateStatefulSet() {
+        return KafkaCluster.fromCrd(kafka, VERSIONS).generateStatefulSet(false, null, null);
+    }
+
+    @Benchmark
+    public ZookeeperCluster zookeeperFromCrd() {
+        return ZookeeperCluster.fromCrd(kafka, VERSIONS);
+    }
+
+    @Benchmark
+    public StatefulSet zookeeperGenerateStatefulSet() {
+        return zookeeperCluster.generateStatefulSet(false, null, null);
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.model;
+
+import io.strimzi.kafka.config.model.ConfigModel;
+import io.strimzi.operator.cluster.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static io.strimzi.operator.cluster.BenchmarkFixtures.VERSIONS;
+
+/**
+ * Benchmarks the validation of the broker configuration from the Kafka custom resource against the config model
+ * of the Kafka version, for a typical configuration and for a large configuration of 200 options.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KafkaConfigurationBenchmark {
+
+    private Map<String, Object> config;
+    private KafkaConfiguration configuration;
+    private KafkaConfiguration largeConfiguration;
+    private KafkaVersion version;
+
+    @Setup
+    public void setup() {
+        config = BenchmarkFixtures.kafkaConfig(3);
+        configuration = new KafkaConfiguration(config.entrySet());
+        version = VERSIONS.version("2.3.0");
+        largeConfiguration = new KafkaConfiguration(largeConfig(version, 200).entrySet());
+    }
+
+    /**
+     * A configuration with a valid value for every option of the config model which users are allowed to set and
+     * which is easy to give a valid value, padded with options for plugins up to the given size.
+     */
+    private static Map<String, Object> largeConfig(KafkaVersion version, int size) {
+        Map<String, Object> modelled = new LinkedHashMap<>();
+        for (Map.Entry<String, ConfigModel> entry : new TreeMap<>(KafkaConfiguration.readConfigModel(version)).entrySet()) {
+            String value = validValue(entry.getValue());
+            if (value != null) {
+                modelled.put(entry.getKey(), value);
+            }
+        }
+        // Drop the forbidden options
+        Map<String, Object> config = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : new KafkaConfiguration(modelled.entrySet()).asOrderedProperties().asMap().entrySet()) {
+            if (config.size() < size) {
+                config.put(entry.getKey(), entry.getValue());
+            }
+        }
+        for (int i = 0; config.size() < size; i++) {
+            config.put("my.plugin.option." + i, "value-" + i);
+        }
+        return config;
+    }
+
+    private static String validValue(ConfigModel model) {
+        switch (model.getType()) {
+            case BOOLEAN:
+                return "true";
+            case SHORT:
+            case INT:
+            case LONG:
+                return String.valueOf(model.getMinimum() != null ? model.getMinimum().longValue() : model.getMaximum() != null ? model.getMaximum().longValue() : 1);
+            case DOUBLE:
+                return String.valueOf(model.getMinimum() != null ? model.getMinimum().doubleValue() : model.getMaximum() != null ? model.getMaximum().doubleValue() : 0.5);
+            case LIST:
+                return model.getItems() != null ? String.join(",", model.getItems()) : "a,b";
+            case STRING:
+                if (model.getValues() != null) {
+                    return model.getValues().get(0);
+                } else if (model.getPattern() != null) {
+                    // The version options
+                    return Pattern.matches(model.getPattern(), "2.3") ? "2.3" : null;
+                }
+                return "value";
+            default:
+                return "value";
+        }
+    }
+
+    @Benchmark
+    public List<String> validate() {
+        return configuration.validate(version);
+    }
+
+    @Benchmark
+    public List<String> validateLarge() {
+        return largeConfiguration.validate(version);
+    }
+
+    @Benchmark
+    public List<String> parseAndValidate() {
+        return new KafkaConfiguration(config.entrySet()).validate(version);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks parsing, writing and hashing the key-value pairs of the broker and logging configuration.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderedPropertiesBenchmark {
+
+    /**
+     * The number of pairs: a typical broker configuration, and a large logging configuration.
+     */
+    @Param({"30", "500"})
+    public int pairs;
+
+    private String text;
+    private OrderedProperties properties;
+
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder("# Generated configuration\n");
+        for (int i = 0; i < pairs; i++) {
+            if (i % 10 == 0) {
+                sb.append("# Section ").append(i / 10).append('\n');
+            }
+            sb.append("log4j.logger.io.strimzi.component").append(i).append(".level=INFO, CONSOLE\n");
+            if (i % 25 == 0) {
+                sb.append("listener.name.replication-").append(i).append(".ssl.keystore.location=")
+                        .append("/tmp/kafka/cluster.keystore.p12,\\\n    /tmp/kafka/cluster.truststore.p12\n");
+            }
+        }
+        text = sb.toString();
+        properties = new OrderedProperties().addStringPairs(text);
+    }
+
+    @Benchmark
+    public OrderedProperties parse() {
+        return new OrderedProperties().addStringPairs(text);
+    }
+
+    @Benchmark
+    public String write() {
+        return properties.asPairs();
+    }
+
+    @Benchmark
+    public long contentHash() {
+        return properties.contentHash();
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.model;
+
+import io.strimzi.api.kafka.model.status.ConditionBuilder;
+import io.strimzi.api.kafka.model.status.KafkaStatus;
+import io.strimzi.api.kafka.model.status.KafkaStatusBuilder;
+import io.strimzi.api.kafka.model.status.ListenerAddressBuilder;
+import io.strimzi.api.kafka.model.status.ListenerStatus;
+import io.strimzi.api.kafka.model.status.ListenerStatusBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.strimzi.operator.cluster.BenchmarkFixtures.NAME;
+import static io.strimzi.operator.cluster.BenchmarkFixtures.NAMESPACE;
+
+/**
+ * Benchmarks diffing the current and desired status of a Kafka cluster, which the operator does at the end
+ * of every reconciliation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StatusDiffBenchmark {
+
+    private KafkaStatus current;
+    private KafkaStatus unchanged;
+    private KafkaStatus changed;
+
+    @Setup
+    public void setup() {
+        current = status(1, "2019-10-01T10:00:00+0000");
+        // Only the transition time differs, which the diff ignores
+        unchanged = status(1, "2019-10-01T10:05:00+0000");
+        changed = status(2, "2019-10-01T10:05:00+0000");
+    }
+
+    private static KafkaStatus status(long observedGeneration, String lastTransitionTime) {
+        return new KafkaStatusBuilder()
+                .withObservedGeneration(observedGeneration)
+                .withConditions(new ConditionBuilder()
+                        .withType("Ready")
+                        .withStatus("True")
+                        .withLastTransitionTime(lastTransitionTime)
+                        .build())
+                .withListeners(
+                        listener("plain", NAME + "-kafka-bootstrap." + NAMESPACE + ".svc", 9092),
+                        listener("tls", NAME + "-kafka-bootstrap." + NAMESPACE + ".svc", 9093),
+                        listener("external", NAME + "-kafka-bootstrap-" + NAMESPACE + ".apps.example.com", 443))
+                .build();
+    }
+
+    private static ListenerStatus listener(String type, String host, int port) {
+        return new ListenerStatusBuilder()
+                .withType(type)
+                .withAddresses(new ListenerAddressBuilder()
+                        .withHost(host)
+                        .withPort(port)
+                        .build())
+                .build();
+    }
+
+    @Benchmark
+    public StatusDiff diffUnchanged() {
+        return new StatusDiff(current, unchanged);
+    }
+
+    @Benchmark
+    public StatusDiff diffChanged() {
+        return new StatusDiff(current, changed);
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.resource;
+
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.api.model.apps.StatefulSetBuilder;
+import io.strimzi.api.kafka.model.Kafka;
+import io.strimzi.api.kafka.model.KafkaBuilder;
+import io.strimzi.operator.cluster.BenchmarkFixtures;
+import io.strimzi.operator.cluster.model.KafkaCluster;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.strimzi.operator.cluster.BenchmarkFixtures.VERSIONS;
+
+/**
+ * Benchmarks diffing the current and desired Kafka StatefulSets, which the operator does on every reconciliation,
+ * both property by property and, for comparison, as JSON.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StatefulSetDiffBenchmark {
+
+    @Param({"3", "100"})
+    public int brokers;
+
+    private StatefulSet current;
+    private StatefulSet unchanged;
+    private StatefulSet changed;
+
+    @Setup
+    public void setup() {
+        Kafka kafka = BenchmarkFixtures.kafka(brokers);
+        current = KafkaCluster.fromCrd(kafka, VERSIONS).generateStatefulSet(false, null, null);
+        // A deep copy, so that the diff cannot take any shortcut through identical objects
+        unchanged = new StatefulSetBuilder(current).build();
+        Kafka edited = new KafkaBuilder(kafka)
+                .editSpec()
+                    .editKafka()
+                        .addToConfig("log.retention.hours", 24)
+                    .endKafka()
+                .endSpec()
+                .build();
+        changed = KafkaCluster.fromCrd(edited, VERSIONS).generateStatefulSet(false, null, null);
+    }
+
+    @Benchmark
+    public StatefulSetDiff diffUnchanged() {
+        return new StatefulSetDiff(current, unchanged);
+    }
+
+    @Benchmark
+    public StatefulSetDiff diffChanged() {
+        return new StatefulSetDiff(current, changed);
+    }
+
+    @Benchmark
+    public StatefulSetDiff diffChangedJson() {
+        return new StatefulSetDiff(current, changed, null);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common.model;
+
+import io.fabric8.kubernetes.api.model.Toleration;
+import io.fabric8.kubernetes.api.model.TolerationBuilder;
+import io.strimzi.api.kafka.model.Kafka;
+import io.strimzi.api.kafka.model.KafkaBuilder;
+import io.strimzi.api.kafka.model.storage.PersistentClaimStorageBuilder;
+import io.strimzi.api.kafka.model.storage.SingleVolumeStorage;
+import io.strimzi.operator.cluster.BenchmarkFixtures;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the validation of a Kafka custom resource, which the operator does before every reconciliation,
+ * for a small cluster and for a large cluster with many volumes and a pod template.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResourceVisitorBenchmark {
+
+    private static final Logger log = LogManager.getLogger(ResourceVisitorBenchmark.class);
+
+    @Param({"small", "large"})
+    public String size;
+
+    private Kafka kafka;
+
+    @Setup
+    public void setup() {
+        kafka = "large".equals(size) ? large() : BenchmarkFixtures.kafka(3);
+    }
+
+    private static Kafka large() {
+        List<SingleVolumeStorage> volumes = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            volumes.add(new PersistentClaimStorageBuilder().withId(i).withSize("100Gi").withDeleteClaim(false).build());
+        }
+        List<Toleration> tolerations = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            tolerations.add(new TolerationBuilder()
+                    .withKey("dedicated-" + i)
+                    .withOperator("Equal")
+                    .withValue("kafka")
+                    .withEffect("NoSchedule")
+                    .build());
+        }
+        return new KafkaBuilder(BenchmarkFixtures.kafka(100))
+                .editSpec()
+                    .editKafka()
+                        .withNewJbodStorage()
+                            .withVolumes(volumes)
+                        .endJbodStorage()
+                        .withNewTemplate()
+                            .withNewPod()
+                                .withTolerations(tolerations)
+                            .endPod()
+                        .endTemplate()
+                    .endKafka()
+                .endSpec()
+                .build();
+    }
+
+    @Benchmark
+    public Kafka validate() {
+        ResourceVisitor.visit(kafka, new ValidationVisitor(kafka, log));
+        return kafka;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the serialization of the topics in the topic store and the three-way diff of the topics,
+ * which the Topic Operator does for every topic on every reconciliation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TopicBenchmark {
+
+    private Topic topic;
+    private byte[] json;
+    private Topic unchanged;
+    private Topic changed;
+
+    @Setup
+    public void setup() {
+        Map<String, String> config = new LinkedHashMap<>();
+        config.put("cleanup.policy", "compact");
+        config.put("retention.ms", "604800000");
+        config.put("segment.bytes", "1073741824");
+        config.put("min.insync.replicas", "2");
+        config.put("max.message.bytes", "1048588");
+        config.put("compression.type", "producer");
+        config.put("unclean.leader.election.enable", "false");
+        config.put("message.timestamp.type", "CreateTime");
+        topic = new Topic.Builder("my-topic", 12, (short) 3, config).build();
+        json = TopicSerialization.toJson(topic);
+        unchanged = new Topic.Builder(topic).build();
+        changed = new Topic.Builder(topic)
+                .withNumPartitions(24)
+                .withConfigEntry("retention.ms", "86400000")
+                .withoutConfigEntry("compression.type")
+                .build();
+    }
+
+    @Benchmark
+    public byte[] toJson() {
+        return TopicSerialization.toJson(topic);
+    }
+
+    @Benchmark
+    public Topic fromJson() {
+        return TopicSerialization.fromJson(json);
+    }
+
+    @Benchmark
+    public TopicDiff diffUnchanged() {
+        return TopicDiff.diff(topic, unchanged);
+    }
+
+    @Benchmark
+    public TopicDiff diffChanged() {
+        return TopicDiff.diff(topic, changed);
+    }
+}
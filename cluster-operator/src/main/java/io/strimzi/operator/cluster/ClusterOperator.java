@@ -17,6 +17,8 @@ import io.strimzi.operator.cluster.operator.assembly.KafkaAssemblyOperator;
 import io.strimzi.operator.cluster.operator.assembly.KafkaConnectAssemblyOperator;
 import io.strimzi.operator.cluster.operator.assembly.KafkaConnectS2IAssemblyOperator;
 import io.strimzi.operator.cluster.operator.assembly.KafkaMirrorMakerAssemblyOperator;
+import io.strimzi.operator.cluster.sharding.ShardCoordinator;
+import io.strimzi.operator.common.MetricsProvider;
 import io.vertx.core.AbstractVerticle;
 import io.vertx.core.Future;
 import io.vertx.core.http.HttpServer;
@@ -24,14 +26,15 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 /**
  * An "operator" for managing assemblies of various types <em>in a particular namespace</em>.
  * The Cluster Operator's multiple namespace support is achieved by deploying multiple
- * {@link ClusterOperator}'s in Vertx.
+ * {@link ClusterOperator}'s in Vertx, or a single one watching all namespaces
+ * which handles only the resources of the given set of namespaces.
  */
 public class ClusterOperator extends AbstractVerticle {
 
@@ -45,6 +48,7 @@ public class ClusterOperator extends AbstractVerticle {
 
     private final KubernetesClient client;
     private final String namespace;
+    private final Set<String> namespaces;
     private final long reconciliationInterval;
 
     private final Map<String, Watch> watchByKind = new ConcurrentHashMap<>();
@@ -55,6 +59,7 @@ public class ClusterOperator extends AbstractVerticle {
     private final KafkaConnectS2IAssemblyOperator kafkaConnectS2IAssemblyOperator;
     private final KafkaMirrorMakerAssemblyOperator kafkaMirrorMakerAssemblyOperator;
     private final KafkaBridgeAssemblyOperator kafkaBridgeAssemblyOperator;
+    private final ShardCoordinator shards;
 
     public ClusterOperator(String namespace,
                            long reconciliationInterval,
@@ -64,8 +69,36 @@ public class ClusterOperator extends AbstractVerticle {
                            KafkaConnectS2IAssemblyOperator kafkaConnectS2IAssemblyOperator,
                            KafkaMirrorMakerAssemblyOperator kafkaMirrorMakerAssemblyOperator,
                            KafkaBridgeAssemblyOperator kafkaBridgeAssemblyOperator) {
-        log.info("Creating ClusterOperator for namespace {}", namespace);
+        this(namespace, null, reconciliationInterval, client, kafkaAssemblyOperator, kafkaConnectAssemblyOperator,
+                kafkaConnectS2IAssemblyOperator, kafkaMirrorMakerAssemblyOperator, kafkaBridgeAssemblyOperator, null);
+    }
+
+    /**
+     * Constructor
+     * @param namespace The namespace to watch, or {@code *} to watch all namespaces.
+     * @param namespaces The namespaces whose resources are reconciled, or null to reconcile those of all the watched namespaces.
+     * @param reconciliationInterval The interval between periodic reconciliations, in milliseconds.
+     * @param client The Kubernetes client.
+     * @param kafkaAssemblyOperator The Kafka assembly operator.
+     * @param kafkaConnectAssemblyOperator The Kafka Connect assembly operator.
+     * @param kafkaConnectS2IAssemblyOperator The Kafka Connect S2I assembly operator, or null if it is not supported.
+     * @param kafkaMirrorMakerAssemblyOperator The Kafka Mirror Maker assembly operator.
+     * @param kafkaBridgeAssemblyOperator The Kafka Bridge assembly operator.
+     * @param shards The coordinator sharing the assemblies between the replicas of the operator, or null if there is a single replica.
+     */
+    public ClusterOperator(String namespace,
+                           Set<String> namespaces,
+                           long reconciliationInterval,
+                           KubernetesClient client,
+                           KafkaAssemblyOperator kafkaAssemblyOperator,
+                           KafkaConnectAssemblyOperator kafkaConnectAssemblyOperator,
+                           KafkaConnectS2IAssemblyOperator kafkaConnectS2IAssemblyOperator,
+                           KafkaMirrorMakerAssemblyOperator kafkaMirrorMakerAssemblyOperator,
+                           KafkaBridgeAssemblyOperator kafkaBridgeAssemblyOperator,
+                           ShardCoordinator shards) {
+        log.info("Creating ClusterOperator for namespace {}", namespaces != null ? namespaces : namespace);
         this.namespace = namespace;
+        this.namespaces = namespaces;
         this.reconciliationInterval = reconciliationInterval;
         this.client = client;
         this.kafkaAssemblyOperator = kafkaAssemblyOperator;
@@ -73,6 +106,7 @@ public class ClusterOperator extends AbstractVerticle {
         this.kafkaConnectS2IAssemblyOperator = kafkaConnectS2IAssemblyOperator;
         this.kafkaMirrorMakerAssemblyOperator = kafkaMirrorMakerAssemblyOperator;
         this.kafkaBridgeAssemblyOperator = kafkaBridgeAssemblyOperator;
+        this.shards = shards;
     }
 
     <C extends KubernetesClient,
@@ -86,7 +120,8 @@ public class ClusterOperator extends AbstractVerticle {
             public void accept(KubernetesClientException e) {
                 if (e != null) {
                     log.error("Watcher closed with exception in namespace {}", namespace, e);
-                    op.createWatch(namespace, this);
+                    MetricsProvider.getInstance().watchReconnected(op.kind(), namespace);
+                    op.createWatch(namespace, namespaces, this);
                 } else {
                     log.info("Watcher closed in namespace {}", namespace);
                 }
@@ -100,24 +135,21 @@ public class ClusterOperator extends AbstractVerticle {
     public void start(Future<Void> start) {
         log.info("Starting ClusterOperator for namespace {}", namespace);
 
-        // Configure the executor here, but it is used only in other places
-        getVertx().createSharedWorkerExecutor("kubernetes-ops-pool", 10, TimeUnit.SECONDS.toNanos(120));
-
-        kafkaAssemblyOperator.createWatch(namespace, recreateWatch(kafkaAssemblyOperator))
+        kafkaAssemblyOperator.createWatch(namespace, namespaces, recreateWatch(kafkaAssemblyOperator))
             .compose(w -> {
                 log.info("Started operator for {} kind", "Kafka");
                 watchByKind.put("Kafka", w);
-                return kafkaMirrorMakerAssemblyOperator.createWatch(namespace, recreateWatch(kafkaMirrorMakerAssemblyOperator));
+                return kafkaMirrorMakerAssemblyOperator.createWatch(namespace, namespaces, recreateWatch(kafkaMirrorMakerAssemblyOperator));
             }).compose(w -> {
                 log.info("Started operator for {} kind", "KafkaMirrorMaker");
                 watchByKind.put("KafkaMirrorMaker", w);
-                return kafkaConnectAssemblyOperator.createWatch(namespace, recreateWatch(kafkaConnectAssemblyOperator));
+                return kafkaConnectAssemblyOperator.createWatch(namespace, namespaces, recreateWatch(kafkaConnectAssemblyOperator));
             }).compose(w -> {
                 log.info("Started operator for {} kind", "KafkaConnect");
                 watchByKind.put("KafkaConnect", w);
                 if (kafkaConnectS2IAssemblyOperator != null) {
                     // only on OS
-                    return kafkaConnectS2IAssemblyOperator.createWatch(namespace, recreateWatch(kafkaConnectS2IAssemblyOperator));
+                    return kafkaConnectS2IAssemblyOperator.createWatch(namespace, namespaces, recreateWatch(kafkaConnectS2IAssemblyOperator));
                 } else {
                     return Future.succeededFuture(null);
                 }
@@ -126,15 +158,19 @@ public class ClusterOperator extends AbstractVerticle {
                     log.info("Started operator for {} kind", "KafkaConnectS2I");
                     watchByKind.put("KafkaS2IConnect", w);
                 }
-                return kafkaBridgeAssemblyOperator.createWatch(namespace, recreateWatch(kafkaBridgeAssemblyOperator));
+                return kafkaBridgeAssemblyOperator.createWatch(namespace, namespaces, recreateWatch(kafkaBridgeAssemblyOperator));
             }).compose(w -> {
                 log.info("Started operator for {} kind", "KafkaBridge");
                 watchByKind.put("KafkaBridge", w);
                 log.info("Setting up periodic reconciliation for namespace {}", namespace);
                 this.reconcileTimer = vertx.setPeriodic(this.reconciliationInterval, res2 -> {
                     log.info("Triggering periodic reconciliation for namespace {}...", namespace);
-                    reconcileAll("timer");
+                    reconcileAll("timer", reconciliationInterval / 2);
                 });
+                if (shards != null) {
+                    // Reconcile the assemblies handed over to this replica without waiting for the timer
+                    shards.onHandover(() -> reconcileAll("handover", 0));
+                }
                 return startHealthServer().map((Void) null);
             }).compose(start::complete, start);
     }
@@ -156,16 +192,17 @@ public class ClusterOperator extends AbstractVerticle {
     }
 
     /**
-      Periodical reconciliation (in case we lost some event)
+      Periodical reconciliation (in case we lost some event).
+      The reconciliations of each kind are spread over {@code spreadMs}.
      */
-    private void reconcileAll(String trigger) {
-        kafkaAssemblyOperator.reconcileAll(trigger, namespace);
-        kafkaMirrorMakerAssemblyOperator.reconcileAll(trigger, namespace);
-        kafkaConnectAssemblyOperator.reconcileAll(trigger, namespace);
-        kafkaBridgeAssemblyOperator.reconcileAll(trigger, namespace);
+    private void reconcileAll(String trigger, long spreadMs) {
+        kafkaAssemblyOperator.reconcileAll(trigger, namespace, namespaces, spreadMs);
+        kafkaMirrorMakerAssemblyOperator.reconcileAll(trigger, namespace, namespaces, spreadMs);
+        kafkaConnectAssemblyOperator.reconcileAll(trigger, namespace, namespaces, spreadMs);
+        kafkaBridgeAssemblyOperator.reconcileAll(trigger, namespace, namespaces, spreadMs);
 
         if (kafkaConnectS2IAssemblyOperator != null) {
-            kafkaConnectS2IAssemblyOperator.reconcileAll(trigger, namespace);
+            kafkaConnectS2IAssemblyOperator.reconcileAll(trigger, namespace, namespaces, spreadMs);
         }
     }
 
@@ -181,6 +218,8 @@ public class ClusterOperator extends AbstractVerticle {
                         request.response().setStatusCode(200).end();
                     } else if (request.path().equals("/ready")) {
                         request.response().setStatusCode(200).end();
+                    } else if (request.path().equals("/metrics")) {
+                        MetricsProvider.getInstance().handleMetricsRequest(request);
                     }
                 })
                 .listen(HEALTH_SERVER_PORT, ar -> {
@@ -10,7 +10,11 @@ import io.strimzi.operator.cluster.model.ImagePullPolicy;
 import io.strimzi.operator.cluster.model.KafkaVersion;
 import io.strimzi.operator.cluster.model.ModelUtils;
 import io.strimzi.operator.cluster.model.NoImageException;
+import io.strimzi.operator.cluster.sharding.ShardingConfig;
+import io.strimzi.operator.common.ApiRateLimiter;
 import io.strimzi.operator.common.InvalidConfigurationException;
+import io.strimzi.operator.common.WorkerPools;
+import io.strimzi.operator.common.model.Labels;
 import io.strimzi.operator.common.operator.resource.AbstractWatchableResourceOperator;
 
 import java.util.Arrays;
@@ -35,6 +39,29 @@ public class ClusterOperatorConfig {
     public static final String STRIMZI_CREATE_CLUSTER_ROLES = "STRIMZI_CREATE_CLUSTER_ROLES";
     public static final String STRIMZI_IMAGE_PULL_POLICY = "STRIMZI_IMAGE_PULL_POLICY";
     public static final String STRIMZI_IMAGE_PULL_SECRETS = "STRIMZI_IMAGE_PULL_SECRETS";
+    public static final String STRIMZI_RESOURCE_CACHE_ENABLED = "STRIMZI_RESOURCE_CACHE_ENABLED";
+    public static final String STRIMZI_MAX_CONCURRENT_RECONCILIATIONS = "STRIMZI_MAX_CONCURRENT_RECONCILIATIONS";
+    public static final String STRIMZI_MAX_SKIPPED_RECONCILIATIONS = "STRIMZI_MAX_SKIPPED_RECONCILIATIONS";
+    public static final String STRIMZI_KUBERNETES_API_READS_POOL_SIZE = "STRIMZI_KUBERNETES_API_READS_POOL_SIZE";
+    public static final String STRIMZI_KUBERNETES_API_WRITES_POOL_SIZE = "STRIMZI_KUBERNETES_API_WRITES_POOL_SIZE";
+    public static final String STRIMZI_CERT_GENERATION_POOL_SIZE = "STRIMZI_CERT_GENERATION_POOL_SIZE";
+    public static final String STRIMZI_READINESS_POLLING_POOL_SIZE = "STRIMZI_READINESS_POLLING_POOL_SIZE";
+    public static final String STRIMZI_CLUSTER_WIDE_WATCH = "STRIMZI_CLUSTER_WIDE_WATCH";
+    public static final String STRIMZI_LEADER_ELECTION_ENABLED = "STRIMZI_LEADER_ELECTION_ENABLED";
+    public static final String STRIMZI_LEADER_ELECTION_LEASE_NAME = "STRIMZI_LEADER_ELECTION_LEASE_NAME";
+    public static final String STRIMZI_LEADER_ELECTION_LEASE_NAMESPACE = "STRIMZI_LEADER_ELECTION_LEASE_NAMESPACE";
+    public static final String STRIMZI_LEADER_ELECTION_IDENTITY = "STRIMZI_LEADER_ELECTION_IDENTITY";
+    public static final String STRIMZI_LEADER_ELECTION_LEASE_DURATION_MS = "STRIMZI_LEADER_ELECTION_LEASE_DURATION_MS";
+    public static final String STRIMZI_LEADER_ELECTION_RENEW_DEADLINE_MS = "STRIMZI_LEADER_ELECTION_RENEW_DEADLINE_MS";
+    public static final String STRIMZI_LEADER_ELECTION_RETRY_PERIOD_MS = "STRIMZI_LEADER_ELECTION_RETRY_PERIOD_MS";
+    public static final String STRIMZI_NON_BLOCKING_API_CLIENT = "STRIMZI_NON_BLOCKING_API_CLIENT";
+    public static final String STRIMZI_KUBERNETES_API_QPS = "STRIMZI_KUBERNETES_API_QPS";
+    public static final String STRIMZI_KUBERNETES_API_BURST = "STRIMZI_KUBERNETES_API_BURST";
+    public static final String STRIMZI_DYNAMIC_BROKER_CONFIGURATION = "STRIMZI_DYNAMIC_BROKER_CONFIGURATION";
+    public static final String STRIMZI_RACK_ROLLING_UPDATE_CONCURRENCY = "STRIMZI_RACK_ROLLING_UPDATE_CONCURRENCY";
+    public static final String STRIMZI_PARTITION_AWARE_ROLLING_UPDATE = "STRIMZI_PARTITION_AWARE_ROLLING_UPDATE";
+    public static final String STRIMZI_OPERATOR_NAMESPACE = "STRIMZI_OPERATOR_NAMESPACE";
+    public static final String STRIMZI_OPERATOR_NAMESPACE_LABELS = "STRIMZI_OPERATOR_NAMESPACE_LABELS";
 
     // Env vars for configuring images
     public static final String STRIMZI_KAFKA_IMAGES = "STRIMZI_KAFKA_IMAGES";
@@ -54,6 +81,14 @@ public class ClusterOperatorConfig {
     public static final long DEFAULT_FULL_RECONCILIATION_INTERVAL_MS = 120_000;
     public static final long DEFAULT_OPERATION_TIMEOUT_MS = 300_000;
     public static final boolean DEFAULT_CREATE_CLUSTER_ROLES = false;
+    public static final boolean DEFAULT_RESOURCE_CACHE_ENABLED = false;
+    public static final int DEFAULT_MAX_CONCURRENT_RECONCILIATIONS = 10;
+    public static final int DEFAULT_MAX_SKIPPED_RECONCILIATIONS = 0;
+    public static final boolean DEFAULT_CLUSTER_WIDE_WATCH = false;
+    public static final boolean DEFAULT_NON_BLOCKING_API_CLIENT = false;
+    public static final boolean DEFAULT_DYNAMIC_BROKER_CONFIGURATION = false;
+    public static final int DEFAULT_RACK_ROLLING_UPDATE_CONCURRENCY = 1;
+    public static final boolean DEFAULT_PARTITION_AWARE_ROLLING_UPDATE = false;
 
     private final Set<String> namespaces;
     private final long reconciliationIntervalMs;
@@ -62,6 +97,20 @@ public class ClusterOperatorConfig {
     private final KafkaVersion.Lookup versions;
     private final ImagePullPolicy imagePullPolicy;
     private final List<LocalObjectReference> imagePullSecrets;
+    private final boolean resourceCacheEnabled;
+    private final int maxConcurrentReconciliations;
+    private final int maxSkippedReconciliations;
+    private final WorkerPools workerPools;
+    private final boolean clusterWideWatch;
+    private final ShardingConfig sharding;
+    private final boolean nonBlockingApiClient;
+    private final double kubernetesApiQps;
+    private final int kubernetesApiBurst;
+    private final boolean dynamicBrokerConfiguration;
+    private final int rackRollingUpdateConcurrency;
+    private final boolean partitionAwareRollingUpdate;
+    private final String operatorNamespace;
+    private final Labels operatorNamespaceLabels;
 
     /**
      * Constructor
@@ -75,13 +124,33 @@ public class ClusterOperatorConfig {
      * @param imagePullSecrets Set of secrets for pulling container images from secured repositories
      */
     public ClusterOperatorConfig(Set<String> namespaces, long reconciliationIntervalMs, long operationTimeoutMs, boolean createClusterRoles, KafkaVersion.Lookup versions, ImagePullPolicy imagePullPolicy, List<LocalObjectReference> imagePullSecrets) {
-        this.namespaces = unmodifiableSet(new HashSet<>(namespaces));
-        this.reconciliationIntervalMs = reconciliationIntervalMs;
-        this.operationTimeoutMs = operationTimeoutMs;
-        this.createClusterRoles = createClusterRoles;
-        this.versions = versions;
-        this.imagePullPolicy = imagePullPolicy;
-        this.imagePullSecrets = imagePullSecrets;
+        this(new Builder(namespaces, reconciliationIntervalMs, operationTimeoutMs, createClusterRoles, versions)
+                .withImagePullPolicy(imagePullPolicy)
+                .withImagePullSecrets(imagePullSecrets));
+    }
+
+    private ClusterOperatorConfig(Builder builder) {
+        this.namespaces = unmodifiableSet(new HashSet<>(builder.namespaces));
+        this.reconciliationIntervalMs = builder.reconciliationIntervalMs;
+        this.operationTimeoutMs = builder.operationTimeoutMs;
+        this.createClusterRoles = builder.createClusterRoles;
+        this.versions = builder.versions;
+        this.imagePullPolicy = builder.imagePullPolicy;
+        this.imagePullSecrets = builder.imagePullSecrets;
+        this.resourceCacheEnabled = builder.resourceCacheEnabled;
+        this.maxConcurrentReconciliations = builder.maxConcurrentReconciliations;
+        this.maxSkippedReconciliations = builder.maxSkippedReconciliations;
+        this.workerPools = builder.workerPools;
+        this.clusterWideWatch = builder.clusterWideWatch;
+        this.sharding = builder.sharding;
+        this.nonBlockingApiClient = builder.nonBlockingApiClient;
+        this.kubernetesApiQps = builder.kubernetesApiQps;
+        this.kubernetesApiBurst = builder.kubernetesApiBurst;
+        this.dynamicBrokerConfiguration = builder.dynamicBrokerConfiguration;
+        this.rackRollingUpdateConcurrency = builder.rackRollingUpdateConcurrency;
+        this.partitionAwareRollingUpdate = builder.partitionAwareRollingUpdate;
+        this.operatorNamespace = builder.operatorNamespace;
+        this.operatorNamespaceLabels = builder.operatorNamespaceLabels;
     }
 
     /**
@@ -98,8 +167,42 @@ public class ClusterOperatorConfig {
         ImagePullPolicy imagePullPolicy = parseImagePullPolicy(map.get(ClusterOperatorConfig.STRIMZI_IMAGE_PULL_POLICY));
         KafkaVersion.Lookup lookup = parseKafkaVersions(map.get(STRIMZI_KAFKA_IMAGES), map.get(STRIMZI_KAFKA_CONNECT_IMAGES), map.get(STRIMZI_KAFKA_CONNECT_S2I_IMAGES), map.get(STRIMZI_KAFKA_MIRROR_MAKER_IMAGES));
         List<LocalObjectReference> imagePullSecrets = parseImagePullSecrets(map.get(ClusterOperatorConfig.STRIMZI_IMAGE_PULL_SECRETS));
-
-        return new ClusterOperatorConfig(namespaces, reconciliationInterval, operationTimeout, createClusterRoles, lookup, imagePullPolicy, imagePullSecrets);
+        boolean resourceCacheEnabled = parseResourceCacheEnabled(map.get(ClusterOperatorConfig.STRIMZI_RESOURCE_CACHE_ENABLED));
+        int maxConcurrentReconciliations = parseMaxConcurrentReconciliations(map.get(ClusterOperatorConfig.STRIMZI_MAX_CONCURRENT_RECONCILIATIONS));
+        int maxSkippedReconciliations = parseMaxSkippedReconciliations(map.get(ClusterOperatorConfig.STRIMZI_MAX_SKIPPED_RECONCILIATIONS));
+        WorkerPools workerPools = new WorkerPools(
+                parsePoolSize(map, STRIMZI_KUBERNETES_API_READS_POOL_SIZE, WorkerPools.DEFAULT_KUBERNETES_API_READS_SIZE),
+                parsePoolSize(map, STRIMZI_KUBERNETES_API_WRITES_POOL_SIZE, WorkerPools.DEFAULT_KUBERNETES_API_WRITES_SIZE),
+                parsePoolSize(map, STRIMZI_CERT_GENERATION_POOL_SIZE, WorkerPools.DEFAULT_CERT_GENERATION_SIZE),
+                parsePoolSize(map, STRIMZI_READINESS_POLLING_POOL_SIZE, WorkerPools.DEFAULT_READINESS_POLLING_SIZE));
+
+        boolean clusterWideWatch = parseClusterWideWatch(map.get(ClusterOperatorConfig.STRIMZI_CLUSTER_WIDE_WATCH));
+        ShardingConfig sharding = parseSharding(map);
+        boolean nonBlockingApiClient = parseNonBlockingApiClient(map.get(ClusterOperatorConfig.STRIMZI_NON_BLOCKING_API_CLIENT));
+        double kubernetesApiQps = parseKubernetesApiQps(map.get(ClusterOperatorConfig.STRIMZI_KUBERNETES_API_QPS));
+        int kubernetesApiBurst = parsePoolSize(map, STRIMZI_KUBERNETES_API_BURST, ApiRateLimiter.DEFAULT_BURST);
+        boolean dynamicBrokerConfiguration = parseDynamicBrokerConfiguration(map.get(ClusterOperatorConfig.STRIMZI_DYNAMIC_BROKER_CONFIGURATION));
+        int rackRollingUpdateConcurrency = parsePoolSize(map, STRIMZI_RACK_ROLLING_UPDATE_CONCURRENCY, DEFAULT_RACK_ROLLING_UPDATE_CONCURRENCY);
+        boolean partitionAwareRollingUpdate = parsePartitionAwareRollingUpdate(map.get(ClusterOperatorConfig.STRIMZI_PARTITION_AWARE_ROLLING_UPDATE));
+        String operatorNamespace = parseOperatorNamespace(map.get(ClusterOperatorConfig.STRIMZI_OPERATOR_NAMESPACE));
+        Labels operatorNamespaceLabels = parseOperatorNamespaceLabels(map.get(ClusterOperatorConfig.STRIMZI_OPERATOR_NAMESPACE_LABELS));
+
+        return new Builder(namespaces, reconciliationInterval, operationTimeout, createClusterRoles, lookup)
+                .withImagePullPolicy(imagePullPolicy)
+                .withImagePullSecrets(imagePullSecrets)
+                .withResourceCacheEnabled(resourceCacheEnabled)
+                .withMaxConcurrentReconciliations(maxConcurrentReconciliations)
+                .withMaxSkippedReconciliations(maxSkippedReconciliations)
+                .withWorkerPools(workerPools)
+                .withClusterWideWatch(clusterWideWatch)
+                .withSharding(sharding)
+                .withNonBlockingApiClient(nonBlockingApiClient)
+                .withKubernetesApiRateLimit(kubernetesApiQps, kubernetesApiBurst)
+                .withDynamicBrokerConfiguration(dynamicBrokerConfiguration)
+                .withRackRollingUpdateConcurrency(rackRollingUpdateConcurrency)
+                .withPartitionAwareRollingUpdate(partitionAwareRollingUpdate)
+                .withOperatorNamespace(operatorNamespace, operatorNamespaceLabels)
+                .build();
     }
 
     private static Set<String> parseNamespaceList(String namespacesList)   {
@@ -151,6 +254,181 @@ public class ClusterOperatorConfig {
         return createClusterRoles;
     }
 
+    private static boolean parseResourceCacheEnabled(String resourceCacheEnabledEnvVar) {
+        boolean resourceCacheEnabled = DEFAULT_RESOURCE_CACHE_ENABLED;
+
+        if (resourceCacheEnabledEnvVar != null) {
+            resourceCacheEnabled = Boolean.parseBoolean(resourceCacheEnabledEnvVar);
+        }
+
+        return resourceCacheEnabled;
+    }
+
+    private static boolean parseClusterWideWatch(String clusterWideWatchEnvVar) {
+        boolean clusterWideWatch = DEFAULT_CLUSTER_WIDE_WATCH;
+
+        if (clusterWideWatchEnvVar != null) {
+            clusterWideWatch = Boolean.parseBoolean(clusterWideWatchEnvVar);
+        }
+
+        return clusterWideWatch;
+    }
+
+    private static boolean parseNonBlockingApiClient(String nonBlockingApiClientEnvVar) {
+        boolean nonBlockingApiClient = DEFAULT_NON_BLOCKING_API_CLIENT;
+
+        if (nonBlockingApiClientEnvVar != null) {
+            nonBlockingApiClient = Boolean.parseBoolean(nonBlockingApiClientEnvVar);
+        }
+
+        return nonBlockingApiClient;
+    }
+
+    private static boolean parseDynamicBrokerConfiguration(String dynamicBrokerConfigurationEnvVar) {
+        boolean dynamicBrokerConfiguration = DEFAULT_DYNAMIC_BROKER_CONFIGURATION;
+
+        if (dynamicBrokerConfigurationEnvVar != null) {
+            dynamicBrokerConfiguration = Boolean.parseBoolean(dynamicBrokerConfigurationEnvVar);
+        }
+
+        return dynamicBrokerConfiguration;
+    }
+
+    private static boolean parsePartitionAwareRollingUpdate(String partitionAwareRollingUpdateEnvVar) {
+        boolean partitionAwareRollingUpdate = DEFAULT_PARTITION_AWARE_ROLLING_UPDATE;
+
+        if (partitionAwareRollingUpdateEnvVar != null) {
+            partitionAwareRollingUpdate = Boolean.parseBoolean(partitionAwareRollingUpdateEnvVar);
+        }
+
+        return partitionAwareRollingUpdate;
+    }
+
+    private static String parseOperatorNamespace(String operatorNamespaceEnvVar) {
+        String operatorNamespace = null;
+
+        if (operatorNamespaceEnvVar != null && !operatorNamespaceEnvVar.trim().isEmpty()) {
+            operatorNamespace = operatorNamespaceEnvVar.trim();
+        }
+
+        return operatorNamespace;
+    }
+
+    private static Labels parseOperatorNamespaceLabels(String operatorNamespaceLabelsEnvVar) {
+        Labels operatorNamespaceLabels = null;
+
+        if (operatorNamespaceLabelsEnvVar != null && !operatorNamespaceLabelsEnvVar.trim().isEmpty()) {
+            try {
+                operatorNamespaceLabels = Labels.fromString(operatorNamespaceLabelsEnvVar);
+            } catch (IllegalArgumentException e) {
+                throw new InvalidConfigurationException(ClusterOperatorConfig.STRIMZI_OPERATOR_NAMESPACE_LABELS
+                        + " is not a valid list of labels: " + e.getMessage());
+            }
+        }
+
+        return operatorNamespaceLabels;
+    }
+
+    private static double parseKubernetesApiQps(String kubernetesApiQpsEnvVar) {
+        double kubernetesApiQps = ApiRateLimiter.DEFAULT_QPS;
+
+        if (kubernetesApiQpsEnvVar != null) {
+            kubernetesApiQps = Double.parseDouble(kubernetesApiQpsEnvVar.trim());
+            if (kubernetesApiQps < 0) {
+                throw new InvalidConfigurationException(STRIMZI_KUBERNETES_API_QPS + " must not be negative");
+            }
+        }
+
+        return kubernetesApiQps;
+    }
+
+    private static int parseMaxConcurrentReconciliations(String maxConcurrentReconciliationsEnvVar) {
+        int maxConcurrentReconciliations = DEFAULT_MAX_CONCURRENT_RECONCILIATIONS;
+
+        if (maxConcurrentReconciliationsEnvVar != null) {
+            maxConcurrentReconciliations = Integer.parseInt(maxConcurrentReconciliationsEnvVar.trim());
+            if (maxConcurrentReconciliations <= 0) {
+                throw new InvalidConfigurationException(ClusterOperatorConfig.STRIMZI_MAX_CONCURRENT_RECONCILIATIONS
+                        + " must be a positive number");
+            }
+        }
+
+        return maxConcurrentReconciliations;
+    }
+
+    private static int parseMaxSkippedReconciliations(String maxSkippedReconciliationsEnvVar) {
+        int maxSkippedReconciliations = DEFAULT_MAX_SKIPPED_RECONCILIATIONS;
+
+        if (maxSkippedReconciliationsEnvVar != null) {
+            maxSkippedReconciliations = Integer.parseInt(maxSkippedReconciliationsEnvVar.trim());
+            if (maxSkippedReconciliations < 0) {
+                throw new InvalidConfigurationException(ClusterOperatorConfig.STRIMZI_MAX_SKIPPED_RECONCILIATIONS
+                        + " must not be negative");
+            }
+        }
+
+        return maxSkippedReconciliations;
+    }
+
+    private static int parsePoolSize(Map<String, String> map, String envVar, int defaultSize) {
+        int poolSize = defaultSize;
+        String poolSizeEnvVar = map.get(envVar);
+
+        if (poolSizeEnvVar != null) {
+            poolSize = Integer.parseInt(poolSizeEnvVar.trim());
+            if (poolSize <= 0) {
+                throw new InvalidConfigurationException(envVar + " must be a positive number");
+            }
+        }
+
+        return poolSize;
+    }
+
+    private static ShardingConfig parseSharding(Map<String, String> map) {
+        if (!Boolean.parseBoolean(map.get(STRIMZI_LEADER_ELECTION_ENABLED))) {
+            return null;
+        }
+
+        String leaseNamespace = map.get(STRIMZI_LEADER_ELECTION_LEASE_NAMESPACE);
+        if (leaseNamespace == null || leaseNamespace.trim().isEmpty()) {
+            throw new InvalidConfigurationException(STRIMZI_LEADER_ELECTION_LEASE_NAMESPACE
+                    + " is required when " + STRIMZI_LEADER_ELECTION_ENABLED + " is true");
+        }
+        String identity = map.get(STRIMZI_LEADER_ELECTION_IDENTITY);
+        if (identity == null || identity.trim().isEmpty()) {
+            throw new InvalidConfigurationException(STRIMZI_LEADER_ELECTION_IDENTITY
+                    + " is required when " + STRIMZI_LEADER_ELECTION_ENABLED + " is true");
+        }
+        String leaseName = map.getOrDefault(STRIMZI_LEADER_ELECTION_LEASE_NAME, ShardingConfig.DEFAULT_LEASE_NAME);
+        long leaseDurationMs = parseDuration(map, STRIMZI_LEADER_ELECTION_LEASE_DURATION_MS, ShardingConfig.DEFAULT_LEASE_DURATION_MS);
+        long renewDeadlineMs = parseDuration(map, STRIMZI_LEADER_ELECTION_RENEW_DEADLINE_MS, ShardingConfig.DEFAULT_RENEW_DEADLINE_MS);
+        long retryPeriodMs = parseDuration(map, STRIMZI_LEADER_ELECTION_RETRY_PERIOD_MS, ShardingConfig.DEFAULT_RETRY_PERIOD_MS);
+        if (renewDeadlineMs >= leaseDurationMs) {
+            throw new InvalidConfigurationException(STRIMZI_LEADER_ELECTION_RENEW_DEADLINE_MS
+                    + " must be less than " + STRIMZI_LEADER_ELECTION_LEASE_DURATION_MS);
+        }
+        if (retryPeriodMs >= renewDeadlineMs) {
+            throw new InvalidConfigurationException(STRIMZI_LEADER_ELECTION_RETRY_PERIOD_MS
+                    + " must be less than " + STRIMZI_LEADER_ELECTION_RENEW_DEADLINE_MS);
+        }
+
+        return new ShardingConfig(leaseName.trim(), leaseNamespace.trim(), identity.trim(), leaseDurationMs, renewDeadlineMs, retryPeriodMs);
+    }
+
+    private static long parseDuration(Map<String, String> map, String envVar, long defaultDuration) {
+        long duration = defaultDuration;
+        String durationEnvVar = map.get(envVar);
+
+        if (durationEnvVar != null) {
+            duration = Long.parseLong(durationEnvVar.trim());
+            if (duration <= 0) {
+                throw new InvalidConfigurationException(envVar + " must be a positive number");
+            }
+        }
+
+        return duration;
+    }
+
     private static ImagePullPolicy parseImagePullPolicy(String imagePullPolicyEnvVar) {
         ImagePullPolicy imagePullPolicy = null;
 
@@ -253,6 +531,108 @@ public class ClusterOperatorConfig {
         return imagePullSecrets;
     }
 
+    /**
+     * @return  Indicates whether the resources managed by the operator should be read from watch-fed caches
+     */
+    public boolean isResourceCacheEnabled() {
+        return resourceCacheEnabled;
+    }
+
+    /**
+     * @return  The maximum number of reconciliations of each kind running at the same time
+     */
+    public int getMaxConcurrentReconciliations() {
+        return maxConcurrentReconciliations;
+    }
+
+    /**
+     * @return  The maximum number of consecutive reconciliations of an unchanged Kafka resource which only verify its state,
+     * or 0 if it is always fully reconciled
+     */
+    public int getMaxSkippedReconciliations() {
+        return maxSkippedReconciliations;
+    }
+
+    /**
+     * @return  The sizes of the worker pools in which blocking operations run
+     */
+    public WorkerPools getWorkerPools() {
+        return workerPools;
+    }
+
+    /**
+     * @return  Whether the resources of all the namespaces are watched and listed at once, rather than those of each
+     * namespace separately
+     */
+    public boolean isClusterWideWatch() {
+        return clusterWideWatch;
+    }
+
+    /**
+     * @return The configuration of the sharding of the assemblies between the replicas of the operator,
+     * or null if a single replica reconciles them all
+     */
+    public ShardingConfig getSharding() {
+        return sharding;
+    }
+
+    /**
+     * @return  Whether the requests of the operations which support it are sent to the Kubernetes API server from the
+     * event loop, rather than from the worker pools
+     */
+    public boolean isNonBlockingApiClient() {
+        return nonBlockingApiClient;
+    }
+
+    /**
+     * @return  The number of requests per second sent to the Kubernetes API server, or 0 if they are not limited
+     */
+    public double getKubernetesApiQps() {
+        return kubernetesApiQps;
+    }
+
+    /**
+     * @return  The number of requests which can be sent to the Kubernetes API server at once above the rate
+     */
+    public int getKubernetesApiBurst() {
+        return kubernetesApiBurst;
+    }
+
+    /**
+     * @return  true if changes of dynamic broker configuration options are applied to the running brokers
+     */
+    public boolean isDynamicBrokerConfiguration() {
+        return dynamicBrokerConfiguration;
+    }
+
+    /**
+     * @return  the maximum number of brokers of the same rack restarted at once by rolling updates
+     */
+    public int getRackRollingUpdateConcurrency() {
+        return rackRollingUpdateConcurrency;
+    }
+
+    /**
+     * @return  true if rolling updates wait for the partitions to tolerate the restart of each broker
+     */
+    public boolean isPartitionAwareRollingUpdate() {
+        return partitionAwareRollingUpdate;
+    }
+
+    /**
+     * @return  The namespace in which the operator runs, or null if it is not known
+     */
+    public String getOperatorNamespace() {
+        return operatorNamespace;
+    }
+
+    /**
+     * @return  The labels of the namespace in which the operator runs, or null if they are not known
+     */
+    public Labels getOperatorNamespaceLabels() {
+        return operatorNamespaceLabels;
+    }
+
     @Override
     public String toString() {
         return "ClusterOperatorConfig(" +
@@ -263,6 +643,209 @@ public class ClusterOperatorConfig {
                 ",versions=" + versions +
                 ",imagePullPolicy=" + imagePullPolicy +
                 ",imagePullSecrets=" + imagePullSecrets +
+                ",resourceCacheEnabled=" + resourceCacheEnabled +
+                ",maxConcurrentReconciliations=" + maxConcurrentReconciliations +
+                ",maxSkippedReconciliations=" + maxSkippedReconciliations +
+                ",workerPools=" + workerPools +
+                ",clusterWideWatch=" + clusterWideWatch +
+                ",sharding=" + sharding +
+                ",nonBlockingApiClient=" + nonBlockingApiClient +
+                ",kubernetesApiQps=" + kubernetesApiQps +
+                ",kubernetesApiBurst=" + kubernetesApiBurst +
+                ",dynamicBrokerConfiguration=" + dynamicBrokerConfiguration +
+                ",rackRollingUpdateConcurrency=" + rackRollingUpdateConcurrency +
+                ",partitionAwareRollingUpdate=" + partitionAwareRollingUpdate +
+                ",operatorNamespace=" + operatorNamespace +
+                ",operatorNamespaceLabels=" + operatorNamespaceLabels +
                 ")";
     }
+
+    /**
+     * Builds a Cluster Operator configuration. The options which are not set keep their default values.
+     */
+    public static class Builder {
+        private final Set<String> namespaces;
+        private final long reconciliationIntervalMs;
+        private final long operationTimeoutMs;
+        private final boolean createClusterRoles;
+        private final KafkaVersion.Lookup versions;
+        private ImagePullPolicy imagePullPolicy;
+        private List<LocalObjectReference> imagePullSecrets;
+        private boolean resourceCacheEnabled = DEFAULT_RESOURCE_CACHE_ENABLED;
+        private int maxConcurrentReconciliations = DEFAULT_MAX_CONCURRENT_RECONCILIATIONS;
+        private int maxSkippedReconciliations = DEFAULT_MAX_SKIPPED_RECONCILIATIONS;
+        private WorkerPools workerPools = new WorkerPools();
+        private boolean clusterWideWatch = DEFAULT_CLUSTER_WIDE_WATCH;
+        private ShardingConfig sharding;
+        private boolean nonBlockingApiClient = DEFAULT_NON_BLOCKING_API_CLIENT;
+        private double kubernetesApiQps = ApiRateLimiter.DEFAULT_QPS;
+        private int kubernetesApiBurst = ApiRateLimiter.DEFAULT_BURST;
+        private boolean dynamicBrokerConfiguration = DEFAULT_DYNAMIC_BROKER_CONFIGURATION;
+        private int rackRollingUpdateConcurrency = DEFAULT_RACK_ROLLING_UPDATE_CONCURRENCY;
+        private boolean partitionAwareRollingUpdate = DEFAULT_PARTITION_AWARE_ROLLING_UPDATE;
+        private String operatorNamespace;
+        private Labels operatorNamespaceLabels;
+
+        /**
+         * Constructor
+         *
+         * @param namespaces namespace in which the operator will run and create resources
+         * @param reconciliationIntervalMs    specify every how many milliseconds the reconciliation runs
+         * @param operationTimeoutMs    timeout for internal operations specified in milliseconds
+         * @param createClusterRoles true to create the cluster roles
+         * @param versions The configured Kafka versions
+         */
+        public Builder(Set<String> namespaces, long reconciliationIntervalMs, long operationTimeoutMs, boolean createClusterRoles, KafkaVersion.Lookup versions) {
+            this.namespaces = namespaces;
+            this.reconciliationIntervalMs = reconciliationIntervalMs;
+            this.operationTimeoutMs = operationTimeoutMs;
+            this.createClusterRoles = createClusterRoles;
+            this.versions = versions;
+        }
+
+        /**
+         * @param imagePullPolicy Image pull policy configured by the user
+         * @return This builder
+         */
+        public Builder withImagePullPolicy(ImagePullPolicy imagePullPolicy) {
+            this.imagePullPolicy = imagePullPolicy;
+            return this;
+        }
+
+        /**
+         * @param imagePullSecrets Set of secrets for pulling container images from secured repositories
+         * @return This builder
+         */
+        public Builder withImagePullSecrets(List<LocalObjectReference> imagePullSecrets) {
+            this.imagePullSecrets = imagePullSecrets;
+            return this;
+        }
+
+        /**
+         * @param resourceCacheEnabled true to read the resources managed by the operator from watch-fed caches
+         * @return This builder
+         */
+        public Builder withResourceCacheEnabled(boolean resourceCacheEnabled) {
+            this.resourceCacheEnabled = resourceCacheEnabled;
+            return this;
+        }
+
+        /**
+         * @param maxConcurrentReconciliations the maximum number of reconciliations of each kind running at the same time
+         * @return This builder
+         */
+        public Builder withMaxConcurrentReconciliations(int maxConcurrentReconciliations) {
+            this.maxConcurrentReconciliations = maxConcurrentReconciliations;
+            return this;
+        }
+
+        /**
+         * @param maxSkippedReconciliations the maximum number of consecutive reconciliations of an unchanged Kafka resource
+         *                                  which only verify its state, or 0 to always fully reconcile it
+         * @return This builder
+         */
+        public Builder withMaxSkippedReconciliations(int maxSkippedReconciliations) {
+            this.maxSkippedReconciliations = maxSkippedReconciliations;
+            return this;
+        }
+
+        /**
+         * @param workerPools the sizes of the worker pools in which blocking operations run
+         * @return This builder
+         */
+        public Builder withWorkerPools(WorkerPools workerPools) {
+            this.workerPools = workerPools;
+            return this;
+        }
+
+        /**
+         * @param clusterWideWatch true to watch and list the resources of all the namespaces at once, and handle only those
+         *                         of the given namespaces, rather than to watch and list each namespace separately
+         * @return This builder
+         */
+        public Builder withClusterWideWatch(boolean clusterWideWatch) {
+            this.clusterWideWatch = clusterWideWatch;
+            return this;
+        }
+
+        /**
+         * @param sharding the configuration of the sharding of the assemblies between the replicas of the operator,
+         *                 or null if a single replica reconciles them all
+         * @return This builder
+         */
+        public Builder withSharding(ShardingConfig sharding) {
+            this.sharding = sharding;
+            return this;
+        }
+
+        /**
+         * @param nonBlockingApiClient true to send the requests of the operations which support it to the Kubernetes API
+         *                             server from the event loop, rather than from the worker pools
+         * @return This builder
+         */
+        public Builder withNonBlockingApiClient(boolean nonBlockingApiClient) {
+            this.nonBlockingApiClient = nonBlockingApiClient;
+            return this;
+        }
+
+        /**
+         * @param kubernetesApiQps the number of requests per second sent to the Kubernetes API server, or 0 for no limit
+         * @param kubernetesApiBurst the number of requests which can be sent to the Kubernetes API server at once above the rate
+         * @return This builder
+         */
+        public Builder withKubernetesApiRateLimit(double kubernetesApiQps, int kubernetesApiBurst) {
+            this.kubernetesApiQps = kubernetesApiQps;
+            this.kubernetesApiBurst = kubernetesApiBurst;
+            return this;
+        }
+
+        /**
+         * @param dynamicBrokerConfiguration true to apply changes of dynamic broker configuration options to the running
+         *                                   brokers through the Kafka Admin API, rather than by rolling the brokers
+         * @return This builder
+         */
+        public Builder withDynamicBrokerConfiguration(boolean dynamicBrokerConfiguration) {
+            this.dynamicBrokerConfiguration = dynamicBrokerConfiguration;
+            return this;
+        }
+
+        /**
+         * @param rackRollingUpdateConcurrency the maximum number of brokers of the same rack restarted at once by the rolling
+         *                                     updates of Kafka clusters with rack awareness, or 1 to restart one broker at a time
+         * @return This builder
+         */
+        public Builder withRackRollingUpdateConcurrency(int rackRollingUpdateConcurrency) {
+            this.rackRollingUpdateConcurrency = rackRollingUpdateConcurrency;
+            return this;
+        }
+
+        /**
+         * @param partitionAwareRollingUpdate true to restart each broker during rolling updates only once, according to the
+         *                                    Kafka Admin API, no partition is under-replicated and none would drop below
+         *                                    its minimum number of in-sync replicas
+         * @return This builder
+         */
+        public Builder withPartitionAwareRollingUpdate(boolean partitionAwareRollingUpdate) {
+            this.partitionAwareRollingUpdate = partitionAwareRollingUpdate;
+            return this;
+        }
+
+        /**
+         * @param operatorNamespace the namespace in which the operator runs, or null if it is not known
+         * @param operatorNamespaceLabels the labels of the namespace in which the operator runs, or null if they are not known
+         * @return This builder
+         */
+        public Builder withOperatorNamespace(String operatorNamespace, Labels operatorNamespaceLabels) {
+            this.operatorNamespace = operatorNamespace;
+            this.operatorNamespaceLabels = operatorNamespaceLabels;
+            return this;
+        }
+
+        /**
+         * @return The Cluster Operator configuration
+         */
+        public ClusterOperatorConfig build() {
+            return new ClusterOperatorConfig(this);
+        }
+    }
 }
@@ -17,10 +17,16 @@ import io.strimzi.operator.cluster.operator.assembly.KafkaConnectAssemblyOperato
 import io.strimzi.operator.cluster.operator.assembly.KafkaConnectS2IAssemblyOperator;
 import io.strimzi.operator.cluster.operator.assembly.KafkaMirrorMakerAssemblyOperator;
 import io.strimzi.operator.cluster.operator.resource.ResourceOperatorSupplier;
+import io.strimzi.operator.cluster.sharding.ShardCoordinator;
+import io.strimzi.operator.common.ApiRateLimiter;
+import io.strimzi.operator.common.MetricsProvider;
+import io.strimzi.operator.common.operator.resource.AbstractWatchableResourceOperator;
+import io.strimzi.operator.common.operator.resource.AsyncApiClient;
 import io.strimzi.operator.common.operator.resource.ClusterRoleOperator;
 import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -29,9 +35,11 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @SuppressFBWarnings("DM_EXIT")
@@ -49,7 +57,7 @@ public class Main {
     public static void main(String[] args) {
         log.info("ClusterOperator {} is starting", Main.class.getPackage().getImplementationVersion());
         ClusterOperatorConfig config = ClusterOperatorConfig.fromMap(System.getenv());
-        Vertx vertx = Vertx.vertx();
+        Vertx vertx = Vertx.vertx(new VertxOptions().setMetricsOptions(MetricsProvider.vertxMetricsOptions()));
         KubernetesClient client = new DefaultKubernetesClient();
 
         maybeCreateClusterRoles(vertx, config, client).setHandler(crs -> {
@@ -79,7 +87,14 @@ public class Main {
     static CompositeFuture run(Vertx vertx, KubernetesClient client, PlatformFeaturesAvailability pfa, ClusterOperatorConfig config) {
         printEnvInfo();
 
+        // The worker pools are sized when they are first created, so this must happen before they are used
+        config.getWorkerPools().create(vertx);
+        ApiRateLimiter.setInstance(new ApiRateLimiter(vertx, config.getKubernetesApiQps(), config.getKubernetesApiBurst()));
+
         ResourceOperatorSupplier resourceOperatorSupplier = new ResourceOperatorSupplier(vertx, client, pfa, config.getOperationTimeoutMs());
+        if (config.isNonBlockingApiClient()) {
+            resourceOperatorSupplier.useAsyncClient(new AsyncApiClient(vertx, client.getConfiguration(), AsyncApiClient.DEFAULT_MAX_POOL_SIZE));
+        }
 
         OpenSslCertManager certManager = new OpenSslCertManager();
         KafkaAssemblyOperator kafkaClusterOperations = new KafkaAssemblyOperator(vertx, pfa,
@@ -100,28 +115,84 @@ public class Main {
         KafkaBridgeAssemblyOperator kafkaBridgeAssemblyOperator =
                 new KafkaBridgeAssemblyOperator(vertx, pfa, certManager, resourceOperatorSupplier, config);
 
+        ShardCoordinator shards = null;
+        if (config.getSharding() != null) {
+            shards = new ShardCoordinator(vertx, client, config.getSharding());
+            kafkaClusterOperations.setShardCoordinator(shards);
+            kafkaConnectClusterOperations.setShardCoordinator(shards);
+            if (kafkaConnectS2IClusterOperations != null) {
+                kafkaConnectS2IClusterOperations.setShardCoordinator(shards);
+            }
+            kafkaMirrorMakerAssemblyOperator.setShardCoordinator(shards);
+            kafkaBridgeAssemblyOperator.setShardCoordinator(shards);
+        }
+
+        // Either a verticle per namespace, or a single verticle which watches all namespaces
+        // and reconciles only the resources of the configured ones
+        Map<String, Set<String>> verticles = new HashMap<>();
+        Set<String> namespaces = config.getNamespaces();
+        if (config.isClusterWideWatch() && namespaces.size() > 1 && !namespaces.contains(AbstractWatchableResourceOperator.ANY_NAMESPACE)) {
+            log.info("Using a cluster-wide watch for namespaces {}", namespaces);
+            verticles.put(AbstractWatchableResourceOperator.ANY_NAMESPACE, namespaces);
+        } else {
+            for (String namespace : namespaces) {
+                verticles.put(namespace, null);
+            }
+        }
+
         List<Future> futures = new ArrayList<>();
-        for (String namespace : config.getNamespaces()) {
+        for (Map.Entry<String, Set<String>> verticle : verticles.entrySet()) {
+            String namespace = verticle.getKey();
             Future<String> fut = Future.future();
             futures.add(fut);
+            Future<Void> caches;
+            if (config.isResourceCacheEnabled()) {
+                // A cluster-wide verticle still caches only the resources of the configured namespaces
+                Set<String> cachedNamespaces = verticle.getValue() != null ? verticle.getValue() : Collections.singleton(namespace);
+                List<Future> cacheFutures = new ArrayList<>();
+                for (String cachedNamespace : cachedNamespaces) {
+                    log.info("Enabling resource caches in namespace {}", cachedNamespace);
+                    cacheFutures.add(resourceOperatorSupplier.enableCaches(cachedNamespace));
+                }
+                caches = CompositeFuture.join(cacheFutures).map((Void) null);
+            } else {
+                caches = Future.succeededFuture();
+            }
             ClusterOperator operator = new ClusterOperator(namespace,
+                    verticle.getValue(),
                     config.getReconciliationIntervalMs(),
                     client,
                     kafkaClusterOperations,
                     kafkaConnectClusterOperations,
                     kafkaConnectS2IClusterOperations,
                     kafkaMirrorMakerAssemblyOperator,
-                    kafkaBridgeAssemblyOperator);
-            vertx.deployVerticle(operator,
-                res -> {
-                    if (res.succeeded()) {
-                        log.info("Cluster Operator verticle started in namespace {}", namespace);
-                    } else {
-                        log.error("Cluster Operator verticle in namespace {} failed to start", namespace, res.cause());
-                        System.exit(1);
-                    }
-                    fut.handle(res);
-                });
+                    kafkaBridgeAssemblyOperator,
+                    shards);
+            caches.setHandler(cachesResult -> {
+                if (cachesResult.failed()) {
+                    log.error("Failed to enable resource caches in namespace {}", namespace, cachesResult.cause());
+                    System.exit(1);
+                }
+                vertx.deployVerticle(operator,
+                    res -> {
+                        if (res.succeeded()) {
+                            log.info("Cluster Operator verticle started in namespace {}", namespace);
+                        } else {
+                            log.error("Cluster Operator verticle in namespace {} failed to start", namespace, res.cause());
+                            System.exit(1);
+                        }
+                        fut.handle(res);
+                    });
+            });
+        }
+
+        if (shards != null) {
+            // Until it has joined the members this replica reconciles nothing, so join only once the verticles
+            // are listening for the handover of the assemblies
+            ShardCoordinator coordinator = shards;
+            Future<Void> sharding = Future.future();
+            CompositeFuture.join(new ArrayList<>(futures)).setHandler(res -> coordinator.start().setHandler(sharding));
+            futures.add(sharding);
         }
         return CompositeFuture.join(futures);
     }
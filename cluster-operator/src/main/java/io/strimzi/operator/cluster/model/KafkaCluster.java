@@ -131,6 +131,10 @@ public class KafkaCluster extends AbstractModel {
     protected static final String ENV_VAR_KAFKA_EXTERNAL_TLS = "KAFKA_EXTERNAL_TLS";
     private static final String ENV_VAR_KAFKA_AUTHORIZATION_TYPE = "KAFKA_AUTHORIZATION_TYPE";
     private static final String ENV_VAR_KAFKA_AUTHORIZATION_SUPER_USERS = "KAFKA_AUTHORIZATION_SUPER_USERS";
+    /**
+     * {@code TRUE} when the cluster operator connects to the brokers through the Admin API
+     */
+    protected static final String ENV_VAR_KAFKA_CLUSTER_OPERATOR_ACCESS = "KAFKA_CLUSTER_OPERATOR_ACCESS";
     public static final String ENV_VAR_KAFKA_ZOOKEEPER_CONNECT = "KAFKA_ZOOKEEPER_CONNECT";
     private static final String ENV_VAR_KAFKA_METRICS_ENABLED = "KAFKA_METRICS_ENABLED";
     public static final String ENV_VAR_KAFKA_LOG_DIRS = "KAFKA_LOG_DIRS";
@@ -148,7 +152,7 @@ public class KafkaCluster extends AbstractModel {
     protected static final int CLIENT_PORT = 9092;
     protected static final String CLIENT_PORT_NAME = "clients";
 
-    protected static final int REPLICATION_PORT = 9091;
+    public static final int REPLICATION_PORT = 9091;
     protected static final String REPLICATION_PORT_NAME = "replication";
 
     protected static final int CLIENT_TLS_PORT = 9093;
@@ -198,6 +202,9 @@ public class KafkaCluster extends AbstractModel {
     private KafkaListeners listeners;
     private KafkaAuthorization authorization;
     private Set<String> externalAddresses = new HashSet<>();
+    private boolean clusterOperatorAccess;
+    private String clusterOperatorNamespace;
+    private Labels clusterOperatorNamespaceLabels;
     private KafkaVersion kafkaVersion;
 
     // Templates
@@ -1495,6 +1502,10 @@ public class KafkaCluster extends AbstractModel {
             }
         }
 
+        if (clusterOperatorAccess) {
+            varList.add(buildEnvVar(ENV_VAR_KAFKA_CLUSTER_OPERATOR_ACCESS, "true"));
+        }
+
         String logDirs = dataVolumeMountPaths.stream()
                 .map(volumeMount -> volumeMount.getMountPath()).collect(Collectors.joining(","));
         varList.add(buildEnvVar(ENV_VAR_KAFKA_LOG_DIRS, logDirs));
@@ -1545,6 +1556,13 @@ public class KafkaCluster extends AbstractModel {
         this.rack = rack;
     }
 
+    /**
+     * @return The rack configuration of the brokers, or null if rack awareness is not enabled.
+     */
+    public Rack getRack() {
+        return rack;
+    }
+
     protected void setInitImage(String initImage) {
         this.initImage = initImage;
     }
@@ -1653,9 +1671,37 @@ public class KafkaCluster extends AbstractModel {
         labelSelector3.setMatchLabels(expressions3);
         kafkaExporterPeer.setPodSelector(labelSelector3);
 
+        List<NetworkPolicyPeer> replicationPeers = new ArrayList<>(4);
+        replicationPeers.add(kafkaClusterPeer);
+        replicationPeers.add(entityOperatorPeer);
+        replicationPeers.add(kafkaExporterPeer);
+
+        if (clusterOperatorAccess) {
+            // The cluster operator connects to the brokers through the Admin API
+            boolean sameNamespace = namespace.equals(clusterOperatorNamespace);
+            if (sameNamespace || clusterOperatorNamespaceLabels != null) {
+                NetworkPolicyPeer clusterOperatorPeer = new NetworkPolicyPeer();
+                LabelSelector labelSelector4 = new LabelSelector();
+                Map<String, String> expressions4 = new HashMap<>();
+                expressions4.put(Labels.STRIMZI_KIND_LABEL, "cluster-operator");
+                labelSelector4.setMatchLabels(expressions4);
+                clusterOperatorPeer.setPodSelector(labelSelector4);
+                if (!sameNamespace) {
+                    // Without a namespace selector only the pods of the namespace of the Kafka cluster are selected
+                    LabelSelector namespaceSelector = new LabelSelector();
+                    namespaceSelector.setMatchLabels(clusterOperatorNamespaceLabels.toMap());
+                    clusterOperatorPeer.setNamespaceSelector(namespaceSelector);
+                }
+                replicationPeers.add(clusterOperatorPeer);
+            } else {
+                log.warn("Kafka {}/{}: the labels of the namespace of the cluster operator are not known, so the network policy does not allow it to connect to the replication listener",
+                        namespace, cluster);
+            }
+        }
+
         NetworkPolicyIngressRule replicationRule = new NetworkPolicyIngressRuleBuilder()
                 .withPorts(replicationPort)
-                .withFrom(kafkaClusterPeer, entityOperatorPeer, kafkaExporterPeer)
+                .withFrom(replicationPeers)
                 .build();
 
         rules.add(replicationRule);
@@ -1771,6 +1817,29 @@ public class KafkaCluster extends AbstractModel {
         this.externalAddresses = externalAddresses;
     }
 
+    /**
+     * Sets whether the cluster operator connects to the brokers through the Admin API, in which case it is allowed
+     * to connect to the replication listener and is one of the super users.
+     *
+     * @param clusterOperatorAccess Whether the cluster operator connects to the brokers.
+     */
+    public void setClusterOperatorAccess(boolean clusterOperatorAccess) {
+        this.clusterOperatorAccess = clusterOperatorAccess;
+    }
+
+    /**
+     * Sets the namespace of the cluster operator, from which it connects to the replication listener. When it is not
+     * the namespace of the Kafka cluster, the pods of the namespaces with the given labels are allowed to connect,
+     * and none when the labels are not known.
+     *
+     * @param clusterOperatorNamespace The namespace of the cluster operator, or null if it is not known.
+     * @param clusterOperatorNamespaceLabels The labels of the namespace of the cluster operator, or null if they are not known.
+     */
+    public void setClusterOperatorNamespace(String clusterOperatorNamespace, Labels clusterOperatorNamespaceLabels) {
+        this.clusterOperatorNamespace = clusterOperatorNamespace;
+        this.clusterOperatorNamespaceLabels = clusterOperatorNamespaceLabels;
+    }
+
     /**
      * Returns true when the Kafka cluster is exposed to the outside of OpenShift / Kubernetes.
      *
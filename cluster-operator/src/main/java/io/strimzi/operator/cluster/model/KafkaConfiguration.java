@@ -17,8 +17,10 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import static java.util.Arrays.asList;
@@ -34,6 +36,11 @@ public class KafkaConfiguration extends AbstractConfiguration {
     private static final List<String> FORBIDDEN_OPTIONS;
     private static final List<String> EXCEPTIONS;
 
+    /**
+     * The config models which have been read, keyed by Kafka version.
+     */
+    private static final Map<String, Map<String, ConfigModel>> CONFIG_MODELS = new ConcurrentHashMap<>();
+
     static {
         FORBIDDEN_OPTIONS = asList(KafkaClusterSpec.FORBIDDEN_PREFIXES.split(", "));
         EXCEPTIONS = asList(KafkaClusterSpec.FORBIDDEN_PREFIX_EXCEPTIONS.split(", "));
@@ -63,6 +70,15 @@ public class KafkaConfiguration extends AbstractConfiguration {
         return new KafkaConfiguration(string, emptyList());
     }
 
+    /**
+     * @param option The name of an option.
+     * @return true if the option cannot be set by the user, because it is configured by the operator.
+     */
+    public static boolean isForbidden(String option) {
+        String lowerCase = option.toLowerCase(Locale.ENGLISH);
+        return !EXCEPTIONS.contains(option) && FORBIDDEN_OPTIONS.stream().anyMatch(lowerCase::startsWith);
+    }
+
     /**
      * Validate the configs in this KafkaConfiguration returning a list of errors.
      * @param kafkaVersion The broker version.
@@ -84,7 +100,17 @@ public class KafkaConfiguration extends AbstractConfiguration {
         return errors;
     }
 
-    private Map<String, ConfigModel> readConfigModel(KafkaVersion kafkaVersion) {
+    /**
+     * Returns the model of the broker configuration of the given Kafka version.
+     * The model of each version is only read from the classpath once, and shared afterwards.
+     * @param kafkaVersion The broker version.
+     * @return The unmodifiable models of the configuration options, keyed by option name.
+     */
+    static Map<String, ConfigModel> readConfigModel(KafkaVersion kafkaVersion) {
+        return CONFIG_MODELS.computeIfAbsent(kafkaVersion.version(), version -> loadConfigModel(kafkaVersion));
+    }
+
+    private static Map<String, ConfigModel> loadConfigModel(KafkaVersion kafkaVersion) {
         String name = "/kafka-" + kafkaVersion.version() + "-config-model.json";
         try {
             try (InputStream in = KafkaConfiguration.class.getResourceAsStream(name)) {
@@ -92,7 +118,7 @@ public class KafkaConfiguration extends AbstractConfiguration {
                 if (!kafkaVersion.version().equals(configModels.getVersion())) {
                     throw new RuntimeException("Incorrect version");
                 }
-                return configModels.getConfigs();
+                return Collections.unmodifiableMap(configModels.getConfigs());
             }
         } catch (IOException e) {
             throw new RuntimeException("Error reading from classpath resource " + name, e);
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.model;
+
+import io.strimzi.kafka.config.model.ConfigModel;
+import io.strimzi.kafka.config.model.Scope;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * <p>The difference between two versions of the broker configuration passed by the user
+ * (the {@code KAFKA_CONFIGURATION} of the brokers), classified by the {@link Scope} of the changed options
+ * in the config model of the Kafka version.</p>
+ *
+ * <p>When all the changed options are {@linkplain Scope#CLUSTER_WIDE cluster-wide} or
+ * {@linkplain Scope#PER_BROKER per-broker} options, the change {@linkplain #canBeUpdatedDynamically() can be
+ * applied} to the running brokers through the Admin API. A change to a {@linkplain Scope#READ_ONLY read-only}
+ * option or to an option which is not in the config model (such as an option of a plugin) needs the brokers
+ * to be restarted.</p>
+ *
+ * <p>Removing an option also needs the brokers to be restarted, even if it is dynamic: deleting its dynamic value
+ * would make the running brokers fall back to their static configuration, which still has the removed option.</p>
+ */
+public class KafkaConfigurationDiff {
+
+    private static final Logger log = LogManager.getLogger(KafkaConfigurationDiff.class.getName());
+
+    private final Map<String, ConfigModel> models;
+    private final Map<String, String> desiredOptions;
+    private final Map<String, String> clusterWideUpdates = new HashMap<>();
+    private final Map<String, String> perBrokerUpdates = new HashMap<>();
+    private final Set<String> changedOptions = new TreeSet<>();
+    private final boolean canBeUpdatedDynamically;
+
+    /**
+     * Constructor
+     * @param current The current configuration, or null if there is none.
+     * @param desired The desired configuration, or null if there is none.
+     * @param kafkaVersion The broker version.
+     */
+    public KafkaConfigurationDiff(String current, String desired, KafkaVersion kafkaVersion) {
+        Map<String, String> currentOptions = options(current);
+        this.desiredOptions = options(desired);
+        this.models = KafkaConfiguration.readConfigModel(kafkaVersion);
+
+        Set<String> keys = new HashSet<>(currentOptions.keySet());
+        keys.addAll(desiredOptions.keySet());
+
+        boolean dynamic = true;
+        for (String key : keys) {
+            String desiredValue = desiredOptions.get(key);
+            if (Objects.equals(currentOptions.get(key), desiredValue)) {
+                continue;
+            }
+            changedOptions.add(key);
+            Scope scope = scope(key);
+            if (desiredValue == null) {
+                log.debug("Option {} was removed, it cannot be removed without restarting the brokers", key);
+                dynamic = false;
+            } else if (scope == Scope.CLUSTER_WIDE) {
+                clusterWideUpdates.put(key, desiredValue);
+            } else if (scope == Scope.PER_BROKER) {
+                perBrokerUpdates.put(key, desiredValue);
+            } else {
+                ConfigModel model = models.get(key);
+                log.debug("Option {} is {}, it cannot be changed without restarting the brokers", key,
+                        model != null ? "read-only" : "not a known broker option");
+                dynamic = false;
+            }
+        }
+        this.canBeUpdatedDynamically = dynamic;
+    }
+
+    private static Map<String, String> options(String configuration) {
+        if (configuration == null || configuration.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return KafkaConfiguration.unvalidated(configuration).asOrderedProperties().asMap();
+    }
+
+    /**
+     * @param option The name of an option.
+     * @return The scope of the option in the config model of the Kafka version, or null if it is not in the model.
+     */
+    public Scope scope(String option) {
+        ConfigModel model = models.get(option);
+        return model != null ? model.getScope() : null;
+    }
+
+    /**
+     * @return True if the configurations are the same.
+     */
+    public boolean isEmpty() {
+        return changedOptions.isEmpty();
+    }
+
+    /**
+     * @return True if all the changed options can be changed without restarting the brokers.
+     */
+    public boolean canBeUpdatedDynamically() {
+        return canBeUpdatedDynamically;
+    }
+
+    /**
+     * @return The names of the changed options, in alphabetical order.
+     */
+    public Set<String> changedOptions() {
+        return Collections.unmodifiableSet(changedOptions);
+    }
+
+    /**
+     * @return The cluster-wide options which were added or changed, with their desired values.
+     */
+    public Map<String, String> clusterWideUpdates() {
+        return Collections.unmodifiableMap(clusterWideUpdates);
+    }
+
+    /**
+     * @return The per-broker options which were added or changed, with their desired values.
+     */
+    public Map<String, String> perBrokerUpdates() {
+        return Collections.unmodifiableMap(perBrokerUpdates);
+    }
+
+    /**
+     * @return The desired configuration.
+     */
+    public Map<String, String> desiredOptions() {
+        return Collections.unmodifiableMap(desiredOptions);
+    }
+
+    @Override
+    public String toString() {
+        return "KafkaConfigurationDiff(changedOptions=" + changedOptions + ", canBeUpdatedDynamically=" + canBeUpdatedDynamically + ")";
+    }
+}
@@ -5,22 +5,16 @@
 package io.strimzi.operator.cluster.model;
 
 import io.strimzi.operator.cluster.InvalidConfigParameterException;
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.Reader;
-import java.io.StringReader;
-import java.io.StringWriter;
-import java.io.Writer;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.function.Predicate;
-import java.util.regex.Pattern;
 
 /**
  * A Set of insertion ordered Name/Value pairs.
@@ -89,9 +83,19 @@ public class OrderedProperties {
      * @throws InvalidConfigParameterException if value is null
      * @return this instance for chaining
      */
-    public OrderedProperties addStringPairs(String keyValuePairs) {
-        PropertiesReader reader = new PropertiesReader(pairs);
-        reader.read(keyValuePairs);
+    public OrderedProperties addStringPairs(CharSequence keyValuePairs) {
+        new PropertiesReader(pairs).read(keyValuePairs);
+        return this;
+    }
+
+    /**
+     * Parse key/value pairs and add to the current pair set.
+     * @param keyValuePairs The UTF-8 encoded pairs in key=value format, pairs separated by newlines.
+     * @throws InvalidConfigParameterException if value is null
+     * @return this instance for chaining
+     */
+    public OrderedProperties addStringPairs(ByteBuffer keyValuePairs) {
+        new PropertiesReader(pairs).read(keyValuePairs);
         return this;
     }
 
@@ -144,6 +148,43 @@ public class OrderedProperties {
         return new PropertiesWriter(pairs).writeString(comment);
     }
 
+    /**
+     * Computes the {@link #contentHash(CharSequence) content hash} of the string which {@link #asPairs()}
+     * would return, without generating the string.
+     *
+     * @return The hash.
+     */
+    public long contentHash() {
+        return contentHashWithComment(null);
+    }
+
+    /**
+     * Computes the {@link #contentHash(CharSequence) content hash} of the string which
+     * {@link #asPairsWithComment(String)} would return, without generating the string.
+     *
+     * @param comment A comment to be prepended to the output, or null for no comment.
+     * @return The hash.
+     */
+    public long contentHashWithComment(String comment) {
+        ContentHash hash = new ContentHash();
+        new PropertiesWriter(pairs).write(hash, comment);
+        return hash.value();
+    }
+
+    /**
+     * Computes a content hash of the given text, for example of the properties file in an existing ConfigMap,
+     * which can be compared with the {@link #contentHash()} of the desired pairs.
+     * The hash is the 64 bit FNV-1a hash of the UTF-16 chars of the text, so it is stable across JVMs.
+     *
+     * @param text The text.
+     * @return The hash.
+     */
+    public static long contentHash(CharSequence text) {
+        ContentHash hash = new ContentHash();
+        hash.append(text);
+        return hash.value();
+    }
+
     /**
      * Return a Map view of the underlying key-value pairs. Any changes to this map will be reflected in
      * in value returned by subsequent calls.
@@ -173,71 +214,64 @@ public class OrderedProperties {
 
     /**
      * Read values into a Map&lt;String, String&gt; from a Properties compatible format.
+     * The text is parsed in a single pass over a CharSequence. Tokens without escapes are copied
+     * straight out of the text; escapes are decoded into a builder for the token.
      * An instance of this class is not thread-safe; the result of invoking any of the
      * read methods simultaneously is not defined.
      */
     static private class PropertiesReader {
-        private static final int EOF = -1;
-        private static final int NO_CHAR = -2;
-
         private final Map<String, String> map;
-        private BufferedReader bufferedReader;
-        private int peekChar = NO_CHAR;
+        private CharSequence text;
+        private int length;
+        private int pos;
 
         public PropertiesReader(Map<String, String> map) {
             this.map = map;
         }
 
-        /**
-         * Read map values from a String.
-         *
-         * @param keyValuePairs String containing name=value pairs separated by newlines.
-         */
-        public void read(String keyValuePairs) {
-            try {
-                read(new StringReader(keyValuePairs));
-            } catch (IOException e) {
-                throw new IllegalStateException("StringReader should not cause IOException", e);
-            }
-        }
-
         /**
          * Read map values from an InputStream.  The InputStream is closed after all values are read.
          *
          * @param is The UTF-8 input stream containing name=value pairs separated by newlines.
+         * @throws IOException when read or close fails
          */
         public void read(InputStream is) throws IOException {
-            read(new InputStreamReader(is, StandardCharsets.UTF_8));
+            try (InputStream in = is) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(in.available(), 1024));
+                byte[] buffer = new byte[8192];
+                int n;
+                while ((n = in.read(buffer)) != -1) {
+                    bytes.write(buffer, 0, n);
+                }
+                read(ByteBuffer.wrap(bytes.toByteArray(), 0, bytes.size()));
+            }
         }
 
         /**
-         * Read map values from a Reader.  The Reader is closed after all values are read.
+         * Read map values from UTF-8 encoded bytes.
          *
-         * @param reader Reader containing name=value pairs separated by newlines.
-         * @throws IOException when read or close fails
+         * @param utf8 The bytes containing name=value pairs separated by newlines.
          */
-        public void read(Reader reader) throws IOException {
-            try (BufferedReader bufferedReader = new BufferedReader(reader)) {
-                read(bufferedReader);
-            }
+        public void read(ByteBuffer utf8) {
+            read(StandardCharsets.UTF_8.decode(utf8));
         }
 
         /**
-         * Read map values from a BufferedReader.  The BufferedReader is not closed after all values are
-         * read.
+         * Read map values from a CharSequence.
          *
-         * @param bufferedReader Reader containing name=value pairs separated by newlines.
-         * @throws IOException when read or close fails
+         * @param keyValuePairs Text containing name=value pairs separated by newlines.
          */
-        public void read(BufferedReader bufferedReader) throws IOException {
-            this.bufferedReader = bufferedReader;
+        public void read(CharSequence keyValuePairs) {
+            this.text = keyValuePairs;
+            this.length = keyValuePairs.length();
+            this.pos = 0;
             for (; ; ) {
                 ignoreWhitespace(true);
-                if (peekChar == EOF) {
+                if (pos >= length) {
                     return;
                 }
 
-                if (isComment()) {
+                if (isComment(text.charAt(pos))) {
                     ignoreToEndOfLine();
                     continue;
                 }
@@ -245,8 +279,8 @@ public class OrderedProperties {
                 String key = readToken(true);
 
                 ignoreWhitespace(false);
-                if (isKeySeparator()) {
-                    peekChar = NO_CHAR;
+                if (pos < length && isKeySeparator(text.charAt(pos))) {
+                    pos++;
                     ignoreWhitespace(false);
                 }
 
@@ -255,10 +289,16 @@ public class OrderedProperties {
             }
         }
 
-        private String readToken(boolean breakOnKeySeperator) throws IOException {
-            StringBuilder sb = new StringBuilder();
-            for (; ; ) {
-                switch (peekChar) {
+        /*
+         * On entry, pos is at the first char of the token
+         * On exit, pos is after the token
+         */
+        private String readToken(boolean breakOnKeySeperator) {
+            StringBuilder sb = null;
+            int start = pos;
+            while (pos < length) {
+                char c = text.charAt(pos);
+                switch (c) {
                     case '\t':
                     case '\f':
                     case ' ':
@@ -269,88 +309,101 @@ public class OrderedProperties {
                         }
                     case '\r':
                     case '\n':
-                    case EOF:
-                        return sb.toString();
+                        return token(sb, start);
                     case '\\':
-                        sb.append(readEscape());
+                        if (sb == null) {
+                            sb = new StringBuilder();
+                        }
+                        sb.append(text, start, pos);
+                        pos++;
+                        readEscape(sb);
+                        start = pos;
                         continue;
                 }
-                sb.append((char) peekChar);
-                peekChar = bufferedReader.read();
+                pos++;
             }
+            return token(sb, start);
         }
 
-        private String readEscape() throws IOException {
-            int ec = bufferedReader.read();
-            String rc;
-            switch (ec) {
+        private String token(StringBuilder sb, int start) {
+            if (sb == null) {
+                return text.subSequence(start, pos).toString();
+            }
+            return sb.append(text, start, pos).toString();
+        }
+
+        /*
+         * On entry, pos is after the backslash
+         * On exit, pos is after the escape sequence
+         */
+        private void readEscape(StringBuilder sb) {
+            if (pos >= length) {
+                // A backslash at the end of the text escapes nothing
+                return;
+            }
+            char c = text.charAt(pos++);
+            switch (c) {
                 case '\r':
                 case '\n':
-                    peekChar = bufferedReader.read();
                     ignoreWhitespace(true);
-                    return "";
+                    break;
                 case 'u':
-                    rc = readUnicode();
+                    sb.append(readUnicode());
                     break;
                 case 't':
-                    rc = "\t";
+                    sb.append('\t');
                     break;
                 case 'f':
-                    rc = "\f";
+                    sb.append('\f');
                     break;
                 case 'r':
-                    rc = "\r";
+                    sb.append('\r');
                     break;
                 case 'n':
-                    rc = "\n";
+                    sb.append('\n');
                     break;
                 default:
-                    rc = Character.toString((char) ec);
+                    sb.append(c);
                     break;
             }
-            peekChar = bufferedReader.read();
-            return rc;
         }
 
-        private String readUnicode() throws IOException {
+        private char readUnicode() {
             int sum = 0;
             for (int h = 0; h < 4; ++h) {
                 int hexIt;
-                peekChar = bufferedReader.read();
-                if (peekChar >= '0' && peekChar <= '9') {
-                    hexIt = peekChar - '0';
-                } else if (peekChar >= 'a' && peekChar <= 'f') {
-                    hexIt = peekChar - 'a' + 10;
-                } else if (peekChar >= 'A' && peekChar <= 'F') {
-                    hexIt = peekChar - 'A' + 10;
+                char c = pos < length ? text.charAt(pos++) : 0;
+                if (c >= '0' && c <= '9') {
+                    hexIt = c - '0';
+                } else if (c >= 'a' && c <= 'f') {
+                    hexIt = c - 'a' + 10;
+                } else if (c >= 'A' && c <= 'F') {
+                    hexIt = c - 'A' + 10;
                 } else {
                     throw new IllegalArgumentException("Malformed \\uxxxx encoding");
                 }
                 sum = sum * 16 + hexIt;
             }
-            return Character.toString((char) sum);
+            return (char) sum;
         }
 
         /*
-         * On entry, peekChar is at comment char
-         * On exit, peekChar is at newline or EOF
+         * On entry, pos is at comment char
+         * On exit, pos is at newline or the end of the text
          */
-        private void ignoreToEndOfLine() throws IOException {
-            for (; ; ) {
-                peekChar = bufferedReader.read();
-                if (isEol()) {
-                    break;
-                }
+        private void ignoreToEndOfLine() {
+            while (pos < length && !isEol(text.charAt(pos))) {
+                pos++;
             }
         }
 
         /*
-         * On entry, peekChar is at NO_CHAR or after key
-         * On exit, peekChar is at non-whitespace, newline or EOF
+         * On entry, pos is at the start of a line or after key
+         * On exit, pos is at non-whitespace, newline or the end of the text
          */
-        private void ignoreWhitespace(boolean includeNewLine) throws IOException {
-            for (; ; peekChar = bufferedReader.read()) {
-                switch (peekChar) {
+        private void ignoreWhitespace(boolean includeNewLine) {
+            for (; pos < length; pos++) {
+                switch (text.charAt(pos)) {
                     case '\r':
                     case '\n':
                         if (!includeNewLine) {
@@ -359,7 +412,6 @@ public class OrderedProperties {
                     case '\t':
                     case '\f':
                     case ' ':
-                    case NO_CHAR:
                         continue;
                     default:
                         return;
@@ -367,32 +419,16 @@ public class OrderedProperties {
             }
         }
 
-        private boolean isComment() {
-            switch (peekChar) {
-                case '!':
-                case '#':
-                    return true;
-            }
-            return false;
+        private static boolean isComment(char c) {
+            return c == '!' || c == '#';
         }
 
-        private boolean isKeySeparator() {
-            switch (peekChar) {
-                case '=':
-                case ':':
-                    return true;
-            }
-            return false;
+        private static boolean isKeySeparator(char c) {
+            return c == '=' || c == ':';
         }
 
-        private boolean isEol() {
-            switch (peekChar) {
-                case '\r':
-                case '\n':
-                case EOF:
-                    return true;
-            }
-            return false;
+        private static boolean isEol(char c) {
+            return c == '\r' || c == '\n';
         }
     }
 
@@ -407,12 +443,14 @@ public class OrderedProperties {
      * Any '\r', '\n' in the value will be escaped with '\'.
      * Any leading ' ', '\t', '\f' in value will be escaped with '\'.
      *
+     * The chars are appended straight to an Appendable, which is either the builder of the output or a
+     * {@link ContentHash}.
+     *
      * An instance of this class is thread-safe as long as iterating the wrapped map is thread-safe.
      */
     static private class PropertiesWriter {
-        public static final Pattern LINE_SPLITTER = Pattern.compile("[\\r\\n]+");
+        private static final String NEW_LINE = System.lineSeparator();
         private final Map<String, String> map;
-        private BufferedWriter bufferedWriter;
 
         public PropertiesWriter(Map<String, String> map) {
             this.map = map;
@@ -425,70 +463,86 @@ public class OrderedProperties {
          * @param comment A comment to be prepended to the output, or null for no comment.
          */
         public String writeString(String comment) {
-            StringWriter sw = new StringWriter();
-            try {
-                write(sw, comment);
-            } catch (IOException e) {
-                throw new IllegalStateException("StringWriter should not cause IOException", e);
-            }
-            return sw.toString();
+            StringBuilder sb = new StringBuilder(32 * map.size() + (comment != null ? comment.length() + 8 : 0));
+            write(sb, comment);
+            return sb.toString();
         }
 
         /**
-         * Write map values to Writer.  The Writer is not closed.
+         * Write map values to an Appendable which does not throw IOException.
          *
-         * @param writer Writer to write values to.
+         * @param out The Appendable to write values to.
          * @param comment A comment to be prepended to the output, or null for no comment.
          */
-        public void write(Writer writer, String comment) throws IOException {
-            write(new BufferedWriter(writer), comment);
-        }
-
-        /**
-         * Write map values to BufferedWriter.  The BufferedWriter is not closed.
-         *
-         * @param bufferedWriter BufferedWriter to write values to.
-         * @param comment A comment to be prepended to the output, or null for no comment.
-         */
-        public void write(BufferedWriter bufferedWriter, String comment) throws IOException {
-            this.bufferedWriter = bufferedWriter;
-            if (comment != null) {
-                writeComment(bufferedWriter, comment);
-            }
+        public void write(Appendable out, String comment) {
+            try {
+                if (comment != null) {
+                    writeComment(out, comment);
+                }
 
-            for (Map.Entry<String, String> entry : map.entrySet()) {
-                escapeKey(entry.getKey());
-                bufferedWriter.append('=');
-                escapeValue(entry.getValue());
-                bufferedWriter.newLine();
+                for (Map.Entry<String, String> entry : map.entrySet()) {
+                    escapeKey(out, entry.getKey());
+                    out.append('=');
+                    escapeValue(out, entry.getValue());
+                    out.append(NEW_LINE);
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException(out.getClass().getSimpleName() + " should not cause IOException", e);
             }
-            bufferedWriter.flush();
         }
 
         /**
-         * Write comment to a Writer, handling newlines embedded in the comment
-         * @param bufferedWriter BufferedWriter to write.
+         * Write comment, handling newlines embedded in the comment: every run of '\r' and '\n' starts a new
+         * comment line, and trailing newlines are ignored.
+         * @param out Appendable to write to.
          * @param comment A comment to be written
          * @throws IOException
          */
-        private static void writeComment(BufferedWriter bufferedWriter, String comment) throws IOException {
-            for (String line : LINE_SPLITTER.split(comment)) {
-                bufferedWriter.write("# ");
-                bufferedWriter.write(line);
-                bufferedWriter.newLine();
+        private static void writeComment(Appendable out, String comment) throws IOException {
+            int end = comment.length();
+            boolean multiline = false;
+            for (int i = 0; i < end && !multiline; i++) {
+                multiline = isNewLine(comment.charAt(i));
+            }
+            if (multiline) {
+                while (end > 0 && isNewLine(comment.charAt(end - 1))) {
+                    end--;
+                }
+                if (end == 0) {
+                    return;
+                }
             }
+            int start = 0;
+            for (; ; ) {
+                int lineEnd = start;
+                while (lineEnd < end && !isNewLine(comment.charAt(lineEnd))) {
+                    lineEnd++;
+                }
+                out.append("# ").append(comment, start, lineEnd).append(NEW_LINE);
+                if (lineEnd >= end) {
+                    return;
+                }
+                start = lineEnd;
+                while (start < end && isNewLine(comment.charAt(start))) {
+                    start++;
+                }
+            }
+        }
+
+        private static boolean isNewLine(char c) {
+            return c == '\r' || c == '\n';
         }
 
         /**
          * A properties key may not contain '=', ':', ' ', '\t', '\f', or '\n'.
          * Escape the key
          */
-        private void escapeKey(String k) throws IOException {
+        private static void escapeKey(Appendable out, String k) throws IOException {
             for (int i = 0; i < k.length(); ++i) {
                 char c = k.charAt(i);
                 switch (c) {
                     case '\n':
-                        bufferedWriter.append("\\n");
+                        out.append("\\n");
                         continue;
                     case '=':
                     case ':':
@@ -496,9 +550,9 @@ public class OrderedProperties {
                     case '\t':
                     case '\f':
                     case '\\':
-                        bufferedWriter.append('\\');
+                        out.append('\\');
                 }
-                bufferedWriter.append(c);
+                out.append(c);
             }
         }
 
@@ -506,30 +560,64 @@ public class OrderedProperties {
          * A properties value may not contain '\r', '\n'.  Value may not have leading white space.
          * Escape the value
          */
-        private void escapeValue(String v) throws IOException {
+        private static void escapeValue(Appendable out, String v) throws IOException {
             for (int i = 0; i < v.length(); ++i) {
                 char c = v.charAt(i);
                 switch (c) {
                     case '\r':
-                        bufferedWriter.append("\\r");
+                        out.append("\\r");
                         break;
                     case '\n':
-                        bufferedWriter.append("\\n");
+                        out.append("\\n");
                         break;
                     case '\\':
-                        bufferedWriter.append("\\\\");
+                        out.append("\\\\");
                         break;
                     case ' ':
                     case '\t':
                     case '\f':
                         // Value may not have leading white space.
                         if (i == 0) {
-                            bufferedWriter.append('\\');
+                            out.append('\\');
                         }
                     default:
-                        bufferedWriter.append(c);
+                        out.append(c);
                 }
             }
         }
     }
+
+    /**
+     * An Appendable which computes the 64 bit FNV-1a hash of the UTF-16 chars appended to it,
+     * instead of keeping them.
+     */
+    static private class ContentHash implements Appendable {
+        private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+        private static final long FNV_PRIME = 0x100000001b3L;
+
+        private long hash = FNV_OFFSET_BASIS;
+
+        @Override
+        public ContentHash append(CharSequence csq) {
+            return append(csq, 0, csq.length());
+        }
+
+        @Override
+        public ContentHash append(CharSequence csq, int start, int end) {
+            for (int i = start; i < end; i++) {
+                append(csq.charAt(i));
+            }
+            return this;
+        }
+
+        @Override
+        public ContentHash append(char c) {
+            hash = (hash ^ c) * FNV_PRIME;
+            return this;
+        }
+
+        public long value() {
+            return hash;
+        }
+    }
 }
@@ -19,14 +19,20 @@ import io.fabric8.kubernetes.client.dsl.Resource;
 import io.fabric8.zjsonpatch.JsonDiff;
 import io.strimzi.operator.cluster.ClusterOperatorConfig;
 import io.strimzi.operator.PlatformFeaturesAvailability;
+import io.strimzi.operator.cluster.model.AbstractModel;
 import io.strimzi.operator.cluster.model.KafkaVersion;
 import io.strimzi.operator.cluster.operator.resource.ResourceOperatorSupplier;
+import io.strimzi.operator.cluster.sharding.ShardCoordinator;
 import io.strimzi.operator.common.model.ResourceVisitor;
 import io.strimzi.certs.CertManager;
-import io.strimzi.operator.cluster.InvalidConfigParameterException;
 import io.strimzi.operator.cluster.model.ImagePullPolicy;
 import io.strimzi.operator.cluster.model.InvalidResourceException;
+import io.strimzi.operator.common.ApiRateLimiter;
+import io.strimzi.operator.common.BackOff;
+import io.strimzi.operator.common.MetricsProvider;
 import io.strimzi.operator.common.Reconciliation;
+import io.strimzi.operator.common.StepExecutor;
+import io.strimzi.operator.common.WorkQueue;
 import io.strimzi.operator.common.model.Labels;
 import io.strimzi.operator.common.model.NamespaceAndName;
 import io.strimzi.operator.common.model.ResourceType;
@@ -43,13 +49,16 @@ import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
-import io.vertx.core.shareddata.Lock;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -61,15 +70,32 @@ import static io.fabric8.kubernetes.client.internal.PatchUtils.patchMapper;
  * <p>An assembly is a collection of Kubernetes resources of various types
  * (e.g. Services, StatefulSets, Deployments etc) which operate together to provide some functionality.</p>
  *
- * <p>This class manages a per-assembly locking strategy so only one operation per assembly
- * can proceed at once.</p>
+ * <p>This class manages a per-assembly {@link WorkQueue} so only one operation per assembly
+ * can proceed at once. Reconciliations requested while another one is in progress for the same
+ * assembly are collapsed into a single reconciliation which runs once the in-progress one completes.
+ * At most {@link ClusterOperatorConfig#getMaxConcurrentReconciliations()} assemblies are reconciled at the same time,
+ * and reconciliations triggered by watch events are started before those of a periodic {@link #reconcileAll}.</p>
+ *
+ * <p>When several replicas of the operator share the assemblies, only those which the {@link ShardCoordinator}
+ * assigns to this replica are reconciled.</p>
  */
 public abstract class AbstractAssemblyOperator<C extends KubernetesClient, T extends HasMetadata,
         L extends KubernetesResourceList/*<T>*/, D extends Doneable<T>, R extends Resource<T, D>> {
 
     private static final Logger log = LogManager.getLogger(AbstractAssemblyOperator.class.getName());
 
-    protected static final int LOCK_TIMEOUT_MS = 10000;
+    /**
+     * The maximum number of independent steps of a reconciliation which are executed at the same time
+     * by a {@link StepExecutor}.
+     */
+    protected static final int MAX_PARALLEL_STEPS = 5;
+
+    /**
+     * The initial delay before a failed reconciliation of an assembly is retried.
+     * The delay doubles with each consecutive failure, up to the max delay.
+     */
+    public static final long RETRY_INITIAL_DELAY_MS = 5_000;
+    public static final long RETRY_MAX_DELAY_MS = 60_000;
 
     protected final Vertx vertx;
     protected final PlatformFeaturesAvailability pfa;
@@ -88,6 +114,38 @@ public abstract class AbstractAssemblyOperator<C extends KubernetesClient, T ext
     protected final KafkaVersion.Lookup versions;
     private final String kind;
     protected long operationTimeoutMs;
+    private final WorkQueue<NamespaceAndName, Reconciliation> workQueue;
+    private volatile ShardCoordinator shards;
+    private final Map<NamespaceAndName, Retry> retries = new ConcurrentHashMap<>();
+    private long retryInitialDelayMs = RETRY_INITIAL_DELAY_MS;
+    private long retryMaxDelayMs;
+
+    /**
+     * The retries of the failed reconciliations of an assembly.
+     */
+    private static class Retry {
+        final Long generation;
+        final BackOff backOff;
+        final long maxDelayMs;
+        long timerId = -1;
+
+        Retry(Long generation, long initialDelayMs, long maxDelayMs) {
+            // Enough attempts for the delay to reach the max delay, after which the max delay is used
+            int maxAttempts = 2;
+            for (long delayMs = initialDelayMs; delayMs < maxDelayMs; delayMs *= 2) {
+                maxAttempts++;
+            }
+            this.generation = generation;
+            this.backOff = new BackOff(initialDelayMs, 2, maxAttempts);
+            this.maxDelayMs = maxDelayMs;
+            // The first delay of a BackOff is always 0, which would retry at once
+            backOff.delayMs();
+        }
+
+        long nextDelayMs() {
+            return backOff.done() ? maxDelayMs : Math.min(backOff.delayMs(), maxDelayMs);
+        }
+    }
 
     /**
      * @param vertx The Vertx instance
@@ -120,17 +178,28 @@ public abstract class AbstractAssemblyOperator<C extends KubernetesClient, T ext
         this.imagePullSecrets = config.getImagePullSecrets();
         this.versions = config.versions();
         this.operationTimeoutMs = config.getOperationTimeoutMs();
+        this.workQueue = new WorkQueue<>(kind + "-reconciliations", config.getMaxConcurrentReconciliations(),
+            reconciliation -> MetricsProvider.getInstance().timeReconciliation(kind, reconciliation.namespace(), () -> doReconcileAssembly(reconciliation)));
+        // Hold back periodic reconciliations while the API requests of the running ones are being throttled
+        this.workQueue.setGate(() -> ApiRateLimiter.getInstance().whenAvailable());
+        // There's no point retrying later than the next periodic reconciliation
+        this.retryMaxDelayMs = Math.min(RETRY_MAX_DELAY_MS, config.getReconciliationIntervalMs());
+        MetricsProvider.getInstance().registerWorkQueue(kind, workQueue);
+        MetricsProvider.getInstance().registerRetries(kind, retries);
+    }
+
+    /*test*/ void setRetryDelays(long initialDelayMs, long maxDelayMs) {
+        this.retryInitialDelayMs = initialDelayMs;
+        this.retryMaxDelayMs = maxDelayMs;
     }
 
     /**
-     * Gets the name of the lock to be used for operating on the given {@code assemblyType}, {@code namespace} and
-     * cluster {@code name}
-     * @param assemblyType The type of cluster
-     * @param namespace The namespace containing the cluster
-     * @param name The name of the cluster
+     * Shares the reconciliation of the assemblies with the other replicas of the operator,
+     * so that only the assemblies which the given coordinator assigns to this replica are reconciled.
+     * @param shards The shard coordinator, or null to reconcile all the assemblies.
      */
-    protected final String getLockName(ResourceType assemblyType, String namespace, String name) {
-        return "lock::" + namespace + "::" + assemblyType + "::" + name;
+    public void setShardCoordinator(ShardCoordinator shards) {
+        this.shards = shards;
     }
 
     /**
@@ -143,6 +212,14 @@ public abstract class AbstractAssemblyOperator<C extends KubernetesClient, T ext
      */
     protected abstract Future<Void> createOrUpdate(Reconciliation reconciliation, T assemblyResource);
 
+    /**
+     * Called when the custom resource of an assembly is found to have been deleted. Subclasses can override this
+     * to forget what they keep about the assembly, such as the status they last wrote.
+     * @param reconciliation Unique identification for the reconciliation
+     */
+    protected void assemblyDeleted(Reconciliation reconciliation) {
+    }
+
     /**
      * The name of the given {@code resource}, as read from its metadata.
      * @param resource The resource
@@ -165,54 +242,124 @@ public abstract class AbstractAssemblyOperator<C extends KubernetesClient, T ext
      * <li>An assembly will be {@linkplain #createOrUpdate(Reconciliation, HasMetadata) created or updated} if CustomResource is without same-named resources</li>
      * <li>An assembly will be deleted automatically by garbage collection when the custom resoruce is deleted</li>
      * </ul>
+     * If a reconciliation of the same assembly is already in progress, this reconciliation is started when it completes
+     * (and possibly merged with other reconciliations requested meanwhile).
      * @param reconciliation The reconciliation.
      * @param handler The result handler.
      */
     public final void reconcileAssembly(Reconciliation reconciliation, Handler<AsyncResult<Void>> handler) {
+        reconcileAssembly(reconciliation, true, handler);
+    }
+
+    private void reconcileAssembly(Reconciliation reconciliation, boolean priority, Handler<AsyncResult<Void>> handler) {
+        workQueue.submit(new NamespaceAndName(reconciliation.namespace(), reconciliation.name()), reconciliation, priority, handler);
+    }
+
+    /**
+     * Schedules another reconciliation of an assembly whose {@link #createOrUpdate(Reconciliation, HasMetadata)}
+     * failed, after an exponential back-off with jitter. The back-off starts again when the generation of the custom
+     * resource changes. If a retry is already scheduled it is left as it is.
+     */
+    private void scheduleRetry(Reconciliation reconciliation, T cr) {
+        NamespaceAndName assembly = new NamespaceAndName(reconciliation.namespace(), reconciliation.name());
+        Long generation = cr.getMetadata().getGeneration();
+        Retry retry = retries.compute(assembly, (key, existing) -> {
+            if (existing != null && Objects.equals(existing.generation, generation)) {
+                return existing;
+            }
+            if (existing != null) {
+                vertx.cancelTimer(existing.timerId);
+            }
+            return new Retry(generation, retryInitialDelayMs, retryMaxDelayMs);
+        });
+        synchronized (retry) {
+            if (retry.timerId != -1) {
+                log.debug("{}: Retry of assembly {} already scheduled", reconciliation, reconciliation.name());
+                return;
+            }
+            long delayMs = retry.nextDelayMs();
+            delayMs = delayMs / 2 + ThreadLocalRandom.current().nextLong(delayMs / 2 + 1);
+            log.info("{}: Reconciliation of assembly {} will be retried in {}ms", reconciliation, reconciliation.name(), delayMs);
+            MetricsProvider.getInstance().reconciliationRetryScheduled(kind, reconciliation.namespace());
+            retry.timerId = vertx.setTimer(delayMs, timerId -> {
+                synchronized (retry) {
+                    retry.timerId = -1;
+                }
+                Reconciliation retryReconciliation = new Reconciliation("retry", assemblyType, assembly.getNamespace(), assembly.getName());
+                reconcileAssembly(retryReconciliation, false, result -> handleResult(retryReconciliation, result));
+            });
+        }
+    }
+
+    /**
+     * Forgets the back-off of an assembly which was reconciled successfully, or deleted, and cancels its retry.
+     */
+    private void resetRetry(NamespaceAndName assembly) {
+        Retry retry = retries.remove(assembly);
+        if (retry != null) {
+            synchronized (retry) {
+                if (retry.timerId != -1) {
+                    vertx.cancelTimer(retry.timerId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Run by the {@link #workQueue}, so there is at most one reconciliation in flight per assembly.
+     */
+    private Future<Void> doReconcileAssembly(Reconciliation reconciliation) {
+        ShardCoordinator shards = this.shards;
+        if (shards == null) {
+            return doReconcileOwnedAssembly(reconciliation);
+        }
+        NamespaceAndName assembly = new NamespaceAndName(reconciliation.namespace(), reconciliation.name());
+        if (!shards.tryStart(assembly)) {
+            log.debug("{}: Assembly {} is reconciled by another replica", reconciliation, reconciliation.name());
+            resetRetry(assembly);
+            return Future.succeededFuture();
+        }
+        Future<Void> result = Future.future();
+        doReconcileOwnedAssembly(reconciliation).setHandler(res -> {
+            shards.finished(assembly);
+            result.handle(res);
+        });
+        return result;
+    }
+
+    private Future<Void> doReconcileOwnedAssembly(Reconciliation reconciliation) {
         String namespace = reconciliation.namespace();
         String assemblyName = reconciliation.name();
-        final String lockName = getLockName(assemblyType, namespace, assemblyName);
-        vertx.sharedData().getLockWithTimeout(lockName, LOCK_TIMEOUT_MS, res -> {
-            if (res.succeeded()) {
-                log.debug("{}: Lock {} acquired", reconciliation, lockName);
-                Lock lock = res.result();
-
-                try {
-                    // get CustomResource and related resources for the specific cluster
-                    T cr = resourceOperator.get(namespace, assemblyName);
-                    validate(cr);
-
-                    if (cr != null) {
-                        log.info("{}: Assembly {} should be created or updated", reconciliation, assemblyName);
-                        createOrUpdate(reconciliation, cr)
-                            .setHandler(createResult -> {
-                                lock.release();
-                                log.debug("{}: Lock {} released", reconciliation, lockName);
-                                if (createResult.failed()) {
-                                    if (createResult.cause() instanceof InvalidResourceException) {
-                                        log.error("{}: createOrUpdate failed. {}", reconciliation, createResult.cause().getMessage());
-                                    } else {
-                                        log.error("{}: createOrUpdate failed", reconciliation, createResult.cause());
-                                    }
-                                } else {
-                                    handler.handle(createResult);
-                                }
-                            });
-                    } else {
-                        log.info("{}: Assembly {} should be deleted by garbage collection", reconciliation, assemblyName);
-                        lock.release();
-                        log.debug("{}: Lock {} released", reconciliation, lockName);
-                        handler.handle(Future.succeededFuture());
-                    }
-                } catch (Throwable ex) {
-                    lock.release();
-                    log.debug("{}: Lock {} released", reconciliation, lockName);
-                    handler.handle(Future.failedFuture(ex));
-                }
+        Future<Void> result = Future.future();
+        try {
+            // get CustomResource and related resources for the specific cluster
+            T cr = resourceOperator.get(namespace, assemblyName);
+            validate(cr);
+
+            if (cr != null) {
+                log.info("{}: Assembly {} should be created or updated", reconciliation, assemblyName);
+                createOrUpdate(reconciliation, cr)
+                    .setHandler(createResult -> {
+                        if (createResult.failed()) {
+                            // Retrying an invalid resource won't help, the watch triggers a reconciliation once it's fixed
+                            if (!(createResult.cause() instanceof InvalidResourceException)) {
+                                scheduleRetry(reconciliation, cr);
+                            }
+                        } else {
+                            resetRetry(new NamespaceAndName(namespace, assemblyName));
+                        }
+                        result.handle(createResult);
+                    });
             } else {
-                log.debug("{}: Failed to acquire lock {}.", reconciliation, lockName);
+                log.info("{}: Assembly {} should be deleted by garbage collection", reconciliation, assemblyName);
+                resetRetry(new NamespaceAndName(namespace, assemblyName));
+                assemblyDeleted(reconciliation);
+                result.complete();
             }
-        });
+        } catch (Throwable ex) {
+            result.fail(ex);
+        }
+        return result;
     }
 
     /**
@@ -242,24 +389,66 @@ public abstract class AbstractAssemblyOperator<C extends KubernetesClient, T ext
      * @return A latch for knowing when reconciliation is complete.
      */
     public final CountDownLatch reconcileAll(String trigger, String namespace) {
+        return reconcileAll(trigger, namespace, 0);
+    }
+
+    /**
+     * Like {@link #reconcileAll(String, String)}, but the reconciliations are submitted evenly
+     * over the given {@code spreadMs} rather than all at once, so that a periodic reconciliation
+     * of many assemblies does not cause a burst of requests to the Kubernetes API server.
+     * These reconciliations are started only after any reconciliation triggered by a watch event
+     * which is waiting for its turn.
+     *
+     * @param trigger A description of the triggering event (timer or watch), used for logging
+     * @param namespace The namespace
+     * @param spreadMs The period of time over which to spread the reconciliations.
+     * @return A latch for knowing when reconciliation is complete.
+     */
+    public final CountDownLatch reconcileAll(String trigger, String namespace, long spreadMs) {
+        return reconcileAll(trigger, namespace, null, spreadMs);
+    }
+
+    /**
+     * Like {@link #reconcileAll(String, String, long)}, but only the resources in the given {@code namespaces}
+     * are reconciled. This is used with a cluster-wide watch, when a single list of the resources in all the
+     * namespaces replaces a list per namespace.
+     *
+     * @param trigger A description of the triggering event (timer or watch), used for logging
+     * @param namespace The namespace, or {@link AbstractWatchableResourceOperator#ANY_NAMESPACE}
+     * @param namespaces The namespaces whose resources are reconciled, or null to reconcile them all.
+     * @param spreadMs The period of time over which to spread the reconciliations.
+     * @return A latch for knowing when reconciliation is complete.
+     */
+    public final CountDownLatch reconcileAll(String trigger, String namespace, Set<String> namespaces, long spreadMs) {
 
         // get Kafka CustomResources (or Connect, Connect-s2i, or Mirror Maker)
         List<T> desiredResources = resourceOperator.list(namespace, Labels.EMPTY);
+        ShardCoordinator shards = this.shards;
         Set<NamespaceAndName> desiredNames = desiredResources.stream()
+                .filter(cr -> namespaces == null || namespaces.contains(cr.getMetadata().getNamespace()))
                 .map(cr -> new NamespaceAndName(cr.getMetadata().getNamespace(), cr.getMetadata().getName()))
+                .filter(name -> shards == null || shards.owns(name))
                 .collect(Collectors.toSet());
         log.debug("reconcileAll({}, {}): desired resources with labels {}: {}", assemblyType, trigger, Labels.EMPTY, desiredNames);
+        log.debug("reconcileAll({}, {}): {}", assemblyType, trigger, workQueue);
 
         // We use a latch so that callers (specifically, test callers) know when the reconciliation is complete
         // Using futures would be more complex for no benefit
         CountDownLatch latch = new CountDownLatch(desiredNames.size());
 
+        int index = 0;
         for (NamespaceAndName name: desiredNames) {
             Reconciliation reconciliation = new Reconciliation(trigger, assemblyType, name.getNamespace(), name.getName());
-            reconcileAssembly(reconciliation, result -> {
+            Handler<Void> submit = ignored -> reconcileAssembly(reconciliation, false, result -> {
                 handleResult(reconciliation, result);
                 latch.countDown();
             });
+            long delayMs = spreadMs * index++ / desiredNames.size();
+            if (delayMs > 0) {
+                vertx.setTimer(delayMs, timerId -> submit.handle(null));
+            } else {
+                submit.handle(null);
+            }
         }
 
         return latch;
@@ -272,6 +461,18 @@ public abstract class AbstractAssemblyOperator<C extends KubernetesClient, T ext
      * @return A future which completes when watcher has been created.
      */
     public Future<Watch> createWatch(String watchNamespace, Consumer<KubernetesClientException> onClose) {
+        return createWatch(watchNamespace, null, onClose);
+    }
+
+    /**
+     * Creates a watch on resources in the given namespace, which ignores the events of resources outside the given
+     * {@code namespaces}. So that a single watch of all the namespaces can replace a watch per namespace.
+     * @param watchNamespace The namespace to watch, or {@link AbstractWatchableResourceOperator#ANY_NAMESPACE}.
+     * @param namespaces The namespaces whose resources are reconciled, or null to reconcile them all.
+     * @param onClose A consumer for any exceptions causing the closing of the watcher.
+     * @return A future which completes when watcher has been created.
+     */
+    public Future<Watch> createWatch(String watchNamespace, Set<String> namespaces, Consumer<KubernetesClientException> onClose) {
         Future<Watch> result = Future.future();
         vertx.<Watch>executeBlocking(
             future -> {
@@ -280,6 +481,10 @@ public abstract class AbstractAssemblyOperator<C extends KubernetesClient, T ext
                     public void eventReceived(Action action, T cr) {
                         String name = cr.getMetadata().getName();
                         String resourceNamespace = cr.getMetadata().getNamespace();
+                        if (namespaces != null && !namespaces.contains(resourceNamespace)) {
+                            log.trace("Ignoring {} {} in namespace {} which is not watched", kind, name, resourceNamespace);
+                            return;
+                        }
                         switch (action) {
                             case ADDED:
                             case DELETED:
@@ -292,11 +497,11 @@ public abstract class AbstractAssemblyOperator<C extends KubernetesClient, T ext
                                 break;
                             case ERROR:
                                 log.error("Failed {} {} in namespace{} ", kind, name, resourceNamespace);
-                                reconcileAll("watch error", watchNamespace);
+                                reconcileAll("watch error", watchNamespace, namespaces, 0);
                                 break;
                             default:
                                 log.error("Unknown action: {} in namespace {}", name, resourceNamespace);
-                                reconcileAll("watch unknown", watchNamespace);
+                                reconcileAll("watch unknown", watchNamespace, namespaces, 0);
                         }
                     }
 
@@ -319,7 +524,7 @@ public abstract class AbstractAssemblyOperator<C extends KubernetesClient, T ext
             log.info("{}: Assembly reconciled", reconciliation);
         } else {
             Throwable cause = result.cause();
-            if (cause instanceof InvalidConfigParameterException) {
+            if (cause instanceof InvalidResourceException) {
                 log.warn("{}: Failed to reconcile {}", reconciliation, cause.getMessage());
             } else {
                 log.warn("{}: Failed to reconcile", reconciliation, cause);
@@ -328,23 +533,42 @@ public abstract class AbstractAssemblyOperator<C extends KubernetesClient, T ext
     }
 
     /**
+     * @return The kind of the custom resource reconciled by this operator.
+     */
+    public String kind() {
+        return kind;
+    }
+
+    /**
+     * @return The queue of reconciliations of this operator.
+     */
+    public WorkQueue<NamespaceAndName, Reconciliation> workQueue() {
+        return workQueue;
+    }
+
+    /**
+     * The logging configuration is reloaded by the logging agent in the pods when the ConfigMap changes,
+     * so changing it does not need a rolling update.
+     *
      * @param current Previsous ConfigMap
      * @param desired Desired ConfigMap
-     * @return Returns true if only metrics settings has been changed
+     * @return Returns true if only metrics or logging settings have been changed
      */
-    public boolean onlyMetricsSettingChanged(ConfigMap current, ConfigMap desired) {
+    public boolean onlyMetricsOrLoggingSettingsChanged(ConfigMap current, ConfigMap desired) {
         if ((current == null && desired != null) || (current != null && desired == null)) {
             // Metrics were added or deleted. We want rolling update
             return false;
         }
         JsonNode diff = JsonDiff.asJson(patchMapper().valueToTree(current), patchMapper().valueToTree(desired));
-        boolean onlyMetricsSettingChanged = false;
         for (JsonNode d : diff) {
-            if (d.get("path").asText().equals("/data/metrics-config.yml") && d.get("op").asText().equals("replace")) {
-                onlyMetricsSettingChanged = true;
+            String path = d.get("path").asText();
+            if (!d.get("op").asText().equals("replace")
+                    || !(path.equals("/data/" + AbstractModel.ANCILLARY_CM_KEY_METRICS)
+                        || path.equals("/data/" + AbstractModel.ANCILLARY_CM_KEY_LOG_CONFIG))) {
+                return false;
             }
         }
-        return onlyMetricsSettingChanged && diff.size() == 1;
+        return diff.size() > 0;
     }
 
 }
@@ -5,11 +5,14 @@
 package io.strimzi.operator.cluster.operator.assembly;
 
 import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.Container;
+import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.api.model.LoadBalancerIngress;
 import io.fabric8.kubernetes.api.model.OwnerReference;
 import io.fabric8.kubernetes.api.model.OwnerReferenceBuilder;
 import io.fabric8.kubernetes.api.model.PersistentVolumeClaim;
 import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
 import io.fabric8.kubernetes.api.model.PodTemplateSpec;
 import io.fabric8.kubernetes.api.model.Quantity;
 import io.fabric8.kubernetes.api.model.Secret;
@@ -29,13 +32,17 @@ import io.fabric8.openshift.api.model.RouteIngress;
 import io.strimzi.api.kafka.KafkaList;
 import io.strimzi.api.kafka.model.CertificateAuthority;
 import io.strimzi.api.kafka.model.DoneableKafka;
+import io.strimzi.api.kafka.model.EntityOperatorSpec;
 import io.strimzi.api.kafka.model.ExternalLogging;
 import io.strimzi.api.kafka.model.Kafka;
 import io.strimzi.api.kafka.model.KafkaBuilder;
+import io.strimzi.api.kafka.model.Logging;
+import io.strimzi.api.kafka.model.Rack;
 import io.strimzi.api.kafka.model.listener.KafkaListeners;
 import io.strimzi.api.kafka.model.status.Condition;
 import io.strimzi.api.kafka.model.status.ConditionBuilder;
 import io.strimzi.api.kafka.model.status.KafkaStatus;
+import io.strimzi.api.kafka.model.status.KafkaStatusBuilder;
 import io.strimzi.api.kafka.model.status.ListenerAddress;
 import io.strimzi.api.kafka.model.status.ListenerAddressBuilder;
 import io.strimzi.api.kafka.model.status.ListenerStatus;
@@ -55,21 +62,27 @@ import io.strimzi.operator.cluster.model.EntityTopicOperator;
 import io.strimzi.operator.cluster.model.EntityUserOperator;
 import io.strimzi.operator.cluster.model.KafkaCluster;
 import io.strimzi.operator.cluster.model.KafkaConfiguration;
+import io.strimzi.operator.cluster.model.KafkaConfigurationDiff;
 import io.strimzi.operator.cluster.model.KafkaExporter;
 import io.strimzi.operator.cluster.model.KafkaUpgrade;
 import io.strimzi.operator.cluster.model.KafkaVersion;
 import io.strimzi.operator.cluster.model.ModelUtils;
-import io.strimzi.operator.cluster.model.StatusDiff;
 import io.strimzi.operator.cluster.model.ZookeeperCluster;
+import io.strimzi.operator.cluster.operator.resource.KafkaBrokerConfigurationUpdater;
 import io.strimzi.operator.cluster.operator.resource.KafkaSetOperator;
 import io.strimzi.operator.cluster.operator.resource.ResourceOperatorSupplier;
+import io.strimzi.operator.cluster.operator.resource.StatefulSetDiff;
 import io.strimzi.operator.cluster.operator.resource.StatefulSetOperator;
 import io.strimzi.operator.cluster.operator.resource.ZookeeperSetOperator;
 import io.strimzi.operator.common.Annotations;
 import io.strimzi.operator.common.InvalidConfigurationException;
 import io.strimzi.operator.common.Reconciliation;
+import io.strimzi.operator.common.StepExecutor;
+import io.strimzi.operator.common.WorkerPools;
 import io.strimzi.operator.common.model.Labels;
+import io.strimzi.operator.common.model.NamespaceAndName;
 import io.strimzi.operator.common.model.ResourceType;
+import io.strimzi.operator.common.operator.resource.AbstractResourceOperator;
 import io.strimzi.operator.common.operator.resource.AbstractScalableResourceOperator;
 import io.strimzi.operator.common.operator.resource.CrdOperator;
 import io.strimzi.operator.common.operator.resource.DeploymentOperator;
@@ -79,7 +92,9 @@ import io.strimzi.operator.common.operator.resource.PvcOperator;
 import io.strimzi.operator.common.operator.resource.ReconcileResult;
 import io.strimzi.operator.common.operator.resource.RoleBindingOperator;
 import io.strimzi.operator.common.operator.resource.RouteOperator;
+import io.strimzi.operator.common.operator.resource.StatusWriter;
 import io.strimzi.operator.common.operator.resource.StorageClassOperator;
+import io.vertx.core.AsyncResult;
 import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
@@ -87,18 +102,24 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.quartz.CronExpression;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -112,6 +133,7 @@ import static io.strimzi.operator.cluster.model.KafkaCluster.ENV_VAR_KAFKA_CONFI
 import static io.strimzi.operator.cluster.model.KafkaConfiguration.INTERBROKER_PROTOCOL_VERSION;
 import static io.strimzi.operator.cluster.model.KafkaConfiguration.LOG_MESSAGE_FORMAT_VERSION;
 import static io.strimzi.operator.cluster.model.KafkaVersion.compareDottedVersions;
+import static java.util.Arrays.asList;
 
 /**
  * <p>Assembly operator for a "Kafka" assembly, which manages:</p>
@@ -141,6 +163,24 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
     private final IngressOperator ingressOperations;
     private final StorageClassOperator storageClassOperator;
     private final CrdOperator<KubernetesClient, Kafka, KafkaList, DoneableKafka> crdOperator;
+    private final StatusWriter<Kafka, KafkaStatus> statusWriter;
+    private final boolean dynamicBrokerConfiguration;
+    private final KafkaBrokerConfigurationUpdater kafkaBrokerConfigurationUpdater;
+    private final int rackRollingUpdateConcurrency;
+    private final boolean partitionAwareRollingUpdate;
+    private final String operatorNamespace;
+    private final Labels operatorNamespaceLabels;
+    /**
+     * The clusters whose dynamic broker configuration could not be reconciled with the desired one before their
+     * brokers were rolled.
+     */
+    private final Set<NamespaceAndName> pendingDynamicConfigurations = ConcurrentHashMap.newKeySet();
+
+    private static final List<String> LISTENER_STATUS_ORDER = asList("plain", "tls", "external");
+
+    private final int maxSkippedReconciliations;
+    private final Map<NamespaceAndName, Integer> skippedReconciliations = new ConcurrentHashMap<>();
+    private final List<String> configurationFingerprintInputs;
 
     /**
      * @param vertx The Vertx instance
@@ -166,159 +206,453 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         this.ingressOperations = supplier.ingressOperations;
         this.storageClassOperator = supplier.storageClassOperations;
         this.crdOperator = supplier.kafkaOperator;
+        this.statusWriter = new StatusWriter<>(supplier.kafkaOperator, Kafka::getStatus,
+            (resource, status) -> new KafkaBuilder(resource).withStatus(status).build());
+        this.maxSkippedReconciliations = config.getMaxSkippedReconciliations();
+        this.dynamicBrokerConfiguration = config.isDynamicBrokerConfiguration();
+        this.kafkaBrokerConfigurationUpdater = new KafkaBrokerConfigurationUpdater(vertx, supplier.secretOperations,
+                supplier.adminClientProvider, config.getOperationTimeoutMs());
+        this.rackRollingUpdateConcurrency = config.getRackRollingUpdateConcurrency();
+        this.partitionAwareRollingUpdate = config.isPartitionAwareRollingUpdate();
+        this.operatorNamespace = config.getOperatorNamespace();
+        this.operatorNamespaceLabels = config.getOperatorNamespaceLabels();
+        this.configurationFingerprintInputs = configurationFingerprintInputs(config, System.getenv());
+    }
+
+    /**
+     * @param config The Cluster Operator configuration.
+     * @param env The environment of the Cluster Operator, from which the models read the default images.
+     * @return The parts of the configuration and of the environment of the Cluster Operator which affect the
+     * resources of a Kafka cluster, as inputs of its reconciliation fingerprint.
+     */
+    /* test */ static List<String> configurationFingerprintInputs(ClusterOperatorConfig config, Map<String, String> env) {
+        List<String> inputs = new ArrayList<>();
+        inputs.add("versions=" + config.versions());
+        inputs.add("imagePullPolicy=" + config.getImagePullPolicy());
+        inputs.add("imagePullSecrets=" + config.getImagePullSecrets());
+        inputs.add("operatorNamespace=" + config.getOperatorNamespace());
+        inputs.add("operatorNamespaceLabels=" + config.getOperatorNamespaceLabels());
+        inputs.add("dynamicBrokerConfiguration=" + config.isDynamicBrokerConfiguration());
+        inputs.add("partitionAwareRollingUpdate=" + config.isPartitionAwareRollingUpdate());
+        inputs.addAll(fingerprintInputs("env/", env.entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith("STRIMZI_DEFAULT_") || "KUBERNETES_SERVICE_DNS_DOMAIN".equals(entry.getKey()))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue))));
+        return inputs;
+    }
+
+    /**
+     * @return The entries of the given map, which may be null, as sorted fingerprint inputs with the given prefix.
+     */
+    private static List<String> fingerprintInputs(String prefix, Map<String, String> map) {
+        if (map == null) {
+            return Collections.emptyList();
+        }
+        return map.entrySet().stream()
+                .map(entry -> prefix + entry.getKey() + "=" + entry.getValue())
+                .sorted()
+                .collect(Collectors.toList());
     }
 
     @Override
     public Future<Void> createOrUpdate(Reconciliation reconciliation, Kafka kafkaAssembly) {
-        Future<Void> createOrUpdateFuture = Future.future();
-
         if (kafkaAssembly.getSpec() == null) {
             log.error("{} spec cannot be null", kafkaAssembly.getMetadata().getName());
             return Future.failedFuture("Spec cannot be null");
         }
 
-        ReconciliationState reconcileState = createReconciliationState(reconciliation, kafkaAssembly);
-        reconcile(reconcileState).setHandler(reconcileResult -> {
-            KafkaStatus status = reconcileState.kafkaStatus;
-            Condition readyCondition;
-
-            if (kafkaAssembly.getMetadata().getGeneration() != null)    {
-                status.setObservedGeneration(kafkaAssembly.getMetadata().getGeneration());
+        if (maxSkippedReconciliations == 0) {
+            return fullReconcile(createReconciliationState(reconciliation, kafkaAssembly));
+        }
+
+        NamespaceAndName key = new NamespaceAndName(kafkaAssembly.getMetadata().getNamespace(), kafkaAssembly.getMetadata().getName());
+        return reconciliationFingerprint(kafkaAssembly).otherwise(error -> {
+            log.warn("{}: Failed to compute the reconciliation fingerprint", reconciliation, error);
+            return null;
+        }).compose(fingerprint -> {
+            KafkaStatus status = kafkaAssembly.getStatus();
+            int skipped = skippedReconciliations.getOrDefault(key, 0);
+            ReconciliationState reconcileState = createReconciliationState(reconciliation, kafkaAssembly);
+            if (fingerprint == null
+                    || status == null
+                    || !fingerprint.value.equals(status.getReconciliationFingerprint())
+                    || !fingerprint.podsReady
+                    || skipped >= maxSkippedReconciliations
+                    || pendingDynamicConfigurations.contains(key)) {
+                skippedReconciliations.remove(key);
+                return fullReconcile(reconcileState);
             }
 
-            if (reconcileResult.succeeded())    {
-                readyCondition = new ConditionBuilder()
-                        .withLastTransitionTime(new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssZ").format(dateSupplier()))
-                        .withType("Ready")
-                        .withStatus("True")
-                        .build();
-            } else {
-                readyCondition = new ConditionBuilder()
-                        .withLastTransitionTime(new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssZ").format(dateSupplier()))
-                        .withType("NotReady")
-                        .withStatus("True")
-                        .withReason(reconcileResult.cause().getClass().getSimpleName())
-                        .withMessage(reconcileResult.cause().getMessage())
-                        .build();
-            }
-
-            status.setConditions(Collections.singletonList(readyCondition));
-            reconcileState.updateStatus(status).setHandler(statusResult -> {
-                if (statusResult.succeeded())    {
-                    log.debug("Status for {} is up to date", kafkaAssembly.getMetadata().getName());
-                } else {
-                    log.error("Failed to set status for {}", kafkaAssembly.getMetadata().getName());
-                }
-
-                // If both features succeeded, createOrUpdate succeeded as well
-                // If one or both of them failed, we prefer the reconciliation failure as the main error
-                if (reconcileResult.succeeded() && statusResult.succeeded())    {
-                    createOrUpdateFuture.complete();
-                } else if (reconcileResult.failed())    {
-                    createOrUpdateFuture.fail(reconcileResult.cause());
-                } else {
-                    createOrUpdateFuture.fail(statusResult.cause());
+            // The renewal of the CA certificates and the removal of the expired ones depend on the time rather
+            // than on any resource, so the CAs are reconciled even when the rest of the reconciliation is skipped
+            Future<Void> result = Future.future();
+            reconcileState.reconcileCas(this::dateSupplier).setHandler(casResult -> {
+                if (casResult.failed() || reconcileState.casChanged()) {
+                    log.info("{}: The CAs of the Kafka cluster changed or could not be reconciled, running full reconciliation", reconciliation);
+                    skippedReconciliations.remove(key);
+                    fullReconcile(reconcileState).setHandler(result);
+                    return;
                 }
+                skippedReconciliations.put(key, skipped + 1);
+                log.info("{}: Kafka cluster and its dependencies are unchanged and its pods are ready, skipping full reconciliation ({} of at most {} in a row)",
+                        reconciliation, skipped + 1, maxSkippedReconciliations);
+                reconcileState.kafkaStatus = new KafkaStatusBuilder(status).build();
+                updateStatus(reconcileState, Future.succeededFuture()).setHandler(result);
             });
+            return result;
+        });
+    }
+
+    @Override
+    protected void assemblyDeleted(Reconciliation reconciliation) {
+        statusWriter.forget(reconciliation.namespace(), reconciliation.name());
+        skippedReconciliations.remove(new NamespaceAndName(reconciliation.namespace(), reconciliation.name()));
+        pendingDynamicConfigurations.remove(new NamespaceAndName(reconciliation.namespace(), reconciliation.name()));
+    }
+
+    private Future<Void> fullReconcile(ReconciliationState reconcileState) {
+        Future<Void> createOrUpdateFuture = Future.future();
+        reconcile(reconcileState).compose(ignored -> recordReconciliationFingerprint(reconcileState))
+            .setHandler(reconcileResult -> updateStatus(reconcileState, reconcileResult).setHandler(createOrUpdateFuture));
+        return createOrUpdateFuture;
+    }
+
+    /**
+     * Sets the observed generation and the Ready or NotReady condition of the status of the given reconciliation,
+     * according to the given result, and updates the status of the Kafka resource.
+     *
+     * @param reconcileState The reconciliation.
+     * @param reconcileResult The result of the reconciliation.
+     * @return A future which fails with the failure of the reconciliation, if any, or of the status update.
+     */
+    private Future<Void> updateStatus(ReconciliationState reconcileState, AsyncResult<Void> reconcileResult) {
+        Future<Void> createOrUpdateFuture = Future.future();
+        Kafka kafkaAssembly = reconcileState.kafkaAssembly;
+        KafkaStatus status = reconcileState.kafkaStatus;
+        Condition readyCondition;
+
+        if (kafkaAssembly.getMetadata().getGeneration() != null)    {
+            status.setObservedGeneration(kafkaAssembly.getMetadata().getGeneration());
+        }
+
+        if (reconcileResult.succeeded())    {
+            readyCondition = new ConditionBuilder()
+                    .withLastTransitionTime(new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssZ").format(dateSupplier()))
+                    .withType("Ready")
+                    .withStatus("True")
+                    .build();
+        } else {
+            readyCondition = new ConditionBuilder()
+                    .withLastTransitionTime(new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssZ").format(dateSupplier()))
+                    .withType("NotReady")
+                    .withStatus("True")
+                    .withReason(reconcileResult.cause().getClass().getSimpleName())
+                    .withMessage(reconcileResult.cause().getMessage())
+                    .build();
+        }
+
+        status.setConditions(Collections.singletonList(readyCondition));
+        reconcileState.updateStatus(status).setHandler(statusResult -> {
+            if (statusResult.succeeded())    {
+                log.debug("Status for {} is up to date", kafkaAssembly.getMetadata().getName());
+            } else {
+                log.error("Failed to set status for {}", kafkaAssembly.getMetadata().getName());
+            }
+
+            // If both features succeeded, createOrUpdate succeeded as well
+            // If one or both of them failed, we prefer the reconciliation failure as the main error
+            if (reconcileResult.succeeded() && statusResult.succeeded())    {
+                createOrUpdateFuture.complete();
+            } else if (reconcileResult.failed())    {
+                createOrUpdateFuture.fail(reconcileResult.cause());
+            } else {
+                createOrUpdateFuture.fail(statusResult.cause());
+            }
         });
 
         return createOrUpdateFuture;
     }
 
     Future<Void> reconcile(ReconciliationState reconcileState)  {
-        Future<Void> chainFuture = Future.future();
+        StepExecutor<ReconciliationState> steps = new StepExecutor<>(reconcileState.reconciliation.toString(), MAX_PARALLEL_STEPS);
 
-        reconcileState.reconcileCas(this::dateSupplier)
-                .compose(state -> state.clusterOperatorSecret())
+        steps.step("reconcileCas", state -> state.reconcileCas(this::dateSupplier))
+                .step("clusterOperatorSecret", state -> state.clusterOperatorSecret(), "reconcileCas")
                 // Roll everything if a new CA is added to the trust store.
-                .compose(state -> state.rollingUpdateForNewCaKey())
-                .compose(state -> state.getZookeeperDescription())
-                .compose(state -> state.zkManualPodCleaning())
-                .compose(state -> state.zkNetPolicy())
-                .compose(state -> state.zkManualRollingUpdate())
-                .compose(state -> state.zookeeperServiceAccount())
-                .compose(state -> state.zkPvcs())
-                .compose(state -> state.zkScaleUpStep())
-                .compose(state -> state.zkScaleDown())
-                .compose(state -> state.zkService())
-                .compose(state -> state.zkHeadlessService())
-                .compose(state -> state.zkAncillaryCm())
-                .compose(state -> state.zkNodesSecret())
-                .compose(state -> state.zkPodDisruptionBudget())
-                .compose(state -> state.zkStatefulSet())
-                .compose(state -> state.zkScaleUp())
-                .compose(state -> state.zkRollingUpdate())
-                .compose(state -> state.zkPodsReady())
-                .compose(state -> state.zkServiceEndpointReadiness())
-                .compose(state -> state.zkHeadlessServiceEndpointReadiness())
-                .compose(state -> state.zkPersistentClaimDeletion())
-
-                .compose(state -> state.getKafkaClusterDescription())
-                .compose(state -> state.kafkaManualPodCleaning())
-                .compose(state -> state.kafkaNetPolicy())
-                .compose(state -> state.kafkaManualRollingUpdate())
-                .compose(state -> state.kafkaUpgrade())
-                .compose(state -> state.kafkaPvcs())
-                .compose(state -> state.kafkaInitServiceAccount())
-                .compose(state -> state.kafkaInitClusterRoleBinding())
-                .compose(state -> state.kafkaScaleDown())
-                .compose(state -> state.kafkaService())
-                .compose(state -> state.kafkaHeadlessService())
-                .compose(state -> state.kafkaExternalBootstrapService())
-                .compose(state -> state.kafkaReplicaServices())
-                .compose(state -> state.kafkaBootstrapRoute())
-                .compose(state -> state.kafkaReplicaRoutes())
-                .compose(state -> state.kafkaBootstrapIngress())
-                .compose(state -> state.kafkaReplicaIngress())
-                .compose(state -> state.kafkaExternalBootstrapServiceReady())
-                .compose(state -> state.kafkaReplicaServicesReady())
-                .compose(state -> state.kafkaBootstrapRouteReady())
-                .compose(state -> state.kafkaReplicaRoutesReady())
-                .compose(state -> state.kafkaGenerateCertificates())
-                .compose(state -> state.kafkaAncillaryCm())
-                .compose(state -> state.kafkaBrokersSecret())
-                .compose(state -> state.kafkaPodDisruptionBudget())
-                .compose(state -> state.kafkaStatefulSet())
-                .compose(state -> state.kafkaRollingUpdate())
-                .compose(state -> state.kafkaScaleUp())
-                .compose(state -> state.kafkaPodsReady())
-                .compose(state -> state.kafkaServiceEndpointReady())
-                .compose(state -> state.kafkaHeadlessServiceEndpointReady())
-                .compose(state -> state.kafkaPersistentClaimDeletion())
-
-                .compose(state -> state.getTopicOperatorDescription())
-                .compose(state -> state.topicOperatorServiceAccount())
-                .compose(state -> state.topicOperatorRoleBinding())
-                .compose(state -> state.topicOperatorAncillaryCm())
-                .compose(state -> state.topicOperatorSecret())
-                .compose(state -> state.topicOperatorDeployment())
-
-                .compose(state -> state.getEntityOperatorDescription())
-                .compose(state -> state.entityOperatorServiceAccount())
-                .compose(state -> state.entityOperatorTopicOpRoleBinding())
-                .compose(state -> state.entityOperatorUserOpRoleBinding())
-                .compose(state -> state.entityOperatorTopicOpAncillaryCm())
-                .compose(state -> state.entityOperatorUserOpAncillaryCm())
-                .compose(state -> state.entityOperatorSecret())
-                .compose(state -> state.entityOperatorDeployment())
-                .compose(state -> state.entityOperatorReady())
-
-                .compose(state -> state.getKafkaExporterDescription())
-                .compose(state -> state.kafkaExporterServiceAccount())
-                .compose(state -> state.kafkaExporterSecret())
-                .compose(state -> state.kafkaExporterDeployment())
-                .compose(state -> state.kafkaExporterService())
-                .compose(state -> state.kafkaExporterReady())
-
-                .compose(state -> chainFuture.complete(), chainFuture);
-
-        return chainFuture;
+                .step("rollingUpdateForNewCaKey", state -> state.rollingUpdateForNewCaKey(), "clusterOperatorSecret")
+
+                .step("getZookeeperDescription", state -> state.getZookeeperDescription(), "rollingUpdateForNewCaKey")
+                .step("zkManualPodCleaning", state -> state.zkManualPodCleaning(), "getZookeeperDescription")
+                .step("zkNetPolicy", state -> state.zkNetPolicy(), "getZookeeperDescription")
+                .step("zkManualRollingUpdate", state -> state.zkManualRollingUpdate(), "zkManualPodCleaning")
+                .step("zookeeperServiceAccount", state -> state.zookeeperServiceAccount(), "getZookeeperDescription")
+                .step("zkPvcs", state -> state.zkPvcs(), "zkManualRollingUpdate")
+                .step("zkScaleUpStep", state -> state.zkScaleUpStep(), "zkPvcs")
+                .step("zkScaleDown", state -> state.zkScaleDown(), "zkScaleUpStep")
+                .step("zkService", state -> state.zkService(), "getZookeeperDescription")
+                .step("zkHeadlessService", state -> state.zkHeadlessService(), "getZookeeperDescription")
+                // The configuration and certificates of the pods change only after the manual rolling updates and scaling
+                .step("zkAncillaryCm", state -> state.zkAncillaryCm(), "zkScaleDown")
+                .step("zkNodesSecret", state -> state.zkNodesSecret(), "zkScaleDown")
+                .step("zkPodDisruptionBudget", state -> state.zkPodDisruptionBudget(), "getZookeeperDescription")
+                .step("zkStatefulSet", state -> state.zkStatefulSet(),
+                        "zkNetPolicy", "zookeeperServiceAccount", "zkScaleDown", "zkService", "zkHeadlessService",
+                        "zkAncillaryCm", "zkNodesSecret", "zkPodDisruptionBudget")
+                .step("zkScaleUp", state -> state.zkScaleUp(), "zkStatefulSet")
+                .step("zkRollingUpdate", state -> state.zkRollingUpdate(), "zkScaleUp")
+                .step("zkPodsReady", state -> state.zkPodsReady(), "zkRollingUpdate")
+                .step("zkServiceEndpointReadiness", state -> state.zkServiceEndpointReadiness(), "zkPodsReady")
+                .step("zkHeadlessServiceEndpointReadiness", state -> state.zkHeadlessServiceEndpointReadiness(), "zkPodsReady")
+                .step("zkPersistentClaimDeletion", state -> state.zkPersistentClaimDeletion(),
+                        "zkServiceEndpointReadiness", "zkHeadlessServiceEndpointReadiness")
+
+                .step("getKafkaClusterDescription", state -> state.getKafkaClusterDescription(), "zkPersistentClaimDeletion")
+                .step("kafkaManualPodCleaning", state -> state.kafkaManualPodCleaning(), "getKafkaClusterDescription")
+                .step("kafkaNetPolicy", state -> state.kafkaNetPolicy(), "getKafkaClusterDescription")
+                .step("kafkaManualRollingUpdate", state -> state.kafkaManualRollingUpdate(), "kafkaManualPodCleaning")
+                .step("kafkaUpgrade", state -> state.kafkaUpgrade(), "kafkaManualRollingUpdate")
+                .step("kafkaPvcs", state -> state.kafkaPvcs(), "kafkaUpgrade")
+                .step("kafkaInitServiceAccount", state -> state.kafkaInitServiceAccount(), "getKafkaClusterDescription")
+                .step("kafkaInitClusterRoleBinding", state -> state.kafkaInitClusterRoleBinding(), "getKafkaClusterDescription")
+                .step("kafkaScaleDown", state -> state.kafkaScaleDown(), "kafkaPvcs")
+                .step("kafkaService", state -> state.kafkaService(), "getKafkaClusterDescription")
+                .step("kafkaHeadlessService", state -> state.kafkaHeadlessService(), "getKafkaClusterDescription")
+                .step("kafkaExternalBootstrapService", state -> state.kafkaExternalBootstrapService(), "getKafkaClusterDescription")
+                .step("kafkaReplicaServices", state -> state.kafkaReplicaServices(), "getKafkaClusterDescription")
+                .step("kafkaBootstrapRoute", state -> state.kafkaBootstrapRoute(), "getKafkaClusterDescription")
+                .step("kafkaReplicaRoutes", state -> state.kafkaReplicaRoutes(), "getKafkaClusterDescription")
+                .step("kafkaBootstrapIngress", state -> state.kafkaBootstrapIngress(), "getKafkaClusterDescription")
+                .step("kafkaReplicaIngress", state -> state.kafkaReplicaIngress(), "getKafkaClusterDescription")
+                .step("kafkaExternalBootstrapServiceReady", state -> state.kafkaExternalBootstrapServiceReady(), "kafkaExternalBootstrapService")
+                .step("kafkaReplicaServicesReady", state -> state.kafkaReplicaServicesReady(), "kafkaReplicaServices")
+                .step("kafkaBootstrapRouteReady", state -> state.kafkaBootstrapRouteReady(), "kafkaBootstrapRoute")
+                .step("kafkaReplicaRoutesReady", state -> state.kafkaReplicaRoutesReady(), "kafkaReplicaRoutes")
+                // The certificates include the external addresses collected by the steps above, and they change,
+                // like the configuration of the pods, only after the manual rolling updates, the upgrade and scaling
+                .step("kafkaGenerateCertificates", state -> state.kafkaGenerateCertificates(),
+                        "kafkaBootstrapIngress", "kafkaReplicaIngress", "kafkaExternalBootstrapServiceReady",
+                        "kafkaReplicaServicesReady", "kafkaBootstrapRouteReady", "kafkaReplicaRoutesReady", "kafkaScaleDown")
+                .step("kafkaAncillaryCm", state -> state.kafkaAncillaryCm(), "kafkaGenerateCertificates")
+                .step("kafkaBrokersSecret", state -> state.kafkaBrokersSecret(), "kafkaGenerateCertificates")
+                .step("kafkaPodDisruptionBudget", state -> state.kafkaPodDisruptionBudget(), "getKafkaClusterDescription")
+                .step("kafkaStatefulSet", state -> state.kafkaStatefulSet(),
+                        "kafkaNetPolicy", "kafkaInitServiceAccount", "kafkaInitClusterRoleBinding", "kafkaScaleDown",
+                        "kafkaService", "kafkaHeadlessService", "kafkaAncillaryCm", "kafkaBrokersSecret", "kafkaPodDisruptionBudget")
+                .step("kafkaDynamicConfiguration", state -> state.kafkaDynamicConfiguration(), "kafkaStatefulSet")
+                .step("kafkaRollingUpdate", state -> state.kafkaRollingUpdate(), "kafkaDynamicConfiguration")
+                .step("kafkaScaleUp", state -> state.kafkaScaleUp(), "kafkaRollingUpdate")
+                .step("kafkaPodsReady", state -> state.kafkaPodsReady(), "kafkaScaleUp")
+                .step("kafkaServiceEndpointReady", state -> state.kafkaServiceEndpointReady(), "kafkaPodsReady")
+                .step("kafkaHeadlessServiceEndpointReady", state -> state.kafkaHeadlessServiceEndpointReady(), "kafkaPodsReady")
+                .step("kafkaPersistentClaimDeletion", state -> state.kafkaPersistentClaimDeletion(),
+                        "kafkaServiceEndpointReady", "kafkaHeadlessServiceEndpointReady")
+
+                .step("getTopicOperatorDescription", state -> state.getTopicOperatorDescription(), "kafkaPersistentClaimDeletion")
+                .step("topicOperatorServiceAccount", state -> state.topicOperatorServiceAccount(), "getTopicOperatorDescription")
+                .step("topicOperatorRoleBinding", state -> state.topicOperatorRoleBinding(), "getTopicOperatorDescription")
+                .step("topicOperatorAncillaryCm", state -> state.topicOperatorAncillaryCm(), "getTopicOperatorDescription")
+                .step("topicOperatorSecret", state -> state.topicOperatorSecret(), "getTopicOperatorDescription")
+                .step("topicOperatorDeployment", state -> state.topicOperatorDeployment(),
+                        "topicOperatorServiceAccount", "topicOperatorRoleBinding", "topicOperatorAncillaryCm", "topicOperatorSecret")
+
+                .step("getEntityOperatorDescription", state -> state.getEntityOperatorDescription(), "kafkaPersistentClaimDeletion")
+                .step("entityOperatorServiceAccount", state -> state.entityOperatorServiceAccount(), "getEntityOperatorDescription")
+                .step("entityOperatorTopicOpRoleBinding", state -> state.entityOperatorTopicOpRoleBinding(), "getEntityOperatorDescription")
+                .step("entityOperatorUserOpRoleBinding", state -> state.entityOperatorUserOpRoleBinding(), "getEntityOperatorDescription")
+                .step("entityOperatorTopicOpAncillaryCm", state -> state.entityOperatorTopicOpAncillaryCm(), "getEntityOperatorDescription")
+                .step("entityOperatorUserOpAncillaryCm", state -> state.entityOperatorUserOpAncillaryCm(), "getEntityOperatorDescription")
+                .step("entityOperatorSecret", state -> state.entityOperatorSecret(), "getEntityOperatorDescription")
+                .step("entityOperatorDeployment", state -> state.entityOperatorDeployment(),
+                        "entityOperatorServiceAccount", "entityOperatorTopicOpRoleBinding", "entityOperatorUserOpRoleBinding",
+                        "entityOperatorTopicOpAncillaryCm", "entityOperatorUserOpAncillaryCm", "entityOperatorSecret")
+                .step("entityOperatorReady", state -> state.entityOperatorReady(), "entityOperatorDeployment")
+
+                .step("getKafkaExporterDescription", state -> state.getKafkaExporterDescription(), "kafkaPersistentClaimDeletion")
+                .step("kafkaExporterServiceAccount", state -> state.kafkaExporterServiceAccount(), "getKafkaExporterDescription")
+                .step("kafkaExporterSecret", state -> state.kafkaExporterSecret(), "getKafkaExporterDescription")
+                .step("kafkaExporterDeployment", state -> state.kafkaExporterDeployment(),
+                        "kafkaExporterServiceAccount", "kafkaExporterSecret")
+                .step("kafkaExporterService", state -> state.kafkaExporterService(), "getKafkaExporterDescription")
+                .step("kafkaExporterReady", state -> state.kafkaExporterReady(), "kafkaExporterDeployment", "kafkaExporterService");
+
+        return steps.execute(reconcileState).map((Void) null);
     }
 
     ReconciliationState createReconciliationState(Reconciliation reconciliation, Kafka kafkaAssembly) {
         return new ReconciliationState(reconciliation, kafkaAssembly);
     }
 
+    /**
+     * Records the fingerprint of the reconciled resource on its status, if reconciliations of unchanged
+     * resources can be skipped. If it cannot be computed the next reconciliation will be a full one.
+     */
+    private Future<Void> recordReconciliationFingerprint(ReconciliationState reconcileState) {
+        if (maxSkippedReconciliations == 0) {
+            return Future.succeededFuture();
+        }
+        Future<Void> result = Future.future();
+        reconciliationFingerprint(reconcileState.kafkaAssembly).setHandler(fingerprint -> {
+            if (fingerprint.succeeded()) {
+                reconcileState.kafkaStatus.setReconciliationFingerprint(fingerprint.result().value);
+            } else {
+                log.warn("{}: Failed to compute the reconciliation fingerprint", reconcileState.reconciliation, fingerprint.cause());
+            }
+            result.complete();
+        });
+        return result;
+    }
+
+    /**
+     * The fingerprint of a Kafka resource and of the resources its reconciliation depends on.
+     */
+    static class ReconciliationFingerprint {
+        final String value;
+        final boolean podsReady;
+
+        ReconciliationFingerprint(String value, boolean podsReady) {
+            this.value = value;
+            this.podsReady = podsReady;
+        }
+    }
+
+    /**
+     * Computes the fingerprint of the given Kafka resource, which combines its generation, labels and annotations,
+     * the version and the configuration of the operator which affects the resources of the cluster, such as the images
+     * and the image pull policy, and the resourceVersions of the CA Secrets, of the external logging ConfigMaps it references, of the
+     * ZooKeeper and Kafka StatefulSets and of all the other resources owned by the Kafka resource in its namespace.
+     * The owned resources are listed per kind by their {@code strimzi.io/kind} and {@code strimzi.io/cluster} labels,
+     * so that a change to any of them, or its deletion, changes the fingerprint. The RoleBindings in other watched
+     * namespaces and the ClusterRoleBinding of the brokers are not included.
+     * Also checks whether all the ZooKeeper and Kafka pods are ready.
+     * The resources are read through their operators, so from the resource caches when these are enabled.
+     *
+     * @param kafkaAssembly The Kafka resource.
+     * @return A future which completes with the fingerprint.
+     */
+    /* test */ Future<ReconciliationFingerprint> reconciliationFingerprint(Kafka kafkaAssembly) {
+        String namespace = kafkaAssembly.getMetadata().getNamespace();
+        String name = kafkaAssembly.getMetadata().getName();
+
+        List<String> inputs = new ArrayList<>();
+        inputs.add("generation=" + kafkaAssembly.getMetadata().getGeneration());
+        inputs.add("operator=" + KafkaAssemblyOperator.class.getPackage().getImplementationVersion());
+        inputs.addAll(configurationFingerprintInputs);
+        inputs.addAll(fingerprintInputs("label/", kafkaAssembly.getMetadata().getLabels()));
+        inputs.addAll(fingerprintInputs("annotation/", kafkaAssembly.getMetadata().getAnnotations()));
+
+        List<String> dependencies = new ArrayList<>();
+        List<Future> futures = new ArrayList<>();
+        for (String secretName : asList(KafkaCluster.clusterCaCertSecretName(name), KafkaCluster.clusterCaKeySecretName(name),
+                KafkaCluster.clientsCaCertSecretName(name), KafkaCluster.clientsCaKeySecretName(name))) {
+            dependencies.add("Secret/" + secretName);
+            futures.add(secretOperations.getAsync(namespace, secretName));
+        }
+        for (String configMapName : externalLoggingConfigMaps(kafkaAssembly)) {
+            dependencies.add("ConfigMap/" + configMapName);
+            futures.add(configMapOperations.getAsync(namespace, configMapName));
+        }
+        dependencies.add("StatefulSet/" + ZookeeperCluster.zookeeperClusterName(name));
+        futures.add(zkSetOperations.getAsync(namespace, ZookeeperCluster.zookeeperClusterName(name)));
+        dependencies.add("StatefulSet/" + KafkaCluster.kafkaClusterName(name));
+        futures.add(kafkaSetOperations.getAsync(namespace, KafkaCluster.kafkaClusterName(name)));
+
+        Labels selector = Labels.EMPTY.withKind(Kafka.RESOURCE_KIND).withCluster(name);
+        Map<String, AbstractResourceOperator<?, ? extends HasMetadata, ?, ?, ?>> ownedKinds = ownedKinds();
+        for (AbstractResourceOperator<?, ? extends HasMetadata, ?, ?, ?> operator : ownedKinds.values()) {
+            futures.add(operator.listAsync(namespace, selector));
+        }
+
+        return CompositeFuture.join(futures).compose(res -> {
+            for (int i = 0; i < dependencies.size(); i++) {
+                HasMetadata resource = res.resultAt(i);
+                inputs.add(dependencies.get(i) + "=" + (resource == null ? "absent" : resource.getMetadata().getResourceVersion()));
+            }
+            int index = dependencies.size();
+            for (String kind : ownedKinds.keySet()) {
+                List<? extends HasMetadata> resources = res.resultAt(index++);
+                resources.stream()
+                        .map(resource -> kind + "/" + resource.getMetadata().getName() + "=" + resource.getMetadata().getResourceVersion())
+                        .sorted()
+                        .forEach(inputs::add);
+            }
+            StatefulSet zkSts = res.resultAt(dependencies.size() - 2);
+            StatefulSet kafkaSts = res.resultAt(dependencies.size() - 1);
+            String value = fingerprint(inputs);
+            if (zkSts == null || kafkaSts == null) {
+                return Future.succeededFuture(new ReconciliationFingerprint(value, false));
+            }
+
+            List<String> pods = new ArrayList<>();
+            for (int i = 0; i < zkSts.getSpec().getReplicas(); i++) {
+                pods.add(ZookeeperCluster.zookeeperPodName(name, i));
+            }
+            for (int i = 0; i < kafkaSts.getSpec().getReplicas(); i++) {
+                pods.add(KafkaCluster.kafkaPodName(name, i));
+            }
+            Future<ReconciliationFingerprint> result = Future.future();
+            WorkerPools.kubernetesApiReads(vertx).executeBlocking(
+                future -> future.complete(new ReconciliationFingerprint(value, pods.stream().allMatch(pod -> podOperations.isReady(namespace, pod)))),
+                true, result);
+            return result;
+        });
+    }
+
+    /**
+     * @return The operators of the kinds of the resources owned by a Kafka resource in its namespace, other than the
+     * StatefulSets and their pods, by kind.
+     */
+    private Map<String, AbstractResourceOperator<?, ? extends HasMetadata, ?, ?, ?>> ownedKinds() {
+        Map<String, AbstractResourceOperator<?, ? extends HasMetadata, ?, ?, ?>> kinds = new LinkedHashMap<>();
+        kinds.put("Secret", secretOperations);
+        kinds.put("ConfigMap", configMapOperations);
+        kinds.put("Service", serviceOperations);
+        kinds.put("ServiceAccount", serviceAccountOperations);
+        kinds.put("RoleBinding", roleBindingOperations);
+        kinds.put("NetworkPolicy", networkPolicyOperator);
+        kinds.put("PodDisruptionBudget", podDisruptionBudgetOperator);
+        kinds.put("Deployment", deploymentOperations);
+        kinds.put("PersistentVolumeClaim", pvcOperations);
+        kinds.put("Ingress", ingressOperations);
+        if (pfa.hasRoutes()) {
+            kinds.put("Route", routeOperations);
+        }
+        return kinds;
+    }
+
+    private static List<String> externalLoggingConfigMaps(Kafka kafkaAssembly) {
+        List<Logging> loggings = new ArrayList<>();
+        loggings.add(kafkaAssembly.getSpec().getKafka() != null ? kafkaAssembly.getSpec().getKafka().getLogging() : null);
+        loggings.add(kafkaAssembly.getSpec().getZookeeper() != null ? kafkaAssembly.getSpec().getZookeeper().getLogging() : null);
+        EntityOperatorSpec entityOperator = kafkaAssembly.getSpec().getEntityOperator();
+        if (entityOperator != null) {
+            loggings.add(entityOperator.getTopicOperator() != null ? entityOperator.getTopicOperator().getLogging() : null);
+            loggings.add(entityOperator.getUserOperator() != null ? entityOperator.getUserOperator().getLogging() : null);
+        }
+        List<String> configMaps = new ArrayList<>();
+        for (Logging logging : loggings) {
+            if (logging instanceof ExternalLogging && ((ExternalLogging) logging).getName() != null) {
+                configMaps.add(((ExternalLogging) logging).getName());
+            }
+        }
+        return configMaps;
+    }
+
+    private static String fingerprint(List<String> inputs) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String input : inputs) {
+                digest.update(input.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            StringBuilder sb = new StringBuilder();
+            for (byte b : digest.digest()) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
 
 
     /**
@@ -333,6 +667,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
 
         /* test */ ClusterCa clusterCa;
         /* test */ ClientsCa clientsCa;
+        private boolean casReconciled;
 
         private ZookeeperCluster zkCluster;
         private Service zkService;
@@ -348,9 +683,11 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         private Service kafkaHeadlessService;
         private ConfigMap kafkaMetricsAndLogsConfigMap;
         /* test */ ReconcileResult<StatefulSet> kafkaDiffs;
-        private Set<String> kafkaExternalBootstrapDnsName = new HashSet<>();
-        private Set<String> kafkaExternalAddresses = new HashSet<>();
-        private Map<Integer, Set<String>> kafkaExternalDnsNames = new HashMap<>();
+        private StatefulSet kafkaPreviousStatefulSet;
+        // Written by the external listener steps, which run in parallel
+        private Set<String> kafkaExternalBootstrapDnsName = Collections.synchronizedSet(new HashSet<>());
+        private Set<String> kafkaExternalAddresses = Collections.synchronizedSet(new HashSet<>());
+        private Map<Integer, Set<String>> kafkaExternalDnsNames = Collections.synchronizedMap(new HashMap<>());
         private boolean kafkaAncillaryCmChange;
 
         @SuppressWarnings("deprecation")
@@ -374,60 +711,22 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
             this.kafkaAssembly = kafkaAssembly;
             this.namespace = kafkaAssembly.getMetadata().getNamespace();
             this.name = kafkaAssembly.getMetadata().getName();
+            if (kafkaAssembly.getStatus() != null) {
+                this.kafkaStatus.setDynamicallyUpdatedConfiguration(kafkaAssembly.getStatus().getDynamicallyUpdatedConfiguration());
+            }
         }
 
         /**
-         * Updates the Status field of the Kafka CR. It diffs the desired status against the current status and calls
-         * the update only when there is any difference in non-timestamp fields.
+         * Updates the Status field of the Kafka CR through the {@link StatusWriter}. It diffs the desired status against
+         * the current status and calls the update only when there is any difference in non-timestamp fields, without
+         * reading the current status when the CR did not change since its status was last written.
          *
          * @param desiredStatus The KafkaStatus which should be set
          *
          * @return
          */
         Future<Void> updateStatus(KafkaStatus desiredStatus) {
-            Future<Void> updateStatusFuture = Future.future();
-
-            crdOperator.getAsync(namespace, name).setHandler(getRes -> {
-                if (getRes.succeeded())    {
-                    Kafka kafka = getRes.result();
-
-                    if (kafka != null) {
-                        if ("kafka.strimzi.io/v1alpha1".equals(kafka.getApiVersion()))   {
-                            log.warn("{}: The resource needs to be upgraded from version {} to 'v1beta1' to use the status field", reconciliation, kafka.getApiVersion());
-                            updateStatusFuture.complete();
-                        } else {
-                            KafkaStatus currentStatus = kafka.getStatus();
-
-                            StatusDiff ksDiff = new StatusDiff(currentStatus, desiredStatus);
-
-                            if (!ksDiff.isEmpty()) {
-                                Kafka resourceWithNewStatus = new KafkaBuilder(kafka).withStatus(desiredStatus).build();
-
-                                crdOperator.updateStatusAsync(resourceWithNewStatus).setHandler(updateRes -> {
-                                    if (updateRes.succeeded()) {
-                                        log.debug("{}: Completed status update", reconciliation);
-                                        updateStatusFuture.complete();
-                                    } else {
-                                        log.error("{}: Failed to update status", reconciliation, updateRes.cause());
-                                        updateStatusFuture.fail(updateRes.cause());
-                                    }
-                                });
-                            } else {
-                                log.debug("{}: Status did not change", reconciliation);
-                                updateStatusFuture.complete();
-                            }
-                        }
-                    } else {
-                        log.error("{}: Current Kafka resource not found", reconciliation);
-                        updateStatusFuture.fail("Current Kafka resource not found");
-                    }
-                } else {
-                    log.error("{}: Failed to get the current Kafka resource and its status", reconciliation, getRes.cause());
-                    updateStatusFuture.fail(getRes.cause());
-                }
-            });
-
-            return updateStatusFuture;
+            return statusWriter.updateStatus(reconciliation, kafkaAssembly, desiredStatus);
         }
 
         /**
@@ -436,12 +735,17 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
          * The clients CA secret has to have the name determined by {@link KafkaCluster#clientsCaCertSecretName(String)}.
          * Within both the secrets the current certificate is stored under the key {@code ca.crt}
          * and the current key is stored under the key {@code ca.key}.
+         * The CAs are only reconciled once, so a reconciliation which continues after they were reconciled by
+         * {@link #createOrUpdate(Reconciliation, Kafka)} keeps the result of their renewal.
          */
         Future<ReconciliationState> reconcileCas(Supplier<Date> dateSupplier) {
+            if (casReconciled) {
+                return Future.succeededFuture(this);
+            }
             Labels selectorLabels = Labels.EMPTY.withKind(reconciliation.type().toString()).withCluster(reconciliation.name());
             Labels caLabels = Labels.userLabels(kafkaAssembly.getMetadata().getLabels()).withKind(reconciliation.type().toString()).withCluster(reconciliation.name());
             Future<ReconciliationState> result = Future.future();
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").<ReconciliationState>executeBlocking(
+            WorkerPools.certGeneration(vertx).<ReconciliationState>executeBlocking(
                 future -> {
                     try {
                         String clusterCaCertName = AbstractModel.clusterCaCertSecretName(name);
@@ -521,6 +825,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
 
                         CompositeFuture.join(secretReconciliations).setHandler(res -> {
                             if (res.succeeded())    {
+                                casReconciled = true;
                                 future.complete(this);
                             } else {
                                 future.fail(res.cause());
@@ -535,6 +840,13 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
             return result;
         }
 
+        /**
+         * @return Whether the last {@link #reconcileCas(Supplier)} renewed any CA certificate or removed any expired one.
+         */
+        boolean casChanged() {
+            return clusterCa.certRenewed() || clusterCa.certsRemoved() || clientsCa.certRenewed() || clientsCa.certsRemoved();
+        }
+
         /**
          * Utility method for checking the Secret existence when custom CA is used. The custom CA is configured but the
          * secrets do not exist, it will throw InvalifConfigurationException.
@@ -582,7 +894,10 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
                 }
                 return zkRollFuture
                         .compose(i -> kafkaSetOperations.getAsync(namespace, KafkaCluster.kafkaClusterName(name)))
-                        .compose(ss -> kafkaSetOperations.maybeRollingUpdate(ss, rollPodAndLogReason))
+                        // The brokers cannot authenticate the operator with a certificate signed by the new cluster CA key
+                        // until they have been rolled, so the partitions are not checked through the Admin API
+                        .compose(ss -> kafkaRollingUpdate(ss, rollPodAndLogReason,
+                                partitionAwareRollingUpdate && !this.clusterCa.keyReplaced()))
                         .compose(i -> deploymentOperations.getAsync(namespace, io.strimzi.operator.cluster.model.TopicOperator.topicOperatorName(name)))
                         .compose(dep -> {
                             if (dep != null) {
@@ -614,7 +929,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
                     if (ss != null) {
                         if (Annotations.booleanAnnotation(ss, ANNO_STRIMZI_IO_MANUAL_ROLLING_UPDATE,
                                 false, ANNO_OP_STRIMZI_IO_MANUAL_ROLLING_UPDATE)) {
-                            return kafkaSetOperations.maybeRollingUpdate(ss, pod -> {
+                            return kafkaRollingUpdate(ss, pod -> {
 
                                 log.debug("{}: Rolling Kafka pod {} due to manual rolling update",
                                         reconciliation, pod.getMetadata().getName());
@@ -657,7 +972,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
          */
         public Future<Void> waitForQuiescence(StatefulSet ss) {
             if (ss != null) {
-                return kafkaSetOperations.maybeRollingUpdate(ss,
+                return kafkaRollingUpdate(ss,
                     pod -> {
                         boolean notUpToDate = !isPodUpToDate(ss, pod);
                         if (notUpToDate) {
@@ -812,7 +1127,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
             String name = KafkaCluster.kafkaClusterName(this.name);
             log.info("{}: Upgrade: Patch + rolling update of {}", reconciliation, name);
             return kafkaSetOperations.reconcile(namespace, name, newSs)
-                    .compose(result -> kafkaSetOperations.maybeRollingUpdate(ss, pod -> {
+                    .compose(result -> kafkaRollingUpdate(ss, pod -> {
                         log.info("{}: Upgrade: Patch + rolling update of {}: Pod {}", reconciliation, name, pod.getMetadata().getName());
                         return true;
                     }).map(result.resource()))
@@ -875,7 +1190,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
             // Reconcile the SS and perform a rolling update of the pods
             log.info("{}: Upgrade: Patch + rolling update of {}", reconciliation, name);
             return kafkaSetOperations.reconcile(namespace, KafkaCluster.kafkaClusterName(name), newSs)
-                    .compose(ignored -> kafkaSetOperations.maybeRollingUpdate(ss, pod -> {
+                    .compose(ignored -> kafkaRollingUpdate(ss, pod -> {
                         log.info("{}: Upgrade: Patch + rolling update of {}: Pod {}", reconciliation, name, pod.getMetadata().getName());
                         return true;
                     }))
@@ -956,7 +1271,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
             String name = KafkaCluster.kafkaClusterName(this.name);
             log.info("{}: Downgrade: Patch + rolling update of {}", reconciliation, name);
             return kafkaSetOperations.reconcile(namespace, name, newSs)
-                    .compose(result -> kafkaSetOperations.maybeRollingUpdate(ss, pod -> {
+                    .compose(result -> kafkaRollingUpdate(ss, pod -> {
                         log.info("{}: Downgrade: Patch + rolling update of {}: Pod {}", reconciliation, name, pod.getMetadata().getName());
                         return true;
                     }).map(result.resource()))
@@ -1016,7 +1331,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
             // Reconcile the SS and perform a rolling update of the pods
             log.info("{}: Upgrade: Patch + rolling update of {}", reconciliation, name);
             return kafkaSetOperations.reconcile(namespace, KafkaCluster.kafkaClusterName(name), newSs)
-                    .compose(ignored -> kafkaSetOperations.maybeRollingUpdate(ss, pod -> {
+                    .compose(ignored -> kafkaRollingUpdate(ss, pod -> {
                         log.info("{}: Upgrade: Patch + rolling update of {}: Pod {}", reconciliation, name, pod.getMetadata().getName());
                         return true;
                     }))
@@ -1029,7 +1344,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         Future<ReconciliationState> getZookeeperDescription() {
             Future<ReconciliationState> fut = Future.future();
 
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
+            WorkerPools.kubernetesApiReads(vertx).executeBlocking(
                 future -> {
                     try {
                         StatefulSet sts = zkSetOperations.get(namespace, ZookeeperCluster.zookeeperClusterName(name));
@@ -1094,15 +1409,15 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         Future<ReconciliationState> getReconciliationStateOfConfigMap(AbstractModel cluster, ConfigMap configMap, BiFunction<Boolean, Future<ReconcileResult<ConfigMap>>, Future<ReconciliationState>> function) {
             Future<ReconciliationState> result = Future.future();
 
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").<Boolean>executeBlocking(
+            WorkerPools.kubernetesApiReads(vertx).<Boolean>executeBlocking(
                 future -> {
                     ConfigMap current = configMapOperations.get(namespace, cluster.getAncillaryConfigName());
-                    boolean onlyMetricsSettingChanged = onlyMetricsSettingChanged(current, configMap);
-                    future.complete(onlyMetricsSettingChanged);
+                    boolean onlyMetricsOrLoggingSettingsChanged = onlyMetricsOrLoggingSettingsChanged(current, configMap);
+                    future.complete(onlyMetricsOrLoggingSettingsChanged);
                 }, res -> {
                     if (res.succeeded()) {
-                        boolean onlyMetricsSettingChanged = res.result();
-                        function.apply(onlyMetricsSettingChanged, configMapOperations.reconcile(namespace, cluster.getAncillaryConfigName(), configMap)).setHandler(res2 -> {
+                        boolean onlyMetricsOrLoggingSettingsChanged = res.result();
+                        function.apply(onlyMetricsOrLoggingSettingsChanged, configMapOperations.reconcile(namespace, cluster.getAncillaryConfigName(), configMap)).setHandler(res2 -> {
                             if (res2.succeeded()) {
                                 result.complete(res2.result());
                             } else {
@@ -1186,10 +1501,10 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
             return withVoid(serviceOperations.endpointReadiness(namespace, zkHeadlessService, 1_000, operationTimeoutMs));
         }
 
-        Future<ReconciliationState> withZkAncillaryCmChanged(boolean onlyMetricsSettingChanged, Future<ReconcileResult<ConfigMap>> r) {
+        Future<ReconciliationState> withZkAncillaryCmChanged(boolean onlyMetricsOrLoggingSettingsChanged, Future<ReconcileResult<ConfigMap>> r) {
             return r.map(rr -> {
-                if (onlyMetricsSettingChanged) {
-                    log.debug("Only metrics setting changed - not triggering rolling update");
+                if (onlyMetricsOrLoggingSettingsChanged) {
+                    log.debug("Only metrics or logging settings changed - not triggering rolling update");
                     this.zkAncillaryCmChange = false;
                 } else {
                     this.zkAncillaryCmChange = rr instanceof ReconcileResult.Patched;
@@ -1201,13 +1516,15 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         private Future<ReconciliationState> getKafkaClusterDescription() {
             Future<ReconciliationState> fut = Future.future();
 
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").<ReconciliationState>executeBlocking(
+            WorkerPools.kubernetesApiReads(vertx).<ReconciliationState>executeBlocking(
                 future -> {
                     try {
                         StatefulSet sts = kafkaSetOperations.get(namespace, KafkaCluster.kafkaClusterName(name));
                         Storage oldStorage = getOldStorage(sts);
 
                         this.kafkaCluster = KafkaCluster.fromCrd(kafkaAssembly, versions, oldStorage);
+                        this.kafkaCluster.setClusterOperatorAccess(dynamicBrokerConfiguration || partitionAwareRollingUpdate);
+                        this.kafkaCluster.setClusterOperatorNamespace(operatorNamespace, operatorNamespaceLabels);
 
                         ConfigMap logAndMetricsConfigMap = kafkaCluster.generateMetricsAndLogConfigMap(
                                 kafkaCluster.getLogging() instanceof ExternalLogging ?
@@ -1240,10 +1557,10 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
             });
         }
 
-        Future<ReconciliationState> withKafkaAncillaryCmChanged(boolean onlyMetricsSettingChanged, Future<ReconcileResult<ConfigMap>> r) {
+        Future<ReconciliationState> withKafkaAncillaryCmChanged(boolean onlyMetricsOrLoggingSettingsChanged, Future<ReconcileResult<ConfigMap>> r) {
             return r.map(rr -> {
-                if (onlyMetricsSettingChanged) {
-                    log.debug("Only metrics setting changed - not triggering rolling update");
+                if (onlyMetricsOrLoggingSettingsChanged) {
+                    log.debug("Only metrics or logging settings changed - not triggering rolling update");
                     this.kafkaAncillaryCmChange = false;
                 } else {
                     this.kafkaAncillaryCmChange = rr instanceof ReconcileResult.Patched;
@@ -1404,7 +1721,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
 
             Future blockingFuture = Future.future();
 
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
+            WorkerPools.readinessPolling(vertx).executeBlocking(
                 future -> {
                     String serviceName = KafkaCluster.externalBootstrapServiceName(name);
                     Future<Void> address = null;
@@ -1469,7 +1786,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
 
             Future blockingFuture = Future.future();
 
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
+            WorkerPools.readinessPolling(vertx).executeBlocking(
                 future -> {
                     int replicas = kafkaCluster.getReplicas();
                     List<Future> routeFutures = new ArrayList<>(replicas);
@@ -1574,7 +1891,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
 
             Future blockingFuture = Future.future();
 
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
+            WorkerPools.readinessPolling(vertx).executeBlocking(
                 future -> {
                     String routeName = KafkaCluster.serviceName(name);
                     //Future future = Future.future();
@@ -1618,7 +1935,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
 
             Future blockingFuture = Future.future();
 
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
+            WorkerPools.readinessPolling(vertx).executeBlocking(
                 future -> {
                     int replicas = kafkaCluster.getReplicas();
                     List<Future> routeFutures = new ArrayList<>(replicas);
@@ -1685,7 +2002,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
 
         Future<ReconciliationState> kafkaGenerateCertificates() {
             Future<ReconciliationState> result = Future.future();
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").<ReconciliationState>executeBlocking(
+            WorkerPools.certGeneration(vertx).<ReconciliationState>executeBlocking(
                 future -> {
                     try {
                         kafkaCluster.generateCertificates(kafkaAssembly,
@@ -1846,15 +2163,153 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
             Annotations.annotations(template).put(
                     Ca.ANNO_STRIMZI_IO_CLIENTS_CA_CERT_GENERATION,
                     String.valueOf(getCaCertGeneration(this.clientsCa)));
-            return withKafkaDiff(kafkaSetOperations.reconcile(namespace, kafkaCluster.getName(), kafkaSs));
+            if (!dynamicBrokerConfiguration) {
+                return withKafkaDiff(kafkaSetOperations.reconcile(namespace, kafkaCluster.getName(), kafkaSs));
+            }
+            return kafkaSetOperations.getAsync(namespace, kafkaCluster.getName()).compose(previous -> {
+                this.kafkaPreviousStatefulSet = previous;
+                return withKafkaDiff(kafkaSetOperations.reconcile(namespace, kafkaCluster.getName(), kafkaSs));
+            });
+        }
+
+        /**
+         * If the Kafka StatefulSet was changed only by changes to dynamic broker configuration options, applies them
+         * to the running brokers and marks the pods as up to date, so that they are not rolled. In any other case,
+         * or if the brokers could not be updated, the pods are left to {@link #kafkaRollingUpdate()}, after the
+         * dynamic configuration of the brokers has been reconciled with the desired one, so that no dynamic value
+         * shadows the new static configuration of the rolled brokers.
+         */
+        Future<ReconciliationState> kafkaDynamicConfiguration() {
+            StatefulSet previous = kafkaPreviousStatefulSet;
+            StatefulSet current = kafkaDiffs.resource();
+            if (previous == null || current == null) {
+                return Future.succeededFuture(this);
+            }
+            String previousConfiguration = ModelUtils.getKafkaContainerEnv(previous).get(ENV_VAR_KAFKA_CONFIGURATION);
+            String desiredConfiguration = ModelUtils.getKafkaContainerEnv(current).get(ENV_VAR_KAFKA_CONFIGURATION);
+            KafkaVersion kafkaVersion = versions.version(kafkaAssembly.getSpec().getKafka().getVersion());
+            int previousGeneration = StatefulSetOperator.getSsGeneration(previous);
+            int generation = StatefulSetOperator.getSsGeneration(current);
+            if (previousGeneration == generation) {
+                if (pendingDynamicConfigurations.contains(new NamespaceAndName(namespace, name))) {
+                    return reconcileDynamicConfiguration(new KafkaConfigurationDiff(desiredConfiguration, desiredConfiguration, kafkaVersion));
+                }
+                return Future.succeededFuture(this);
+            }
+
+            KafkaConfigurationDiff configurationDiff = new KafkaConfigurationDiff(previousConfiguration, desiredConfiguration, kafkaVersion);
+            if (configurationDiff.isEmpty()
+                    || !configurationDiff.canBeUpdatedDynamically()
+                    || kafkaAncillaryCmChange
+                    || KafkaSetOperator.needsRollingUpdate(new StatefulSetDiff(withoutKafkaConfiguration(previous), withoutKafkaConfiguration(current)))) {
+                log.debug("{}: Kafka StatefulSet changed ({}), the brokers will be rolled", reconciliation, configurationDiff);
+                kafkaStatus.setDynamicallyUpdatedConfiguration(null);
+                return reconcileDynamicConfiguration(configurationDiff);
+            }
+
+            log.info("{}: Updating the configuration options {} of the running brokers", reconciliation, configurationDiff.changedOptions());
+            return kafkaBrokerConfigurationUpdater.updateConfiguration(namespace, name, configurationDiff)
+                .compose(ignored -> kafkaPodsGeneration(previousGeneration, generation))
+                .map(ignored -> {
+                    kafkaStatus.setDynamicallyUpdatedConfiguration(new ArrayList<>(configurationDiff.changedOptions()));
+                    return this;
+                })
+                .recover(error -> {
+                    log.warn("{}: Failed to update the configuration of the running brokers, the brokers will be rolled", reconciliation, error);
+                    kafkaStatus.setDynamicallyUpdatedConfiguration(null);
+                    return reconcileDynamicConfiguration(configurationDiff);
+                });
+        }
+
+        /**
+         * Reconciles the dynamic configuration of the brokers with the desired configuration of the given diff.
+         * When some brokers are not ready, or this fails, the brokers are still rolled, and the dynamic configuration
+         * is reconciled again by the next reconciliations until it succeeds.
+         */
+        Future<ReconciliationState> reconcileDynamicConfiguration(KafkaConfigurationDiff configurationDiff) {
+            NamespaceAndName key = new NamespaceAndName(namespace, name);
+            return allKafkaPodsReady().compose(ready -> {
+                if (!ready) {
+                    log.debug("{}: Some brokers are not ready, their dynamic configuration will be reconciled later", reconciliation);
+                    pendingDynamicConfigurations.add(key);
+                    return Future.succeededFuture(this);
+                }
+                return kafkaBrokerConfigurationUpdater.reconcileConfiguration(namespace, name, configurationDiff)
+                    .map(ignored -> {
+                        pendingDynamicConfigurations.remove(key);
+                        return this;
+                    })
+                    .otherwise(error -> {
+                        log.warn("{}: Failed to reconcile the dynamic configuration of the brokers, it will be retried", reconciliation, error);
+                        pendingDynamicConfigurations.add(key);
+                        return this;
+                    });
+            });
+        }
+
+        Future<Boolean> allKafkaPodsReady() {
+            Future<Boolean> result = Future.future();
+            WorkerPools.kubernetesApiReads(vertx).executeBlocking(future -> {
+                boolean ready = true;
+                for (int i = 0; i < kafkaCluster.getReplicas() && ready; i++) {
+                    ready = podOperations.isReady(namespace, kafkaCluster.getPodName(i));
+                }
+                future.complete(ready);
+            }, true, result);
+            return result;
+        }
+
+        /**
+         * Sets the generation of the Kafka pods which have the given previous generation to the given generation.
+         */
+        Future<Void> kafkaPodsGeneration(int previousGeneration, int generation) {
+            List<Future> futures = new ArrayList<>(kafkaCluster.getReplicas());
+            for (int i = 0; i < kafkaCluster.getReplicas(); i++) {
+                String podName = kafkaCluster.getPodName(i);
+                futures.add(podOperations.getAsync(namespace, podName).compose(pod -> {
+                    if (pod == null || StatefulSetOperator.getPodGeneration(pod) != previousGeneration) {
+                        return Future.succeededFuture();
+                    }
+                    Pod updated = new PodBuilder(pod)
+                            .editMetadata()
+                                .addToAnnotations(StatefulSetOperator.ANNO_STRIMZI_IO_GENERATION, String.valueOf(generation))
+                            .endMetadata()
+                            .build();
+                    return podOperations.reconcile(namespace, podName, updated);
+                }));
+            }
+            return CompositeFuture.join(futures).map((Void) null);
         }
 
         Future<ReconciliationState> kafkaRollingUpdate() {
-            return withVoid(kafkaSetOperations.maybeRollingUpdate(kafkaDiffs.resource(), pod ->
+            return withVoid(kafkaRollingUpdate(kafkaDiffs.resource(), pod ->
                 isPodToRestart(kafkaDiffs.resource(), pod, kafkaAncillaryCmChange, this.clusterCa, this.clientsCa)
             ));
         }
 
+        /**
+         * Rolls the given Kafka pods one rack at a time, restarting several brokers of the same rack at once,
+         * when rack awareness is enabled and the operator is configured to do so, or one pod at a time otherwise.
+         * When the operator is configured to do so, each broker is only restarted once its partitions can tolerate it.
+         */
+        Future<Void> kafkaRollingUpdate(StatefulSet ss, Predicate<Pod> podRestart) {
+            return kafkaRollingUpdate(ss, podRestart, partitionAwareRollingUpdate);
+        }
+
+        /**
+         * Rolls the given Kafka pods like {@link #kafkaRollingUpdate(StatefulSet, Predicate)}, but only checks the
+         * partitions of the brokers when {@code partitionAware} is true.
+         */
+        Future<Void> kafkaRollingUpdate(StatefulSet ss, Predicate<Pod> podRestart, boolean partitionAware) {
+            Rack rack = kafkaAssembly.getSpec().getKafka().getRack();
+            String rackTopologyKey = rack != null && rackRollingUpdateConcurrency > 1 ? rack.getTopologyKey() : null;
+            if (rackTopologyKey != null || partitionAware) {
+                return kafkaSetOperations.maybeRollingUpdate(ss, podRestart, rackTopologyKey, rackRollingUpdateConcurrency,
+                        partitionAware);
+            }
+            return kafkaSetOperations.maybeRollingUpdate(ss, podRestart);
+        }
+
         Future<ReconciliationState> kafkaScaleUp() {
             return withVoid(kafkaSetOperations.scaleUp(namespace, kafkaCluster.getName(), kafkaCluster.getReplicas()));
         }
@@ -2050,8 +2505,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
                         // We have to wait for the pod to be actually deleted
                         log.debug("{}: Checking if Pod {} has been deleted", reconciliation, podName);
 
-                        Future<Void> waitForDeletion = podOperations.waitFor(namespace, podName, pollingIntervalMs, timeoutMs, (ignore1, ignore2) -> {
-                            Pod deletion = podOperations.get(namespace, podName);
+                        Future<Void> waitForDeletion = podOperations.waitFor(namespace, podName, pollingIntervalMs, timeoutMs, deletion -> {
                             log.trace("Checking if Pod {} in namespace {} has been deleted or recreated", podName, namespace);
                             return deletion == null;
                         });
@@ -2069,8 +2523,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
 
                             log.debug("{}: Checking if PVC {} for Pod {} has been deleted", reconciliation, pvcName, podName);
 
-                            Future<Void> waitForDeletion = pvcOperations.waitFor(namespace, pvcName, pollingIntervalMs, timeoutMs, (ignore1, ignore2) -> {
-                                PersistentVolumeClaim deletion = pvcOperations.get(namespace, pvcName);
+                            Future<Void> waitForDeletion = pvcOperations.waitFor(namespace, pvcName, pollingIntervalMs, timeoutMs, deletion -> {
                                 log.trace("Checking if {} {} in namespace {} has been deleted", pvc.getKind(), pvcName, namespace);
                                 return deletion == null || (deletion.getMetadata() != null && !uid.equals(deletion.getMetadata().getUid()));
                             });
@@ -2196,7 +2649,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         private final Future<ReconciliationState> getTopicOperatorDescription() {
             Future<ReconciliationState> fut = Future.future();
 
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").<ReconciliationState>executeBlocking(
+            WorkerPools.kubernetesApiReads(vertx).<ReconciliationState>executeBlocking(
                 future -> {
                     try {
                         this.topicOperator = io.strimzi.operator.cluster.model.TopicOperator.fromCrd(kafkaAssembly, versions);
@@ -2287,7 +2740,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         private final Future<ReconciliationState> getEntityOperatorDescription() {
             Future<ReconciliationState> fut = Future.future();
 
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").<ReconciliationState>executeBlocking(
+            WorkerPools.kubernetesApiReads(vertx).<ReconciliationState>executeBlocking(
                 future -> {
                     try {
                         EntityOperator entityOperator = EntityOperator.fromCrd(kafkaAssembly, versions);
@@ -2461,6 +2914,19 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
             return caCertGeneration == podCaCertGeneration;
         }
 
+        /**
+         * @return A copy of the given Kafka StatefulSet without the broker configuration passed by the user.
+         */
+        private StatefulSet withoutKafkaConfiguration(StatefulSet ss) {
+            StatefulSet copy = new StatefulSetBuilder(ss).build();
+            for (Container container : copy.getSpec().getTemplate().getSpec().getContainers()) {
+                if (container.getEnv() != null) {
+                    container.getEnv().removeIf(env -> ENV_VAR_KAFKA_CONFIGURATION.equals(env.getName()));
+                }
+            }
+            return copy;
+        }
+
         private boolean isPodToRestart(StatefulSet ss, Pod pod, boolean isAncillaryCmChange, Ca... cas) {
             boolean isPodUpToDate = isPodUpToDate(ss, pod);
             boolean isPodCaCertUpToDate = true;
@@ -2632,7 +3098,11 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
             }
         }
 
-        void addListenerStatus(ListenerStatus ls)    {
+        /**
+         * Adds the given listener status. The listener steps run in parallel, so the statuses are kept in the order
+         * of {@link #LISTENER_STATUS_ORDER} rather than in the order in which they are added.
+         */
+        synchronized void addListenerStatus(ListenerStatus ls)    {
             List<ListenerStatus> current = kafkaStatus.getListeners();
             ArrayList<ListenerStatus> desired;
 
@@ -2644,6 +3114,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
             }
 
             desired.add(ls);
+            desired.sort(Comparator.comparingInt(status -> LISTENER_STATUS_ORDER.indexOf(status.getType())));
 
             kafkaStatus.setListeners(desired);
         }
@@ -2655,7 +3126,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         private final Future<ReconciliationState> getKafkaExporterDescription() {
             Future<ReconciliationState> fut = Future.future();
 
-            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").<ReconciliationState>executeBlocking(
+            WorkerPools.kubernetesApiReads(vertx).<ReconciliationState>executeBlocking(
                 future -> {
                     try {
                         this.kafkaExporter = KafkaExporter.fromCrd(kafkaAssembly, versions);
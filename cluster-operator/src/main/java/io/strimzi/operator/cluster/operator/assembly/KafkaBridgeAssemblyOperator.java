@@ -24,6 +24,7 @@ import io.strimzi.operator.cluster.model.StatusDiff;
 import io.strimzi.operator.cluster.operator.resource.ResourceOperatorSupplier;
 import io.strimzi.operator.common.Annotations;
 import io.strimzi.operator.common.Reconciliation;
+import io.strimzi.operator.common.StepExecutor;
 import io.strimzi.operator.common.model.ResourceType;
 import io.strimzi.operator.common.operator.resource.CrdOperator;
 import io.strimzi.operator.common.operator.resource.DeploymentOperator;
@@ -92,17 +93,18 @@ public class KafkaBridgeAssemblyOperator extends AbstractAssemblyOperator<Kubern
         annotations.put(ANNO_STRIMZI_IO_LOGGING, logAndMetricsConfigMap.getData().get(bridge.ANCILLARY_CM_KEY_LOG_CONFIG));
 
         log.debug("{}: Updating Kafka Bridge cluster", reconciliation, name, namespace);
-        Future<Void> chainFuture = Future.future();
-        kafkaBridgeServiceAccount(namespace, bridge)
-            .compose(i -> deploymentOperations.scaleDown(namespace, bridge.getName(), bridge.getReplicas()))
-            .compose(scale -> serviceOperations.reconcile(namespace, bridge.getServiceName(), bridge.generateService()))
-            .compose(i -> configMapOperations.reconcile(namespace, bridge.getAncillaryConfigName(), logAndMetricsConfigMap))
-            .compose(i -> podDisruptionBudgetOperator.reconcile(namespace, bridge.getName(), bridge.generatePodDisruptionBudget()))
-            .compose(i -> deploymentOperations.reconcile(namespace, bridge.getName(), bridge.generateDeployment(annotations, pfa.isOpenshift(), imagePullPolicy, imagePullSecrets)))
-            .compose(i -> deploymentOperations.scaleUp(namespace, bridge.getName(), bridge.getReplicas()))
-            .compose(i -> deploymentOperations.waitForObserved(namespace, bridge.getName(), 1_000, operationTimeoutMs))
-            .compose(i -> deploymentOperations.readiness(namespace, bridge.getName(), 1_000, operationTimeoutMs))
-            .compose(i -> chainFuture.complete(), chainFuture)
+        new StepExecutor<Void>(reconciliation.toString(), MAX_PARALLEL_STEPS)
+            .step("serviceAccount", v -> kafkaBridgeServiceAccount(namespace, bridge))
+            .step("scaleDown", v -> deploymentOperations.scaleDown(namespace, bridge.getName(), bridge.getReplicas()))
+            .step("service", v -> serviceOperations.reconcile(namespace, bridge.getServiceName(), bridge.generateService()), "scaleDown")
+            .step("metricsAndLogConfigMap", v -> configMapOperations.reconcile(namespace, bridge.getAncillaryConfigName(), logAndMetricsConfigMap), "scaleDown")
+            .step("podDisruptionBudget", v -> podDisruptionBudgetOperator.reconcile(namespace, bridge.getName(), bridge.generatePodDisruptionBudget()), "scaleDown")
+            .step("deployment", v -> deploymentOperations.reconcile(namespace, bridge.getName(), bridge.generateDeployment(annotations, pfa.isOpenshift(), imagePullPolicy, imagePullSecrets)),
+                    "serviceAccount", "scaleDown", "service", "metricsAndLogConfigMap", "podDisruptionBudget")
+            .step("scaleUp", v -> deploymentOperations.scaleUp(namespace, bridge.getName(), bridge.getReplicas()), "deployment")
+            .step("waitForObserved", v -> deploymentOperations.waitForObserved(namespace, bridge.getName(), 1_000, operationTimeoutMs), "scaleUp")
+            .step("readiness", v -> deploymentOperations.readiness(namespace, bridge.getName(), 1_000, operationTimeoutMs), "waitForObserved")
+            .execute(null)
             .setHandler(reconciliationResult -> {
                 StatusUtils.setStatusConditionAndObservedGeneration(assemblyResource, kafkaBridgeStatus, reconciliationResult.mapEmpty());
                 int port = KafkaBridgeCluster.DEFAULT_REST_API_PORT;
@@ -19,23 +19,21 @@ import io.strimzi.certs.CertManager;
 import io.strimzi.operator.cluster.ClusterOperatorConfig;
 import io.strimzi.operator.PlatformFeaturesAvailability;
 import io.strimzi.operator.cluster.model.KafkaConnectCluster;
-import io.strimzi.operator.cluster.model.StatusDiff;
 import io.strimzi.operator.cluster.operator.resource.ResourceOperatorSupplier;
-import io.strimzi.operator.common.Annotations;
 import io.strimzi.operator.cluster.model.KafkaVersion;
 import io.strimzi.operator.common.Reconciliation;
+import io.strimzi.operator.common.StepExecutor;
 import io.strimzi.operator.common.model.ResourceType;
-import io.strimzi.operator.common.operator.resource.CrdOperator;
 import io.strimzi.operator.common.operator.resource.DeploymentOperator;
 import io.strimzi.operator.common.operator.resource.ReconcileResult;
 import io.strimzi.operator.common.operator.resource.StatusUtils;
+import io.strimzi.operator.common.operator.resource.StatusWriter;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Collections;
 
 /**
  * <p>Assembly operator for a "Kafka Connect" assembly, which manages:</p>
@@ -46,9 +44,9 @@ import java.util.Map;
 public class KafkaConnectAssemblyOperator extends AbstractAssemblyOperator<KubernetesClient, KafkaConnect, KafkaConnectList, DoneableKafkaConnect, Resource<KafkaConnect, DoneableKafkaConnect>> {
 
     private static final Logger log = LogManager.getLogger(KafkaConnectAssemblyOperator.class.getName());
-    public static final String ANNO_STRIMZI_IO_LOGGING = Annotations.STRIMZI_DOMAIN + "/logging";
     private final DeploymentOperator deploymentOperations;
     private final KafkaVersion.Lookup versions;
+    private final StatusWriter<KafkaConnect, KafkaConnectStatus> statusWriter;
 
     /**
      * @param vertx The Vertx instance
@@ -62,6 +60,8 @@ public class KafkaConnectAssemblyOperator extends AbstractAssemblyOperator<Kuber
                                         ResourceOperatorSupplier supplier,
                                         ClusterOperatorConfig config) {
         super(vertx, pfa, ResourceType.CONNECT, certManager, supplier.connectOperator, supplier, config);
+        this.statusWriter = new StatusWriter<>(supplier.connectOperator, KafkaConnect::getStatus,
+            (resource, status) -> new KafkaConnectBuilder(resource).withStatus(status).build());
         this.deploymentOperations = supplier.deploymentOperations;
         this.versions = config.versions();
     }
@@ -88,21 +88,19 @@ public class KafkaConnectAssemblyOperator extends AbstractAssemblyOperator<Kuber
                 configMapOperations.get(namespace, ((ExternalLogging) connect.getLogging()).getName()) :
                 null);
 
-        Map<String, String> annotations = new HashMap<>();
-        annotations.put(ANNO_STRIMZI_IO_LOGGING, logAndMetricsConfigMap.getData().get(connect.ANCILLARY_CM_KEY_LOG_CONFIG));
-
         log.debug("{}: Updating Kafka Connect cluster", reconciliation, name, namespace);
-        Future<Void> chainFuture = Future.future();
-        connectServiceAccount(namespace, connect)
-                .compose(i -> deploymentOperations.scaleDown(namespace, connect.getName(), connect.getReplicas()))
-                .compose(scale -> serviceOperations.reconcile(namespace, connect.getServiceName(), connect.generateService()))
-                .compose(i -> configMapOperations.reconcile(namespace, connect.getAncillaryConfigName(), logAndMetricsConfigMap))
-                .compose(i -> podDisruptionBudgetOperator.reconcile(namespace, connect.getName(), connect.generatePodDisruptionBudget()))
-                .compose(i -> deploymentOperations.reconcile(namespace, connect.getName(), connect.generateDeployment(annotations, pfa.isOpenshift(), imagePullPolicy, imagePullSecrets)))
-                .compose(i -> deploymentOperations.scaleUp(namespace, connect.getName(), connect.getReplicas()))
-                .compose(i -> deploymentOperations.waitForObserved(namespace, connect.getName(), 1_000, operationTimeoutMs))
-                .compose(i -> deploymentOperations.readiness(namespace, connect.getName(), 1_000, operationTimeoutMs))
-                .compose(i -> chainFuture.complete(), chainFuture)
+        new StepExecutor<Void>(reconciliation.toString(), MAX_PARALLEL_STEPS)
+                .step("serviceAccount", v -> connectServiceAccount(namespace, connect))
+                .step("scaleDown", v -> deploymentOperations.scaleDown(namespace, connect.getName(), connect.getReplicas()))
+                .step("service", v -> serviceOperations.reconcile(namespace, connect.getServiceName(), connect.generateService()), "scaleDown")
+                .step("metricsAndLogConfigMap", v -> configMapOperations.reconcile(namespace, connect.getAncillaryConfigName(), logAndMetricsConfigMap), "scaleDown")
+                .step("podDisruptionBudget", v -> podDisruptionBudgetOperator.reconcile(namespace, connect.getName(), connect.generatePodDisruptionBudget()), "scaleDown")
+                .step("deployment", v -> deploymentOperations.reconcile(namespace, connect.getName(), connect.generateDeployment(Collections.emptyMap(), pfa.isOpenshift(), imagePullPolicy, imagePullSecrets)),
+                        "serviceAccount", "scaleDown", "service", "metricsAndLogConfigMap", "podDisruptionBudget")
+                .step("scaleUp", v -> deploymentOperations.scaleUp(namespace, connect.getName(), connect.getReplicas()), "deployment")
+                .step("waitForObserved", v -> deploymentOperations.waitForObserved(namespace, connect.getName(), 1_000, operationTimeoutMs), "scaleUp")
+                .step("readiness", v -> deploymentOperations.readiness(namespace, connect.getName(), 1_000, operationTimeoutMs), "waitForObserved")
+                .execute(null)
                 .setHandler(reconciliationResult -> {
                     StatusUtils.setStatusConditionAndObservedGeneration(kafkaConnect, kafkaConnectStatus, reconciliationResult);
                     kafkaConnectStatus.setUrl(KafkaConnectResources.url(connect.getCluster(), namespace, KafkaConnectCluster.REST_API_PORT));
@@ -122,9 +120,15 @@ public class KafkaConnectAssemblyOperator extends AbstractAssemblyOperator<Kuber
         return createOrUpdateFuture;
     }
 
+    @Override
+    protected void assemblyDeleted(Reconciliation reconciliation) {
+        statusWriter.forget(reconciliation.namespace(), reconciliation.name());
+    }
+
     /**
-     * Updates the Status field of the Kafka Connect CR. It diffs the desired status against the current status and calls
-     * the update only when there is any difference in non-timestamp fields.
+     * Updates the Status field of the Kafka Connect CR through the {@link StatusWriter}. It diffs the desired status against the current
+     * status and calls the update only when there is any difference in non-timestamp fields, without reading the
+     * current status when the CR did not change since its status was last written.
      *
      * @param kafkaConnectAssembly The CR of Kafka Connect
      * @param reconciliation Reconciliation information
@@ -133,49 +137,7 @@ public class KafkaConnectAssemblyOperator extends AbstractAssemblyOperator<Kuber
      * @return
      */
     Future<Void> updateStatus(KafkaConnect kafkaConnectAssembly, Reconciliation reconciliation, KafkaConnectStatus desiredStatus) {
-        Future<Void> updateStatusFuture = Future.future();
-
-        resourceOperator.getAsync(kafkaConnectAssembly.getMetadata().getNamespace(), kafkaConnectAssembly.getMetadata().getName()).setHandler(getRes -> {
-            if (getRes.succeeded()) {
-                KafkaConnect connect = getRes.result();
-
-                if (connect != null) {
-                    if (StatusUtils.isResourceV1alpha1(connect)) {
-                        log.warn("{}: The resource needs to be upgraded from version {} to 'v1beta1' to use the status field", reconciliation, connect.getApiVersion());
-                        updateStatusFuture.complete();
-                    } else {
-                        KafkaConnectStatus currentStatus = connect.getStatus();
-
-                        StatusDiff ksDiff = new StatusDiff(currentStatus, desiredStatus);
-
-                        if (!ksDiff.isEmpty()) {
-                            KafkaConnect resourceWithNewStatus = new KafkaConnectBuilder(connect).withStatus(desiredStatus).build();
-
-                            ((CrdOperator<KubernetesClient, KafkaConnect, KafkaConnectList, DoneableKafkaConnect>) resourceOperator).updateStatusAsync(resourceWithNewStatus).setHandler(updateRes -> {
-                                if (updateRes.succeeded()) {
-                                    log.debug("{}: Completed status update", reconciliation);
-                                    updateStatusFuture.complete();
-                                } else {
-                                    log.error("{}: Failed to update status", reconciliation, updateRes.cause());
-                                    updateStatusFuture.fail(updateRes.cause());
-                                }
-                            });
-                        } else {
-                            log.debug("{}: Status did not change", reconciliation);
-                            updateStatusFuture.complete();
-                        }
-                    }
-                } else {
-                    log.error("{}: Current Kafka Connect resource not found", reconciliation);
-                    updateStatusFuture.fail("Current Kafka Connect resource not found");
-                }
-            } else {
-                log.error("{}: Failed to get the current Kafka Connect resource and its status", reconciliation, getRes.cause());
-                updateStatusFuture.fail(getRes.cause());
-            }
-        });
-
-        return updateStatusFuture;
+        return statusWriter.updateStatus(reconciliation, kafkaConnectAssembly, desiredStatus);
     }
 
     Future<ReconcileResult<ServiceAccount>> connectServiceAccount(String namespace, KafkaConnectCluster connect) {
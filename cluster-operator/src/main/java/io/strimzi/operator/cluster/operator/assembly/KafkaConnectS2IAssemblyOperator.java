@@ -21,24 +21,23 @@ import io.strimzi.operator.cluster.ClusterOperatorConfig;
 import io.strimzi.operator.PlatformFeaturesAvailability;
 import io.strimzi.operator.cluster.model.KafkaConnectCluster;
 import io.strimzi.operator.cluster.model.KafkaConnectS2ICluster;
-import io.strimzi.operator.cluster.model.StatusDiff;
 import io.strimzi.operator.cluster.operator.resource.ResourceOperatorSupplier;
 import io.strimzi.operator.cluster.model.KafkaVersion;
-import io.strimzi.operator.common.Annotations;
 import io.strimzi.operator.common.Reconciliation;
+import io.strimzi.operator.common.StepExecutor;
 import io.strimzi.operator.common.model.ResourceType;
 import io.strimzi.operator.common.operator.resource.BuildConfigOperator;
-import io.strimzi.operator.common.operator.resource.CrdOperator;
 import io.strimzi.operator.common.operator.resource.DeploymentConfigOperator;
 import io.strimzi.operator.common.operator.resource.ImageStreamOperator;
 import io.strimzi.operator.common.operator.resource.ReconcileResult;
 import io.strimzi.operator.common.operator.resource.StatusUtils;
+import io.strimzi.operator.common.operator.resource.StatusWriter;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.HashMap;
+import java.util.Collections;
 
 /**
  * <p>Assembly operator for a "Kafka Connect S2I" assembly, which manages:</p>
@@ -51,11 +50,11 @@ import java.util.HashMap;
 public class KafkaConnectS2IAssemblyOperator extends AbstractAssemblyOperator<OpenShiftClient, KafkaConnectS2I, KafkaConnectS2IList, DoneableKafkaConnectS2I, Resource<KafkaConnectS2I, DoneableKafkaConnectS2I>> {
 
     private static final Logger log = LogManager.getLogger(KafkaConnectS2IAssemblyOperator.class.getName());
-    public static final String ANNO_STRIMZI_IO_LOGGING = Annotations.STRIMZI_DOMAIN + "/logging";
     private final DeploymentConfigOperator deploymentConfigOperations;
     private final ImageStreamOperator imagesStreamOperations;
     private final BuildConfigOperator buildConfigOperations;
     private final KafkaVersion.Lookup versions;
+    private final StatusWriter<KafkaConnectS2I, KafkaConnectS2Istatus> statusWriter;
 
     /**
      * @param vertx                     The Vertx instance
@@ -70,6 +69,8 @@ public class KafkaConnectS2IAssemblyOperator extends AbstractAssemblyOperator<Op
                                            ResourceOperatorSupplier supplier,
                                            ClusterOperatorConfig config) {
         super(vertx, pfa, ResourceType.CONNECT_S2I, certManager, supplier.connectS2IOperator, supplier, config);
+        this.statusWriter = new StatusWriter<>(supplier.connectS2IOperator, KafkaConnectS2I::getStatus,
+            (resource, status) -> new KafkaConnectS2IBuilder(resource).withStatus(status).build());
         this.deploymentConfigOperations = supplier.deploymentConfigOperations;
         this.imagesStreamOperations = supplier.imagesStreamOperations;
         this.buildConfigOperations = supplier.buildConfigOperations;
@@ -97,23 +98,23 @@ public class KafkaConnectS2IAssemblyOperator extends AbstractAssemblyOperator<Op
             ConfigMap logAndMetricsConfigMap = connect.generateMetricsAndLogConfigMap(connect.getLogging() instanceof ExternalLogging ?
                     configMapOperations.get(namespace, ((ExternalLogging) connect.getLogging()).getName()) :
                     null);
-
-            HashMap<String, String> annotations = new HashMap<>();
-            annotations.put(ANNO_STRIMZI_IO_LOGGING, logAndMetricsConfigMap.getData().get(connect.ANCILLARY_CM_KEY_LOG_CONFIG));
-            Future<Void> chainFuture = Future.future();
-            connectServiceAccount(namespace, connect)
-                    .compose(i -> deploymentConfigOperations.scaleDown(namespace, connect.getName(), connect.getReplicas()))
-                    .compose(scale -> serviceOperations.reconcile(namespace, connect.getServiceName(), connect.generateService()))
-                    .compose(i -> configMapOperations.reconcile(namespace, connect.getAncillaryConfigName(), logAndMetricsConfigMap))
-                    .compose(i -> deploymentConfigOperations.reconcile(namespace, connect.getName(), connect.generateDeploymentConfig(annotations, pfa.isOpenshift(), imagePullPolicy, imagePullSecrets)))
-                    .compose(i -> imagesStreamOperations.reconcile(namespace, KafkaConnectS2IResources.sourceImageStreamName(connect.getCluster()), connect.generateSourceImageStream()))
-                    .compose(i -> imagesStreamOperations.reconcile(namespace, KafkaConnectS2IResources.targetImageStreamName(connect.getCluster()), connect.generateTargetImageStream()))
-                    .compose(i -> podDisruptionBudgetOperator.reconcile(namespace, connect.getName(), connect.generatePodDisruptionBudget()))
-                    .compose(i -> buildConfigOperations.reconcile(namespace, KafkaConnectS2IResources.buildConfigName(connect.getCluster()), connect.generateBuildConfig()))
-                    .compose(i -> deploymentConfigOperations.scaleUp(namespace, connect.getName(), connect.getReplicas()))
-                    .compose(i -> deploymentConfigOperations.waitForObserved(namespace, connect.getName(), 1_000, operationTimeoutMs))
-                    .compose(i -> deploymentConfigOperations.readiness(namespace, connect.getName(), 1_000, operationTimeoutMs))
-                    .compose(i -> chainFuture.complete(), chainFuture)
+            new StepExecutor<Void>(reconciliation.toString(), MAX_PARALLEL_STEPS)
+                    .step("serviceAccount", v -> connectServiceAccount(namespace, connect))
+                    .step("scaleDown", v -> deploymentConfigOperations.scaleDown(namespace, connect.getName(), connect.getReplicas()))
+                    .step("service", v -> serviceOperations.reconcile(namespace, connect.getServiceName(), connect.generateService()), "scaleDown")
+                    .step("metricsAndLogConfigMap", v -> configMapOperations.reconcile(namespace, connect.getAncillaryConfigName(), logAndMetricsConfigMap), "scaleDown")
+                    .step("deploymentConfig", v -> deploymentConfigOperations.reconcile(namespace, connect.getName(), connect.generateDeploymentConfig(Collections.emptyMap(), pfa.isOpenshift(), imagePullPolicy, imagePullSecrets)),
+                            "serviceAccount", "scaleDown", "service", "metricsAndLogConfigMap")
+                    .step("sourceImageStream", v -> imagesStreamOperations.reconcile(namespace, KafkaConnectS2IResources.sourceImageStreamName(connect.getCluster()), connect.generateSourceImageStream()), "scaleDown")
+                    .step("targetImageStream", v -> imagesStreamOperations.reconcile(namespace, KafkaConnectS2IResources.targetImageStreamName(connect.getCluster()), connect.generateTargetImageStream()), "scaleDown")
+                    .step("podDisruptionBudget", v -> podDisruptionBudgetOperator.reconcile(namespace, connect.getName(), connect.generatePodDisruptionBudget()), "scaleDown")
+                    .step("buildConfig", v -> buildConfigOperations.reconcile(namespace, KafkaConnectS2IResources.buildConfigName(connect.getCluster()), connect.generateBuildConfig()),
+                            "sourceImageStream", "targetImageStream")
+                    .step("scaleUp", v -> deploymentConfigOperations.scaleUp(namespace, connect.getName(), connect.getReplicas()),
+                            "deploymentConfig", "podDisruptionBudget", "buildConfig")
+                    .step("waitForObserved", v -> deploymentConfigOperations.waitForObserved(namespace, connect.getName(), 1_000, operationTimeoutMs), "scaleUp")
+                    .step("readiness", v -> deploymentConfigOperations.readiness(namespace, connect.getName(), 1_000, operationTimeoutMs), "waitForObserved")
+                    .execute(null)
                     .setHandler(reconciliationResult -> {
                         StatusUtils.setStatusConditionAndObservedGeneration(kafkaConnectS2I, kafkaConnectS2Istatus, reconciliationResult);
                         kafkaConnectS2Istatus.setUrl(KafkaConnectS2IResources.url(connect.getCluster(), namespace, KafkaConnectS2ICluster.REST_API_PORT));
@@ -138,9 +139,15 @@ public class KafkaConnectS2IAssemblyOperator extends AbstractAssemblyOperator<Op
         }
     }
 
+    @Override
+    protected void assemblyDeleted(Reconciliation reconciliation) {
+        statusWriter.forget(reconciliation.namespace(), reconciliation.name());
+    }
+
     /**
-     * Updates the Status field of the Kafka ConnectS2I CR. It diffs the desired status against the current status and calls
-     * the update only when there is any difference in non-timestamp fields.
+     * Updates the Status field of the Kafka ConnectS2I CR through the {@link StatusWriter}. It diffs the desired status against the current
+     * status and calls the update only when there is any difference in non-timestamp fields, without reading the
+     * current status when the CR did not change since its status was last written.
      *
      * @param kafkaConnectS2Iassembly The CR of Kafka ConnectS2I
      * @param reconciliation Reconciliation information
@@ -149,49 +156,7 @@ public class KafkaConnectS2IAssemblyOperator extends AbstractAssemblyOperator<Op
      * @return
      */
     Future<Void> updateStatus(KafkaConnectS2I kafkaConnectS2Iassembly, Reconciliation reconciliation, KafkaConnectS2Istatus desiredStatus) {
-        Future<Void> updateStatusFuture = Future.future();
-
-        resourceOperator.getAsync(kafkaConnectS2Iassembly.getMetadata().getNamespace(), kafkaConnectS2Iassembly.getMetadata().getName()).setHandler(getRes -> {
-            if (getRes.succeeded()) {
-                KafkaConnectS2I connect = getRes.result();
-
-                if (connect != null) {
-                    if (StatusUtils.isResourceV1alpha1(connect)) {
-                        log.warn("{}: The resource needs to be upgraded from version {} to 'v1beta1' to use the status field", reconciliation, connect.getApiVersion());
-                        updateStatusFuture.complete();
-                    } else {
-                        KafkaConnectS2Istatus currentStatus = connect.getStatus();
-
-                        StatusDiff ksDiff = new StatusDiff(currentStatus, desiredStatus);
-
-                        if (!ksDiff.isEmpty()) {
-                            KafkaConnectS2I resourceWithNewStatus = new KafkaConnectS2IBuilder(connect).withStatus(desiredStatus).build();
-
-                            ((CrdOperator<OpenShiftClient, KafkaConnectS2I, KafkaConnectS2IList, DoneableKafkaConnectS2I>) resourceOperator).updateStatusAsync(resourceWithNewStatus).setHandler(updateRes -> {
-                                if (updateRes.succeeded()) {
-                                    log.debug("{}: Completed status update", reconciliation);
-                                    updateStatusFuture.complete();
-                                } else {
-                                    log.error("{}: Failed to update status", reconciliation, updateRes.cause());
-                                    updateStatusFuture.fail(updateRes.cause());
-                                }
-                            });
-                        } else {
-                            log.debug("{}: Status did not change", reconciliation);
-                            updateStatusFuture.complete();
-                        }
-                    }
-                } else {
-                    log.error("{}: Current Kafka ConnectS2I resource not found", reconciliation);
-                    updateStatusFuture.fail("Current Kafka ConnectS2I resource not found");
-                }
-            } else {
-                log.error("{}: Failed to get the current Kafka ConnectS2I resource and its status", reconciliation, getRes.cause());
-                updateStatusFuture.fail(getRes.cause());
-            }
-        });
-
-        return updateStatusFuture;
+        return statusWriter.updateStatus(reconciliation, kafkaConnectS2Iassembly, desiredStatus);
     }
 
     Future<ReconcileResult<ServiceAccount>> connectServiceAccount(String namespace, KafkaConnectCluster connect) {
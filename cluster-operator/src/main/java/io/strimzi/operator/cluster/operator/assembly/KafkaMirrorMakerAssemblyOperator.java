@@ -20,22 +20,20 @@ import io.strimzi.operator.cluster.ClusterOperatorConfig;
 import io.strimzi.operator.PlatformFeaturesAvailability;
 import io.strimzi.operator.cluster.model.KafkaMirrorMakerCluster;
 import io.strimzi.operator.cluster.model.KafkaVersion;
-import io.strimzi.operator.cluster.model.StatusDiff;
 import io.strimzi.operator.cluster.operator.resource.ResourceOperatorSupplier;
-import io.strimzi.operator.common.Annotations;
 import io.strimzi.operator.common.Reconciliation;
+import io.strimzi.operator.common.StepExecutor;
 import io.strimzi.operator.common.model.ResourceType;
-import io.strimzi.operator.common.operator.resource.CrdOperator;
 import io.strimzi.operator.common.operator.resource.DeploymentOperator;
 import io.strimzi.operator.common.operator.resource.ReconcileResult;
 import io.strimzi.operator.common.operator.resource.StatusUtils;
+import io.strimzi.operator.common.operator.resource.StatusWriter;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Collections;
 
 /**
  * <p>Assembly operator for a "Kafka Mirror Maker" assembly, which manages:</p>
@@ -46,10 +44,10 @@ import java.util.Map;
 public class KafkaMirrorMakerAssemblyOperator extends AbstractAssemblyOperator<KubernetesClient, KafkaMirrorMaker, KafkaMirrorMakerList, DoneableKafkaMirrorMaker, Resource<KafkaMirrorMaker, DoneableKafkaMirrorMaker>> {
 
     private static final Logger log = LogManager.getLogger(KafkaMirrorMakerAssemblyOperator.class.getName());
-    public static final String ANNO_STRIMZI_IO_LOGGING = Annotations.STRIMZI_DOMAIN + "/logging";
 
     private final DeploymentOperator deploymentOperations;
     private final KafkaVersion.Lookup versions;
+    private final StatusWriter<KafkaMirrorMaker, KafkaMirrorMakerStatus> statusWriter;
 
     /**
      * @param vertx                     The Vertx instance
@@ -63,6 +61,8 @@ public class KafkaMirrorMakerAssemblyOperator extends AbstractAssemblyOperator<K
                                             ResourceOperatorSupplier supplier,
                                             ClusterOperatorConfig config) {
         super(vertx, pfa, ResourceType.MIRRORMAKER, certManager, supplier.mirrorMakerOperator, supplier, config);
+        this.statusWriter = new StatusWriter<>(supplier.mirrorMakerOperator, KafkaMirrorMaker::getStatus,
+            (resource, status) -> new KafkaMirrorMakerBuilder(resource).withStatus(status).build());
         this.deploymentOperations = supplier.deploymentOperations;
         this.versions = config.versions();
     }
@@ -91,21 +91,19 @@ public class KafkaMirrorMakerAssemblyOperator extends AbstractAssemblyOperator<K
                 configMapOperations.get(namespace, ((ExternalLogging) mirror.getLogging()).getName()) :
                 null);
 
-        Map<String, String> annotations = new HashMap<>();
-        annotations.put(ANNO_STRIMZI_IO_LOGGING, logAndMetricsConfigMap.getData().get(mirror.ANCILLARY_CM_KEY_LOG_CONFIG));
-
         log.debug("{}: Updating Kafka Mirror Maker cluster", reconciliation, name, namespace);
-        Future<Void> chainFuture = Future.future();
-        mirrorMakerServiceAccount(namespace, mirror)
-                .compose(i -> deploymentOperations.scaleDown(namespace, mirror.getName(), mirror.getReplicas()))
-                .compose(scale -> serviceOperations.reconcile(namespace, KafkaMirrorMakerResources.serviceName(mirror.getCluster()), mirror.generateService()))
-                .compose(i -> configMapOperations.reconcile(namespace, mirror.getAncillaryConfigName(), logAndMetricsConfigMap))
-                .compose(i -> podDisruptionBudgetOperator.reconcile(namespace, mirror.getName(), mirror.generatePodDisruptionBudget()))
-                .compose(i -> deploymentOperations.reconcile(namespace, mirror.getName(), mirror.generateDeployment(annotations, pfa.isOpenshift(), imagePullPolicy, imagePullSecrets)))
-                .compose(i -> deploymentOperations.scaleUp(namespace, mirror.getName(), mirror.getReplicas()))
-                .compose(i -> deploymentOperations.waitForObserved(namespace, mirror.getName(), 1_000, operationTimeoutMs))
-                .compose(i -> deploymentOperations.readiness(namespace, mirror.getName(), 1_000, operationTimeoutMs))
-                .compose(i -> chainFuture.complete(), chainFuture)
+        new StepExecutor<Void>(reconciliation.toString(), MAX_PARALLEL_STEPS)
+                .step("serviceAccount", v -> mirrorMakerServiceAccount(namespace, mirror))
+                .step("scaleDown", v -> deploymentOperations.scaleDown(namespace, mirror.getName(), mirror.getReplicas()))
+                .step("service", v -> serviceOperations.reconcile(namespace, KafkaMirrorMakerResources.serviceName(mirror.getCluster()), mirror.generateService()), "scaleDown")
+                .step("metricsAndLogConfigMap", v -> configMapOperations.reconcile(namespace, mirror.getAncillaryConfigName(), logAndMetricsConfigMap), "scaleDown")
+                .step("podDisruptionBudget", v -> podDisruptionBudgetOperator.reconcile(namespace, mirror.getName(), mirror.generatePodDisruptionBudget()), "scaleDown")
+                .step("deployment", v -> deploymentOperations.reconcile(namespace, mirror.getName(), mirror.generateDeployment(Collections.emptyMap(), pfa.isOpenshift(), imagePullPolicy, imagePullSecrets)),
+                        "serviceAccount", "scaleDown", "service", "metricsAndLogConfigMap", "podDisruptionBudget")
+                .step("scaleUp", v -> deploymentOperations.scaleUp(namespace, mirror.getName(), mirror.getReplicas()), "deployment")
+                .step("waitForObserved", v -> deploymentOperations.waitForObserved(namespace, mirror.getName(), 1_000, operationTimeoutMs), "scaleUp")
+                .step("readiness", v -> deploymentOperations.readiness(namespace, mirror.getName(), 1_000, operationTimeoutMs), "waitForObserved")
+                .execute(null)
                 .setHandler(reconciliationResult -> {
                         StatusUtils.setStatusConditionAndObservedGeneration(assemblyResource, kafkaMirrorMakerStatus, reconciliationResult);
 
@@ -125,9 +123,15 @@ public class KafkaMirrorMakerAssemblyOperator extends AbstractAssemblyOperator<K
         return createOrUpdateFuture;
     }
 
+    @Override
+    protected void assemblyDeleted(Reconciliation reconciliation) {
+        statusWriter.forget(reconciliation.namespace(), reconciliation.name());
+    }
+
     /**
-     * Updates the Status field of the Kafka Mirror Maker CR. It diffs the desired status against the current status and calls
-     * the update only when there is any difference in non-timestamp fields.
+     * Updates the Status field of the Kafka Mirror Maker CR through the {@link StatusWriter}. It diffs the desired status against the current
+     * status and calls the update only when there is any difference in non-timestamp fields, without reading the
+     * current status when the CR did not change since its status was last written.
      *
      * @param kafkaMirrorMakerAssembly The CR of Kafka Mirror Maker
      * @param reconciliation Reconciliation information
@@ -136,48 +140,7 @@ public class KafkaMirrorMakerAssemblyOperator extends AbstractAssemblyOperator<K
      * @return
      */
     Future<Void> updateStatus(KafkaMirrorMaker kafkaMirrorMakerAssembly, Reconciliation reconciliation, KafkaMirrorMakerStatus desiredStatus) {
-        Future<Void> updateStatusFuture = Future.future();
-
-        resourceOperator.getAsync(kafkaMirrorMakerAssembly.getMetadata().getNamespace(), kafkaMirrorMakerAssembly.getMetadata().getName()).setHandler(getRes -> {
-            if (getRes.succeeded()) {
-                KafkaMirrorMaker mirrorMaker = getRes.result();
-
-                if (mirrorMaker != null) {
-                    if (StatusUtils.isResourceV1alpha1(mirrorMaker)) {
-                        log.warn("{}: The resource needs to be upgraded from version {} to 'v1beta1' to use the status field", reconciliation, mirrorMaker.getApiVersion());
-                        updateStatusFuture.complete();
-                    } else {
-                        KafkaMirrorMakerStatus currentStatus = mirrorMaker.getStatus();
-
-                        StatusDiff ksDiff = new StatusDiff(currentStatus, desiredStatus);
-
-                        if (!ksDiff.isEmpty()) {
-                            KafkaMirrorMaker resourceWithNewStatus = new KafkaMirrorMakerBuilder(mirrorMaker).withStatus(desiredStatus).build();
-
-                            ((CrdOperator<KubernetesClient, KafkaMirrorMaker, KafkaMirrorMakerList, DoneableKafkaMirrorMaker>) resourceOperator).updateStatusAsync(resourceWithNewStatus).setHandler(updateRes -> {
-                                if (updateRes.succeeded()) {
-                                    log.debug("{}: Completed status update", reconciliation);
-                                    updateStatusFuture.complete();
-                                } else {
-                                    log.error("{}: Failed to update status", reconciliation, updateRes.cause());
-                                    updateStatusFuture.fail(updateRes.cause());
-                                }
-                            });
-                        } else {
-                            log.debug("{}: Status did not change", reconciliation);
-                            updateStatusFuture.complete();
-                        }
-                    }
-                } else {
-                    log.error("{}: Current Kafka Mirror Maker resource not found", reconciliation);
-                    updateStatusFuture.fail("Current Kafka Mirror Maker resource not found");
-                }
-            } else {
-                log.error("{}: Failed to get the current Kafka Mirror Maker resource and its status", reconciliation, getRes.cause());
-                updateStatusFuture.fail(getRes.cause());
-            }
-        });
-        return updateStatusFuture;
+        return statusWriter.updateStatus(reconciliation, kafkaMirrorMakerAssembly, desiredStatus);
     }
 
     Future<ReconcileResult<ServiceAccount>> mirrorMakerServiceAccount(String namespace, KafkaMirrorMakerCluster mirror) {
@@ -0,0 +1,26 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.resource;
+
+import io.fabric8.kubernetes.api.model.Secret;
+import org.apache.kafka.clients.admin.AdminClient;
+
+/**
+ * Creates the Kafka {@link AdminClient}s the operator uses to manage the brokers of a Kafka cluster.
+ */
+public interface AdminClientProvider {
+
+    /**
+     * Creates an AdminClient which connects to the given brokers over TLS, trusting the cluster CA and
+     * authenticating with the certificate of the cluster operator.
+     * The caller is responsible for closing the client.
+     *
+     * @param bootstrapHostnames The bootstrap servers.
+     * @param clusterCaCertSecret The Secret with the certificates of the cluster CA.
+     * @param coKeySecret The Secret with the certificate and key of the cluster operator.
+     * @return The client.
+     */
+    AdminClient createAdminClient(String bootstrapHostnames, Secret clusterCaCertSecret, Secret coKeySecret);
+}
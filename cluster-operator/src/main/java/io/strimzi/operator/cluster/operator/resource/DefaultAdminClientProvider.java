@@ -0,0 +1,147 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.resource;
+
+import io.fabric8.kubernetes.api.model.Secret;
+import io.strimzi.certs.CertAndKey;
+import io.strimzi.operator.cluster.model.Ca;
+import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.common.config.SslConfigs;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.SecureRandom;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateFactory;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Creates AdminClients which connect to the replication listener of the brokers, which only accepts clients
+ * with a certificate signed by the cluster CA. The certificates and key are taken from the Secrets, and written
+ * to PKCS12 stores in temporary files which are deleted once the client has loaded them.
+ */
+public class DefaultAdminClientProvider implements AdminClientProvider {
+
+    private static final Logger log = LogManager.getLogger(DefaultAdminClientProvider.class);
+
+    private static final String PKCS12 = "PKCS12";
+
+    private final SecureRandom random = new SecureRandom();
+
+    @Override
+    public AdminClient createAdminClient(String bootstrapHostnames, Secret clusterCaCertSecret, Secret coKeySecret) {
+        String password = password();
+        File truststore = null;
+        File keystore = null;
+        try {
+            truststore = store("truststore", trustStore(clusterCaCertSecret), password);
+            keystore = store("keystore", keyStore(coKeySecret, password), password);
+
+            Properties p = new Properties();
+            p.setProperty(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapHostnames);
+            p.setProperty(CommonClientConfigs.SECURITY_PROTOCOL_CONFIG, "SSL");
+            p.setProperty(SslConfigs.SSL_TRUSTSTORE_LOCATION_CONFIG, truststore.getAbsolutePath());
+            p.setProperty(SslConfigs.SSL_TRUSTSTORE_TYPE_CONFIG, PKCS12);
+            p.setProperty(SslConfigs.SSL_TRUSTSTORE_PASSWORD_CONFIG, password);
+            p.setProperty(SslConfigs.SSL_KEYSTORE_LOCATION_CONFIG, keystore.getAbsolutePath());
+            p.setProperty(SslConfigs.SSL_KEYSTORE_TYPE_CONFIG, PKCS12);
+            p.setProperty(SslConfigs.SSL_KEYSTORE_PASSWORD_CONFIG, password);
+            p.setProperty(SslConfigs.SSL_KEY_PASSWORD_CONFIG, password);
+            p.setProperty(AdminClientConfig.METADATA_MAX_AGE_CONFIG, "30000");
+            p.setProperty(AdminClientConfig.REQUEST_TIMEOUT_MS_CONFIG, "10000");
+            p.setProperty(AdminClientConfig.RETRIES_CONFIG, "3");
+
+            return AdminClient.create(p);
+        } catch (IOException | GeneralSecurityException e) {
+            throw new RuntimeException("Failed to create an AdminClient for " + bootstrapHostnames, e);
+        } finally {
+            delete(truststore);
+            delete(keystore);
+        }
+    }
+
+    private String password() {
+        byte[] bytes = new byte[24];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * @return A store with the certificates of the cluster CA in the given Secret.
+     */
+    /* test */ static KeyStore trustStore(Secret clusterCaCertSecret) throws IOException, GeneralSecurityException {
+        KeyStore store = emptyStore();
+        CertificateFactory x509 = CertificateFactory.getInstance("X.509");
+        for (Map.Entry<String, String> entry : clusterCaCertSecret.getData().entrySet()) {
+            if (entry.getKey().endsWith(".crt")) {
+                byte[] certBytes = Base64.getDecoder().decode(entry.getValue());
+                store.setCertificateEntry(entry.getKey(), x509.generateCertificate(new ByteArrayInputStream(certBytes)));
+            }
+        }
+        return store;
+    }
+
+    /**
+     * @return A store with the certificate and key of the cluster operator in the given Secret.
+     */
+    /* test */ static KeyStore keyStore(Secret coKeySecret, String password) throws IOException, GeneralSecurityException {
+        CertAndKey certAndKey = Ca.asCertAndKey(coKeySecret, "cluster-operator.key", "cluster-operator.crt");
+        if (certAndKey == null) {
+            throw new RuntimeException("Secret " + coKeySecret.getMetadata().getNamespace() + "/" + coKeySecret.getMetadata().getName()
+                    + " does not contain the certificate and key of the cluster operator");
+        }
+        Certificate cert = CertificateFactory.getInstance("X.509").generateCertificate(new ByteArrayInputStream(certAndKey.cert()));
+        KeyStore store = emptyStore();
+        store.setKeyEntry("cluster-operator", privateKey(certAndKey.key(), cert.getPublicKey().getAlgorithm()),
+                password.toCharArray(), new Certificate[] {cert});
+        return store;
+    }
+
+    /**
+     * @return The key of the given PKCS#8 PEM.
+     */
+    private static PrivateKey privateKey(byte[] pem, String algorithm) throws GeneralSecurityException {
+        String base64 = new String(pem, StandardCharsets.US_ASCII)
+                .replaceAll("-----(BEGIN|END) PRIVATE KEY-----", "")
+                .replaceAll("\\s", "");
+        return KeyFactory.getInstance(algorithm).generatePrivate(new PKCS8EncodedKeySpec(Base64.getDecoder().decode(base64)));
+    }
+
+    private static KeyStore emptyStore() throws IOException, GeneralSecurityException {
+        KeyStore store = KeyStore.getInstance(PKCS12);
+        store.load(null, null);
+        return store;
+    }
+
+    private static File store(String prefix, KeyStore store, String password) throws IOException, GeneralSecurityException {
+        File file = File.createTempFile(prefix, ".p12");
+        file.deleteOnExit();
+        try (OutputStream out = new FileOutputStream(file)) {
+            store.store(out, password.toCharArray());
+        }
+        return file;
+    }
+
+    private static void delete(File file) {
+        if (file != null && !file.delete()) {
+            log.warn("Failed to delete {}", file);
+        }
+    }
+}
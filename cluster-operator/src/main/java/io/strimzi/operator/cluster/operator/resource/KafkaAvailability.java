@@ -0,0 +1,346 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.resource;
+
+import io.fabric8.kubernetes.api.model.Secret;
+import io.strimzi.api.kafka.model.KafkaResources;
+import io.strimzi.operator.cluster.ClusterOperator;
+import io.strimzi.operator.common.WorkerPools;
+import io.strimzi.operator.common.operator.resource.SecretOperator;
+import io.strimzi.operator.common.operator.resource.TimeoutException;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.Config;
+import org.apache.kafka.clients.admin.ConfigEntry;
+import org.apache.kafka.clients.admin.ListTopicsOptions;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Decides, through the Admin API, when a broker of a Kafka cluster can be restarted without making any
+ * partition unavailable to producers using {@code acks=all}, and when a restarted broker has caught up.</p>
+ *
+ * <p>A broker can be restarted when none of the partitions which it has in sync would drop below their
+ * {@code min.insync.replicas} without it. Likewise, several brokers can be restarted at the same time when none of
+ * the partitions would drop below their {@code min.insync.replicas} without all of them. Partitions which have no more replicas than their
+ * {@code min.insync.replicas} cannot tolerate any broker being down, so they do not prevent a restart.
+ * A restarted broker has caught up when none of the partitions which have a replica on it is under-replicated.</p>
+ *
+ * <p>It also finds the active controller, so that it can be restarted after the other brokers and the controller
+ * role only moves once during a rolling update.</p>
+ *
+ * <p>The checks of a rolling update are made in a {@link Session}, which connects to the brokers once for the
+ * whole rolling update.</p>
+ */
+public class KafkaAvailability {
+
+    private static final Logger log = LogManager.getLogger(KafkaAvailability.class);
+
+    /* test */ static final long POLL_INTERVAL_MS = 5_000;
+
+    public static final int UNKNOWN_CONTROLLER = -1;
+
+    private final Vertx vertx;
+    private final SecretOperator secretOperations;
+    private final AdminClientProvider adminClientProvider;
+    private final long operationTimeoutMs;
+
+    /**
+     * Constructor
+     * @param vertx The Vertx instance.
+     * @param secretOperations For reading the Secrets with the certificates.
+     * @param adminClientProvider Creates the AdminClients.
+     * @param operationTimeoutMs The timeout of the Admin API requests, and of waiting for the partitions.
+     */
+    public KafkaAvailability(Vertx vertx, SecretOperator secretOperations, AdminClientProvider adminClientProvider, long operationTimeoutMs) {
+        this.vertx = vertx;
+        this.secretOperations = secretOperations;
+        this.adminClientProvider = adminClientProvider;
+        this.operationTimeoutMs = operationTimeoutMs;
+    }
+
+    /**
+     * Opens a session for checking the partitions of the given cluster during a rolling update. The session connects
+     * to the brokers once, rather than for each check, and must be {@linkplain Session#close() closed} once the
+     * rolling update has finished.
+     * @param namespace The namespace of the cluster.
+     * @param cluster The name of the cluster.
+     * @return A future which completes with the session.
+     */
+    public Future<Session> open(String namespace, String cluster) {
+        return adminClient(namespace, cluster).map(adminClient -> new Session(namespace, cluster, adminClient));
+    }
+
+    /**
+     * Finds the id of the active controller of the given cluster.
+     * @param namespace The namespace of the cluster.
+     * @param cluster The name of the cluster.
+     * @return A future which completes with the id of the controller, or with {@link #UNKNOWN_CONTROLLER}
+     * if it cannot be determined.
+     */
+    public Future<Integer> findController(String namespace, String cluster) {
+        return open(namespace, cluster).compose(session -> {
+            Future<Integer> result = Future.future();
+            session.findController().setHandler(res -> {
+                session.close();
+                result.handle(res);
+            });
+            return result;
+        }).otherwise(t -> {
+            log.warn("Could not find the controller of {}/{}", namespace, cluster, t);
+            return UNKNOWN_CONTROLLER;
+        });
+    }
+
+    /**
+     * @param adminClient The client.
+     * @return The id of the controller, or {@link #UNKNOWN_CONTROLLER} if there is none.
+     */
+    /* test */ int controller(AdminClient adminClient) throws Exception {
+        Node controller = adminClient.describeCluster().controller().get(operationTimeoutMs, TimeUnit.MILLISECONDS);
+        return controller == null || controller.isEmpty() ? UNKNOWN_CONTROLLER : controller.id();
+    }
+
+    /**
+     * The checks of the partitions of one cluster during a rolling update, which share one AdminClient.
+     */
+    public class Session {
+        private final String namespace;
+        private final String cluster;
+        private final AdminClient adminClient;
+
+        private Session(String namespace, String cluster, AdminClient adminClient) {
+            this.namespace = namespace;
+            this.cluster = cluster;
+            this.adminClient = adminClient;
+        }
+
+        /**
+         * Waits until the given broker can be restarted.
+         * @param brokerId The id of the broker.
+         * @return A future which completes when the broker can be restarted, or fails with a {@link TimeoutException}
+         * if it still cannot be restarted after the operation timeout.
+         */
+        public Future<Void> awaitCanRoll(int brokerId) {
+            return await("Broker " + brokerId + " of " + namespace + "/" + cluster + " cannot be restarted",
+                () -> KafkaAvailability.this.reasonNotToRoll(adminClient, Collections.singleton(brokerId)));
+        }
+
+        /**
+         * Checks, without waiting, whether the given brokers can be restarted at the same time.
+         * @param brokerIds The ids of the brokers.
+         * @return A future which completes with why the brokers cannot be restarted together, or with null if they can.
+         */
+        public Future<String> reasonNotToRoll(Collection<Integer> brokerIds) {
+            return check(() -> KafkaAvailability.this.reasonNotToRoll(adminClient, brokerIds));
+        }
+
+        /**
+         * Waits until none of the partitions which have a replica on the given broker is under-replicated.
+         * @param brokerId The id of the broker.
+         * @return A future which completes when the broker has caught up, or fails with a {@link TimeoutException}
+         * if it still has not caught up after the operation timeout.
+         */
+        public Future<Void> awaitInSync(int brokerId) {
+            return await("Broker " + brokerId + " of " + namespace + "/" + cluster + " has not caught up",
+                () -> reasonNotInSync(adminClient, brokerId));
+        }
+
+        /**
+         * Finds the id of the active controller.
+         * @return A future which completes with the id of the controller, or with {@link #UNKNOWN_CONTROLLER}
+         * if it cannot be determined.
+         */
+        public Future<Integer> findController() {
+            Future<Integer> result = Future.future();
+            WorkerPools.kubernetesApiReads(vertx).<Integer>executeBlocking(future -> {
+                try {
+                    future.complete(controller(adminClient));
+                } catch (Throwable t) {
+                    future.fail(t);
+                }
+            }, false, result);
+            return result.otherwise(t -> {
+                log.warn("Could not find the controller of {}/{}", namespace, cluster, t);
+                return UNKNOWN_CONTROLLER;
+            });
+        }
+
+        /**
+         * Closes the AdminClient of this session.
+         */
+        public void close() {
+            WorkerPools.kubernetesApiReads(vertx).executeBlocking(future -> {
+                adminClient.close(Duration.ofMillis(operationTimeoutMs));
+                future.complete();
+            }, false, closed -> { });
+        }
+
+        private Future<Void> await(String description, Check check) {
+            Future<Void> result = Future.future();
+            poll(description, check, System.currentTimeMillis() + operationTimeoutMs, result);
+            return result;
+        }
+
+        /**
+         * @return A future which completes with the result of the given check, or with the reason why it failed.
+         */
+        private Future<String> check(Check check) {
+            Future<String> checked = Future.future();
+            WorkerPools.readinessPolling(vertx).<String>executeBlocking(future -> {
+                try {
+                    future.complete(check.reason());
+                } catch (Throwable t) {
+                    future.fail(t);
+                }
+            }, false, checked);
+            return checked.otherwise(t -> "the partitions could not be described: " + t);
+        }
+
+        private void poll(String description, Check check, long deadline, Future<Void> result) {
+            check(check).setHandler(res -> {
+                String reason = res.result();
+                if (reason == null) {
+                    result.complete();
+                } else if (System.currentTimeMillis() + POLL_INTERVAL_MS > deadline) {
+                    result.fail(new TimeoutException(description + " because " + reason));
+                } else {
+                    log.info("{} because {}, retrying in {}ms", description, reason, POLL_INTERVAL_MS);
+                    vertx.setTimer(POLL_INTERVAL_MS, timerId -> poll(description, check, deadline, result));
+                }
+            });
+        }
+    }
+
+    /**
+     * A check of the partitions, which returns why the awaited condition does not hold, or null if it holds.
+     */
+    private interface Check {
+        String reason() throws Exception;
+    }
+
+    private Future<AdminClient> adminClient(String namespace, String cluster) {
+        Future<Secret> clusterCaCertSecret = secretOperations.getAsync(namespace, KafkaResources.clusterCaCertificateSecretName(cluster));
+        Future<Secret> coKeySecret = secretOperations.getAsync(namespace, ClusterOperator.secretName(cluster));
+        return CompositeFuture.join(clusterCaCertSecret, coKeySecret).compose(ignored -> {
+            if (clusterCaCertSecret.result() == null || coKeySecret.result() == null) {
+                return Future.failedFuture(new RuntimeException("The Secrets with the certificates for connecting to the brokers of "
+                        + namespace + "/" + cluster + " do not exist"));
+            }
+            Future<AdminClient> adminClient = Future.future();
+            WorkerPools.kubernetesApiReads(vertx).<AdminClient>executeBlocking(future -> {
+                try {
+                    future.complete(adminClientProvider.createAdminClient(KafkaBrokerConfigurationUpdater.bootstrapHostnames(namespace, cluster),
+                            clusterCaCertSecret.result(), coKeySecret.result()));
+                } catch (Throwable t) {
+                    future.fail(t);
+                }
+            }, false, adminClient);
+            return adminClient;
+        });
+    }
+
+    /**
+     * @param adminClient The client.
+     * @param brokerIds The ids of the brokers to be restarted at the same time.
+     * @return Why the brokers cannot be restarted, or null if they can.
+     */
+    /* test */ String reasonNotToRoll(AdminClient adminClient, Collection<Integer> brokerIds) throws Exception {
+        Map<String, TopicDescription> descriptions = describeTopics(adminClient);
+        if (descriptions.isEmpty()) {
+            return null;
+        }
+        List<ConfigResource> configResources = new ArrayList<>(descriptions.size());
+        for (String topic : descriptions.keySet()) {
+            configResources.add(new ConfigResource(ConfigResource.Type.TOPIC, topic));
+        }
+        Map<ConfigResource, Config> configs = adminClient.describeConfigs(configResources).all()
+                .get(operationTimeoutMs, TimeUnit.MILLISECONDS);
+
+        for (TopicDescription description : descriptions.values()) {
+            int minIsr = minInSyncReplicas(configs.get(new ConfigResource(ConfigResource.Type.TOPIC, description.name())));
+            for (TopicPartitionInfo partition : description.partitions()) {
+                int restartedInSync = count(partition.isr(), brokerIds);
+                if (partition.replicas().size() > minIsr
+                        && restartedInSync > 0
+                        && partition.isr().size() - restartedInSync < minIsr) {
+                    return "partition " + description.name() + "-" + partition.partition() + " would have fewer than "
+                            + minIsr + " in-sync replicas";
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param adminClient The client.
+     * @param brokerId The id of the restarted broker.
+     * @return Why the broker has not caught up, or null if it has.
+     */
+    /* test */ String reasonNotInSync(AdminClient adminClient, int brokerId) throws Exception {
+        int underReplicated = 0;
+        for (TopicDescription description : describeTopics(adminClient).values()) {
+            for (TopicPartitionInfo partition : description.partitions()) {
+                if (contains(partition.replicas(), brokerId)
+                        && partition.isr().size() < partition.replicas().size()) {
+                    underReplicated++;
+                }
+            }
+        }
+        return underReplicated == 0 ? null : underReplicated + " of its partitions are under-replicated";
+    }
+
+    private Map<String, TopicDescription> describeTopics(AdminClient adminClient) throws Exception {
+        Set<String> topics = adminClient.listTopics(new ListTopicsOptions().listInternal(true)).names()
+                .get(operationTimeoutMs, TimeUnit.MILLISECONDS);
+        if (topics.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return adminClient.describeTopics(topics).all().get(operationTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    private static int count(List<Node> nodes, Collection<Integer> brokerIds) {
+        int count = 0;
+        for (Node node : nodes) {
+            if (brokerIds.contains(node.id())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static boolean contains(List<Node> nodes, int brokerId) {
+        for (Node node : nodes) {
+            if (node.id() == brokerId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int minInSyncReplicas(Config config) {
+        ConfigEntry entry = config != null ? config.get(TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG) : null;
+        if (entry == null || entry.value() == null) {
+            return 1;
+        }
+        return Integer.parseInt(entry.value());
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.resource;
+
+import io.fabric8.kubernetes.api.model.Secret;
+import io.strimzi.api.kafka.model.KafkaResources;
+import io.strimzi.operator.cluster.ClusterOperator;
+import io.strimzi.kafka.config.model.Scope;
+import io.strimzi.operator.cluster.model.KafkaCluster;
+import io.strimzi.operator.cluster.model.KafkaConfiguration;
+import io.strimzi.operator.cluster.model.KafkaConfigurationDiff;
+import io.strimzi.operator.common.WorkerPools;
+import io.strimzi.operator.common.operator.resource.SecretOperator;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AlterConfigOp;
+import org.apache.kafka.clients.admin.Config;
+import org.apache.kafka.clients.admin.ConfigEntry;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.config.ConfigResource;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Applies changes to the broker configuration to the running brokers through the Admin API
+ * ({@code incrementalAlterConfigs}), for changes which the {@link KafkaConfigurationDiff} found to
+ * {@linkplain KafkaConfigurationDiff#canBeUpdatedDynamically() not need a restart}.</p>
+ *
+ * <p>The cluster-wide options are set as the cluster-wide default of the dynamic broker configuration,
+ * and the per-broker options are set for each broker of the cluster.</p>
+ *
+ * <p>The dynamic values take precedence over the static configuration of the brokers, so a value set here would
+ * shadow any later change to the option which is applied by rolling the brokers. Hence, each update also reconciles
+ * all the dynamic values of the options which can be set by the user with the desired configuration: a dynamic
+ * value which differs from the desired one is set to the desired one, and a dynamic value of an option which is no
+ * longer desired is deleted. The same is done by {@link #reconcileConfiguration(String, String, KafkaConfigurationDiff)}
+ * before the brokers are rolled.</p>
+ */
+public class KafkaBrokerConfigurationUpdater {
+
+    private static final Logger log = LogManager.getLogger(KafkaBrokerConfigurationUpdater.class);
+
+    /** The name of the {@link ConfigResource} of the cluster-wide default broker configuration. */
+    private static final String CLUSTER_DEFAULT = "";
+
+    private final Vertx vertx;
+    private final SecretOperator secretOperations;
+    private final AdminClientProvider adminClientProvider;
+    private final long operationTimeoutMs;
+
+    /**
+     * Constructor
+     * @param vertx The Vertx instance.
+     * @param secretOperations For reading the Secrets with the certificates.
+     * @param adminClientProvider Creates the AdminClients.
+     * @param operationTimeoutMs The timeout of the Admin API requests.
+     */
+    public KafkaBrokerConfigurationUpdater(Vertx vertx, SecretOperator secretOperations, AdminClientProvider adminClientProvider, long operationTimeoutMs) {
+        this.vertx = vertx;
+        this.secretOperations = secretOperations;
+        this.adminClientProvider = adminClientProvider;
+        this.operationTimeoutMs = operationTimeoutMs;
+    }
+
+    /**
+     * Applies the given changes to the brokers of the given cluster.
+     * @param namespace The namespace of the cluster.
+     * @param cluster The name of the cluster.
+     * @param diff The changes, which must all be dynamic.
+     * @return A future which completes when all the brokers have accepted the changes.
+     */
+    public Future<Void> updateConfiguration(String namespace, String cluster, KafkaConfigurationDiff diff) {
+        if (!diff.canBeUpdatedDynamically()) {
+            return Future.failedFuture(new IllegalArgumentException("The configuration cannot be updated dynamically: " + diff));
+        }
+        return alterConfigs(namespace, cluster, diff, true);
+    }
+
+    /**
+     * Reconciles the dynamic configuration of the brokers of the given cluster with the desired configuration of
+     * the given diff, without applying its changes. This is meant to be used before the brokers are rolled, so that
+     * no dynamic value shadows their new static configuration.
+     * @param namespace The namespace of the cluster.
+     * @param cluster The name of the cluster.
+     * @param diff The changes.
+     * @return A future which completes when the dynamic configuration of all the brokers has been reconciled.
+     */
+    public Future<Void> reconcileConfiguration(String namespace, String cluster, KafkaConfigurationDiff diff) {
+        return alterConfigs(namespace, cluster, diff, false);
+    }
+
+    private Future<Void> alterConfigs(String namespace, String cluster, KafkaConfigurationDiff diff, boolean applyChanges) {
+        Future<Secret> clusterCaCertSecret = secretOperations.getAsync(namespace, KafkaResources.clusterCaCertificateSecretName(cluster));
+        Future<Secret> coKeySecret = secretOperations.getAsync(namespace, ClusterOperator.secretName(cluster));
+        return CompositeFuture.join(clusterCaCertSecret, coKeySecret).compose(ignored -> {
+            if (clusterCaCertSecret.result() == null || coKeySecret.result() == null) {
+                return Future.failedFuture(new RuntimeException("The Secrets with the certificates for connecting to the brokers of "
+                        + namespace + "/" + cluster + " do not exist"));
+            }
+            Future<Void> result = Future.future();
+            WorkerPools.kubernetesApiWrites(vertx).<Void>executeBlocking(future -> {
+                AdminClient adminClient = null;
+                try {
+                    adminClient = adminClientProvider.createAdminClient(bootstrapHostnames(namespace, cluster),
+                            clusterCaCertSecret.result(), coKeySecret.result());
+                    Map<ConfigResource, Collection<AlterConfigOp>> ops = alterConfigOps(adminClient, diff, applyChanges);
+                    if (!ops.isEmpty()) {
+                        adminClient.incrementalAlterConfigs(ops).all().get(operationTimeoutMs, TimeUnit.MILLISECONDS);
+                        log.info("Updated the dynamic configuration of the brokers of {}/{}: {}", namespace, cluster, describe(ops));
+                    }
+                    future.complete();
+                } catch (Throwable t) {
+                    future.fail(t);
+                } finally {
+                    if (adminClient != null) {
+                        adminClient.close(Duration.ofMillis(operationTimeoutMs));
+                    }
+                }
+            }, false, result);
+            return result;
+        });
+    }
+
+    /**
+     * @return The bootstrap address of the replication listener of the brokers of the given cluster.
+     */
+    /* test */ static String bootstrapHostnames(String namespace, String cluster) {
+        return KafkaCluster.serviceName(cluster) + "." + namespace + ".svc:" + KafkaCluster.REPLICATION_PORT;
+    }
+
+    private Map<ConfigResource, Collection<AlterConfigOp>> alterConfigOps(AdminClient adminClient, KafkaConfigurationDiff diff,
+                                                                          boolean applyChanges) throws Exception {
+        Collection<Node> brokers = adminClient.describeCluster().nodes().get(operationTimeoutMs, TimeUnit.MILLISECONDS);
+        List<ConfigResource> resources = new ArrayList<>(brokers.size() + 1);
+        resources.add(new ConfigResource(ConfigResource.Type.BROKER, CLUSTER_DEFAULT));
+        for (Node broker : brokers) {
+            resources.add(new ConfigResource(ConfigResource.Type.BROKER, broker.idString()));
+        }
+        Map<ConfigResource, Config> configs = adminClient.describeConfigs(resources).all().get(operationTimeoutMs, TimeUnit.MILLISECONDS);
+
+        Map<ConfigResource, Collection<AlterConfigOp>> ops = new HashMap<>();
+        for (ConfigResource resource : resources) {
+            boolean clusterDefault = CLUSTER_DEFAULT.equals(resource.name());
+            Map<String, String> updates = !applyChanges ? Collections.emptyMap()
+                    : clusterDefault ? diff.clusterWideUpdates() : diff.perBrokerUpdates();
+            Collection<AlterConfigOp> resourceOps = alterConfigOps(configs.get(resource),
+                    clusterDefault ? ConfigEntry.ConfigSource.DYNAMIC_DEFAULT_BROKER_CONFIG : ConfigEntry.ConfigSource.DYNAMIC_BROKER_CONFIG,
+                    diff, updates);
+            if (!resourceOps.isEmpty()) {
+                ops.put(resource, resourceOps);
+            }
+        }
+        return ops;
+    }
+
+    /**
+     * Returns the operations which reconcile the dynamic configuration of a broker resource with the desired
+     * configuration and then apply the given updates to it.
+     * @param current The current configuration of the resource, or null if it is unknown.
+     * @param source The source of the dynamic values of the resource.
+     * @param diff The changes, with the desired configuration.
+     * @param updates The options to set, with their values.
+     * @return The operations.
+     */
+    /* test */ static Collection<AlterConfigOp> alterConfigOps(Config current, ConfigEntry.ConfigSource source,
+                                                              KafkaConfigurationDiff diff, Map<String, String> updates) {
+        Map<String, AlterConfigOp> ops = new LinkedHashMap<>();
+        if (current != null) {
+            for (ConfigEntry entry : current.entries()) {
+                String option = entry.name();
+                if (entry.source() != source || !isManaged(diff, option)) {
+                    continue;
+                }
+                String desiredValue = diff.desiredOptions().get(option);
+                if (desiredValue == null) {
+                    ops.put(option, new AlterConfigOp(new ConfigEntry(option, null), AlterConfigOp.OpType.DELETE));
+                } else if (entry.isSensitive() || !Objects.equals(entry.value(), desiredValue)) {
+                    ops.put(option, new AlterConfigOp(new ConfigEntry(option, desiredValue), AlterConfigOp.OpType.SET));
+                }
+            }
+        }
+        for (Map.Entry<String, String> update : updates.entrySet()) {
+            ops.put(update.getKey(), new AlterConfigOp(new ConfigEntry(update.getKey(), update.getValue()), AlterConfigOp.OpType.SET));
+        }
+        return new ArrayList<>(ops.values());
+    }
+
+    /**
+     * @return The names of the options altered by the given operations, keyed by resource, without their values
+     * which might be sensitive.
+     */
+    private static Map<String, List<String>> describe(Map<ConfigResource, Collection<AlterConfigOp>> ops) {
+        Map<String, List<String>> result = new TreeMap<>();
+        for (Map.Entry<ConfigResource, Collection<AlterConfigOp>> entry : ops.entrySet()) {
+            List<String> options = new ArrayList<>(entry.getValue().size());
+            for (AlterConfigOp op : entry.getValue()) {
+                options.add(op.opType() + " " + op.configEntry().name());
+            }
+            result.put(CLUSTER_DEFAULT.equals(entry.getKey().name()) ? "<default>" : entry.getKey().name(), options);
+        }
+        return result;
+    }
+
+    /**
+     * The dynamic values of the options which can be set in the {@code spec.kafka.config} are managed by the
+     * operator. The others, such as the listener options, are left alone.
+     */
+    private static boolean isManaged(KafkaConfigurationDiff diff, String option) {
+        Scope scope = diff.scope(option);
+        return (scope == Scope.CLUSTER_WIDE || scope == Scope.PER_BROKER) && !KafkaConfiguration.isForbidden(option);
+    }
+}
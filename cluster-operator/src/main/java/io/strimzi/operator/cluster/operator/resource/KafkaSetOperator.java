@@ -4,11 +4,31 @@
  */
 package io.strimzi.operator.cluster.operator.resource;
 
+import io.fabric8.kubernetes.api.model.Node;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.strimzi.operator.common.model.Labels;
+import io.strimzi.operator.common.operator.resource.NodeOperator;
+import io.strimzi.operator.common.operator.resource.PodOperator;
+import io.strimzi.operator.common.operator.resource.PvcOperator;
+import io.strimzi.operator.common.operator.resource.SecretOperator;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
 /**
  * Specialization of {@link StatefulSetOperator} for StatefulSets of Kafka brokers
  */
@@ -16,6 +36,9 @@ public class KafkaSetOperator extends StatefulSetOperator {
 
     private static final Logger log = LogManager.getLogger(KafkaSetOperator.class);
 
+    private final NodeOperator nodeOperations;
+    private final KafkaAvailability availability;
+
     /**
      * Constructor
      *
@@ -24,7 +47,328 @@ public class KafkaSetOperator extends StatefulSetOperator {
      * @param operationTimeoutMs The timeout.
      */
     public KafkaSetOperator(Vertx vertx, KubernetesClient client, long operationTimeoutMs) {
-        super(vertx, client, operationTimeoutMs);
+        this(vertx, client, operationTimeoutMs, new DefaultAdminClientProvider());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param vertx  The Vertx instance
+     * @param client The Kubernetes client
+     * @param operationTimeoutMs The timeout.
+     * @param adminClientProvider Creates the AdminClients for checking the availability of the partitions.
+     */
+    public KafkaSetOperator(Vertx vertx, KubernetesClient client, long operationTimeoutMs, AdminClientProvider adminClientProvider) {
+        this(vertx, client, operationTimeoutMs, new PodOperator(vertx, client), new PvcOperator(vertx, client),
+                new NodeOperator(vertx, client, operationTimeoutMs),
+                new KafkaAvailability(vertx, new SecretOperator(vertx, client), adminClientProvider, operationTimeoutMs));
+    }
+
+    public KafkaSetOperator(Vertx vertx, KubernetesClient client, long operationTimeoutMs,
+                            PodOperator podOperator, PvcOperator pvcOperator, NodeOperator nodeOperator,
+                            KafkaAvailability availability) {
+        super(vertx, client, operationTimeoutMs, podOperator, pvcOperator);
+        this.nodeOperations = nodeOperator;
+        this.availability = availability;
+    }
+
+    /**
+     * Asynchronously perform a rolling update of the pods in the given StatefulSet, one pod at a time, restarting
+     * the active controller last.
+     *
+     * @param ss The StatefulSet
+     * @param podRestart Function to test whether a given pod needs to be restarted.
+     * @return A future that completes when any necessary rolling has been completed.
+     */
+    @Override
+    public Future<Void> maybeRollingUpdate(StatefulSet ss, Predicate<Pod> podRestart) {
+        return maybeRollingUpdate(ss, podRestart, null, 1, false);
+    }
+
+    /**
+     * Asynchronously perform a rolling update of the pods in the given StatefulSet.
+     *
+     * When a {@code rackTopologyKey} is given and {@code maxConcurrency} is more than 1, the pods are rolled one rack
+     * at a time, restarting up to {@code maxConcurrency} pods of the same rack at once. When rack awareness is enabled
+     * Kafka places the replicas of each partition in distinct racks as long as there are at least as many racks as
+     * replicas, so restarting several brokers of the same rack does not make any partition unavailable. The rack of each pod is the {@code rackTopologyKey} label of the node it runs on,
+     * which is the same label the init container uses for the {@code broker.rack} of the broker. The racks are rolled
+     * in the order of their names and the pods of each rack in the order of their index. When the rack of any pod
+     * cannot be determined the pods are rolled one at a time.
+     *
+     * When {@code awaitAvailability} is true, a ready broker is only restarted once {@link KafkaAvailability} finds
+     * that restarting it would not take any partition below its {@code min.insync.replicas}, and the roll only
+     * continues once the partitions of the restarted broker are no longer under-replicated. The ready brokers which
+     * are restarted at the same time are checked together, and restarted in smaller groups when they cannot all be
+     * down at once, for example when there are fewer racks than replicas. Brokers which are not ready are restarted
+     * without waiting.
+     *
+     * When any broker needs to be restarted, the active controller is found through {@link KafkaAvailability} and
+     * restarted after all the other brokers, so that the controller role only moves once. When the controller cannot
+     * be found, the brokers are rolled in their usual order.
+     *
+     * @param ss The StatefulSet
+     * @param podRestart Function to test whether a given pod needs to be restarted.
+     * @param rackTopologyKey The label of the nodes which identifies their rack, or null to roll the pods one at a time.
+     * @param maxConcurrency The maximum number of pods of the same rack to restart at once.
+     * @param awaitAvailability Whether to wait for the partitions to be available before restarting each broker.
+     * @return A future that completes when any necessary rolling has been completed.
+     */
+    public Future<Void> maybeRollingUpdate(StatefulSet ss, Predicate<Pod> podRestart, String rackTopologyKey, int maxConcurrency,
+                                           boolean awaitAvailability) {
+        String namespace = ss.getMetadata().getNamespace();
+        String name = ss.getMetadata().getName();
+        return podsToRestart(ss, podRestart).compose(podsToRestart -> {
+            if (podsToRestart.isEmpty()) {
+                return batches(ss, rackTopologyKey, maxConcurrency)
+                        .compose(batches -> rollBatches(ss, pod -> false, batches, null));
+            }
+            if (!awaitAvailability) {
+                Future<Integer> controller = availability.findController(namespace, Labels.cluster(ss));
+                Future<List<List<String>>> grouped = batches(ss, rackTopologyKey, maxConcurrency);
+                return CompositeFuture.join(controller, grouped).compose(ignored -> {
+                    List<List<String>> ordered = controllerLast(namespace, name, grouped.result(), controller.result());
+                    return rollBatches(ss, pod -> pod != null && podsToRestart.contains(pod.getMetadata().getName()), ordered, null);
+                });
+            }
+            // One session for the whole roll, so that the brokers are not connected to again for each check
+            return availability.open(namespace, Labels.cluster(ss)).compose(session -> {
+                Future<Integer> controller = session.findController();
+                Future<List<List<String>>> grouped = batches(ss, rackTopologyKey, maxConcurrency);
+                Future<Void> rolled = CompositeFuture.join(controller, grouped).compose(ignored -> {
+                    List<List<String>> ordered = controllerLast(namespace, name, grouped.result(), controller.result());
+                    return rollBatches(ss, pod -> pod != null && podsToRestart.contains(pod.getMetadata().getName()), ordered, session);
+                });
+                Future<Void> result = Future.future();
+                rolled.setHandler(res -> {
+                    session.close();
+                    result.handle(res);
+                });
+                return result;
+            });
+        });
+    }
+
+    /**
+     * Tests which pods need to be restarted before the roll, so that the controller is only looked for if any does.
+     * @return A future which completes with the names of the pods which need to be restarted.
+     */
+    private Future<Set<String>> podsToRestart(StatefulSet ss, Predicate<Pod> podRestart) {
+        int replicas = ss.getSpec().getReplicas();
+        List<Future> pods = new ArrayList<>(replicas);
+        for (int i = 0; i < replicas; i++) {
+            pods.add(podOperations.getAsync(ss.getMetadata().getNamespace(), ss.getMetadata().getName() + "-" + i));
+        }
+        return CompositeFuture.join(pods).map(ignored -> {
+            Set<String> podsToRestart = new HashSet<>();
+            for (Future pod : pods) {
+                Pod p = (Pod) pod.result();
+                if (p != null && podRestart.test(p)) {
+                    podsToRestart.add(p.getMetadata().getName());
+                }
+            }
+            return podsToRestart;
+        });
+    }
+
+    /**
+     * Moves the pod of the given controller, when it is known, after all the other pods.
+     */
+    private List<List<String>> controllerLast(String namespace, String name, List<List<String>> batches, int controller) {
+        if (controller == KafkaAvailability.UNKNOWN_CONTROLLER) {
+            return batches;
+        }
+        log.debug("Rolling update of {}/{}: deferring the restart of controller {}", namespace, name, controller);
+        return controllerLast(batches, name + "-" + controller);
+    }
+
+    /**
+     * Moves the given pod out of its batch into a batch of its own, after all the other batches.
+     */
+    /* test */ static List<List<String>> controllerLast(List<List<String>> batches, String controllerPodName) {
+        List<List<String>> ordered = new ArrayList<>(batches.size() + 1);
+        boolean found = false;
+        for (List<String> batch : batches) {
+            if (batch.contains(controllerPodName)) {
+                found = true;
+                List<String> others = new ArrayList<>(batch);
+                others.remove(controllerPodName);
+                if (!others.isEmpty()) {
+                    ordered.add(others);
+                }
+            } else {
+                ordered.add(batch);
+            }
+        }
+        if (found) {
+            ordered.add(Collections.singletonList(controllerPodName));
+        }
+        return ordered;
+    }
+
+    /**
+     * Groups the pods of the given StatefulSet into the batches of pods to be restarted at the same time: by rack,
+     * when a {@code rackTopologyKey} is given and {@code maxConcurrency} is more than 1, or one pod per batch.
+     */
+    private Future<List<List<String>>> batches(StatefulSet ss, String rackTopologyKey, int maxConcurrency) {
+        if (rackTopologyKey == null || maxConcurrency <= 1) {
+            return Future.succeededFuture(onePodPerBatch(ss));
+        }
+        String namespace = ss.getMetadata().getNamespace();
+        String name = ss.getMetadata().getName();
+        int replicas = ss.getSpec().getReplicas();
+        List<Future> racks = new ArrayList<>(replicas);
+        for (int i = 0; i < replicas; i++) {
+            racks.add(podRack(namespace, name + "-" + i, rackTopologyKey));
+        }
+        return CompositeFuture.join(racks).map(ignored -> {
+            Map<String, List<String>> podsByRack = new TreeMap<>();
+            for (int i = 0; i < replicas; i++) {
+                String rack = (String) racks.get(i).result();
+                if (rack == null) {
+                    log.debug("Rolling update of {}/{}: rack of pod {}-{} is not known, rolling pods one at a time", namespace, name, name, i);
+                    return onePodPerBatch(ss);
+                }
+                podsByRack.computeIfAbsent(rack, k -> new ArrayList<>()).add(name + "-" + i);
+            }
+            log.debug("Considering rolling update of {}/{} by rack {}", namespace, name, podsByRack);
+            List<List<String>> batches = new ArrayList<>();
+            for (List<String> podNames : podsByRack.values()) {
+                for (int start = 0; start < podNames.size(); start += maxConcurrency) {
+                    batches.add(podNames.subList(start, Math.min(start + maxConcurrency, podNames.size())));
+                }
+            }
+            return batches;
+        });
+    }
+
+    private static List<List<String>> onePodPerBatch(StatefulSet ss) {
+        int replicas = ss.getSpec().getReplicas();
+        List<List<String>> batches = new ArrayList<>(replicas);
+        for (int i = 0; i < replicas; i++) {
+            batches.add(Collections.singletonList(ss.getMetadata().getName() + "-" + i));
+        }
+        return batches;
+    }
+
+    /**
+     * Restarts the pods of each batch at the same time, one batch after another.
+     * @param session The session for checking the partitions before and after each restart, or null not to check them.
+     */
+    private Future<Void> rollBatches(StatefulSet ss, Predicate<Pod> podRestart, List<List<String>> batches, KafkaAvailability.Session session) {
+        Future<Void> f = Future.succeededFuture();
+        for (List<String> batch : batches) {
+            f = f.compose(i -> {
+                if (session != null) {
+                    return rollBatchWhenAvailable(ss, podRestart, batch, session);
+                }
+                List<Future> restarts = new ArrayList<>(batch.size());
+                for (String podName : batch) {
+                    restarts.add(maybeRestartPod(ss, podName, podRestart));
+                }
+                return CompositeFuture.join(restarts).map((Void) null);
+            });
+        }
+        return f;
+    }
+
+    /**
+     * Restarts the pods of the given batch at the same time, once restarting all the ready brokers among them
+     * together would not take any partition below its {@code min.insync.replicas}. Each check of a single broker
+     * assumes that it is the only broker down, so the brokers of a batch are checked together. When they cannot be
+     * restarted together, the batch is split in two halves which are rolled one after the other, down to single
+     * brokers which wait until they can be restarted.
+     */
+    private Future<Void> rollBatchWhenAvailable(StatefulSet ss, Predicate<Pod> podRestart, List<String> batch,
+                                                KafkaAvailability.Session session) {
+        if (batch.size() == 1) {
+            return maybeRestartPodWhenAvailable(ss, batch.get(0), podRestart, session, true);
+        }
+        String namespace = ss.getMetadata().getNamespace();
+        String name = ss.getMetadata().getName();
+        List<Future> pods = new ArrayList<>(batch.size());
+        for (String podName : batch) {
+            pods.add(podOperations.getAsync(namespace, podName));
+        }
+        return CompositeFuture.join(pods).compose(ignored -> {
+            Set<Integer> readyBrokers = new TreeSet<>();
+            for (Future pod : pods) {
+                Pod p = (Pod) pod.result();
+                if (p != null && podRestart.test(p) && podOperations.isReady(p)) {
+                    readyBrokers.add(brokerId(p.getMetadata().getName()));
+                }
+            }
+            Future<String> reasonNotToRoll = readyBrokers.size() <= 1 ? Future.succeededFuture(null)
+                    : session.reasonNotToRoll(readyBrokers);
+            return reasonNotToRoll.compose(reason -> {
+                if (reason == null) {
+                    // A single ready broker still waits until it can be restarted
+                    boolean awaitCanRoll = readyBrokers.size() <= 1;
+                    List<Future> restarts = new ArrayList<>(batch.size());
+                    for (String podName : batch) {
+                        restarts.add(maybeRestartPodWhenAvailable(ss, podName, podRestart, session, awaitCanRoll));
+                    }
+                    return CompositeFuture.join(restarts).map((Void) null);
+                }
+                int half = batch.size() / 2;
+                log.info("Rolling update of {}/{}: brokers {} cannot be restarted together because {}, splitting them",
+                        namespace, name, readyBrokers, reason);
+                return rollBatchWhenAvailable(ss, podRestart, batch.subList(0, half), session)
+                        .compose(v -> rollBatchWhenAvailable(ss, podRestart, batch.subList(half, batch.size()), session));
+            });
+        });
+    }
+
+    private static int brokerId(String podName) {
+        return Integer.parseInt(podName.substring(podName.lastIndexOf('-') + 1));
+    }
+
+    /**
+     * Like {@link #maybeRestartPod(StatefulSet, String, Predicate)}, but if the pod needs to be restarted and is ready,
+     * first waits until the broker can be restarted without making any partition unavailable, unless that has already
+     * been checked, and once the restarted pod is ready waits until the partitions of the broker are no longer
+     * under-replicated.
+     */
+    private Future<Void> maybeRestartPodWhenAvailable(StatefulSet ss, String podName, Predicate<Pod> podRestart,
+                                                      KafkaAvailability.Session session, boolean awaitCanRoll) {
+        String namespace = ss.getMetadata().getNamespace();
+        int brokerId = brokerId(podName);
+        return podOperations.getAsync(namespace, podName).compose(pod -> {
+            Future<Void> canRoll;
+            if (pod == null || !podRestart.test(pod)) {
+                return maybeRestartPod(ss, podName, p -> false);
+            } else if (!podOperations.isReady(pod)) {
+                log.debug("Rolling update of {}/{}: pod {} is not ready, restarting it without checking the partitions",
+                        namespace, ss.getMetadata().getName(), podName);
+                canRoll = Future.succeededFuture();
+            } else if (awaitCanRoll) {
+                canRoll = session.awaitCanRoll(brokerId);
+            } else {
+                canRoll = Future.succeededFuture();
+            }
+            return canRoll.compose(ignored -> maybeRestartPod(ss, podName, p -> true))
+                    .compose(ignored -> session.awaitInSync(brokerId));
+        });
+    }
+
+    /**
+     * @return A future which completes with the value of the {@code rackTopologyKey} label of the node of the given
+     * pod, or null if it cannot be determined.
+     */
+    private Future<String> podRack(String namespace, String podName, String rackTopologyKey) {
+        return podOperations.getAsync(namespace, podName).compose(pod -> {
+            if (pod == null || pod.getSpec() == null || pod.getSpec().getNodeName() == null) {
+                return Future.succeededFuture(null);
+            }
+            return nodeOperations.getAsync(pod.getSpec().getNodeName()).map(node -> nodeLabel(node, rackTopologyKey));
+        }).otherwise((String) null);
+    }
+
+    private static String nodeLabel(Node node, String label) {
+        if (node == null || node.getMetadata() == null || node.getMetadata().getLabels() == null) {
+            return null;
+        }
+        return node.getMetadata().getLabels().get(label);
     }
 
     @Override
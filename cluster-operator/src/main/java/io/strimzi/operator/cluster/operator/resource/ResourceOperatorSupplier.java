@@ -22,6 +22,7 @@ import io.strimzi.api.kafka.model.KafkaConnectS2I;
 import io.strimzi.api.kafka.model.KafkaMirrorMaker;
 import io.strimzi.operator.PlatformFeaturesAvailability;
 import io.strimzi.operator.common.BackOff;
+import io.strimzi.operator.common.operator.resource.AsyncApiClient;
 import io.strimzi.operator.common.operator.resource.BuildConfigOperator;
 import io.strimzi.operator.common.operator.resource.ClusterRoleBindingOperator;
 import io.strimzi.operator.common.operator.resource.ConfigMapOperator;
@@ -42,8 +43,13 @@ import io.strimzi.operator.common.operator.resource.ServiceOperator;
 
 import io.fabric8.openshift.client.OpenShiftClient;
 import io.strimzi.operator.common.operator.resource.StorageClassOperator;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @SuppressWarnings("checkstyle:ClassDataAbstractionCoupling")
 public class ResourceOperatorSupplier {
     public final SecretOperator secretOperations;
@@ -70,6 +76,7 @@ public class ResourceOperatorSupplier {
     public final BuildConfigOperator buildConfigOperations;
     public final DeploymentConfigOperator deploymentConfigOperations;
     public final StorageClassOperator storageClassOperations;
+    public final AdminClientProvider adminClientProvider;
 
     public ResourceOperatorSupplier(Vertx vertx, KubernetesClient client, PlatformFeaturesAvailability pfa, long operationTimeoutMs) {
         this(vertx, client, new ZookeeperLeaderFinder(vertx, new SecretOperator(vertx, client),
@@ -79,10 +86,14 @@ public class ResourceOperatorSupplier {
     }
 
     public ResourceOperatorSupplier(Vertx vertx, KubernetesClient client, ZookeeperLeaderFinder zlf, PlatformFeaturesAvailability pfa, long operationTimeoutMs) {
+        this(vertx, client, zlf, new DefaultAdminClientProvider(), pfa, operationTimeoutMs);
+    }
+
+    public ResourceOperatorSupplier(Vertx vertx, KubernetesClient client, ZookeeperLeaderFinder zlf, AdminClientProvider adminClientProvider, PlatformFeaturesAvailability pfa, long operationTimeoutMs) {
         this(new ServiceOperator(vertx, client),
                 pfa.hasRoutes() ? new RouteOperator(vertx, client.adapt(OpenShiftClient.class)) : null,
                 new ZookeeperSetOperator(vertx, client, zlf, operationTimeoutMs),
-                new KafkaSetOperator(vertx, client, operationTimeoutMs),
+                new KafkaSetOperator(vertx, client, operationTimeoutMs, adminClientProvider),
                 new ConfigMapOperator(vertx, client),
                 new SecretOperator(vertx, client),
                 new PvcOperator(vertx, client),
@@ -102,7 +113,8 @@ public class ResourceOperatorSupplier {
                 pfa.hasBuilds() && pfa.hasApps() && pfa.hasImages() ? new CrdOperator<>(vertx, client.adapt(OpenShiftClient.class), KafkaConnectS2I.class, KafkaConnectS2IList.class, DoneableKafkaConnectS2I.class) : null,
                 new CrdOperator<>(vertx, client, KafkaMirrorMaker.class, KafkaMirrorMakerList.class, DoneableKafkaMirrorMaker.class),
                 new CrdOperator<>(vertx, client, KafkaBridge.class, KafkaBridgeList.class, DoneableKafkaBridge.class),
-                new StorageClassOperator(vertx, client, operationTimeoutMs));
+                new StorageClassOperator(vertx, client, operationTimeoutMs),
+                adminClientProvider);
     }
 
     public ResourceOperatorSupplier(ServiceOperator serviceOperations,
@@ -129,6 +141,38 @@ public class ResourceOperatorSupplier {
                                     CrdOperator<KubernetesClient, KafkaMirrorMaker, KafkaMirrorMakerList, DoneableKafkaMirrorMaker> mirrorMakerOperator,
                                     CrdOperator<KubernetesClient, KafkaBridge, KafkaBridgeList, DoneableKafkaBridge> kafkaBridgeOperator,
                                     StorageClassOperator storageClassOperator) {
+        this(serviceOperations, routeOperations, zkSetOperations, kafkaSetOperations, configMapOperations, secretOperations,
+                pvcOperations, deploymentOperations, serviceAccountOperations, roleBindingOperations, clusterRoleBindingOperator,
+                networkPolicyOperator, podDisruptionBudgetOperator, podOperations, ingressOperations, imagesStreamOperations,
+                buildConfigOperations, deploymentConfigOperations, kafkaOperator, connectOperator, connectS2IOperator,
+                mirrorMakerOperator, kafkaBridgeOperator, storageClassOperator, new DefaultAdminClientProvider());
+    }
+
+    public ResourceOperatorSupplier(ServiceOperator serviceOperations,
+                                    RouteOperator routeOperations,
+                                    ZookeeperSetOperator zkSetOperations,
+                                    KafkaSetOperator kafkaSetOperations,
+                                    ConfigMapOperator configMapOperations,
+                                    SecretOperator secretOperations,
+                                    PvcOperator pvcOperations,
+                                    DeploymentOperator deploymentOperations,
+                                    ServiceAccountOperator serviceAccountOperations,
+                                    RoleBindingOperator roleBindingOperations,
+                                    ClusterRoleBindingOperator clusterRoleBindingOperator,
+                                    NetworkPolicyOperator networkPolicyOperator,
+                                    PodDisruptionBudgetOperator podDisruptionBudgetOperator,
+                                    PodOperator podOperations,
+                                    IngressOperator ingressOperations,
+                                    ImageStreamOperator imagesStreamOperations,
+                                    BuildConfigOperator buildConfigOperations,
+                                    DeploymentConfigOperator deploymentConfigOperations,
+                                    CrdOperator<KubernetesClient, Kafka, KafkaList, DoneableKafka> kafkaOperator,
+                                    CrdOperator<KubernetesClient, KafkaConnect, KafkaConnectList, DoneableKafkaConnect> connectOperator,
+                                    CrdOperator<OpenShiftClient, KafkaConnectS2I, KafkaConnectS2IList, DoneableKafkaConnectS2I> connectS2IOperator,
+                                    CrdOperator<KubernetesClient, KafkaMirrorMaker, KafkaMirrorMakerList, DoneableKafkaMirrorMaker> mirrorMakerOperator,
+                                    CrdOperator<KubernetesClient, KafkaBridge, KafkaBridgeList, DoneableKafkaBridge> kafkaBridgeOperator,
+                                    StorageClassOperator storageClassOperator,
+                                    AdminClientProvider adminClientProvider) {
         this.serviceOperations = serviceOperations;
         this.routeOperations = routeOperations;
         this.zkSetOperations = zkSetOperations;
@@ -153,5 +197,65 @@ public class ResourceOperatorSupplier {
         this.mirrorMakerOperator = mirrorMakerOperator;
         this.kafkaBridgeOperator = kafkaBridgeOperator;
         this.storageClassOperations = storageClassOperator;
+        this.adminClientProvider = adminClientProvider;
+    }
+
+    /**
+     * Enables the watch-fed caches of the operators for the namespaced resources which are owned by the
+     * assemblies (see {@link io.strimzi.operator.common.operator.resource.AbstractResourceOperator#enableCache(String)}).
+     * The custom resources themselves and the Pods are not cached: the former are always read fresh at the start
+     * of a reconciliation and the latter change too often during rolling updates for a cache to help.
+     *
+     * @param namespace The namespace, or {@code *} for all namespaces.
+     * @return A future which completes when all the caches have been populated.
+     */
+    @SuppressWarnings("rawtypes")
+    public Future<Void> enableCaches(String namespace) {
+        List<Future> futures = new ArrayList<>();
+        futures.add(secretOperations.enableCache(namespace));
+        futures.add(serviceOperations.enableCache(namespace));
+        futures.add(configMapOperations.enableCache(namespace));
+        futures.add(zkSetOperations.enableCache(namespace));
+        futures.add(kafkaSetOperations.enableCache(namespace));
+        futures.add(pvcOperations.enableCache(namespace));
+        futures.add(deploymentOperations.enableCache(namespace));
+        futures.add(serviceAccountOperations.enableCache(namespace));
+        futures.add(roleBindingOperations.enableCache(namespace));
+        futures.add(networkPolicyOperator.enableCache(namespace));
+        futures.add(podDisruptionBudgetOperator.enableCache(namespace));
+        futures.add(ingressOperations.enableCache(namespace));
+        if (routeOperations != null) {
+            futures.add(routeOperations.enableCache(namespace));
+        }
+        if (deploymentConfigOperations != null) {
+            futures.add(deploymentConfigOperations.enableCache(namespace));
+        }
+        return CompositeFuture.all(futures).map((Void) null);
+    }
+
+    /**
+     * Makes the operators whose operations never block send their requests through the given non-blocking
+     * client instead of the fabric8 client on worker threads
+     * (see {@link io.strimzi.operator.common.operator.resource.AbstractResourceOperator#setAsyncClient(AsyncApiClient)}).
+     * The operators for Services, StatefulSets, Deployments, PVCs and the OpenShift resources keep using the
+     * fabric8 client, because they wait for or read other resources while patching.
+     *
+     * @param asyncClient The client.
+     */
+    public void useAsyncClient(AsyncApiClient asyncClient) {
+        secretOperations.setAsyncClient(asyncClient);
+        configMapOperations.setAsyncClient(asyncClient);
+        serviceAccountOperations.setAsyncClient(asyncClient);
+        roleBindingOperations.setAsyncClient(asyncClient);
+        networkPolicyOperator.setAsyncClient(asyncClient);
+        podDisruptionBudgetOperator.setAsyncClient(asyncClient);
+        podOperations.setAsyncClient(asyncClient);
+        kafkaOperator.setAsyncClient(asyncClient);
+        connectOperator.setAsyncClient(asyncClient);
+        if (connectS2IOperator != null) {
+            connectS2IOperator.setAsyncClient(asyncClient);
+        }
+        mirrorMakerOperator.setAsyncClient(asyncClient);
+        kafkaBridgeOperator.setAsyncClient(asyncClient);
     }
 }
@@ -0,0 +1,703 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.resource;
+
+import io.fabric8.kubernetes.api.model.ConfigMapVolumeSource;
+import io.fabric8.kubernetes.api.model.Container;
+import io.fabric8.kubernetes.api.model.EnvVar;
+import io.fabric8.kubernetes.api.model.EnvVarSource;
+import io.fabric8.kubernetes.api.model.IntOrString;
+import io.fabric8.kubernetes.api.model.ObjectFieldSelector;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.api.model.PersistentVolumeClaim;
+import io.fabric8.kubernetes.api.model.PersistentVolumeClaimSpec;
+import io.fabric8.kubernetes.api.model.PodSpec;
+import io.fabric8.kubernetes.api.model.PodTemplateSpec;
+import io.fabric8.kubernetes.api.model.Probe;
+import io.fabric8.kubernetes.api.model.Quantity;
+import io.fabric8.kubernetes.api.model.ResourceRequirements;
+import io.fabric8.kubernetes.api.model.SecretVolumeSource;
+import io.fabric8.kubernetes.api.model.Volume;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.api.model.apps.StatefulSetSpec;
+import io.strimzi.operator.common.operator.resource.AbstractScalableResourceOperator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import static io.fabric8.kubernetes.client.internal.PatchUtils.patchMapper;
+
+/**
+ * Compares two StatefulSets property by property, finding the same differences as a JSON diff of the StatefulSets
+ * serialized with {@code patchMapper()} would find, but without serializing them.
+ * Objects which are equal are skipped without looking at their properties.
+ * Whether a difference is ignorable, and which {@link Section} of the StatefulSet it is in, is known from the
+ * property it was found in, rather than from its path.
+ *
+ * <p>The comparison gives up whenever it cannot be sure it finds the same differences as the JSON diff:</p>
+ * <ul>
+ *     <li>when two values of a property which isn't compared property by property (such as the affinity) differ,</li>
+ *     <li>when items were added to, removed from or moved within a list, because the JSON diff aligns the items of
+ *     lists by their longest common subsequence,</li>
+ *     <li>when a removed value is equal to an added value, because the JSON diff reports them as a single move.</li>
+ * </ul>
+ */
+final class StatefulSetComparison {
+
+    /**
+     * The part of the StatefulSet a difference is in.
+     */
+    enum Section {
+        /** Any other part */
+        OTHER,
+        /** {@code /metadata/labels} */
+        LABELS,
+        /** {@code /spec/replicas} */
+        REPLICAS,
+        /** {@code /spec/template} */
+        TEMPLATE,
+        /** {@code /spec/volumeClaimTemplates}, except for {@link #VOLUME_SIZE} */
+        VOLUME_CLAIM_TEMPLATES,
+        /** {@code /spec/volumeClaimTemplates/[0-9]+/spec/resources/.*} */
+        VOLUME_SIZE
+    }
+
+    /**
+     * The JSON patch operation of a difference.
+     */
+    enum Op {
+        ADD, REMOVE, REPLACE
+    }
+
+    /**
+     * A difference between the StatefulSets.
+     */
+    static final class Difference {
+        final Op op;
+        final String path;
+        final Section section;
+        final boolean ignorable;
+        /** The name of the resource, for a difference in the memory or cpu of a container */
+        final String resource;
+        final Object current;
+        final Object desired;
+
+        private Difference(Op op, String path, Section section, boolean ignorable, String resource, Object current, Object desired) {
+            this.op = op;
+            this.path = path;
+            this.section = section;
+            this.ignorable = ignorable;
+            this.resource = resource;
+            this.current = current;
+            this.desired = desired;
+        }
+
+        @Override
+        public String toString() {
+            return "{\"op\":\"" + op.name().toLowerCase(Locale.ENGLISH) + "\",\"path\":\"" + path + "\"}";
+        }
+    }
+
+    /**
+     * A property of a model class, in the order of the properties in the JSON.
+     * @param <O> The model class.
+     */
+    abstract static class Property<O> {
+        final String name;
+        private final Function<O, ?> getter;
+        boolean ignorable;
+        private Section section;
+
+        Property(String name, Function<O, ?> getter) {
+            this.name = name;
+            this.getter = getter;
+        }
+
+        /**
+         * A difference at the property itself is ignorable, but differences within its value are not.
+         */
+        Property<O> ignorable() {
+            this.ignorable = true;
+            return this;
+        }
+
+        /**
+         * The property and its value are in the given section.
+         */
+        Property<O> in(Section section) {
+            this.section = section;
+            return this;
+        }
+
+        /**
+         * @return Whether the value is in the JSON, which leaves out null values and empty lists and maps.
+         */
+        private static boolean isPresent(Object value) {
+            if (value == null) {
+                return false;
+            } else if (value instanceof Collection) {
+                return !((Collection<?>) value).isEmpty();
+            } else if (value instanceof Map) {
+                return !((Map<?, ?>) value).isEmpty();
+            }
+            return true;
+        }
+
+        /**
+         * Compares the values of the property, which is present in both objects.
+         */
+        abstract void compare(StatefulSetComparison comparison, String path, Section section, Object current, Object desired);
+    }
+
+    /**
+     * A property whose value is a string, number or boolean.
+     */
+    private static final class Scalar<O> extends Property<O> {
+        Scalar(String name, Function<O, ?> getter) {
+            super(name, getter);
+        }
+
+        @Override
+        void compare(StatefulSetComparison comparison, String path, Section section, Object current, Object desired) {
+            if (!current.equals(desired)) {
+                comparison.add(Op.REPLACE, path, section, ignorable, null, current, desired);
+            }
+        }
+    }
+
+    /**
+     * A property whose value is an object, which is compared property by property.
+     */
+    private static final class Nested<O, T> extends Property<O> {
+        private final Type<T> type;
+        private Section childSection;
+
+        Nested(String name, Function<O, ?> getter, Type<T> type) {
+            super(name, getter);
+            this.type = type;
+        }
+
+        /**
+         * The properties of the value are in the given section, but the property itself is not.
+         */
+        Nested<O, T> childrenIn(Section section) {
+            this.childSection = section;
+            return this;
+        }
+
+        @Override
+        void compare(StatefulSetComparison comparison, String path, Section section, Object current, Object desired) {
+            comparison.compareObject(path, childSection != null ? childSection : section,
+                    type.cls.cast(current), type.cls.cast(desired), type);
+        }
+    }
+
+    /**
+     * A property whose value is a list of objects with a unique key, which are compared property by property.
+     */
+    private static final class Items<O, T> extends Property<O> {
+        private final Type<T> type;
+        private final Function<T, ?> key;
+
+        Items(String name, Function<O, ?> getter, Type<T> type, Function<T, ?> key) {
+            super(name, getter);
+            this.type = type;
+            this.key = key;
+        }
+
+        @Override
+        void compare(StatefulSetComparison comparison, String path, Section section, Object current, Object desired) {
+            comparison.compareList(path, section, (List<?>) current, (List<?>) desired, type, key);
+        }
+    }
+
+    /**
+     * A property whose value is a map of strings or quantities, which are compared entry by entry.
+     */
+    private static final class Entries<O> extends Property<O> {
+        private String ignorableKey;
+        private boolean resources;
+
+        Entries(String name, Function<O, ?> getter) {
+            super(name, getter);
+        }
+
+        /**
+         * A difference in the entry with the given key is ignorable.
+         */
+        Entries<O> ignorableKey(String key) {
+            this.ignorableKey = key;
+            return this;
+        }
+
+        /**
+         * The map holds the memory and cpu resources of a container.
+         */
+        Entries<O> resources() {
+            this.resources = true;
+            return this;
+        }
+
+        @Override
+        void compare(StatefulSetComparison comparison, String path, Section section, Object current, Object desired) {
+            comparison.compareMap(path, section, (Map<?, ?>) current, (Map<?, ?>) desired, ignorableKey, resources);
+        }
+    }
+
+    /**
+     * Any other property, whose values must be equal.
+     */
+    private static final class Other<O> extends Property<O> {
+        Other(String name, Function<O, ?> getter) {
+            super(name, getter);
+        }
+
+        @Override
+        void compare(StatefulSetComparison comparison, String path, Section section, Object current, Object desired) {
+            if (!current.equals(desired)) {
+                comparison.giveUp();
+            }
+        }
+    }
+
+    /**
+     * A model class and its properties.
+     * @param <T> The model class.
+     */
+    static final class Type<T> {
+        final Class<T> cls;
+        final List<Property<T>> properties;
+        private final Function<T, Map<String, Object>> additionalProperties;
+
+        private Type(Class<T> cls, Function<T, Map<String, Object>> additionalProperties, List<Property<T>> properties) {
+            this.cls = cls;
+            this.additionalProperties = additionalProperties;
+            this.properties = properties;
+        }
+    }
+
+    @SafeVarargs
+    private static <T> Type<T> type(Class<T> cls, Function<T, Map<String, Object>> additionalProperties, Property<T>... properties) {
+        return new Type<>(cls, additionalProperties, Arrays.asList(properties));
+    }
+
+    private static <O> Property<O> scalar(String name, Function<O, ?> getter) {
+        return new Scalar<>(name, getter);
+    }
+
+    private static <O, T> Nested<O, T> nested(String name, Function<O, ?> getter, Type<T> type) {
+        return new Nested<>(name, getter, type);
+    }
+
+    private static <O, T> Property<O> items(String name, Function<O, ?> getter, Type<T> type, Function<T, ?> key) {
+        return new Items<>(name, getter, type, key);
+    }
+
+    private static <O> Entries<O> entries(String name, Function<O, ?> getter) {
+        return new Entries<>(name, getter);
+    }
+
+    private static <O> Property<O> other(String name, Function<O, ?> getter) {
+        return new Other<>(name, getter);
+    }
+
+    private static Type<ObjectMeta> objectMeta(Property<ObjectMeta> annotations, Property<ObjectMeta> labels) {
+        return type(ObjectMeta.class, ObjectMeta::getAdditionalProperties,
+                annotations,
+                scalar("clusterName", ObjectMeta::getClusterName),
+                scalar("deletionGracePeriodSeconds", ObjectMeta::getDeletionGracePeriodSeconds),
+                other("finalizers", ObjectMeta::getFinalizers),
+                scalar("generateName", ObjectMeta::getGenerateName),
+                labels,
+                other("managedFields", ObjectMeta::getManagedFields),
+                scalar("name", ObjectMeta::getName),
+                scalar("namespace", ObjectMeta::getNamespace),
+                other("ownerReferences", ObjectMeta::getOwnerReferences));
+    }
+
+    private static Type<ResourceRequirements> resourceRequirements(boolean containerResources) {
+        Entries<ResourceRequirements> limits = entries("limits", ResourceRequirements::getLimits);
+        Entries<ResourceRequirements> requests = entries("requests", ResourceRequirements::getRequests);
+        return type(ResourceRequirements.class, ResourceRequirements::getAdditionalProperties,
+                containerResources ? limits.resources() : limits,
+                containerResources ? requests.resources() : requests);
+    }
+
+    private static Type<Probe> probe(boolean ignorableThresholds) {
+        Property<Probe> failureThreshold = scalar("failureThreshold", Probe::getFailureThreshold);
+        Property<Probe> periodSeconds = scalar("periodSeconds", Probe::getPeriodSeconds);
+        Property<Probe> successThreshold = scalar("successThreshold", Probe::getSuccessThreshold);
+        return type(Probe.class, Probe::getAdditionalProperties,
+                other("exec", Probe::getExec),
+                ignorableThresholds ? failureThreshold.ignorable() : failureThreshold,
+                other("httpGet", Probe::getHttpGet),
+                scalar("initialDelaySeconds", Probe::getInitialDelaySeconds),
+                ignorableThresholds ? periodSeconds.ignorable() : periodSeconds,
+                ignorableThresholds ? successThreshold.ignorable() : successThreshold,
+                other("tcpSocket", Probe::getTcpSocket),
+                scalar("timeoutSeconds", Probe::getTimeoutSeconds));
+    }
+
+    private static final Type<ObjectFieldSelector> OBJECT_FIELD_SELECTOR = type(ObjectFieldSelector.class, ObjectFieldSelector::getAdditionalProperties,
+            scalar("apiVersion", ObjectFieldSelector::getApiVersion).ignorable(),
+            scalar("fieldPath", ObjectFieldSelector::getFieldPath));
+
+    private static final Type<EnvVarSource> ENV_VAR_SOURCE = type(EnvVarSource.class, EnvVarSource::getAdditionalProperties,
+            other("configMapKeyRef", EnvVarSource::getConfigMapKeyRef),
+            nested("fieldRef", EnvVarSource::getFieldRef, OBJECT_FIELD_SELECTOR),
+            other("resourceFieldRef", EnvVarSource::getResourceFieldRef),
+            other("secretKeyRef", EnvVarSource::getSecretKeyRef));
+
+    private static final Type<EnvVar> ENV_VAR = type(EnvVar.class, EnvVar::getAdditionalProperties,
+            scalar("name", EnvVar::getName),
+            scalar("value", EnvVar::getValue),
+            nested("valueFrom", EnvVar::getValueFrom, ENV_VAR_SOURCE));
+
+    private static Type<Container> container(boolean ignorableProbeThresholds) {
+        Type<Probe> probe = probe(ignorableProbeThresholds);
+        return type(Container.class, Container::getAdditionalProperties,
+                other("args", Container::getArgs),
+                other("command", Container::getCommand),
+                items("env", Container::getEnv, ENV_VAR, EnvVar::getName),
+                other("envFrom", Container::getEnvFrom),
+                scalar("image", Container::getImage),
+                scalar("imagePullPolicy", Container::getImagePullPolicy),
+                other("lifecycle", Container::getLifecycle),
+                nested("livenessProbe", Container::getLivenessProbe, probe),
+                scalar("name", Container::getName),
+                other("ports", Container::getPorts),
+                nested("readinessProbe", Container::getReadinessProbe, probe),
+                nested("resources", Container::getResources, resourceRequirements(true)).ignorable(),
+                other("securityContext", Container::getSecurityContext),
+                scalar("stdin", Container::getStdin),
+                scalar("stdinOnce", Container::getStdinOnce),
+                scalar("terminationMessagePath", Container::getTerminationMessagePath).ignorable(),
+                scalar("terminationMessagePolicy", Container::getTerminationMessagePolicy).ignorable(),
+                scalar("tty", Container::getTty),
+                other("volumeDevices", Container::getVolumeDevices),
+                other("volumeMounts", Container::getVolumeMounts),
+                scalar("workingDir", Container::getWorkingDir));
+    }
+
+    private static final Type<ConfigMapVolumeSource> CONFIG_MAP_VOLUME_SOURCE = type(ConfigMapVolumeSource.class, ConfigMapVolumeSource::getAdditionalProperties,
+            scalar("defaultMode", ConfigMapVolumeSource::getDefaultMode).ignorable(),
+            other("items", ConfigMapVolumeSource::getItems),
+            scalar("name", ConfigMapVolumeSource::getName),
+            scalar("optional", ConfigMapVolumeSource::getOptional));
+
+    private static final Type<SecretVolumeSource> SECRET_VOLUME_SOURCE = type(SecretVolumeSource.class, SecretVolumeSource::getAdditionalProperties,
+            scalar("defaultMode", SecretVolumeSource::getDefaultMode).ignorable(),
+            other("items", SecretVolumeSource::getItems),
+            scalar("optional", SecretVolumeSource::getOptional),
+            scalar("secretName", SecretVolumeSource::getSecretName));
+
+    private static final Type<Volume> VOLUME = type(Volume.class, Volume::getAdditionalProperties,
+            other("awsElasticBlockStore", Volume::getAwsElasticBlockStore),
+            other("azureDisk", Volume::getAzureDisk),
+            other("azureFile", Volume::getAzureFile),
+            other("cephfs", Volume::getCephfs),
+            other("cinder", Volume::getCinder),
+            nested("configMap", Volume::getConfigMap, CONFIG_MAP_VOLUME_SOURCE),
+            other("csi", Volume::getCsi),
+            other("downwardAPI", Volume::getDownwardAPI),
+            other("emptyDir", Volume::getEmptyDir),
+            other("fc", Volume::getFc),
+            other("flexVolume", Volume::getFlexVolume),
+            other("flocker", Volume::getFlocker),
+            other("gcePersistentDisk", Volume::getGcePersistentDisk),
+            other("gitRepo", Volume::getGitRepo),
+            other("glusterfs", Volume::getGlusterfs),
+            other("hostPath", Volume::getHostPath),
+            other("iscsi", Volume::getIscsi),
+            scalar("name", Volume::getName),
+            other("nfs", Volume::getNfs),
+            other("persistentVolumeClaim", Volume::getPersistentVolumeClaim),
+            other("photonPersistentDisk", Volume::getPhotonPersistentDisk),
+            other("portworxVolume", Volume::getPortworxVolume),
+            other("projected", Volume::getProjected),
+            other("quobyte", Volume::getQuobyte),
+            other("rbd", Volume::getRbd),
+            other("scaleIO", Volume::getScaleIO),
+            nested("secret", Volume::getSecret, SECRET_VOLUME_SOURCE),
+            other("storageos", Volume::getStorageos),
+            other("vsphereVolume", Volume::getVsphereVolume));
+
+    private static final Type<PodSpec> POD_SPEC = type(PodSpec.class, PodSpec::getAdditionalProperties,
+            scalar("activeDeadlineSeconds", PodSpec::getActiveDeadlineSeconds),
+            other("affinity", PodSpec::getAffinity),
+            scalar("automountServiceAccountToken", PodSpec::getAutomountServiceAccountToken),
+            items("containers", PodSpec::getContainers, container(true), Container::getName),
+            other("dnsConfig", PodSpec::getDnsConfig),
+            scalar("dnsPolicy", PodSpec::getDnsPolicy).ignorable(),
+            scalar("enableServiceLinks", PodSpec::getEnableServiceLinks),
+            other("hostAliases", PodSpec::getHostAliases),
+            scalar("hostIPC", PodSpec::getHostIPC),
+            scalar("hostNetwork", PodSpec::getHostNetwork),
+            scalar("hostPID", PodSpec::getHostPID),
+            scalar("hostname", PodSpec::getHostname),
+            other("imagePullSecrets", PodSpec::getImagePullSecrets),
+            items("initContainers", PodSpec::getInitContainers, container(false), Container::getName),
+            scalar("nodeName", PodSpec::getNodeName),
+            entries("nodeSelector", PodSpec::getNodeSelector),
+            scalar("preemptionPolicy", PodSpec::getPreemptionPolicy),
+            scalar("priority", PodSpec::getPriority),
+            scalar("priorityClassName", PodSpec::getPriorityClassName),
+            other("readinessGates", PodSpec::getReadinessGates),
+            scalar("restartPolicy", PodSpec::getRestartPolicy).ignorable(),
+            scalar("runtimeClassName", PodSpec::getRuntimeClassName),
+            scalar("schedulerName", PodSpec::getSchedulerName).ignorable(),
+            other("securityContext", PodSpec::getSecurityContext).ignorable(),
+            scalar("serviceAccount", PodSpec::getServiceAccount).ignorable(),
+            scalar("serviceAccountName", PodSpec::getServiceAccountName),
+            scalar("shareProcessNamespace", PodSpec::getShareProcessNamespace),
+            scalar("subdomain", PodSpec::getSubdomain),
+            scalar("terminationGracePeriodSeconds", PodSpec::getTerminationGracePeriodSeconds).ignorable(),
+            other("tolerations", PodSpec::getTolerations),
+            items("volumes", PodSpec::getVolumes, VOLUME, Volume::getName));
+
+    private static final Type<PodTemplateSpec> POD_TEMPLATE_SPEC = type(PodTemplateSpec.class, PodTemplateSpec::getAdditionalProperties,
+            nested("metadata", PodTemplateSpec::getMetadata, objectMeta(
+                    entries("annotations", ObjectMeta::getAnnotations).ignorableKey(AbstractScalableResourceOperator.ANNO_STRIMZI_IO_GENERATION),
+                    entries("labels", ObjectMeta::getLabels))),
+            nested("spec", PodTemplateSpec::getSpec, POD_SPEC));
+
+    private static final Type<PersistentVolumeClaimSpec> PERSISTENT_VOLUME_CLAIM_SPEC = type(PersistentVolumeClaimSpec.class, PersistentVolumeClaimSpec::getAdditionalProperties,
+            other("accessModes", PersistentVolumeClaimSpec::getAccessModes),
+            other("dataSource", PersistentVolumeClaimSpec::getDataSource).ignorable(),
+            nested("resources", PersistentVolumeClaimSpec::getResources, resourceRequirements(false)).childrenIn(Section.VOLUME_SIZE),
+            other("selector", PersistentVolumeClaimSpec::getSelector),
+            scalar("storageClassName", PersistentVolumeClaimSpec::getStorageClassName),
+            scalar("volumeMode", PersistentVolumeClaimSpec::getVolumeMode).ignorable(),
+            scalar("volumeName", PersistentVolumeClaimSpec::getVolumeName));
+
+    private static final Type<ObjectMeta> OBJECT_META = objectMeta(
+            entries("annotations", ObjectMeta::getAnnotations),
+            entries("labels", ObjectMeta::getLabels));
+
+    private static final Type<PersistentVolumeClaim> PERSISTENT_VOLUME_CLAIM = type(PersistentVolumeClaim.class, PersistentVolumeClaim::getAdditionalProperties,
+            scalar("apiVersion", PersistentVolumeClaim::getApiVersion),
+            scalar("kind", PersistentVolumeClaim::getKind),
+            nested("metadata", PersistentVolumeClaim::getMetadata, OBJECT_META),
+            nested("spec", PersistentVolumeClaim::getSpec, PERSISTENT_VOLUME_CLAIM_SPEC),
+            other("status", PersistentVolumeClaim::getStatus).ignorable());
+
+    private static final Type<StatefulSetSpec> STATEFUL_SET_SPEC = type(StatefulSetSpec.class, StatefulSetSpec::getAdditionalProperties,
+            scalar("podManagementPolicy", StatefulSetSpec::getPodManagementPolicy),
+            scalar("replicas", StatefulSetSpec::getReplicas).in(Section.REPLICAS),
+            scalar("revisionHistoryLimit", StatefulSetSpec::getRevisionHistoryLimit).ignorable(),
+            other("selector", StatefulSetSpec::getSelector),
+            scalar("serviceName", StatefulSetSpec::getServiceName),
+            nested("template", StatefulSetSpec::getTemplate, POD_TEMPLATE_SPEC).in(Section.TEMPLATE),
+            other("updateStrategy", StatefulSetSpec::getUpdateStrategy),
+            items("volumeClaimTemplates", StatefulSetSpec::getVolumeClaimTemplates, PERSISTENT_VOLUME_CLAIM,
+                pvc -> pvc.getMetadata() != null ? pvc.getMetadata().getName() : null).in(Section.VOLUME_CLAIM_TEMPLATES));
+
+    private static final Type<StatefulSet> STATEFUL_SET = type(StatefulSet.class, StatefulSet::getAdditionalProperties,
+            scalar("apiVersion", StatefulSet::getApiVersion),
+            scalar("kind", StatefulSet::getKind),
+            nested("metadata", StatefulSet::getMetadata, objectMeta(
+                    entries("annotations", ObjectMeta::getAnnotations),
+                    entries("labels", ObjectMeta::getLabels).in(Section.LABELS))),
+            nested("spec", StatefulSet::getSpec, STATEFUL_SET_SPEC),
+            other("status", StatefulSet::getStatus).ignorable());
+
+    /**
+     * @return The model classes which are compared property by property, for checking their properties
+     * against the JSON.
+     */
+    static List<Type<?>> types() {
+        return Arrays.asList(STATEFUL_SET, STATEFUL_SET_SPEC, POD_TEMPLATE_SPEC, OBJECT_META, POD_SPEC,
+                container(true), probe(true), resourceRequirements(true), ENV_VAR, ENV_VAR_SOURCE, OBJECT_FIELD_SELECTOR,
+                VOLUME, CONFIG_MAP_VOLUME_SOURCE, SECRET_VOLUME_SOURCE, PERSISTENT_VOLUME_CLAIM, PERSISTENT_VOLUME_CLAIM_SPEC);
+    }
+
+    private final List<Difference> differences = new ArrayList<>();
+    private boolean givenUp;
+
+    private StatefulSetComparison() {
+    }
+
+    /**
+     * Compares the given StatefulSets.
+     * @param current The current StatefulSet.
+     * @param desired The desired StatefulSet.
+     * @return The differences which a JSON diff of the StatefulSets would find,
+     * or null if the comparison could not be sure to find the same differences.
+     */
+    static List<Difference> compare(StatefulSet current, StatefulSet desired) {
+        if (current == null || desired == null) {
+            return null;
+        }
+        StatefulSetComparison comparison = new StatefulSetComparison();
+        comparison.compareObject("", Section.OTHER, current, desired, STATEFUL_SET);
+        if (comparison.givenUp || comparison.hasMove()) {
+            return null;
+        }
+        return comparison.differences;
+    }
+
+    private void giveUp() {
+        givenUp = true;
+    }
+
+    private void add(Op op, String path, Section section, boolean ignorable, String resource, Object current, Object desired) {
+        differences.add(new Difference(op, path, section, ignorable, resource, current, desired));
+    }
+
+    private <T> void compareObject(String path, Section section, T current, T desired, Type<T> type) {
+        if (givenUp || current.equals(desired)) {
+            return;
+        }
+        for (Property<T> property : type.properties) {
+            Object currentValue = property.getter.apply(current);
+            Object desiredValue = property.getter.apply(desired);
+            boolean currentPresent = Property.isPresent(currentValue);
+            boolean desiredPresent = Property.isPresent(desiredValue);
+            if (currentPresent || desiredPresent) {
+                Section propertySection = property.section != null ? property.section : section;
+                String propertyPath = path + "/" + property.name;
+                if (!desiredPresent) {
+                    add(Op.REMOVE, propertyPath, propertySection, property.ignorable, null, currentValue, null);
+                } else if (!currentPresent) {
+                    add(Op.ADD, propertyPath, propertySection, property.ignorable, null, null, desiredValue);
+                } else {
+                    property.compare(this, propertyPath, propertySection, currentValue, desiredValue);
+                }
+            }
+        }
+        // The additional properties are properties of the object itself in the JSON
+        compareMap(path, section, type.additionalProperties.apply(current), type.additionalProperties.apply(desired), null, false);
+    }
+
+    private <T> void compareList(String path, Section section, List<?> current, List<?> desired, Type<T> type, Function<T, ?> key) {
+        if (givenUp || current.equals(desired)) {
+            return;
+        }
+        // Without any item matching an item at another position, the longest common subsequence only has items
+        // at the same positions, so the JSON diff compares the items position by position.
+        // Only items with the same key can match.
+        if (current.size() != desired.size()
+                || current.contains(null)
+                || desired.contains(null)) {
+            giveUp();
+            return;
+        }
+        Map<Object, Integer> positions = new HashMap<>(desired.size());
+        for (int i = 0; i < desired.size(); i++) {
+            if (positions.put(key.apply(type.cls.cast(desired.get(i))), i) != null) {
+                giveUp();
+                return;
+            }
+        }
+        for (int i = 0; i < current.size(); i++) {
+            Integer position = positions.get(key.apply(type.cls.cast(current.get(i))));
+            if (position != null && position != i) {
+                giveUp();
+                return;
+            }
+        }
+        for (int i = 0; i < current.size(); i++) {
+            compareObject(path + "/" + i, section, type.cls.cast(current.get(i)), type.cls.cast(desired.get(i)), type);
+        }
+    }
+
+    private void compareMap(String path, Section section, Map<?, ?> current, Map<?, ?> desired, String ignorableKey, boolean resources) {
+        if (givenUp || Objects.equals(current, desired)) {
+            return;
+        }
+        Map<?, ?> currentMap = current != null ? current : Collections.emptyMap();
+        Map<?, ?> desiredMap = desired != null ? desired : Collections.emptyMap();
+        for (Map.Entry<?, ?> entry : currentMap.entrySet()) {
+            String key = String.valueOf(entry.getKey());
+            String entryPath = path + "/" + key.replace("~", "~0").replace("/", "~1");
+            boolean ignorable = key.equals(ignorableKey);
+            if (!desiredMap.containsKey(entry.getKey())) {
+                add(Op.REMOVE, entryPath, section, ignorable, null, entry.getValue(), null);
+            } else {
+                Object currentValue = entry.getValue();
+                Object desiredValue = desiredMap.get(entry.getKey());
+                if (isScalar(currentValue) || isScalar(desiredValue)) {
+                    if (!isScalar(currentValue) || !isScalar(desiredValue)
+                            || !Objects.equals(json(currentValue), json(desiredValue))) {
+                        String resource = resources && ("memory".equals(key) || "cpu".equals(key)) ? key : null;
+                        add(Op.REPLACE, entryPath, section, ignorable, resource, currentValue, desiredValue);
+                    }
+                } else if (!currentValue.equals(desiredValue)) {
+                    giveUp();
+                    return;
+                }
+            }
+        }
+        for (Map.Entry<?, ?> entry : desiredMap.entrySet()) {
+            if (!currentMap.containsKey(entry.getKey())) {
+                String key = String.valueOf(entry.getKey());
+                add(Op.ADD, path + "/" + key.replace("~", "~0").replace("/", "~1"), section, key.equals(ignorableKey),
+                        null, null, entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * The JSON diff reports a removed value and an added value which are equal as a move of the value
+     * to the path it was added at.
+     */
+    private boolean hasMove() {
+        for (Difference removed : differences) {
+            if (removed.op == Op.REMOVE) {
+                for (Difference added : differences) {
+                    if (added.op == Op.ADD && jsonEquals(removed.current, added.desired)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean jsonEquals(Object a, Object b) {
+        if (isScalar(a) || isScalar(b)) {
+            return isScalar(a) && isScalar(b) && Objects.equals(json(a), json(b));
+        }
+        return a.equals(b) || patchMapper().valueToTree(a).equals(patchMapper().valueToTree(b));
+    }
+
+    private static boolean isScalar(Object value) {
+        return value == null
+                || value instanceof String
+                || value instanceof Number
+                || value instanceof Boolean
+                || value instanceof Quantity
+                || value instanceof IntOrString;
+    }
+
+    /**
+     * @return The value as it is serialized in the JSON
+     */
+    static Object json(Object value) {
+        if (value instanceof Quantity) {
+            return ((Quantity) value).getAmount();
+        } else if (value instanceof IntOrString) {
+            IntOrString intOrString = (IntOrString) value;
+            Integer kind = intOrString.getKind();
+            if (kind == null) {
+                return intOrString.getIntVal() != null ? intOrString.getIntVal() : intOrString.getStrVal();
+            } else if (kind == 0) {
+                return intOrString.getIntVal();
+            } else if (kind == 1) {
+                return intOrString.getStrVal();
+            }
+            return null;
+        }
+        return value;
+    }
+}
@@ -8,10 +8,15 @@ import com.fasterxml.jackson.databind.JsonNode;
 import io.fabric8.kubernetes.api.model.ObjectMeta;
 import io.fabric8.kubernetes.api.model.apps.StatefulSet;
 import io.fabric8.zjsonpatch.JsonDiff;
+import io.strimzi.operator.cluster.operator.resource.StatefulSetComparison.Difference;
+import io.strimzi.operator.cluster.operator.resource.StatefulSetComparison.Section;
 import io.strimzi.operator.common.operator.resource.AbstractResourceDiff;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -59,23 +64,46 @@ public class StatefulSetDiff extends AbstractResourceDiff {
                 || pathValue.startsWith(path + "/");
     }
 
-    private final boolean changesVolumeClaimTemplate;
-    private final boolean changesVolumeSize;
-    private final boolean isEmpty;
-    private final boolean changesSpecTemplate;
-    private final boolean changesLabels;
-    private final boolean changesSpecReplicas;
+    private final Set<Section> changes = EnumSet.noneOf(Section.class);
 
     public StatefulSetDiff(StatefulSet current, StatefulSet desired) {
+        this(current, desired, StatefulSetComparison.compare(current, desired));
+    }
+
+    /**
+     * @param current The current StatefulSet.
+     * @param desired The desired StatefulSet.
+     * @param differences The differences found by {@link StatefulSetComparison},
+     *                    or null to diff the JSON of the StatefulSets instead.
+     */
+    StatefulSetDiff(StatefulSet current, StatefulSet desired, List<Difference> differences) {
+        if (differences != null) {
+            for (Difference d : differences) {
+                if (d.ignorable
+                        || d.op == StatefulSetComparison.Op.REPLACE
+                            && d.resource != null
+                            && sameResource(d.resource, String.valueOf(StatefulSetComparison.json(d.current)), String.valueOf(StatefulSetComparison.json(d.desired)))) {
+                    ObjectMeta md = current.getMetadata();
+                    log.debug("StatefulSet {}/{} ignoring diff {}", md.getNamespace(), md.getName(), d);
+                    continue;
+                }
+                if (log.isDebugEnabled()) {
+                    ObjectMeta md = current.getMetadata();
+                    log.debug("StatefulSet {}/{} differs: {}", md.getNamespace(), md.getName(), d);
+                    log.debug("Current StatefulSet path {} has value {}", d.path, d.current);
+                    log.debug("Desired StatefulSet path {} has value {}", d.path, d.desired);
+                }
+                changes.add(d.section);
+            }
+        } else {
+            diffJson(current, desired);
+        }
+    }
+
+    private void diffJson(StatefulSet current, StatefulSet desired) {
         JsonNode source = patchMapper().valueToTree(current);
         JsonNode target = patchMapper().valueToTree(desired);
         JsonNode diff = JsonDiff.asJson(source, target);
-        int num = 0;
-        boolean changesVolumeClaimTemplate = false;
-        boolean changesVolumeSize = false;
-        boolean changesSpecTemplate = false;
-        boolean changesLabels = false;
-        boolean changesSpecReplicas = false;
         for (JsonNode d : diff) {
             String pathValue = d.get("path").asText();
             if (IGNORABLE_PATHS.matcher(pathValue).matches()) {
@@ -100,45 +128,43 @@ public class StatefulSetDiff extends AbstractResourceDiff {
                 log.debug("Current StatefulSet path {} has value {}", pathValue, lookupPath(source, pathValue));
                 log.debug("Desired StatefulSet path {} has value {}", pathValue, lookupPath(target, pathValue));
             }
+            changes.add(section(pathValue));
+        }
+    }
 
-            num++;
-            // Any volume claim template changes apart from size change should trigger rolling update
-            // Size changes should not trigger rolling update. Therefore we need to separate these two in the diff.
-            changesVolumeClaimTemplate |= equalsOrPrefix("/spec/volumeClaimTemplates", pathValue) && !VOLUME_SIZE.matcher(pathValue).matches();
-            changesVolumeSize |= VOLUME_SIZE.matcher(pathValue).matches();
-            // Change changes to /spec/template/spec, except to imagePullPolicy, which gets changed
-            // by k8s
-            changesSpecTemplate |= equalsOrPrefix("/spec/template", pathValue);
-            changesLabels |= equalsOrPrefix("/metadata/labels", pathValue);
-            changesSpecReplicas |= equalsOrPrefix("/spec/replicas", pathValue);
+    private static Section section(String pathValue) {
+        // Any volume claim template changes apart from size change should trigger rolling update
+        // Size changes should not trigger rolling update. Therefore we need to separate these two in the diff.
+        if (VOLUME_SIZE.matcher(pathValue).matches()) {
+            return Section.VOLUME_SIZE;
+        } else if (equalsOrPrefix("/spec/volumeClaimTemplates", pathValue)) {
+            return Section.VOLUME_CLAIM_TEMPLATES;
+        } else if (equalsOrPrefix("/spec/template", pathValue)) {
+            return Section.TEMPLATE;
+        } else if (equalsOrPrefix("/metadata/labels", pathValue)) {
+            return Section.LABELS;
+        } else if (equalsOrPrefix("/spec/replicas", pathValue)) {
+            return Section.REPLICAS;
         }
-        this.isEmpty = num == 0;
-        this.changesLabels = changesLabels;
-        this.changesSpecReplicas = changesSpecReplicas;
-        this.changesSpecTemplate = changesSpecTemplate;
-        this.changesVolumeClaimTemplate = changesVolumeClaimTemplate;
-        this.changesVolumeSize = changesVolumeSize;
+        return Section.OTHER;
     }
 
     boolean compareMemoryAndCpuResources(JsonNode source, JsonNode target, String pathValue, Matcher resourceMatchers) {
         JsonNode s = lookupPath(source, pathValue);
         JsonNode t = lookupPath(target, pathValue);
-        String group = resourceMatchers.group(1);
-        if (!s.isMissingNode()
-            && !t.isMissingNode()) {
-            if ("cpu".equals(group)) {
-                // Ignore single millicpu differences as they could be due to rounding error
-                if (Math.abs(Quantities.parseCpuAsMilliCpus(s.asText()) - Quantities.parseCpuAsMilliCpus(t.asText())) < 1) {
-                    return true;
-                }
-            } else {
-                // Ignore single byte differences as they could be due to rounding error
-                if (Math.abs(Quantities.parseMemory(s.asText()) - Quantities.parseMemory(t.asText())) < 1) {
-                    return true;
-                }
-            }
+        return !s.isMissingNode()
+            && !t.isMissingNode()
+            && sameResource(resourceMatchers.group(1), s.asText(), t.asText());
+    }
+
+    private static boolean sameResource(String resource, String current, String desired) {
+        if ("cpu".equals(resource)) {
+            // Ignore single millicpu differences as they could be due to rounding error
+            return Math.abs(Quantities.parseCpuAsMilliCpus(current) - Quantities.parseCpuAsMilliCpus(desired)) < 1;
+        } else {
+            // Ignore single byte differences as they could be due to rounding error
+            return Math.abs(Quantities.parseMemory(current) - Quantities.parseMemory(desired)) < 1;
         }
-        return false;
     }
 
     /**
@@ -148,31 +174,31 @@ public class StatefulSetDiff extends AbstractResourceDiff {
      */
     @Override
     public boolean isEmpty() {
-        return isEmpty;
+        return changes.isEmpty();
     }
 
     /** @return True if there's a difference in {@code /spec/volumeClaimTemplates} but not to {@code /spec/volumeClaimTemplates/[0-9]+/spec/resources} */
     public boolean changesVolumeClaimTemplates() {
-        return changesVolumeClaimTemplate;
+        return changes.contains(Section.VOLUME_CLAIM_TEMPLATES);
     }
 
     /** @return True if there's a difference in {@code /spec/volumeClaimTemplates/[0-9]+/spec/resources} */
     public boolean changesVolumeSize() {
-        return changesVolumeSize;
+        return changes.contains(Section.VOLUME_SIZE);
     }
 
     /** @return True if there's a difference in {@code /spec/template/spec} */
     public boolean changesSpecTemplate() {
-        return changesSpecTemplate;
+        return changes.contains(Section.TEMPLATE);
     }
 
     /** @return True if there's a difference in {@code /metadata/labels} */
     public boolean changesLabels() {
-        return changesLabels;
+        return changes.contains(Section.LABELS);
     }
 
     /** @return True if there's a difference in {@code /spec/replicas} */
     public boolean changesSpecReplicas() {
-        return changesSpecReplicas;
+        return changes.contains(Section.REPLICAS);
     }
 }
@@ -13,6 +13,7 @@ import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.RollableScalableResource;
 import io.strimzi.operator.common.Annotations;
+import io.strimzi.operator.common.WorkerPools;
 import io.strimzi.operator.common.operator.resource.AbstractScalableResourceOperator;
 import io.strimzi.operator.common.operator.resource.PodOperator;
 import io.strimzi.operator.common.operator.resource.PvcOperator;
@@ -140,9 +141,9 @@ public abstract class StatefulSetOperator extends AbstractScalableResourceOperat
         log.debug("Rolling update of {}/{}: Waiting for pod {} to be deleted", namespace, name, podName);
         Future<Void> podReconcileFuture =
             podOperations.reconcile(namespace, podName, null).compose(ignore -> {
-                Future<Void> del = podOperations.waitFor(namespace, name, pollingIntervalMs, timeoutMs, (ignore1, ignore2) -> {
+                Future<Void> del = podOperations.waitFor(namespace, podName, pollingIntervalMs, timeoutMs, newPod -> {
                     // predicate - changed generation means pod has been updated
-                    String newUid = getPodUid(podOperations.get(namespace, podName));
+                    String newUid = getPodUid(newPod);
                     boolean done = !deleted.equals(newUid);
                     if (done) {
                         log.debug("Rolling pod {} finished", podName);
@@ -310,17 +311,16 @@ public abstract class StatefulSetOperator extends AbstractScalableResourceOperat
             long pollingIntervalMs = 1_000;
             long timeoutMs = operationTimeoutMs;
 
-            operation().inNamespace(namespace).withName(name).cascading(cascading).delete();
+            apiRequest("delete", () -> operation().inNamespace(namespace).withName(name).cascading(cascading).delete());
 
-            Future<Void> deletedFut = waitFor(namespace, name, pollingIntervalMs, timeoutMs, (ignore1, ignore2) -> {
-                StatefulSet sts = get(namespace, name);
+            Future<Void> deletedFut = waitFor(namespace, name, pollingIntervalMs, timeoutMs, sts -> {
                 log.trace("Checking if {} {} in namespace {} has been deleted", resourceKind, name, namespace);
                 return sts == null;
             });
 
             deletedFut.setHandler(res -> {
                 if (res.succeeded())    {
-                    StatefulSet result = operation().inNamespace(namespace).withName(name).create(desired);
+                    StatefulSet result = apiRequest("create", () -> operation().inNamespace(namespace).withName(name).create(desired));
                     log.debug("{} {} in namespace {} has been replaced", resourceKind, name, namespace);
                     fut.complete(wasChanged(current, result) ? ReconcileResult.patched(result) : ReconcileResult.noop(result));
                 } else {
@@ -353,10 +353,10 @@ public abstract class StatefulSetOperator extends AbstractScalableResourceOperat
      */
     public Future<Void> deleteAsync(String namespace, String name, boolean cascading) {
         Future<Void> result = Future.future();
-        vertx.createSharedWorkerExecutor("kubernetes-ops-tool").executeBlocking(
+        WorkerPools.kubernetesApiWrites(vertx).executeBlocking(
             future -> {
                 try {
-                    Boolean deleted = operation().inNamespace(namespace).withName(name).cascading(cascading).delete();
+                    Boolean deleted = apiRequest("delete", () -> operation().inNamespace(namespace).withName(name).cascading(cascading).delete());
 
                     if (deleted) {
                         log.debug("{} {} in namespace {} has been deleted", resourceKind, name, namespace);
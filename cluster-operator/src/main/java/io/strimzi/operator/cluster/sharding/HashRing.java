@@ -0,0 +1,90 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.sharding;
+
+import io.strimzi.operator.common.model.NamespaceAndName;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * <p>A consistent hash ring which assigns each assembly to one of a set of members.</p>
+ *
+ * <p>Each member is placed on the ring at {@link #VIRTUAL_NODES} points, and an assembly belongs to the member
+ * owning the first point at or after the hash of its namespace and name. So the assemblies are spread evenly
+ * over the members, and when a member joins or leaves only the assemblies on its points change hands.</p>
+ */
+public class HashRing {
+
+    /**
+     * The number of points of each member on the ring.
+     */
+    static final int VIRTUAL_NODES = 128;
+
+    private final SortedSet<String> members;
+    private final TreeMap<Long, String> ring = new TreeMap<>();
+
+    /**
+     * Constructor
+     * @param members The identities of the members.
+     */
+    public HashRing(Collection<String> members) {
+        this.members = new TreeSet<>(members);
+        for (String member : this.members) {
+            for (int i = 0; i < VIRTUAL_NODES; i++) {
+                // On a collision the member which sorts first keeps the point, so all replicas build the same ring
+                ring.putIfAbsent(hash(member + "#" + i), member);
+            }
+        }
+    }
+
+    /**
+     * @return The identities of the members, sorted.
+     */
+    public SortedSet<String> members() {
+        return members;
+    }
+
+    /**
+     * @param assembly The namespace and name of an assembly.
+     * @return The identity of the member the assembly belongs to, or null if the ring has no members.
+     */
+    public String owner(NamespaceAndName assembly) {
+        if (ring.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> entry = ring.ceilingEntry(hash(assembly.getNamespace() + "/" + assembly.getName()));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    /**
+     * The first 8 bytes of the SHA-256 digest of the given string, which unlike {@link String#hashCode()}
+     * spreads similar strings (such as the names of the pods of a Deployment) over the whole ring.
+     */
+    private static long hash(String s) {
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(s.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+        long hash = 0;
+        for (int i = 0; i < 8; i++) {
+            hash = hash << 8 | (digest[i] & 0xff);
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "HashRing(" + members + ")";
+    }
+}
@@ -0,0 +1,424 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.sharding;
+
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.api.model.DoneableConfigMap;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.dsl.Resource;
+import io.strimzi.operator.common.WorkerPools;
+import io.strimzi.operator.common.model.NamespaceAndName;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+
+import static java.util.Arrays.asList;
+
+/**
+ * <p>Shares the reconciliation of the assemblies between the replicas of the Cluster Operator.</p>
+ *
+ * <p>The replicas coordinate through a single ConfigMap, which is only ever updated with optimistic locking.
+ * Every replica periodically renews its membership record in the ConfigMap. One of the replicas holds the lease
+ * of the leader, and is the only one which removes the replicas which have not renewed their membership for
+ * the lease duration. The assemblies are assigned to the members using a {@link HashRing}.</p>
+ *
+ * <p>Whenever the members change, the epoch recorded in the ConfigMap is incremented. The assemblies which changed
+ * hands are handed over safely: each member acknowledges the new epoch only once it is not reconciling any assembly
+ * which it does not own in the new epoch, and until all the members have acknowledged it, a member reconciles only
+ * the assemblies it owns both in the new epoch and in the last epoch which all the members acknowledged.
+ * A replica which cannot renew its membership within the renew deadline stops reconciling altogether,
+ * before the leader can consider it gone and hand its assemblies to the others.</p>
+ *
+ * <p>The times of the other replicas are never compared with the local clock: a replica is considered gone
+ * when its record has not been seen to change for the lease duration, as measured by the observing replica.</p>
+ */
+public class ShardCoordinator {
+
+    private static final Logger log = LogManager.getLogger(ShardCoordinator.class);
+
+    static final String LEADER_KEY = "leader";
+    static final String EPOCH_KEY = "epoch";
+    static final String MEMBERS_KEY = "members";
+    static final String PREVIOUS_MEMBERS_KEY = "previous-members";
+    static final String MEMBER_KEY_PREFIX = "member.";
+
+    /**
+     * The number of attempts of each renewal when the ConfigMap is concurrently updated by other replicas.
+     */
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final Vertx vertx;
+    private final KubernetesClient client;
+    private final ShardingConfig config;
+    private final String identity;
+    private final LongSupplier clock;
+    private final List<Listener> handoverListeners = new CopyOnWriteArrayList<>();
+
+    // The following fields are guarded by this
+    private State state = State.EMPTY;
+    private long lastRenewal;
+    private boolean renewed = false;
+    private long renewals;
+    private final Map<String, Observation> observations = new HashMap<>();
+    private final Map<NamespaceAndName, Integer> inFlight = new HashMap<>();
+    private String view;
+
+    private long timerId = -1;
+
+    /**
+     * Constructor
+     * @param vertx The Vertx instance.
+     * @param client The Kubernetes client.
+     * @param config The sharding configuration.
+     */
+    public ShardCoordinator(Vertx vertx, KubernetesClient client, ShardingConfig config) {
+        this(vertx, client, config, System::currentTimeMillis);
+    }
+
+    /*test*/ ShardCoordinator(Vertx vertx, KubernetesClient client, ShardingConfig config, LongSupplier clock) {
+        this.vertx = vertx;
+        this.client = client;
+        this.config = config;
+        this.identity = config.getIdentity();
+        this.clock = clock;
+        // The renewal counter only needs to differ from the one of any earlier replica with the same identity
+        this.renewals = System.currentTimeMillis();
+        this.view = view(clock.getAsLong());
+    }
+
+    /**
+     * Makes the first attempt to join the members, and then renews the membership every retry period.
+     * @return A future which completes once the first attempt has been made, whether it succeeded or not.
+     */
+    public Future<Void> start() {
+        log.info("Starting shard coordination as {} with {}", identity, config);
+        return renew().compose(v -> {
+            timerId = vertx.setPeriodic(config.getRetryPeriodMs(), id -> renew());
+            return Future.succeededFuture();
+        });
+    }
+
+    /**
+     * Stops renewing the membership. The other members take over the assemblies of this one once its lease has expired.
+     */
+    public void stop() {
+        if (timerId != -1) {
+            vertx.cancelTimer(timerId);
+            timerId = -1;
+        }
+    }
+
+    /**
+     * Registers a handler which is called on the current context whenever this replica might have been assigned
+     * assemblies which it did not reconcile before, so that they get reconciled without waiting for the next
+     * periodic reconciliation.
+     * @param handler The handler.
+     */
+    public void onHandover(Runnable handler) {
+        handoverListeners.add(new Listener(vertx.getOrCreateContext(), handler));
+    }
+
+    /**
+     * Called before reconciling the given assembly.
+     * @param assembly The namespace and name of the assembly.
+     * @return Whether this replica should reconcile the assembly. If so, {@link #finished(NamespaceAndName)}
+     * must be called once the reconciliation has completed.
+     */
+    public synchronized boolean tryStart(NamespaceAndName assembly) {
+        if (!owns(assembly, clock.getAsLong())) {
+            return false;
+        }
+        inFlight.merge(assembly, 1, Integer::sum);
+        return true;
+    }
+
+    /**
+     * Called once the reconciliation of an assembly for which {@link #tryStart(NamespaceAndName)} returned true has completed.
+     * @param assembly The namespace and name of the assembly.
+     */
+    public synchronized void finished(NamespaceAndName assembly) {
+        inFlight.computeIfPresent(assembly, (k, count) -> count > 1 ? count - 1 : null);
+    }
+
+    /**
+     * @param assembly The namespace and name of the assembly.
+     * @return Whether this replica currently reconciles the given assembly.
+     */
+    public synchronized boolean owns(NamespaceAndName assembly) {
+        return owns(assembly, clock.getAsLong());
+    }
+
+    /**
+     * @return Whether this replica holds the lease of the leader.
+     */
+    public synchronized boolean isLeader() {
+        return !isFenced(clock.getAsLong()) && identity.equals(state.leader);
+    }
+
+    private boolean owns(NamespaceAndName assembly, long now) {
+        if (isFenced(now) || !identity.equals(state.members.owner(assembly))) {
+            return false;
+        }
+        return state.allAcked
+                || state.previous.members().isEmpty()
+                || identity.equals(state.previous.owner(assembly));
+    }
+
+    /**
+     * @return Whether this replica has not renewed its membership within the renew deadline,
+     * so might no longer be a member as far as the other replicas are concerned.
+     */
+    private boolean isFenced(long now) {
+        return !renewed || now - lastRenewal > config.getRenewDeadlineMs();
+    }
+
+    /**
+     * Reads the ConfigMap and writes it back with the membership of this replica renewed.
+     */
+    /*test*/ Future<Void> renew() {
+        Future<Void> result = Future.future();
+        WorkerPools.kubernetesApiWrites(vertx).<Void>executeBlocking(
+            future -> {
+                for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+                    try {
+                        doRenew();
+                        break;
+                    } catch (KubernetesClientException e) {
+                        if (e.getCode() == 409) {
+                            // Another replica updated the ConfigMap since it was read, so read it again
+                            log.debug("{}: the lease {} in namespace {} was updated by another replica", identity, config.getLeaseName(), config.getLeaseNamespace());
+                        } else {
+                            log.warn("{}: failed to renew the lease {} in namespace {}", identity, config.getLeaseName(), config.getLeaseNamespace(), e);
+                            break;
+                        }
+                    } catch (RuntimeException e) {
+                        log.warn("{}: failed to renew the lease {} in namespace {}", identity, config.getLeaseName(), config.getLeaseNamespace(), e);
+                        break;
+                    }
+                }
+                future.complete();
+            },
+            true,
+            res -> {
+                maybeHandover();
+                result.complete();
+            });
+        return result;
+    }
+
+    private void doRenew() {
+        Resource<ConfigMap, DoneableConfigMap> resource = client.configMaps().inNamespace(config.getLeaseNamespace()).withName(config.getLeaseName());
+        ConfigMap current = resource.get();
+        long now = clock.getAsLong();
+
+        if (current == null) {
+            Map<String, String> data = new HashMap<>();
+            data.put(LEADER_KEY, identity);
+            data.put(EPOCH_KEY, "1");
+            data.put(MEMBERS_KEY, identity);
+            data.put(PREVIOUS_MEMBERS_KEY, "");
+            data.put(MEMBER_KEY_PREFIX + identity, nextRecord(1));
+            ConfigMap created = client.configMaps().inNamespace(config.getLeaseNamespace()).create(new ConfigMapBuilder()
+                    .withNewMetadata()
+                        .withName(config.getLeaseName())
+                        .withNamespace(config.getLeaseNamespace())
+                    .endMetadata()
+                    .withData(data)
+                    .build());
+            log.info("{}: created the lease {} in namespace {}", identity, config.getLeaseName(), config.getLeaseNamespace());
+            renewed(created, now);
+            return;
+        }
+
+        State read = State.fromData(current.getData());
+        long acked;
+        synchronized (this) {
+            observe(read, now);
+            // From now on, only the assemblies which this replica owns in the read epoch are started,
+            // so the epoch can be acknowledged as soon as those in flight all belong to this replica
+            state = read;
+            acked = read.acked(identity);
+            if (inFlight.keySet().stream().allMatch(assembly -> identity.equals(read.members.owner(assembly)))) {
+                acked = read.epoch;
+            }
+        }
+
+        Map<String, String> data = new HashMap<>(current.getData());
+        String leader = read.leader;
+        if (leader == null || !isAlive(leader, now)) {
+            log.info("{}: taking over the lease of leader {}", identity, leader);
+            leader = identity;
+        }
+        SortedSet<String> members = new TreeSet<>(read.members.members());
+        members.add(identity);
+        if (identity.equals(leader)) {
+            members.removeIf(member -> !member.equals(identity) && !isAlive(member, now));
+        }
+
+        if (!members.equals(read.members.members())) {
+            log.info("{}: members changed from {} to {} in epoch {}", identity, read.members.members(), members, read.epoch + 1);
+            if (read.allAcked) {
+                data.put(PREVIOUS_MEMBERS_KEY, String.join(",", read.members.members()));
+            }
+            data.put(EPOCH_KEY, Long.toString(read.epoch + 1));
+            data.put(MEMBERS_KEY, String.join(",", members));
+            data.keySet().removeIf(key -> key.startsWith(MEMBER_KEY_PREFIX)
+                    && !members.contains(key.substring(MEMBER_KEY_PREFIX.length())));
+            synchronized (this) {
+                if (inFlight.isEmpty()) {
+                    // Nothing to hand over
+                    acked = read.epoch + 1;
+                }
+            }
+        }
+        data.put(LEADER_KEY, leader);
+        data.put(MEMBER_KEY_PREFIX + identity, nextRecord(acked));
+
+        ConfigMap updated = resource.lockResourceVersion(current.getMetadata().getResourceVersion())
+                .replace(new ConfigMapBuilder(current).withData(data).build());
+        renewed(updated, now);
+    }
+
+    private synchronized String nextRecord(long acked) {
+        return ++renewals + ":" + acked;
+    }
+
+    private synchronized void renewed(ConfigMap written, long now) {
+        state = State.fromData(written.getData());
+        lastRenewal = now;
+        renewed = true;
+        observe(state, now);
+        log.debug("{}: renewed membership, leader {}, epoch {}, members {}", identity, state.leader, state.epoch, state.members.members());
+    }
+
+    /**
+     * Records when the membership record of each of the members was last seen to change.
+     */
+    private void observe(State read, long now) {
+        observations.keySet().retainAll(read.records.keySet());
+        for (Map.Entry<String, String> record : read.records.entrySet()) {
+            Observation previous = observations.get(record.getKey());
+            if (previous == null || !previous.record.equals(record.getValue())) {
+                observations.put(record.getKey(), new Observation(record.getValue(), now));
+            }
+        }
+    }
+
+    private synchronized boolean isAlive(String member, long now) {
+        Observation observation = observations.get(member);
+        return observation != null && now - observation.time <= config.getLeaseDurationMs();
+    }
+
+    /**
+     * Notifies the handover listeners if the assemblies owned by this replica might have changed.
+     */
+    private void maybeHandover() {
+        String newView;
+        synchronized (this) {
+            newView = view(clock.getAsLong());
+            if (newView.equals(view)) {
+                return;
+            }
+            view = newView;
+        }
+        log.info("{}: assignment of the assemblies changed ({})", identity, newView);
+        for (Listener listener : handoverListeners) {
+            listener.context.runOnContext(v -> listener.handler.run());
+        }
+    }
+
+    private String view(long now) {
+        return isFenced(now) ? "fenced" : "epoch=" + state.epoch + ",members=" + state.members.members() + ",handedOver=" + state.allAcked;
+    }
+
+    private static class Listener {
+        private final Context context;
+        private final Runnable handler;
+
+        Listener(Context context, Runnable handler) {
+            this.context = context;
+            this.handler = handler;
+        }
+    }
+
+    private static class Observation {
+        private final String record;
+        private final long time;
+
+        Observation(String record, long time) {
+            this.record = record;
+            this.time = time;
+        }
+    }
+
+    /**
+     * The coordination state, as read from the ConfigMap.
+     */
+    static class State {
+        static final State EMPTY = fromData(Collections.emptyMap());
+
+        final String leader;
+        final long epoch;
+        final HashRing members;
+        final HashRing previous;
+        /** The membership records, by member. Each record is the renewal counter and the acknowledged epoch of the member. */
+        final Map<String, String> records;
+        /** Whether all the members have acknowledged the epoch. */
+        final boolean allAcked;
+
+        private State(String leader, long epoch, HashRing members, HashRing previous, Map<String, String> records) {
+            this.leader = leader;
+            this.epoch = epoch;
+            this.members = members;
+            this.previous = previous;
+            this.records = records;
+            this.allAcked = members.members().stream().allMatch(member -> acked(member) == epoch);
+        }
+
+        static State fromData(Map<String, String> data) {
+            if (data == null) {
+                data = Collections.emptyMap();
+            }
+            Map<String, String> records = new HashMap<>();
+            for (Map.Entry<String, String> entry : data.entrySet()) {
+                if (entry.getKey().startsWith(MEMBER_KEY_PREFIX)) {
+                    records.put(entry.getKey().substring(MEMBER_KEY_PREFIX.length()), entry.getValue());
+                }
+            }
+            String epoch = data.get(EPOCH_KEY);
+            return new State(data.get(LEADER_KEY),
+                    epoch != null ? Long.parseLong(epoch) : 0,
+                    new HashRing(split(data.get(MEMBERS_KEY))),
+                    new HashRing(split(data.get(PREVIOUS_MEMBERS_KEY))),
+                    records);
+        }
+
+        private static List<String> split(String members) {
+            return members == null || members.isEmpty() ? Collections.emptyList() : asList(members.split(","));
+        }
+
+        /**
+         * @return The epoch the given member has acknowledged, or 0 if it has none.
+         */
+        long acked(String member) {
+            String record = records.get(member);
+            int separator = record != null ? record.indexOf(':') : -1;
+            return separator != -1 ? Long.parseLong(record.substring(separator + 1)) : 0;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.sharding;
+
+/**
+ * The configuration of the leader election and of the sharding of the assemblies between the replicas
+ * of the Cluster Operator (see {@link ShardCoordinator}).
+ */
+public class ShardingConfig {
+
+    public static final String DEFAULT_LEASE_NAME = "strimzi-cluster-operator";
+    public static final long DEFAULT_LEASE_DURATION_MS = 15_000;
+    public static final long DEFAULT_RENEW_DEADLINE_MS = 10_000;
+    public static final long DEFAULT_RETRY_PERIOD_MS = 2_000;
+
+    private final String leaseName;
+    private final String leaseNamespace;
+    private final String identity;
+    private final long leaseDurationMs;
+    private final long renewDeadlineMs;
+    private final long retryPeriodMs;
+
+    /**
+     * Constructor
+     * @param leaseName The name of the ConfigMap holding the lease and the members.
+     * @param leaseNamespace The namespace of the ConfigMap holding the lease and the members.
+     * @param identity The identity of this replica, which must be unique among the replicas (usually the name of its pod).
+     * @param leaseDurationMs How long the other replicas wait without seeing a replica renew its membership
+     *                        before they consider it gone.
+     * @param renewDeadlineMs How long a replica keeps reconciling its assemblies without managing to renew its membership.
+     * @param retryPeriodMs The interval between the renewals of the membership.
+     */
+    public ShardingConfig(String leaseName, String leaseNamespace, String identity, long leaseDurationMs, long renewDeadlineMs, long retryPeriodMs) {
+        this.leaseName = leaseName;
+        this.leaseNamespace = leaseNamespace;
+        this.identity = identity;
+        this.leaseDurationMs = leaseDurationMs;
+        this.renewDeadlineMs = renewDeadlineMs;
+        this.retryPeriodMs = retryPeriodMs;
+    }
+
+    public String getLeaseName() {
+        return leaseName;
+    }
+
+    public String getLeaseNamespace() {
+        return leaseNamespace;
+    }
+
+    public String getIdentity() {
+        return identity;
+    }
+
+    public long getLeaseDurationMs() {
+        return leaseDurationMs;
+    }
+
+    public long getRenewDeadlineMs() {
+        return renewDeadlineMs;
+    }
+
+    public long getRetryPeriodMs() {
+        return retryPeriodMs;
+    }
+
+    @Override
+    public String toString() {
+        return "ShardingConfig(" +
+                "leaseName=" + leaseName +
+                ",leaseNamespace=" + leaseNamespace +
+                ",identity=" + identity +
+                ",leaseDurationMs=" + leaseDurationMs +
+                ",renewDeadlineMs=" + renewDeadlineMs +
+                ",retryPeriodMs=" + retryPeriodMs +
+                ")";
+    }
+}
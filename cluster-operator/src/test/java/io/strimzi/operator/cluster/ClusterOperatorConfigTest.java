@@ -7,7 +7,11 @@ package io.strimzi.operator.cluster;
 import io.fabric8.kubernetes.api.model.LocalObjectReferenceBuilder;
 import io.strimzi.operator.cluster.model.ImagePullPolicy;
 import io.strimzi.operator.cluster.model.KafkaVersion;
+import io.strimzi.operator.cluster.sharding.ShardingConfig;
+import io.strimzi.operator.common.ApiRateLimiter;
 import io.strimzi.operator.common.InvalidConfigurationException;
+import io.strimzi.operator.common.WorkerPools;
+import io.strimzi.operator.common.model.Labels;
 import org.junit.Test;
 
 import java.util.HashMap;
@@ -18,6 +22,7 @@ import static java.util.Arrays.asList;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.singleton;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
@@ -82,6 +87,204 @@ public class ClusterOperatorConfigTest {
         assertEquals(ClusterOperatorConfig.DEFAULT_OPERATION_TIMEOUT_MS, config.getOperationTimeoutMs());
     }
 
+    @Test
+    public void testResourceCacheEnabled() {
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        assertFalse(ClusterOperatorConfig.fromMap(envVars).isResourceCacheEnabled());
+
+        envVars.put(ClusterOperatorConfig.STRIMZI_RESOURCE_CACHE_ENABLED, "true");
+        assertTrue(ClusterOperatorConfig.fromMap(envVars).isResourceCacheEnabled());
+    }
+
+    @Test
+    public void testMaxConcurrentReconciliations() {
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        assertEquals(ClusterOperatorConfig.DEFAULT_MAX_CONCURRENT_RECONCILIATIONS, ClusterOperatorConfig.fromMap(envVars).getMaxConcurrentReconciliations());
+
+        envVars.put(ClusterOperatorConfig.STRIMZI_MAX_CONCURRENT_RECONCILIATIONS, "3");
+        assertEquals(3, ClusterOperatorConfig.fromMap(envVars).getMaxConcurrentReconciliations());
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void testInvalidMaxConcurrentReconciliations() {
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        envVars.put(ClusterOperatorConfig.STRIMZI_MAX_CONCURRENT_RECONCILIATIONS, "0");
+        ClusterOperatorConfig.fromMap(envVars);
+    }
+
+    @Test
+    public void testMaxSkippedReconciliations() {
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        assertEquals(ClusterOperatorConfig.DEFAULT_MAX_SKIPPED_RECONCILIATIONS, ClusterOperatorConfig.fromMap(envVars).getMaxSkippedReconciliations());
+
+        envVars.put(ClusterOperatorConfig.STRIMZI_MAX_SKIPPED_RECONCILIATIONS, "5");
+        assertEquals(5, ClusterOperatorConfig.fromMap(envVars).getMaxSkippedReconciliations());
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void testInvalidMaxSkippedReconciliations() {
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        envVars.put(ClusterOperatorConfig.STRIMZI_MAX_SKIPPED_RECONCILIATIONS, "-1");
+        ClusterOperatorConfig.fromMap(envVars);
+    }
+
+    @Test
+    public void testWorkerPoolSizes() {
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        WorkerPools workerPools = ClusterOperatorConfig.fromMap(envVars).getWorkerPools();
+        assertEquals(WorkerPools.DEFAULT_KUBERNETES_API_READS_SIZE, workerPools.getKubernetesApiReadsSize());
+        assertEquals(WorkerPools.DEFAULT_KUBERNETES_API_WRITES_SIZE, workerPools.getKubernetesApiWritesSize());
+        assertEquals(WorkerPools.DEFAULT_CERT_GENERATION_SIZE, workerPools.getCertGenerationSize());
+        assertEquals(WorkerPools.DEFAULT_READINESS_POLLING_SIZE, workerPools.getReadinessPollingSize());
+
+        envVars.put(ClusterOperatorConfig.STRIMZI_KUBERNETES_API_READS_POOL_SIZE, "20");
+        envVars.put(ClusterOperatorConfig.STRIMZI_KUBERNETES_API_WRITES_POOL_SIZE, "15");
+        envVars.put(ClusterOperatorConfig.STRIMZI_CERT_GENERATION_POOL_SIZE, "1");
+        envVars.put(ClusterOperatorConfig.STRIMZI_READINESS_POLLING_POOL_SIZE, "3");
+        workerPools = ClusterOperatorConfig.fromMap(envVars).getWorkerPools();
+        assertEquals(20, workerPools.getKubernetesApiReadsSize());
+        assertEquals(15, workerPools.getKubernetesApiWritesSize());
+        assertEquals(1, workerPools.getCertGenerationSize());
+        assertEquals(3, workerPools.getReadinessPollingSize());
+    }
+
+    @Test
+    public void testClusterWideWatch() {
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        assertFalse(ClusterOperatorConfig.fromMap(envVars).isClusterWideWatch());
+
+        envVars.put(ClusterOperatorConfig.STRIMZI_CLUSTER_WIDE_WATCH, "true");
+        assertTrue(ClusterOperatorConfig.fromMap(envVars).isClusterWideWatch());
+    }
+
+    @Test
+    public void testNonBlockingApiClient() {
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        assertFalse(ClusterOperatorConfig.fromMap(envVars).isNonBlockingApiClient());
+
+        envVars.put(ClusterOperatorConfig.STRIMZI_NON_BLOCKING_API_CLIENT, "true");
+        assertTrue(ClusterOperatorConfig.fromMap(envVars).isNonBlockingApiClient());
+    }
+
+    @Test
+    public void testDynamicBrokerConfiguration() {
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        assertFalse(ClusterOperatorConfig.fromMap(envVars).isDynamicBrokerConfiguration());
+
+        envVars.put(ClusterOperatorConfig.STRIMZI_DYNAMIC_BROKER_CONFIGURATION, "true");
+        assertTrue(ClusterOperatorConfig.fromMap(envVars).isDynamicBrokerConfiguration());
+    }
+
+    @Test
+    public void testRackRollingUpdateConcurrency() {
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        assertEquals(ClusterOperatorConfig.DEFAULT_RACK_ROLLING_UPDATE_CONCURRENCY, ClusterOperatorConfig.fromMap(envVars).getRackRollingUpdateConcurrency());
+
+        envVars.put(ClusterOperatorConfig.STRIMZI_RACK_ROLLING_UPDATE_CONCURRENCY, "3");
+        assertEquals(3, ClusterOperatorConfig.fromMap(envVars).getRackRollingUpdateConcurrency());
+    }
+
+    @Test
+    public void testPartitionAwareRollingUpdate() {
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        assertFalse(ClusterOperatorConfig.fromMap(envVars).isPartitionAwareRollingUpdate());
+
+        envVars.put(ClusterOperatorConfig.STRIMZI_PARTITION_AWARE_ROLLING_UPDATE, "true");
+        assertTrue(ClusterOperatorConfig.fromMap(envVars).isPartitionAwareRollingUpdate());
+    }
+
+    @Test
+    public void testOperatorNamespace() {
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        ClusterOperatorConfig config = ClusterOperatorConfig.fromMap(envVars);
+        assertNull(config.getOperatorNamespace());
+        assertNull(config.getOperatorNamespaceLabels());
+
+        envVars.put(ClusterOperatorConfig.STRIMZI_OPERATOR_NAMESPACE, "operator-namespace");
+        envVars.put(ClusterOperatorConfig.STRIMZI_OPERATOR_NAMESPACE_LABELS, "name=operator-namespace, team=kafka");
+        config = ClusterOperatorConfig.fromMap(envVars);
+        assertEquals("operator-namespace", config.getOperatorNamespace());
+        assertEquals(Labels.fromString("name=operator-namespace,team=kafka"), config.getOperatorNamespaceLabels());
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void testInvalidOperatorNamespaceLabels() {
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        envVars.put(ClusterOperatorConfig.STRIMZI_OPERATOR_NAMESPACE_LABELS, "name");
+        ClusterOperatorConfig.fromMap(envVars);
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void testInvalidRackRollingUpdateConcurrency() {
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        envVars.put(ClusterOperatorConfig.STRIMZI_RACK_ROLLING_UPDATE_CONCURRENCY, "0");
+        ClusterOperatorConfig.fromMap(envVars);
+    }
+
+    @Test
+    public void testKubernetesApiRateLimit() {
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        ClusterOperatorConfig config = ClusterOperatorConfig.fromMap(envVars);
+        assertEquals(ApiRateLimiter.DEFAULT_QPS, config.getKubernetesApiQps(), 0.0);
+        assertEquals(ApiRateLimiter.DEFAULT_BURST, config.getKubernetesApiBurst());
+
+        envVars.put(ClusterOperatorConfig.STRIMZI_KUBERNETES_API_QPS, "12.5");
+        envVars.put(ClusterOperatorConfig.STRIMZI_KUBERNETES_API_BURST, "25");
+        config = ClusterOperatorConfig.fromMap(envVars);
+        assertEquals(12.5, config.getKubernetesApiQps(), 0.0);
+        assertEquals(25, config.getKubernetesApiBurst());
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void testNegativeKubernetesApiQps() {
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        envVars.put(ClusterOperatorConfig.STRIMZI_KUBERNETES_API_QPS, "-1");
+        ClusterOperatorConfig.fromMap(envVars);
+    }
+
+    @Test
+    public void testSharding() {
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        assertNull(ClusterOperatorConfig.fromMap(envVars).getSharding());
+
+        envVars.put(ClusterOperatorConfig.STRIMZI_LEADER_ELECTION_ENABLED, "true");
+        envVars.put(ClusterOperatorConfig.STRIMZI_LEADER_ELECTION_LEASE_NAMESPACE, "operator-namespace");
+        envVars.put(ClusterOperatorConfig.STRIMZI_LEADER_ELECTION_IDENTITY, "strimzi-cluster-operator-1");
+        envVars.put(ClusterOperatorConfig.STRIMZI_LEADER_ELECTION_RETRY_PERIOD_MS, "1000");
+        ShardingConfig sharding = ClusterOperatorConfig.fromMap(envVars).getSharding();
+        assertEquals(ShardingConfig.DEFAULT_LEASE_NAME, sharding.getLeaseName());
+        assertEquals("operator-namespace", sharding.getLeaseNamespace());
+        assertEquals("strimzi-cluster-operator-1", sharding.getIdentity());
+        assertEquals(ShardingConfig.DEFAULT_LEASE_DURATION_MS, sharding.getLeaseDurationMs());
+        assertEquals(ShardingConfig.DEFAULT_RENEW_DEADLINE_MS, sharding.getRenewDeadlineMs());
+        assertEquals(1000, sharding.getRetryPeriodMs());
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void testShardingWithoutIdentity() {
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        envVars.put(ClusterOperatorConfig.STRIMZI_LEADER_ELECTION_ENABLED, "true");
+        envVars.put(ClusterOperatorConfig.STRIMZI_LEADER_ELECTION_LEASE_NAMESPACE, "operator-namespace");
+        ClusterOperatorConfig.fromMap(envVars);
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void testShardingRenewDeadlineLongerThanLease() {
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        envVars.put(ClusterOperatorConfig.STRIMZI_LEADER_ELECTION_ENABLED, "true");
+        envVars.put(ClusterOperatorConfig.STRIMZI_LEADER_ELECTION_LEASE_NAMESPACE, "operator-namespace");
+        envVars.put(ClusterOperatorConfig.STRIMZI_LEADER_ELECTION_IDENTITY, "strimzi-cluster-operator-1");
+        envVars.put(ClusterOperatorConfig.STRIMZI_LEADER_ELECTION_RENEW_DEADLINE_MS, "20000");
+        ClusterOperatorConfig.fromMap(envVars);
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void testInvalidWorkerPoolSize() {
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        envVars.put(ClusterOperatorConfig.STRIMZI_CERT_GENERATION_POOL_SIZE, "0");
+        ClusterOperatorConfig.fromMap(envVars);
+    }
+
     private Map<String, String> envWithImages() {
         Map<String, String> envVars = new HashMap<>(2);
         envVars.put(ClusterOperatorConfig.STRIMZI_KAFKA_IMAGES, "2.1.0=foo 2.1.1=foo 2.2.0=foo 2.2.1=foo 2.3.0=foo");
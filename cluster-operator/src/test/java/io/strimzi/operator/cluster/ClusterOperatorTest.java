@@ -92,12 +92,22 @@ public class ClusterOperatorTest {
 
     @Test
     public void startStopAllNamespacesOs(TestContext context) {
-        startStopAllNamespaces(context, "*", true);
+        startStopAllNamespaces(context, "*", false, true);
     }
 
     @Test
     public void startStopAllNamespacesK8s(TestContext context) {
-        startStopAllNamespaces(context, "*", false);
+        startStopAllNamespaces(context, "*", false, false);
+    }
+
+    @Test
+    public void startStopMultiNamespaceClusterWideOs(TestContext context) {
+        startStopAllNamespaces(context, "namespace1,namespace2", true, true);
+    }
+
+    @Test
+    public void startStopMultiNamespaceClusterWideK8s(TestContext context) {
+        startStopAllNamespaces(context, "namespace1,namespace2", true, false);
     }
 
     /**
@@ -183,11 +193,13 @@ public class ClusterOperatorTest {
     }
 
     /**
-     * Does the CO start and then stop with the namespace wildcard (*)?
+     * Does the CO start and then stop a single verticle with the namespace wildcard (*),
+     * or with several namespaces and a cluster-wide watch?
      * @param context
      * @param namespaces
+     * @param clusterWideWatch
      */
-    private void startStopAllNamespaces(TestContext context, String namespaces, boolean openShift) {
+    private void startStopAllNamespaces(TestContext context, String namespaces, boolean clusterWideWatch, boolean openShift) {
         AtomicInteger numWatchers = new AtomicInteger(0);
         KubernetesClient client;
         if (openShift) {
@@ -231,6 +243,7 @@ public class ClusterOperatorTest {
         Async async = context.async();
 
         Map<String, String> env = buildEnv(namespaces);
+        env.put(ClusterOperatorConfig.STRIMZI_CLUSTER_WIDE_WATCH, Boolean.toString(clusterWideWatch));
         Main.run(vertx, client, new PlatformFeaturesAvailability(openShift, KubernetesVersion.V1_9), ClusterOperatorConfig.fromMap(env)).setHandler(ar -> {
             context.assertNull(ar.cause(), "Expected all verticles to start OK");
             async.complete();
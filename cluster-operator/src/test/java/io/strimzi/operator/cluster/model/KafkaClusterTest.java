@@ -1284,6 +1284,12 @@ public class KafkaClusterTest {
                 .endPodSelector()
                 .build();
 
+        NetworkPolicyPeer peer4 = new NetworkPolicyPeerBuilder()
+                .withNewPodSelector()
+                .withMatchLabels(Collections.singletonMap(Labels.STRIMZI_KIND_LABEL, "cluster-operator"))
+                .endPodSelector()
+                .build();
+
         Kafka kafkaAssembly = ResourceUtils.createKafkaCluster(namespace, cluster, replicas,
                 image, healthDelay, healthTimeout, metricsCm, configuration, emptyMap());
         KafkaCluster k = KafkaCluster.fromCrd(kafkaAssembly, VERSIONS);
@@ -1297,6 +1303,60 @@ public class KafkaClusterTest {
         assertTrue(rules.contains(peer1));
         assertTrue(rules.contains(peer2));
         assertTrue(rules.contains(peer3));
+        assertFalse(rules.contains(peer4));
+        assertFalse(k.getEnvVars().stream().anyMatch(env -> KafkaCluster.ENV_VAR_KAFKA_CLUSTER_OPERATOR_ACCESS.equals(env.getName())));
+
+        // Check the access of the cluster operator through the Admin API from the namespace of the Kafka cluster
+        k.setClusterOperatorAccess(true);
+        k.setClusterOperatorNamespace(namespace, null);
+        np = k.generateNetworkPolicy();
+
+        rules = np.getSpec().getIngress().stream().filter(ing -> ing.getPorts().get(0).getPort().equals(new IntOrString(KafkaCluster.REPLICATION_PORT))).map(NetworkPolicyIngressRule::getFrom).findFirst().orElse(null);
+
+        assertEquals(4, rules.size());
+        assertTrue(rules.contains(peer4));
+        assertTrue(k.getEnvVars().stream().anyMatch(env -> KafkaCluster.ENV_VAR_KAFKA_CLUSTER_OPERATOR_ACCESS.equals(env.getName())
+                && "true".equals(env.getValue())));
+    }
+
+    @Test
+    public void testReplicationPortNetworkPolicyWithClusterOperatorNamespace() {
+        Kafka kafkaAssembly = ResourceUtils.createKafkaCluster(namespace, cluster, replicas,
+                image, healthDelay, healthTimeout, metricsCm, configuration, emptyMap());
+        KafkaCluster k = KafkaCluster.fromCrd(kafkaAssembly, VERSIONS);
+        k.setClusterOperatorAccess(true);
+
+        // The cluster operator runs in the namespace of the Kafka cluster
+        k.setClusterOperatorNamespace(namespace, Labels.fromString("name=" + namespace));
+        NetworkPolicyPeer peer = clusterOperatorPeer(k.generateNetworkPolicy());
+        assertEquals(Collections.singletonMap(Labels.STRIMZI_KIND_LABEL, "cluster-operator"), peer.getPodSelector().getMatchLabels());
+        assertNull(peer.getNamespaceSelector());
+
+        // The cluster operator runs in a namespace with known labels
+        k.setClusterOperatorNamespace("operator-namespace", Labels.fromString("name=operator-namespace"));
+        peer = clusterOperatorPeer(k.generateNetworkPolicy());
+        assertEquals(Collections.singletonMap("name", "operator-namespace"), peer.getNamespaceSelector().getMatchLabels());
+
+        // The cluster operator runs in a namespace without known labels
+        k.setClusterOperatorNamespace("operator-namespace", null);
+        assertNull(clusterOperatorPeer(k.generateNetworkPolicy()));
+
+        // The namespace of the cluster operator is not known
+        k.setClusterOperatorNamespace(null, null);
+        assertNull(clusterOperatorPeer(k.generateNetworkPolicy()));
+
+        // The cluster operator does not connect to the brokers
+        k.setClusterOperatorAccess(false);
+        k.setClusterOperatorNamespace(namespace, null);
+        assertNull(clusterOperatorPeer(k.generateNetworkPolicy()));
+    }
+
+    private static NetworkPolicyPeer clusterOperatorPeer(NetworkPolicy np) {
+        return np.getSpec().getIngress().stream()
+                .filter(ing -> ing.getPorts().get(0).getPort().equals(new IntOrString(KafkaCluster.REPLICATION_PORT)))
+                .flatMap(ing -> ing.getFrom().stream())
+                .filter(peer -> "cluster-operator".equals(peer.getPodSelector().getMatchLabels().get(Labels.STRIMZI_KIND_LABEL)))
+                .findFirst().orElse(null);
     }
 
     @Test
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.model;
+
+import io.strimzi.kafka.config.model.Scope;
+import org.junit.Test;
+
+import static io.strimzi.test.TestUtils.map;
+import static io.strimzi.test.TestUtils.set;
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class KafkaConfigurationDiffTest {
+
+    private final KafkaVersion kafkaVersion = new KafkaVersion.Lookup(
+            null, null, null, null).defaultVersion();
+
+    @Test
+    public void testSameConfigurationIsEmpty() {
+        KafkaConfigurationDiff diff = new KafkaConfigurationDiff("log.retention.ms=1000\nauto.create.topics.enable=false\n",
+                "auto.create.topics.enable=false\nlog.retention.ms=1000\n", kafkaVersion);
+        assertTrue(diff.isEmpty());
+        assertTrue(diff.canBeUpdatedDynamically());
+    }
+
+    @Test
+    public void testMissingConfigurationIsEmpty() {
+        assertTrue(new KafkaConfigurationDiff(null, "", kafkaVersion).isEmpty());
+    }
+
+    @Test
+    public void testClusterWideChanges() {
+        KafkaConfigurationDiff diff = new KafkaConfigurationDiff("log.retention.ms=1000\n",
+                "log.retention.ms=2000\nlog.cleaner.threads=2\n", kafkaVersion);
+        assertTrue(diff.canBeUpdatedDynamically());
+        assertEquals(set("log.retention.ms", "log.cleaner.threads"), diff.changedOptions());
+        assertEquals(map("log.retention.ms", "2000", "log.cleaner.threads", "2"), diff.clusterWideUpdates());
+        assertEquals(emptyMap(), diff.perBrokerUpdates());
+        assertEquals(map("log.retention.ms", "2000", "log.cleaner.threads", "2"), diff.desiredOptions());
+    }
+
+    @Test
+    public void testRemovalCannotBeUpdatedDynamically() {
+        KafkaConfigurationDiff diff = new KafkaConfigurationDiff("log.retention.ms=1000\nnum.io.threads=8\n",
+                "log.retention.ms=1000\n", kafkaVersion);
+        assertFalse(diff.canBeUpdatedDynamically());
+        assertEquals(set("num.io.threads"), diff.changedOptions());
+        assertEquals(emptyMap(), diff.clusterWideUpdates());
+    }
+
+    @Test
+    public void testPerBrokerChanges() {
+        KafkaConfigurationDiff diff = new KafkaConfigurationDiff(null, "ssl.cipher.suites=TLS_AES_256_GCM_SHA384\n", kafkaVersion);
+        assertTrue(diff.canBeUpdatedDynamically());
+        assertEquals(map("ssl.cipher.suites", "TLS_AES_256_GCM_SHA384"), diff.perBrokerUpdates());
+        assertEquals(emptyMap(), diff.clusterWideUpdates());
+        assertEquals(Scope.PER_BROKER, diff.scope("ssl.cipher.suites"));
+        assertEquals(Scope.CLUSTER_WIDE, diff.scope("log.retention.ms"));
+        assertEquals(Scope.READ_ONLY, diff.scope("log.retention.hours"));
+        assertNull(diff.scope("my.plugin.option"));
+    }
+
+    @Test
+    public void testReadOnlyChangeCannotBeUpdatedDynamically() {
+        KafkaConfigurationDiff diff = new KafkaConfigurationDiff("log.retention.ms=1000\n",
+                "log.retention.ms=2000\nauto.create.topics.enable=false\n", kafkaVersion);
+        assertFalse(diff.isEmpty());
+        assertFalse(diff.canBeUpdatedDynamically());
+        assertEquals(set("log.retention.ms", "auto.create.topics.enable"), diff.changedOptions());
+    }
+
+    @Test
+    public void testUnknownOptionChangeCannotBeUpdatedDynamically() {
+        KafkaConfigurationDiff diff = new KafkaConfigurationDiff("my.plugin.option=a\n", "my.plugin.option=b\n", kafkaVersion);
+        assertFalse(diff.canBeUpdatedDynamically());
+    }
+
+    @Test
+    public void testUnchangedReadOnlyOptionDoesNotPreventDynamicUpdate() {
+        KafkaConfigurationDiff diff = new KafkaConfigurationDiff("auto.create.topics.enable=false\nlog.retention.ms=1000\n",
+                "auto.create.topics.enable=false\nlog.retention.ms=2000\n", kafkaVersion);
+        assertTrue(diff.canBeUpdatedDynamically());
+        assertEquals(set("log.retention.ms"), diff.changedOptions());
+    }
+}
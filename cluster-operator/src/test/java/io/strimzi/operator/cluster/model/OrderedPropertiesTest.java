@@ -6,6 +6,8 @@ package io.strimzi.operator.cluster.model;
 
 import java.io.IOException;
 import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Properties;
@@ -197,4 +199,35 @@ public class OrderedPropertiesTest {
                 "# a\n" +
                 "# comment\\\n", new OrderedProperties().asPairsWithComment("this\nis\n\ra\rcomment\\"));
     }
+
+    @Test
+    public void pairsWithCommentEdgeCases() {
+        Assert.assertEquals("# \n", new OrderedProperties().asPairsWithComment(""));
+        Assert.assertEquals("", new OrderedProperties().asPairsWithComment("\r\n"));
+        Assert.assertEquals("# \n# leading\n", new OrderedProperties().asPairsWithComment("\nleading"));
+        Assert.assertEquals("# trailing\n", new OrderedProperties().asPairsWithComment("trailing\n\n"));
+    }
+
+    @Test
+    public void trailingBackslashIsIgnored() throws IOException {
+        propertiesCompatibility("key=value\\");
+    }
+
+    @Test
+    public void addUtf8Pairs() {
+        OrderedProperties pairs = new OrderedProperties()
+            .addStringPairs(ByteBuffer.wrap("first=\u00e9t\u00e9\nsecond=\\u20ac".getBytes(StandardCharsets.UTF_8)));
+        assertKeyOrder(pairs, "first", "second");
+        assertValueOrder(pairs, "\u00e9t\u00e9", "\u20ac");
+    }
+
+    @Test
+    public void contentHash() {
+        OrderedProperties pairs = createTestKeyValues().addPair("with\\escape", " with\\escape\r\n");
+        Assert.assertEquals(OrderedProperties.contentHash(pairs.asPairs()), pairs.contentHash());
+        Assert.assertEquals(OrderedProperties.contentHash(pairs.asPairsWithComment("a\ncomment")), pairs.contentHashWithComment("a\ncomment"));
+        Assert.assertNotEquals(pairs.contentHash(), pairs.contentHashWithComment("a\ncomment"));
+        Assert.assertNotEquals(pairs.contentHash(), createTestKeyValues().contentHash());
+        Assert.assertEquals(createTestKeyValues().contentHash(), createTestKeyValues().contentHash());
+    }
 }
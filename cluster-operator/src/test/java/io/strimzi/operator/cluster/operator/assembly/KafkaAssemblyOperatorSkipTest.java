@@ -0,0 +1,416 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.assembly;
+
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.api.model.SecretBuilder;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceBuilder;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.api.model.apps.StatefulSetBuilder;
+import io.strimzi.api.kafka.model.Kafka;
+import io.strimzi.api.kafka.model.KafkaBuilder;
+import io.strimzi.api.kafka.model.status.KafkaStatus;
+import io.strimzi.certs.CertManager;
+import io.strimzi.operator.KubernetesVersion;
+import io.strimzi.operator.PlatformFeaturesAvailability;
+import io.strimzi.operator.cluster.ClusterOperatorConfig;
+import io.strimzi.operator.cluster.ResourceUtils;
+import io.strimzi.operator.cluster.model.ImagePullPolicy;
+import io.strimzi.operator.cluster.model.KafkaCluster;
+import io.strimzi.operator.cluster.model.KafkaVersion;
+import io.strimzi.operator.cluster.model.ZookeeperCluster;
+import io.strimzi.operator.cluster.operator.resource.ResourceOperatorSupplier;
+import io.strimzi.operator.common.Reconciliation;
+import io.strimzi.operator.common.model.Labels;
+import io.strimzi.operator.common.model.ResourceType;
+import io.strimzi.operator.common.operator.MockCertManager;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singleton;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@RunWith(VertxUnitRunner.class)
+public class KafkaAssemblyOperatorSkipTest {
+    private static final String NAMESPACE = "testns";
+    private static final String NAME = "my-cluster";
+
+    private final Map<String, String> secretVersions = new HashMap<>();
+    private final Map<String, Boolean> podReadiness = new HashMap<>();
+    private final List<Service> services = new ArrayList<>();
+    private Vertx vertx;
+    private ResourceOperatorSupplier supplier;
+    private ArgumentCaptor<Kafka> statusCaptor;
+    private int reconciliations;
+    private int caReconciliations;
+    private boolean casChanged;
+
+    @Before
+    public void before() {
+        vertx = Vertx.vertx();
+        supplier = ResourceUtils.supplierWithMocks(false);
+
+        when(supplier.secretOperations.getAsync(anyString(), anyString())).thenAnswer(i -> {
+            String name = i.getArgument(1);
+            Secret secret = new SecretBuilder()
+                    .withNewMetadata()
+                        .withName(name)
+                        .withResourceVersion(secretVersions.getOrDefault(name, "1"))
+                    .endMetadata()
+                    .build();
+            return Future.succeededFuture(secret);
+        });
+        when(supplier.zkSetOperations.getAsync(eq(NAMESPACE), eq(ZookeeperCluster.zookeeperClusterName(NAME))))
+                .thenReturn(Future.succeededFuture(statefulSet(ZookeeperCluster.zookeeperClusterName(NAME))));
+        when(supplier.kafkaSetOperations.getAsync(eq(NAMESPACE), eq(KafkaCluster.kafkaClusterName(NAME))))
+                .thenReturn(Future.succeededFuture(statefulSet(KafkaCluster.kafkaClusterName(NAME))));
+        when(supplier.podOperations.isReady(anyString(), anyString())).thenAnswer(i -> podReadiness.getOrDefault(i.getArgument(1), true));
+        when(supplier.secretOperations.listAsync(anyString(), any(Labels.class))).thenReturn(Future.succeededFuture(emptyList()));
+        when(supplier.configMapOperations.listAsync(anyString(), any(Labels.class))).thenReturn(Future.succeededFuture(emptyList()));
+        when(supplier.serviceAccountOperations.listAsync(anyString(), any(Labels.class))).thenReturn(Future.succeededFuture(emptyList()));
+        when(supplier.roleBindingOperations.listAsync(anyString(), any(Labels.class))).thenReturn(Future.succeededFuture(emptyList()));
+        when(supplier.networkPolicyOperator.listAsync(anyString(), any(Labels.class))).thenReturn(Future.succeededFuture(emptyList()));
+        when(supplier.podDisruptionBudgetOperator.listAsync(anyString(), any(Labels.class))).thenReturn(Future.succeededFuture(emptyList()));
+        when(supplier.deploymentOperations.listAsync(anyString(), any(Labels.class))).thenReturn(Future.succeededFuture(emptyList()));
+        when(supplier.pvcOperations.listAsync(anyString(), any(Labels.class))).thenReturn(Future.succeededFuture(emptyList()));
+        when(supplier.ingressOperations.listAsync(anyString(), any(Labels.class))).thenReturn(Future.succeededFuture(emptyList()));
+        when(supplier.serviceOperations.listAsync(eq(NAMESPACE), eq(Labels.forKind(Kafka.RESOURCE_KIND).withCluster(NAME))))
+                .thenAnswer(i -> Future.succeededFuture(new ArrayList<>(services)));
+        services.add(service(KafkaCluster.serviceName(NAME), "1"));
+        services.add(service(KafkaCluster.headlessServiceName(NAME), "1"));
+
+        statusCaptor = ArgumentCaptor.forClass(Kafka.class);
+        when(supplier.kafkaOperator.getAsync(eq(NAMESPACE), eq(NAME))).thenReturn(Future.succeededFuture(kafka(1L, null)));
+        when(supplier.kafkaOperator.updateStatusAsync(statusCaptor.capture())).thenReturn(Future.succeededFuture());
+        reconciliations = 0;
+        caReconciliations = 0;
+        casChanged = false;
+    }
+
+    @After
+    public void after() {
+        vertx.close();
+    }
+
+    private static StatefulSet statefulSet(String name) {
+        return new StatefulSetBuilder()
+                .withNewMetadata()
+                    .withName(name)
+                    .withNamespace(NAMESPACE)
+                    .withResourceVersion("1")
+                .endMetadata()
+                .withNewSpec()
+                    .withReplicas(3)
+                .endSpec()
+                .build();
+    }
+
+    private static Service service(String name, String resourceVersion) {
+        return new ServiceBuilder()
+                .withNewMetadata()
+                    .withName(name)
+                    .withNamespace(NAMESPACE)
+                    .withResourceVersion(resourceVersion)
+                .endMetadata()
+                .build();
+    }
+
+    private static Kafka kafka(long generation, String fingerprint) {
+        return new KafkaBuilder()
+                .withNewMetadata()
+                    .withName(NAME)
+                    .withNamespace(NAMESPACE)
+                    .withGeneration(generation)
+                .endMetadata()
+                .withNewSpec()
+                    .withNewKafka()
+                        .withReplicas(3)
+                        .withNewEphemeralStorage()
+                        .endEphemeralStorage()
+                    .endKafka()
+                    .withNewZookeeper()
+                        .withReplicas(3)
+                        .withNewEphemeralStorage()
+                        .endEphemeralStorage()
+                    .endZookeeper()
+                .endSpec()
+                .withNewStatus()
+                    .withReconciliationFingerprint(fingerprint)
+                .endStatus()
+                .build();
+    }
+
+    private static ClusterOperatorConfig.Builder config(int maxSkippedReconciliations) {
+        return new ClusterOperatorConfig.Builder(singleton(NAMESPACE), 60_000, 300_000, false,
+                new KafkaVersion.Lookup(emptyMap(), emptyMap(), emptyMap(), emptyMap()))
+                .withMaxSkippedReconciliations(maxSkippedReconciliations);
+    }
+
+    private KafkaAssemblyOperator operator(int maxSkippedReconciliations) {
+        return operator(config(maxSkippedReconciliations).build());
+    }
+
+    private KafkaAssemblyOperator operator(ClusterOperatorConfig config) {
+        return new CountingKafkaAssemblyOperator(vertx, new PlatformFeaturesAvailability(false, KubernetesVersion.V1_11),
+                new MockCertManager(), supplier, config);
+    }
+
+    private void createOrUpdate(TestContext context, KafkaAssemblyOperator kao, Kafka kafka) {
+        Async async = context.async();
+        kao.createOrUpdate(new Reconciliation("test-trigger", ResourceType.KAFKA, NAMESPACE, NAME), kafka).setHandler(res -> {
+            context.assertTrue(res.succeeded());
+            async.complete();
+        });
+        async.await();
+    }
+
+    /**
+     * @return The fingerprint recorded on the status by the last full reconciliation.
+     */
+    private String recordedFingerprint() {
+        return statusCaptor.getValue().getStatus().getReconciliationFingerprint();
+    }
+
+    @Test
+    public void testUnchangedReconciliationsAreSkippedUpToTheLimit(TestContext context) {
+        KafkaAssemblyOperator kao = operator(2);
+
+        createOrUpdate(context, kao, kafka(1L, null));
+        context.assertEquals(1, reconciliations);
+        String fingerprint = recordedFingerprint();
+        context.assertNotNull(fingerprint);
+
+        createOrUpdate(context, kao, kafka(1L, fingerprint));
+        createOrUpdate(context, kao, kafka(1L, fingerprint));
+        context.assertEquals(1, reconciliations);
+
+        // Every third run is a full one
+        createOrUpdate(context, kao, kafka(1L, fingerprint));
+        context.assertEquals(2, reconciliations);
+        context.assertEquals(fingerprint, recordedFingerprint());
+        createOrUpdate(context, kao, kafka(1L, fingerprint));
+        context.assertEquals(2, reconciliations);
+    }
+
+    @Test
+    public void testGenerationChangeIsReconciled(TestContext context) {
+        KafkaAssemblyOperator kao = operator(10);
+
+        createOrUpdate(context, kao, kafka(1L, null));
+        String fingerprint = recordedFingerprint();
+
+        createOrUpdate(context, kao, kafka(2L, fingerprint));
+        context.assertEquals(2, reconciliations);
+        context.assertNotEquals(fingerprint, recordedFingerprint());
+    }
+
+    @Test
+    public void testLabelAndAnnotationChangesAreReconciled(TestContext context) {
+        KafkaAssemblyOperator kao = operator(10);
+
+        createOrUpdate(context, kao, kafka(1L, null));
+        String fingerprint = recordedFingerprint();
+
+        createOrUpdate(context, kao, new KafkaBuilder(kafka(1L, fingerprint))
+                .editMetadata().addToLabels("app", "my-app").endMetadata()
+                .build());
+        context.assertEquals(2, reconciliations);
+        fingerprint = recordedFingerprint();
+
+        createOrUpdate(context, kao, new KafkaBuilder(kafka(1L, fingerprint))
+                .editMetadata().addToLabels("app", "my-app").addToAnnotations("my-annotation", "value").endMetadata()
+                .build());
+        context.assertEquals(3, reconciliations);
+    }
+
+    @Test
+    public void testConfigurationChangeIsReconciled(TestContext context) {
+        createOrUpdate(context, operator(10), kafka(1L, null));
+        String fingerprint = recordedFingerprint();
+
+        // An operator restarted with the same configuration skips the reconciliation
+        createOrUpdate(context, operator(10), kafka(1L, fingerprint));
+        context.assertEquals(1, reconciliations);
+
+        createOrUpdate(context, operator(config(10).withImagePullPolicy(ImagePullPolicy.ALWAYS).build()), kafka(1L, fingerprint));
+        context.assertEquals(2, reconciliations);
+    }
+
+    @Test
+    public void testDefaultImagesAreFingerprintInputs() {
+        ClusterOperatorConfig config = config(10).build();
+        Map<String, String> env = new HashMap<>();
+        env.put(ClusterOperatorConfig.STRIMZI_DEFAULT_KAFKA_INIT_IMAGE, "strimzi/operator:1");
+        List<String> inputs = KafkaAssemblyOperator.configurationFingerprintInputs(config, env);
+
+        env.put("HOSTNAME", "strimzi-cluster-operator-1");
+        assertEquals(inputs, KafkaAssemblyOperator.configurationFingerprintInputs(config, env));
+
+        env.put(ClusterOperatorConfig.STRIMZI_DEFAULT_KAFKA_INIT_IMAGE, "strimzi/operator:2");
+        assertNotEquals(inputs, KafkaAssemblyOperator.configurationFingerprintInputs(config, env));
+    }
+
+    @Test
+    public void testCaSecretChangeIsReconciled(TestContext context) {
+        KafkaAssemblyOperator kao = operator(10);
+
+        createOrUpdate(context, kao, kafka(1L, null));
+        String fingerprint = recordedFingerprint();
+
+        secretVersions.put(KafkaCluster.clusterCaCertSecretName(NAME), "2");
+        createOrUpdate(context, kao, kafka(1L, fingerprint));
+        context.assertEquals(2, reconciliations);
+    }
+
+    @Test
+    public void testOwnedResourceChangeIsReconciled(TestContext context) {
+        KafkaAssemblyOperator kao = operator(10);
+
+        createOrUpdate(context, kao, kafka(1L, null));
+        String fingerprint = recordedFingerprint();
+
+        // The order in which the resources are listed does not matter
+        Collections.reverse(services);
+        createOrUpdate(context, kao, kafka(1L, fingerprint));
+        context.assertEquals(1, reconciliations);
+
+        services.set(0, service(services.get(0).getMetadata().getName(), "2"));
+        createOrUpdate(context, kao, kafka(1L, fingerprint));
+        context.assertEquals(2, reconciliations);
+        fingerprint = recordedFingerprint();
+
+        services.remove(0);
+        createOrUpdate(context, kao, kafka(1L, fingerprint));
+        context.assertEquals(3, reconciliations);
+    }
+
+    @Test
+    public void testUnreadyPodIsReconciled(TestContext context) {
+        KafkaAssemblyOperator kao = operator(10);
+
+        createOrUpdate(context, kao, kafka(1L, null));
+        String fingerprint = recordedFingerprint();
+
+        podReadiness.put(KafkaCluster.kafkaPodName(NAME, 1), false);
+        createOrUpdate(context, kao, kafka(1L, fingerprint));
+        context.assertEquals(2, reconciliations);
+    }
+
+    @Test
+    public void testSkippedReconciliationReconcilesTheCasAndUpdatesTheStatus(TestContext context) {
+        KafkaAssemblyOperator kao = operator(10);
+
+        createOrUpdate(context, kao, kafka(1L, null));
+        String fingerprint = recordedFingerprint();
+        context.assertEquals(1, caReconciliations);
+
+        createOrUpdate(context, kao, kafka(1L, fingerprint));
+        context.assertEquals(1, reconciliations);
+        context.assertEquals(2, caReconciliations);
+        KafkaStatus status = statusCaptor.getValue().getStatus();
+        context.assertEquals(fingerprint, status.getReconciliationFingerprint());
+        context.assertEquals(1L, status.getObservedGeneration());
+        context.assertEquals("Ready", status.getConditions().get(0).getType());
+    }
+
+    @Test
+    public void testCaRenewalIsReconciled(TestContext context) {
+        KafkaAssemblyOperator kao = operator(10);
+
+        createOrUpdate(context, kao, kafka(1L, null));
+        String fingerprint = recordedFingerprint();
+
+        casChanged = true;
+        createOrUpdate(context, kao, kafka(1L, fingerprint));
+        context.assertEquals(2, reconciliations);
+        // The full reconciliation keeps the result of the CA reconciliation of the skip check
+        context.assertEquals(2, caReconciliations);
+    }
+
+    @Test
+    public void testSkippedReconciliationsAreForgottenWhenTheClusterIsDeleted(TestContext context) {
+        KafkaAssemblyOperator kao = operator(2);
+
+        createOrUpdate(context, kao, kafka(1L, null));
+        String fingerprint = recordedFingerprint();
+        createOrUpdate(context, kao, kafka(1L, fingerprint));
+        createOrUpdate(context, kao, kafka(1L, fingerprint));
+        context.assertEquals(1, reconciliations);
+
+        kao.assemblyDeleted(new Reconciliation("test-trigger", ResourceType.KAFKA, NAMESPACE, NAME));
+        createOrUpdate(context, kao, kafka(1L, fingerprint));
+        createOrUpdate(context, kao, kafka(1L, fingerprint));
+        context.assertEquals(1, reconciliations);
+        createOrUpdate(context, kao, kafka(1L, fingerprint));
+        context.assertEquals(2, reconciliations);
+    }
+
+    @Test
+    public void testNoFingerprintWhenDisabled(TestContext context) {
+        KafkaAssemblyOperator kao = operator(0);
+
+        createOrUpdate(context, kao, kafka(1L, null));
+        context.assertNull(recordedFingerprint());
+        createOrUpdate(context, kao, kafka(1L, null));
+        context.assertEquals(2, reconciliations);
+    }
+
+    class CountingKafkaAssemblyOperator extends KafkaAssemblyOperator {
+        CountingKafkaAssemblyOperator(Vertx vertx, PlatformFeaturesAvailability pfa, CertManager certManager, ResourceOperatorSupplier supplier, ClusterOperatorConfig config) {
+            super(vertx, pfa, certManager, supplier, config);
+        }
+
+        @Override
+        Future<Void> reconcile(ReconciliationState reconcileState) {
+            reconciliations++;
+            return reconcileState.reconcileCas(Date::new).map((Void) null);
+        }
+
+        @Override
+        ReconciliationState createReconciliationState(Reconciliation reconciliation, Kafka kafkaAssembly) {
+            return new ReconciliationState(reconciliation, kafkaAssembly) {
+                private boolean reconciled;
+
+                @Override
+                Future<ReconciliationState> reconcileCas(Supplier<Date> dateSupplier) {
+                    if (!reconciled) {
+                        reconciled = true;
+                        caReconciliations++;
+                    }
+                    return Future.succeededFuture(this);
+                }
+
+                @Override
+                boolean casChanged() {
+                    return casChanged;
+                }
+            };
+        }
+    }
+}
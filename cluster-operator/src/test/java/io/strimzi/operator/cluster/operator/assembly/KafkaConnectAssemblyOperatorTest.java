@@ -18,8 +18,10 @@ import io.strimzi.operator.cluster.model.KafkaConnectCluster;
 import io.strimzi.operator.cluster.model.KafkaVersion;
 import io.strimzi.operator.KubernetesVersion;
 import io.strimzi.operator.cluster.operator.resource.ResourceOperatorSupplier;
+import io.strimzi.operator.cluster.sharding.ShardCoordinator;
 import io.strimzi.operator.common.Reconciliation;
 import io.strimzi.operator.common.model.Labels;
+import io.strimzi.operator.common.model.NamespaceAndName;
 import io.strimzi.operator.common.model.ResourceType;
 import io.strimzi.operator.common.operator.MockCertManager;
 import io.strimzi.operator.common.operator.resource.ConfigMapOperator;
@@ -49,6 +51,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyMap;
@@ -59,7 +63,9 @@ import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -148,7 +154,6 @@ public class KafkaConnectAssemblyOperatorTest {
             Deployment dc = capturedDc.get(0);
             context.assertEquals(connect.getName(), dc.getMetadata().getName());
             Map annotations = new HashMap();
-            annotations.put("strimzi.io/logging", LOGGING_CONFIG);
             context.assertEquals(connect.generateDeployment(annotations, true, null, null), dc, "Deployments are not equal");
 
             // Verify PodDisruptionBudget
@@ -333,7 +338,6 @@ public class KafkaConnectAssemblyOperatorTest {
             Deployment dc = capturedDc.get(0);
             context.assertEquals(compareTo.getName(), dc.getMetadata().getName());
             Map<String, String> annotations = new HashMap();
-            annotations.put("strimzi.io/logging", loggingCm.getData().get(compareTo.ANCILLARY_CM_KEY_LOG_CONFIG));
             context.assertEquals(compareTo.generateDeployment(annotations, true, null, null), dc, "Deployments are not equal");
 
             // Verify PodDisruptionBudget
@@ -573,6 +577,139 @@ public class KafkaConnectAssemblyOperatorTest {
         context.assertEquals(new HashSet(asList("foo", "bar")), createdOrUpdated);
     }
 
+    @Test
+    public void testReconcileAllNamespacesOnlyReconcilesGivenNamespaces(TestContext context) {
+        ResourceOperatorSupplier supplier = ResourceUtils.supplierWithMocks(true);
+        CrdOperator mockConnectOps = supplier.connectOperator;
+
+        KafkaConnect foo = ResourceUtils.createEmptyKafkaConnectCluster("ns1", "foo");
+        KafkaConnect bar = ResourceUtils.createEmptyKafkaConnectCluster("ns2", "bar");
+        KafkaConnect baz = ResourceUtils.createEmptyKafkaConnectCluster("other", "baz");
+        when(mockConnectOps.list(eq("*"), any())).thenReturn(asList(foo, bar, baz));
+        when(mockConnectOps.get(eq("ns1"), eq("foo"))).thenReturn(foo);
+        when(mockConnectOps.get(eq("ns2"), eq("bar"))).thenReturn(bar);
+        when(mockConnectOps.get(eq("other"), eq("baz"))).thenReturn(baz);
+
+        Set<String> createdOrUpdated = new CopyOnWriteArraySet<>();
+
+        Async async = context.async(2);
+        KafkaConnectAssemblyOperator ops = new KafkaConnectAssemblyOperator(vertx, new PlatformFeaturesAvailability(true, kubernetesVersion),
+                new MockCertManager(), supplier, ResourceUtils.dummyClusterOperatorConfig(VERSIONS)) {
+
+            @Override
+            public Future<Void> createOrUpdate(Reconciliation reconciliation, KafkaConnect kafkaConnectAssembly) {
+                createdOrUpdated.add(kafkaConnectAssembly.getMetadata().getName());
+                async.countDown();
+                return Future.succeededFuture();
+            }
+        };
+
+        // Reconcile the Kafka Connect clusters of two of the namespaces listed by a cluster-wide list
+        ops.reconcileAll("test", "*", new HashSet<>(asList("ns1", "ns2")), 0);
+
+        async.await();
+
+        context.assertEquals(new HashSet(asList("foo", "bar")), createdOrUpdated);
+    }
+
+    @Test
+    public void testReconcileAllOnlyReconcilesOwnedAssemblies(TestContext context) {
+        ResourceOperatorSupplier supplier = ResourceUtils.supplierWithMocks(true);
+        CrdOperator mockConnectOps = supplier.connectOperator;
+
+        KafkaConnect foo = ResourceUtils.createEmptyKafkaConnectCluster("test", "foo");
+        KafkaConnect bar = ResourceUtils.createEmptyKafkaConnectCluster("test", "bar");
+        KafkaConnect baz = ResourceUtils.createEmptyKafkaConnectCluster("test", "baz");
+        when(mockConnectOps.list(eq("test"), any())).thenReturn(asList(foo, bar, baz));
+        when(mockConnectOps.get(eq("test"), eq("foo"))).thenReturn(foo);
+        when(mockConnectOps.get(eq("test"), eq("bar"))).thenReturn(bar);
+        when(mockConnectOps.get(eq("test"), eq("baz"))).thenReturn(baz);
+
+        // Another replica of the operator reconciles baz
+        ShardCoordinator shards = mock(ShardCoordinator.class);
+        when(shards.owns(any())).thenAnswer(i -> !"baz".equals(((NamespaceAndName) i.getArgument(0)).getName()));
+        when(shards.tryStart(any())).thenAnswer(i -> !"baz".equals(((NamespaceAndName) i.getArgument(0)).getName()));
+
+        Set<String> createdOrUpdated = new CopyOnWriteArraySet<>();
+
+        Async async = context.async(2);
+        KafkaConnectAssemblyOperator ops = new KafkaConnectAssemblyOperator(vertx, new PlatformFeaturesAvailability(true, kubernetesVersion),
+                new MockCertManager(), supplier, ResourceUtils.dummyClusterOperatorConfig(VERSIONS)) {
+
+            @Override
+            public Future<Void> createOrUpdate(Reconciliation reconciliation, KafkaConnect kafkaConnectAssembly) {
+                createdOrUpdated.add(kafkaConnectAssembly.getMetadata().getName());
+                async.countDown();
+                return Future.succeededFuture();
+            }
+        };
+        ops.setShardCoordinator(shards);
+
+        ops.reconcileAll("test", "test");
+
+        async.await();
+
+        context.assertEquals(new HashSet(asList("foo", "bar")), createdOrUpdated);
+        verify(shards, timeout(1_000).times(2)).finished(any());
+    }
+
+    @Test
+    public void testReconcileAllCompletesWhenReconciliationsFail(TestContext context) throws InterruptedException {
+        ResourceOperatorSupplier supplier = ResourceUtils.supplierWithMocks(true);
+        CrdOperator mockConnectOps = supplier.connectOperator;
+
+        KafkaConnect foo = ResourceUtils.createEmptyKafkaConnectCluster("test", "foo");
+        KafkaConnect bar = ResourceUtils.createEmptyKafkaConnectCluster("test", "bar");
+        when(mockConnectOps.list(eq("test"), any())).thenReturn(asList(foo, bar));
+        when(mockConnectOps.get(eq("test"), eq("foo"))).thenReturn(foo);
+        when(mockConnectOps.get(eq("test"), eq("bar"))).thenReturn(bar);
+
+        KafkaConnectAssemblyOperator ops = new KafkaConnectAssemblyOperator(vertx, new PlatformFeaturesAvailability(true, kubernetesVersion),
+                new MockCertManager(), supplier, ResourceUtils.dummyClusterOperatorConfig(VERSIONS)) {
+
+            @Override
+            public Future<Void> createOrUpdate(Reconciliation reconciliation, KafkaConnect kafkaConnectAssembly) {
+                return Future.failedFuture("failure");
+            }
+        };
+
+        context.assertTrue(ops.reconcileAll("test", "test").await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testFailedReconciliationIsRetriedUntilItSucceeds(TestContext context) {
+        ResourceOperatorSupplier supplier = ResourceUtils.supplierWithMocks(true);
+        CrdOperator mockConnectOps = supplier.connectOperator;
+
+        KafkaConnect foo = ResourceUtils.createEmptyKafkaConnectCluster("test", "foo");
+        when(mockConnectOps.get(eq("test"), eq("foo"))).thenReturn(foo);
+
+        AtomicInteger attempts = new AtomicInteger();
+        Async async = context.async(3);
+        KafkaConnectAssemblyOperator ops = new KafkaConnectAssemblyOperator(vertx, new PlatformFeaturesAvailability(true, kubernetesVersion),
+                new MockCertManager(), supplier, ResourceUtils.dummyClusterOperatorConfig(VERSIONS)) {
+
+            @Override
+            public Future<Void> createOrUpdate(Reconciliation reconciliation, KafkaConnect kafkaConnectAssembly) {
+                int attempt = attempts.incrementAndGet();
+                async.countDown();
+                return attempt < 3 ? Future.failedFuture("failure") : Future.succeededFuture();
+            }
+        };
+        ops.setRetryDelays(10, 100);
+
+        ops.reconcileAssembly(new Reconciliation("test", ResourceType.CONNECT, "test", "foo"), context.asyncAssertFailure());
+
+        async.await();
+        context.assertEquals(3, attempts.get());
+        // No more retries after the successful reconciliation
+        Async noMoreRetries = context.async();
+        vertx.setTimer(300, id -> {
+            context.assertEquals(3, attempts.get());
+            noMoreRetries.complete();
+        });
+    }
+
     @Test
     public void testCreateClusterStatusNotReady(TestContext context) {
         ResourceOperatorSupplier supplier = ResourceUtils.supplierWithMocks(true);
@@ -76,8 +76,6 @@ public class KafkaConnectS2IAssemblyOperatorTest {
             emptyMap()) { };
     protected static Vertx vertx;
     private static final String METRICS_CONFIG = "{\"foo\":\"bar\"}";
-    private static final String LOGGING_CONFIG = AbstractModel.getOrderedProperties("kafkaConnectDefaultLoggingProperties")
-            .asPairsWithComment("Do not change this generated file. Logging can be configured in the corresponding kubernetes/openshift resource.");
 
     private final KubernetesVersion kubernetesVersion = KubernetesVersion.V1_9;
 
@@ -158,7 +156,6 @@ public class KafkaConnectS2IAssemblyOperatorTest {
             DeploymentConfig dc = capturedDc.get(0);
             context.assertEquals(connect.getName(), dc.getMetadata().getName());
             Map annotations = new HashMap();
-            annotations.put("strimzi.io/logging", LOGGING_CONFIG);
             context.assertEquals(connect.generateDeploymentConfig(annotations, true, null, null), dc, "Deployment Configs are not equal");
 
             // Verify Build Config
@@ -408,7 +405,6 @@ public class KafkaConnectS2IAssemblyOperatorTest {
             DeploymentConfig dc = capturedDc.get(0);
             context.assertEquals(compareTo.getName(), dc.getMetadata().getName());
             Map annotations = new HashMap();
-            annotations.put("strimzi.io/logging", LOGGING_CONFIG);
             context.assertEquals(compareTo.generateDeploymentConfig(annotations, true, null, null), dc, "Deployment Configs are not equal");
 
             // Verify Build Config
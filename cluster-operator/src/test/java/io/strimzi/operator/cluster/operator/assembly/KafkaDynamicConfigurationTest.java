@@ -0,0 +1,407 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.assembly;
+
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.strimzi.api.kafka.Crds;
+import io.strimzi.api.kafka.KafkaList;
+import io.strimzi.api.kafka.model.DoneableKafka;
+import io.strimzi.api.kafka.model.InlineLogging;
+import io.strimzi.api.kafka.model.Kafka;
+import io.strimzi.api.kafka.model.KafkaBuilder;
+import io.strimzi.api.kafka.model.KafkaResources;
+import io.strimzi.operator.KubernetesVersion;
+import io.strimzi.operator.PlatformFeaturesAvailability;
+import io.strimzi.operator.cluster.ClusterOperatorConfig;
+import io.strimzi.operator.cluster.ResourceUtils;
+import io.strimzi.operator.cluster.model.AbstractModel;
+import io.strimzi.operator.cluster.model.KafkaCluster;
+import io.strimzi.operator.cluster.model.KafkaVersion;
+import io.strimzi.operator.cluster.model.ZookeeperCluster;
+import io.strimzi.operator.cluster.operator.resource.AdminClientProvider;
+import io.strimzi.operator.cluster.operator.resource.ResourceOperatorSupplier;
+import io.strimzi.operator.cluster.operator.resource.StatefulSetOperator;
+import io.strimzi.operator.common.Reconciliation;
+import io.strimzi.operator.common.model.ResourceType;
+import io.strimzi.operator.common.operator.MockCertManager;
+import io.strimzi.test.mockkube.MockKube;
+import io.vertx.core.Vertx;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AlterConfigOp;
+import org.apache.kafka.clients.admin.AlterConfigsResult;
+import org.apache.kafka.clients.admin.Config;
+import org.apache.kafka.clients.admin.ConfigEntry;
+import org.apache.kafka.clients.admin.DescribeClusterResult;
+import org.apache.kafka.clients.admin.DescribeConfigsResult;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.internals.KafkaFutureImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(VertxUnitRunner.class)
+public class KafkaDynamicConfigurationTest {
+
+    private static final String NAMESPACE = "my-namespace";
+    private static final String CLUSTER_NAME = "my-cluster";
+    private static final int REPLICAS = 3;
+    private static final KafkaVersion.Lookup VERSIONS = new KafkaVersion.Lookup(new StringReader(
+            "2.3.0 default 2.3 2.3 1234567890abcdef 2.3.x"),
+            singletonMap("2.3.0", "strimzi/kafka:latest-kafka-2.3.0"),
+            emptyMap(), emptyMap(), emptyMap()) { };
+
+    private Vertx vertx;
+    private KubernetesClient mockClient;
+    private AdminClient adminClient;
+    private Map<ConfigResource, List<ConfigEntry>> dynamicConfigs;
+    private KafkaAssemblyOperator.ReconciliationState lastState;
+    private KafkaAssemblyOperator kco;
+
+    @Before
+    public void before(TestContext context) {
+        this.vertx = Vertx.vertx();
+
+        Map<String, Object> config = new HashMap<>();
+        config.put("log.retention.ms", 1000);
+        Kafka cluster = new KafkaBuilder()
+                .withMetadata(new ObjectMetaBuilder().withName(CLUSTER_NAME)
+                .withNamespace(NAMESPACE)
+                .build())
+                .withNewSpec()
+                    .withNewKafka()
+                        .withReplicas(REPLICAS)
+                        .withNewEphemeralStorage()
+                        .endEphemeralStorage()
+                        .withConfig(config)
+                    .endKafka()
+                    .withNewZookeeper()
+                        .withReplicas(3)
+                        .withNewEphemeralStorage()
+                        .endEphemeralStorage()
+                    .endZookeeper()
+                .endSpec()
+                .build();
+
+        this.mockClient = new MockKube()
+                .withCustomResourceDefinition(Crds.kafka(), Kafka.class, KafkaList.class, DoneableKafka.class)
+                .withInitialInstances(Collections.singleton(cluster))
+                .end()
+                .build();
+
+        this.adminClient = mock(AdminClient.class);
+        this.dynamicConfigs = new HashMap<>();
+        mockDescribe();
+        AdminClientProvider adminClientProvider = (bootstrapHostnames, clusterCaCertSecret, coKeySecret) -> adminClient;
+        ResourceOperatorSupplier supplier = new ResourceOperatorSupplier(vertx, mockClient,
+                ResourceUtils.zookeeperLeaderFinder(vertx, mockClient), adminClientProvider,
+                new PlatformFeaturesAvailability(true, KubernetesVersion.V1_9), 60_000L);
+        ClusterOperatorConfig operatorConfig = new ClusterOperatorConfig.Builder(singleton(NAMESPACE), 60_000, 2_000, false, VERSIONS)
+                .withDynamicBrokerConfiguration(true)
+                .build();
+        this.kco = new KafkaAssemblyOperator(vertx, new PlatformFeaturesAvailability(true, KubernetesVersion.V1_9),
+                new MockCertManager(), supplier, operatorConfig) {
+            @Override
+            ReconciliationState createReconciliationState(Reconciliation reconciliation, Kafka kafkaAssembly) {
+                lastState = super.createReconciliationState(reconciliation, kafkaAssembly);
+                return lastState;
+            }
+        };
+
+        Async createAsync = context.async();
+        kco.reconcileAssembly(new Reconciliation("test-trigger", ResourceType.KAFKA, NAMESPACE, CLUSTER_NAME), ar -> {
+            context.assertTrue(ar.succeeded());
+            createAsync.complete();
+        });
+        createAsync.await();
+    }
+
+    @After
+    public void after() {
+        vertx.close();
+    }
+
+    private void updateConfig(String option, Object value) {
+        Kafka kafka = mockClient.customResources(Crds.kafka(), Kafka.class, KafkaList.class, DoneableKafka.class)
+                .inNamespace(NAMESPACE).withName(CLUSTER_NAME).get();
+        Map<String, Object> config = new HashMap<>(kafka.getSpec().getKafka().getConfig());
+        config.put(option, value);
+        kafka.getSpec().getKafka().setConfig(config);
+        mockClient.customResources(Crds.kafka(), Kafka.class, KafkaList.class, DoneableKafka.class)
+                .inNamespace(NAMESPACE).withName(CLUSTER_NAME).patch(kafka);
+    }
+
+    private void updateLogging(String logger, String level) {
+        Kafka kafka = mockClient.customResources(Crds.kafka(), Kafka.class, KafkaList.class, DoneableKafka.class)
+                .inNamespace(NAMESPACE).withName(CLUSTER_NAME).get();
+        InlineLogging logging = new InlineLogging();
+        logging.setLoggers(singletonMap(logger, level));
+        kafka.getSpec().getKafka().setLogging(logging);
+        kafka.getSpec().getZookeeper().setLogging(logging);
+        mockClient.customResources(Crds.kafka(), Kafka.class, KafkaList.class, DoneableKafka.class)
+                .inNamespace(NAMESPACE).withName(CLUSTER_NAME).patch(kafka);
+    }
+
+    private Map<String, String> kafkaPodUids() {
+        Map<String, String> uids = new HashMap<>();
+        for (int i = 0; i < REPLICAS; i++) {
+            Pod pod = mockClient.pods().inNamespace(NAMESPACE).withName(KafkaCluster.kafkaPodName(CLUSTER_NAME, i)).get();
+            uids.put(pod.getMetadata().getName(), pod.getMetadata().getUid());
+        }
+        return uids;
+    }
+
+    private Map<String, String> zkPodUids() {
+        Map<String, String> uids = new HashMap<>();
+        for (int i = 0; i < 3; i++) {
+            Pod pod = mockClient.pods().inNamespace(NAMESPACE).withName(ZookeeperCluster.zookeeperPodName(CLUSTER_NAME, i)).get();
+            uids.put(pod.getMetadata().getName(), pod.getMetadata().getUid());
+        }
+        return uids;
+    }
+
+    private void removeConfig(String option) {
+        Kafka kafka = mockClient.customResources(Crds.kafka(), Kafka.class, KafkaList.class, DoneableKafka.class)
+                .inNamespace(NAMESPACE).withName(CLUSTER_NAME).get();
+        Map<String, Object> config = new HashMap<>(kafka.getSpec().getKafka().getConfig());
+        config.remove(option);
+        kafka.getSpec().getKafka().setConfig(config);
+        mockClient.customResources(Crds.kafka(), Kafka.class, KafkaList.class, DoneableKafka.class)
+                .inNamespace(NAMESPACE).withName(CLUSTER_NAME).patch(kafka);
+    }
+
+    /**
+     * Mocks describeCluster and describeConfigs, which return the brokers of the cluster and the dynamic values
+     * in {@link #dynamicConfigs}.
+     */
+    private void mockDescribe() {
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < REPLICAS; i++) {
+            nodes.add(new Node(i, KafkaCluster.kafkaPodName(CLUSTER_NAME, i), KafkaCluster.REPLICATION_PORT));
+        }
+        DescribeClusterResult describeClusterResult = mock(DescribeClusterResult.class);
+        when(describeClusterResult.nodes()).thenReturn(KafkaFuture.completedFuture(nodes));
+        when(adminClient.describeCluster()).thenReturn(describeClusterResult);
+        when(adminClient.describeConfigs(any())).thenAnswer(invocation -> {
+            Collection<ConfigResource> resources = invocation.getArgument(0);
+            Map<ConfigResource, Config> configs = new HashMap<>();
+            for (ConfigResource resource : resources) {
+                configs.put(resource, new Config(dynamicConfigs.getOrDefault(resource, Collections.emptyList())));
+            }
+            DescribeConfigsResult describeConfigsResult = mock(DescribeConfigsResult.class);
+            when(describeConfigsResult.all()).thenReturn(KafkaFuture.completedFuture(configs));
+            return describeConfigsResult;
+        });
+    }
+
+    /**
+     * Makes describeConfigs return the given cluster-wide default dynamic value.
+     */
+    private void clusterWideDynamicValue(String option, String value) {
+        ConfigEntry entry = mock(ConfigEntry.class);
+        when(entry.name()).thenReturn(option);
+        when(entry.value()).thenReturn(value);
+        when(entry.source()).thenReturn(ConfigEntry.ConfigSource.DYNAMIC_DEFAULT_BROKER_CONFIG);
+        dynamicConfigs.put(new ConfigResource(ConfigResource.Type.BROKER, ""), singletonList(entry));
+    }
+
+    private void mockAlterConfigs(KafkaFuture<Void> result) {
+        AlterConfigsResult alterConfigsResult = mock(AlterConfigsResult.class);
+        when(alterConfigsResult.all()).thenReturn(result);
+        when(adminClient.incrementalAlterConfigs(any())).thenReturn(alterConfigsResult);
+    }
+
+    private void reconcile(TestContext context) {
+        Async async = context.async();
+        kco.reconcileAssembly(new Reconciliation("test-trigger", ResourceType.KAFKA, NAMESPACE, CLUSTER_NAME), ar -> {
+            context.assertTrue(ar.succeeded());
+            async.complete();
+        });
+        async.await();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testDynamicChangeIsAppliedWithoutRollingTheBrokers(TestContext context) {
+        mockAlterConfigs(KafkaFuture.completedFuture(null));
+        Map<String, String> uids = kafkaPodUids();
+
+        updateConfig("log.retention.ms", 2000);
+        reconcile(context);
+
+        ArgumentCaptor<Map<ConfigResource, Collection<AlterConfigOp>>> ops = ArgumentCaptor.forClass(Map.class);
+        verify(adminClient).incrementalAlterConfigs(ops.capture());
+        Collection<AlterConfigOp> clusterWideOps = ops.getValue().get(new ConfigResource(ConfigResource.Type.BROKER, ""));
+        context.assertEquals(1, clusterWideOps.size());
+        AlterConfigOp op = clusterWideOps.iterator().next();
+        context.assertEquals(AlterConfigOp.OpType.SET, op.opType());
+        context.assertEquals("log.retention.ms", op.configEntry().name());
+        context.assertEquals("2000", op.configEntry().value());
+
+        context.assertEquals(uids, kafkaPodUids());
+        StatefulSet ss = mockClient.apps().statefulSets().inNamespace(NAMESPACE).withName(KafkaCluster.kafkaClusterName(CLUSTER_NAME)).get();
+        for (int i = 0; i < REPLICAS; i++) {
+            Pod pod = mockClient.pods().inNamespace(NAMESPACE).withName(KafkaCluster.kafkaPodName(CLUSTER_NAME, i)).get();
+            context.assertEquals(StatefulSetOperator.getSsGeneration(ss), StatefulSetOperator.getPodGeneration(pod));
+        }
+        List<String> expected = singletonList("log.retention.ms");
+        context.assertEquals(expected, lastState.kafkaStatus.getDynamicallyUpdatedConfiguration());
+    }
+
+    @Test
+    public void testReadOnlyChangeRollsTheBrokers(TestContext context) {
+        Map<String, String> uids = kafkaPodUids();
+
+        updateConfig("auto.create.topics.enable", false);
+        reconcile(context);
+
+        verify(adminClient, never()).incrementalAlterConfigs(any());
+        Map<String, String> newUids = kafkaPodUids();
+        for (String pod : uids.keySet()) {
+            context.assertNotEquals(uids.get(pod), newUids.get(pod), "Pod " + pod + " was not rolled");
+        }
+        context.assertNull(lastState.kafkaStatus.getDynamicallyUpdatedConfiguration());
+    }
+
+    @Test
+    public void testFailedDynamicChangeRollsTheBrokers(TestContext context) {
+        KafkaFutureImpl<Void> failed = new KafkaFutureImpl<>();
+        failed.completeExceptionally(new RuntimeException("Test exception"));
+        mockAlterConfigs(failed);
+        Map<String, String> uids = kafkaPodUids();
+
+        updateConfig("log.retention.ms", 2000);
+        reconcile(context);
+
+        verify(adminClient).incrementalAlterConfigs(any());
+        Map<String, String> newUids = kafkaPodUids();
+        for (String pod : uids.keySet()) {
+            context.assertNotEquals(uids.get(pod), newUids.get(pod), "Pod " + pod + " was not rolled");
+        }
+        context.assertNull(lastState.kafkaStatus.getDynamicallyUpdatedConfiguration());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRemovalRollsTheBrokersAndDeletesTheDynamicValue(TestContext context) {
+        mockAlterConfigs(KafkaFuture.completedFuture(null));
+        clusterWideDynamicValue("log.retention.ms", "1000");
+        Map<String, String> uids = kafkaPodUids();
+
+        removeConfig("log.retention.ms");
+        reconcile(context);
+
+        ArgumentCaptor<Map<ConfigResource, Collection<AlterConfigOp>>> ops = ArgumentCaptor.forClass(Map.class);
+        verify(adminClient).incrementalAlterConfigs(ops.capture());
+        context.assertEquals(1, ops.getValue().size());
+        Collection<AlterConfigOp> clusterWideOps = ops.getValue().get(new ConfigResource(ConfigResource.Type.BROKER, ""));
+        context.assertEquals(1, clusterWideOps.size());
+        AlterConfigOp op = clusterWideOps.iterator().next();
+        context.assertEquals(AlterConfigOp.OpType.DELETE, op.opType());
+        context.assertEquals("log.retention.ms", op.configEntry().name());
+
+        Map<String, String> newUids = kafkaPodUids();
+        for (String pod : uids.keySet()) {
+            context.assertNotEquals(uids.get(pod), newUids.get(pod), "Pod " + pod + " was not rolled");
+        }
+        context.assertNull(lastState.kafkaStatus.getDynamicallyUpdatedConfiguration());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRollingChangeAfterDynamicChangeIsNotShadowedByTheDynamicValue(TestContext context) {
+        mockAlterConfigs(KafkaFuture.completedFuture(null));
+        Map<String, String> uids = kafkaPodUids();
+
+        updateConfig("log.retention.ms", 2000);
+        reconcile(context);
+        context.assertEquals(uids, kafkaPodUids());
+        clusterWideDynamicValue("log.retention.ms", "2000");
+
+        updateConfig("log.retention.ms", 3000);
+        updateConfig("auto.create.topics.enable", false);
+        reconcile(context);
+
+        ArgumentCaptor<Map<ConfigResource, Collection<AlterConfigOp>>> ops = ArgumentCaptor.forClass(Map.class);
+        verify(adminClient, times(2)).incrementalAlterConfigs(ops.capture());
+        Collection<AlterConfigOp> clusterWideOps = ops.getValue().get(new ConfigResource(ConfigResource.Type.BROKER, ""));
+        context.assertEquals(1, clusterWideOps.size());
+        AlterConfigOp op = clusterWideOps.iterator().next();
+        context.assertEquals(AlterConfigOp.OpType.SET, op.opType());
+        context.assertEquals("log.retention.ms", op.configEntry().name());
+        context.assertEquals("3000", op.configEntry().value());
+
+        Map<String, String> newUids = kafkaPodUids();
+        for (String pod : uids.keySet()) {
+            context.assertNotEquals(uids.get(pod), newUids.get(pod), "Pod " + pod + " was not rolled");
+        }
+        context.assertNull(lastState.kafkaStatus.getDynamicallyUpdatedConfiguration());
+    }
+
+    @Test
+    public void testFailedReconciliationOfTheDynamicValuesIsRetried(TestContext context) {
+        KafkaFutureImpl<Void> failed = new KafkaFutureImpl<>();
+        failed.completeExceptionally(new RuntimeException("Test exception"));
+        mockAlterConfigs(failed);
+        clusterWideDynamicValue("log.retention.ms", "1000");
+
+        removeConfig("log.retention.ms");
+        reconcile(context);
+        verify(adminClient, times(1)).incrementalAlterConfigs(any());
+
+        mockAlterConfigs(KafkaFuture.completedFuture(null));
+        reconcile(context);
+        verify(adminClient, times(2)).incrementalAlterConfigs(any());
+
+        dynamicConfigs.clear();
+        reconcile(context);
+        reconcile(context);
+        verify(adminClient, times(2)).incrementalAlterConfigs(any());
+    }
+
+    @Test
+    public void testLoggingChangeIsReloadedWithoutRollingThePods(TestContext context) {
+        Map<String, String> kafkaUids = kafkaPodUids();
+        Map<String, String> zkUids = zkPodUids();
+
+        updateLogging("kafka.root.logger.level", "DEBUG");
+        reconcile(context);
+
+        verify(adminClient, never()).incrementalAlterConfigs(any());
+        context.assertEquals(kafkaUids, kafkaPodUids());
+        context.assertEquals(zkUids, zkPodUids());
+        ConfigMap cm = mockClient.configMaps().inNamespace(NAMESPACE).withName(KafkaResources.kafkaMetricsAndLogConfigMapName(CLUSTER_NAME)).get();
+        context.assertTrue(cm.getData().get(AbstractModel.ANCILLARY_CM_KEY_LOG_CONFIG).contains("kafka.root.logger.level=DEBUG"));
+    }
+}
@@ -167,7 +167,6 @@ public class KafkaMirrorMakerAssemblyOperatorTest {
             Deployment dc = capturedDc.get(0);
             context.assertEquals(mirror.getName(), dc.getMetadata().getName());
             Map annotations = new HashMap();
-            annotations.put("strimzi.io/logging", LOGGING_CONFIG);
             context.assertEquals(mirror.generateDeployment(annotations, true, null, null), dc, "Deployments are not equal");
 
             // Verify PodDisruptionBudget
@@ -383,7 +382,6 @@ public class KafkaMirrorMakerAssemblyOperatorTest {
             Deployment dc = capturedDc.get(0);
             context.assertEquals(compareTo.getName(), dc.getMetadata().getName());
             Map<String, String> annotations = new HashMap();
-            annotations.put("strimzi.io/logging", loggingCm.getData().get(compareTo.ANCILLARY_CM_KEY_LOG_CONFIG));
             context.assertEquals(compareTo.generateDeployment(annotations, true, null, null), dc, "Deployments are not equal");
 
             // Verify PodDisruptionBudget
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.assembly;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.api.model.apps.StatefulSetBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.strimzi.api.kafka.model.Kafka;
+import io.strimzi.api.kafka.model.KafkaBuilder;
+import io.strimzi.operator.KubernetesVersion;
+import io.strimzi.operator.PlatformFeaturesAvailability;
+import io.strimzi.operator.cluster.ResourceUtils;
+import io.strimzi.operator.cluster.model.KafkaCluster;
+import io.strimzi.operator.cluster.operator.resource.KafkaAvailability;
+import io.strimzi.operator.cluster.operator.resource.KafkaSetOperator;
+import io.strimzi.operator.cluster.operator.resource.ResourceOperatorSupplier;
+import io.strimzi.operator.common.Reconciliation;
+import io.strimzi.operator.common.model.Labels;
+import io.strimzi.operator.common.model.ResourceType;
+import io.strimzi.operator.common.operator.MockCertManager;
+import io.strimzi.operator.common.operator.resource.NodeOperator;
+import io.strimzi.operator.common.operator.resource.PodOperator;
+import io.strimzi.operator.common.operator.resource.PvcOperator;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class KafkaRollingUpdateTest {
+    private static final String NAMESPACE = "testns";
+    private static final String NAME = "my-cluster";
+
+    private final Vertx vertx = Vertx.vertx();
+
+    @After
+    public void after() {
+        vertx.close();
+    }
+
+    @Test
+    public void testRollingUpdateWithDefaultConfigurationRestartsControllerLast() {
+        PodOperator podOperator = mock(PodOperator.class);
+        when(podOperator.getAsync(anyString(), anyString())).thenAnswer(invocation -> Future.succeededFuture(new PodBuilder()
+                .withNewMetadata().withName(invocation.getArgument(1)).endMetadata()
+                .build()));
+        KafkaAvailability availability = mock(KafkaAvailability.class);
+        when(availability.findController(eq(NAMESPACE), eq(NAME))).thenReturn(Future.succeededFuture(1));
+
+        List<String> restarted = new ArrayList<>();
+        KafkaSetOperator kafkaSetOperator = new KafkaSetOperator(vertx, mock(KubernetesClient.class), 1_000,
+                podOperator, mock(PvcOperator.class), mock(NodeOperator.class), availability) {
+            @Override
+            public Future<Void> maybeRestartPod(StatefulSet ss, String podName, Predicate<Pod> podRestart) {
+                restarted.add(podName);
+                return Future.succeededFuture();
+            }
+        };
+
+        KafkaAssemblyOperator op = new KafkaAssemblyOperator(vertx, new PlatformFeaturesAvailability(false, KubernetesVersion.V1_9),
+                new MockCertManager(),
+                new ResourceOperatorSupplier(null, null, null,
+                        kafkaSetOperator, null, null, null, null, null, null, null,
+                        null, null, null, null, null, null, null, null, null, null, null, null, null),
+                ResourceUtils.dummyClusterOperatorConfig());
+        Reconciliation reconciliation = new Reconciliation("test-trigger", ResourceType.KAFKA, NAMESPACE, NAME);
+
+        Future<Void> result = op.new ReconciliationState(reconciliation, kafka())
+                .kafkaRollingUpdate(statefulSet(), pod -> true);
+
+        assertTrue(result.succeeded());
+        assertEquals(asList(KafkaCluster.kafkaPodName(NAME, 0), KafkaCluster.kafkaPodName(NAME, 2), KafkaCluster.kafkaPodName(NAME, 1)),
+                restarted);
+    }
+
+    private static StatefulSet statefulSet() {
+        return new StatefulSetBuilder()
+                .withNewMetadata()
+                    .withName(KafkaCluster.kafkaClusterName(NAME))
+                    .withNamespace(NAMESPACE)
+                    .withLabels(Labels.forCluster(NAME).toMap())
+                .endMetadata()
+                .withNewSpec()
+                    .withReplicas(3)
+                .endSpec()
+                .build();
+    }
+
+    private static Kafka kafka() {
+        return new KafkaBuilder()
+                .withNewMetadata()
+                    .withName(NAME)
+                    .withNamespace(NAMESPACE)
+                .endMetadata()
+                .withNewSpec()
+                    .withNewKafka()
+                        .withReplicas(3)
+                        .withNewEphemeralStorage()
+                        .endEphemeralStorage()
+                    .endKafka()
+                    .withNewZookeeper()
+                        .withReplicas(3)
+                        .withNewEphemeralStorage()
+                        .endEphemeralStorage()
+                    .endZookeeper()
+                .endSpec()
+                .build();
+    }
+}
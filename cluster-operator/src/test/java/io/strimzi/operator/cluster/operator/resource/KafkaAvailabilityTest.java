@@ -0,0 +1,151 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.resource;
+
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.Config;
+import org.apache.kafka.clients.admin.ConfigEntry;
+import org.apache.kafka.clients.admin.DescribeClusterResult;
+import org.apache.kafka.clients.admin.DescribeConfigsResult;
+import org.apache.kafka.clients.admin.DescribeTopicsResult;
+import org.apache.kafka.clients.admin.ListTopicsResult;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.config.TopicConfig;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class KafkaAvailabilityTest {
+
+    private final KafkaAvailability availability = new KafkaAvailability(null, null, null, 1_000);
+
+    private final Map<String, TopicDescription> topics = new HashMap<>();
+    private final Map<ConfigResource, Config> configs = new HashMap<>();
+    private AdminClient adminClient;
+
+    @Before
+    public void before() {
+        topics.clear();
+        configs.clear();
+        adminClient = mock(AdminClient.class);
+
+        ListTopicsResult listTopicsResult = mock(ListTopicsResult.class);
+        when(listTopicsResult.names()).thenAnswer(invocation -> KafkaFuture.completedFuture(topics.keySet()));
+        when(adminClient.listTopics(any())).thenReturn(listTopicsResult);
+
+        DescribeTopicsResult describeTopicsResult = mock(DescribeTopicsResult.class);
+        when(describeTopicsResult.all()).thenAnswer(invocation -> KafkaFuture.completedFuture(topics));
+        when(adminClient.describeTopics(any())).thenReturn(describeTopicsResult);
+
+        DescribeConfigsResult describeConfigsResult = mock(DescribeConfigsResult.class);
+        when(describeConfigsResult.all()).thenAnswer(invocation -> KafkaFuture.completedFuture(configs));
+        when(adminClient.describeConfigs(any())).thenReturn(describeConfigsResult);
+    }
+
+    private static List<Node> nodes(int... ids) {
+        List<Node> nodes = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            nodes.add(new Node(id, "broker-" + id, 9091));
+        }
+        return nodes;
+    }
+
+    /**
+     * Adds a topic with a single partition with the given replicas and in-sync replicas.
+     */
+    private void topic(String name, int minIsr, int[] replicas, int... isr) {
+        List<Node> replicaNodes = nodes(replicas);
+        topics.put(name, new TopicDescription(name, false,
+                singletonList(new TopicPartitionInfo(0, replicaNodes.get(0), replicaNodes, nodes(isr)))));
+        configs.put(new ConfigResource(ConfigResource.Type.TOPIC, name),
+                new Config(singletonList(new ConfigEntry(TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG, String.valueOf(minIsr)))));
+    }
+
+    @Test
+    public void testNoTopics() throws Exception {
+        assertNull(availability.reasonNotToRoll(adminClient, singleton(0)));
+        assertNull(availability.reasonNotInSync(adminClient, 0));
+    }
+
+    @Test
+    public void testCanRollWhenPartitionsStayAboveMinIsr() throws Exception {
+        topic("my-topic", 2, new int[] {0, 1, 2}, 0, 1, 2);
+        assertNull(availability.reasonNotToRoll(adminClient, singleton(0)));
+    }
+
+    @Test
+    public void testCannotRollWhenPartitionWouldDropBelowMinIsr() throws Exception {
+        topic("my-topic", 2, new int[] {0, 1, 2}, 0, 1);
+        assertEquals("partition my-topic-0 would have fewer than 2 in-sync replicas",
+                availability.reasonNotToRoll(adminClient, singleton(0)));
+        // Broker 2 is already out of sync, so restarting it does not make the partition any less available
+        assertNull(availability.reasonNotToRoll(adminClient, singleton(2)));
+    }
+
+    @Test
+    public void testCanRollWhenPartitionCannotTolerateAnyBrokerBeingDown() throws Exception {
+        topic("my-topic", 2, new int[] {0, 1}, 0, 1);
+        topic("other-topic", 1, new int[] {0}, 0);
+        assertNull(availability.reasonNotToRoll(adminClient, singleton(0)));
+    }
+
+    @Test
+    public void testCannotRollBrokersTogetherWhichShareAPartition() throws Exception {
+        topic("my-topic", 2, new int[] {0, 1, 2}, 0, 1, 2);
+        topic("other-topic", 2, new int[] {3, 4, 5}, 3, 4, 5);
+        // Each broker on its own can be restarted
+        assertNull(availability.reasonNotToRoll(adminClient, singleton(0)));
+        assertNull(availability.reasonNotToRoll(adminClient, singleton(1)));
+        // But not both of them, as they are both in sync replicas of my-topic-0
+        assertEquals("partition my-topic-0 would have fewer than 2 in-sync replicas",
+                availability.reasonNotToRoll(adminClient, asList(0, 1)));
+        // Brokers which share no partition can be restarted together
+        assertNull(availability.reasonNotToRoll(adminClient, asList(0, 3)));
+    }
+
+    @Test
+    public void testNotInSyncWhileBrokerPartitionsAreUnderReplicated() throws Exception {
+        topic("my-topic", 1, new int[] {0, 1, 2}, 1, 2);
+        topic("other-topic", 1, new int[] {1, 2}, 1, 2);
+        assertEquals("1 of its partitions are under-replicated", availability.reasonNotInSync(adminClient, 0));
+        topic("my-topic", 1, new int[] {0, 1, 2}, 0, 1, 2);
+        assertNull(availability.reasonNotInSync(adminClient, 0));
+    }
+
+    @Test
+    public void testInSyncIgnoresPartitionsOfOtherBrokers() throws Exception {
+        topic("my-topic", 1, new int[] {1, 2}, 1);
+        assertNull(availability.reasonNotInSync(adminClient, 0));
+    }
+
+    @Test
+    public void testController() throws Exception {
+        DescribeClusterResult describeClusterResult = mock(DescribeClusterResult.class);
+        when(adminClient.describeCluster()).thenReturn(describeClusterResult);
+
+        when(describeClusterResult.controller()).thenReturn(KafkaFuture.completedFuture(new Node(2, "broker-2", 9091)));
+        assertEquals(2, availability.controller(adminClient));
+
+        when(describeClusterResult.controller()).thenReturn(KafkaFuture.completedFuture(Node.noNode()));
+        assertEquals(KafkaAvailability.UNKNOWN_CONTROLLER, availability.controller(adminClient));
+    }
+}
@@ -5,25 +5,51 @@
 package io.strimzi.operator.cluster.operator.resource;
 
 import io.fabric8.kubernetes.api.model.EnvVar;
+import io.fabric8.kubernetes.api.model.NodeBuilder;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
 import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.client.KubernetesClient;
 import io.strimzi.api.kafka.model.InlineLogging;
 import io.strimzi.api.kafka.model.Kafka;
 import io.strimzi.api.kafka.model.KafkaBuilder;
 import io.strimzi.operator.cluster.ResourceUtils;
 import io.strimzi.operator.cluster.model.KafkaCluster;
 import io.strimzi.operator.cluster.model.KafkaVersion;
+import io.strimzi.operator.common.operator.resource.NodeOperator;
+import io.strimzi.operator.common.operator.resource.PodOperator;
+import io.strimzi.operator.common.operator.resource.PvcOperator;
+import io.strimzi.operator.common.operator.resource.TimeoutException;
+import io.vertx.core.Future;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Predicate;
 
 import static io.strimzi.operator.cluster.model.AbstractModel.containerEnvVars;
 import static io.strimzi.operator.cluster.model.KafkaCluster.ENV_VAR_KAFKA_ZOOKEEPER_CONNECT;
+import static java.util.Arrays.asList;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class KafkaSetOperatorTest {
 
@@ -37,6 +63,9 @@ public class KafkaSetOperatorTest {
 
     private StatefulSet a;
     private StatefulSet b;
+    private PodOperator podOperator;
+    private KafkaAvailability availability;
+    private KafkaAvailability.Session session;
 
     @Before
     public void before() {
@@ -129,4 +158,256 @@ public class KafkaSetOperatorTest {
                 "foo", null));
         assertTrue(KafkaSetOperator.needsRollingUpdate(diff()));
     }
+
+    /**
+     * Creates a KafkaSetOperator whose pod {@code <name>-<i>} runs on a node in the rack {@code racks[i]},
+     * and which records the pods it restarts in {@code restarts} rather than restarting them.
+     */
+    private KafkaSetOperator rackAwareOperator(Map<String, Future<Void>> restarts, String... racks) {
+        podOperator = mock(PodOperator.class);
+        when(podOperator.getAsync(anyString(), anyString())).thenAnswer(invocation -> {
+            String podName = invocation.getArgument(1);
+            return Future.succeededFuture(new PodBuilder()
+                    .withNewMetadata().withName(podName).endMetadata()
+                    .withNewSpec().withNodeName("node-" + podName.substring(podName.lastIndexOf('-') + 1)).endSpec()
+                    .build());
+        });
+        NodeOperator nodeOperator = mock(NodeOperator.class);
+        when(nodeOperator.getAsync(anyString())).thenAnswer(invocation -> {
+            String nodeName = invocation.getArgument(0);
+            String rack = racks[Integer.parseInt(nodeName.substring("node-".length()))];
+            return Future.succeededFuture(new NodeBuilder()
+                    .withNewMetadata().withName(nodeName).withLabels(rack == null ? emptyMap() : singletonMap("zone", rack)).endMetadata()
+                    .build());
+        });
+        availability = mock(KafkaAvailability.class);
+        session = mock(KafkaAvailability.Session.class);
+        when(availability.open(anyString(), anyString())).thenReturn(Future.succeededFuture(session));
+        when(availability.findController(anyString(), anyString())).thenReturn(Future.succeededFuture(KafkaAvailability.UNKNOWN_CONTROLLER));
+        when(session.findController()).thenReturn(Future.succeededFuture(KafkaAvailability.UNKNOWN_CONTROLLER));
+        return new KafkaSetOperator(null, mock(KubernetesClient.class), 1_000, podOperator, mock(PvcOperator.class), nodeOperator, availability) {
+            @Override
+            public Future<Void> maybeRestartPod(StatefulSet ss, String podName, Predicate<Pod> podRestart) {
+                Future<Void> restart = Future.future();
+                restarts.put(podName, restart);
+                return restart;
+            }
+        };
+    }
+
+    private static List<String> completeRestarts(Map<String, Future<Void>> restarts) {
+        List<String> restarted = new ArrayList<>(restarts.keySet());
+        List<Future<Void>> futures = new ArrayList<>(restarts.values());
+        restarts.clear();
+        futures.forEach(Future::complete);
+        return restarted;
+    }
+
+    @Test
+    public void testRackRollingUpdateRollsOneRackAtATime() {
+        a.getSpec().setReplicas(6);
+        Map<String, Future<Void>> restarts = new LinkedHashMap<>();
+        Future<Void> result = rackAwareOperator(restarts, "zone-b", "zone-a", "zone-c", "zone-b", "zone-a", "zone-c")
+                .maybeRollingUpdate(a, pod -> true, "zone", 2, false);
+
+        assertEquals(asList("foo-kafka-1", "foo-kafka-4"), completeRestarts(restarts));
+        assertEquals(asList("foo-kafka-0", "foo-kafka-3"), completeRestarts(restarts));
+        assertFalse(result.isComplete());
+        assertEquals(asList("foo-kafka-2", "foo-kafka-5"), completeRestarts(restarts));
+        assertTrue(result.succeeded());
+    }
+
+    @Test
+    public void testRackRollingUpdateLimitsConcurrencyWithinRack() {
+        a.getSpec().setReplicas(6);
+        Map<String, Future<Void>> restarts = new LinkedHashMap<>();
+        Future<Void> result = rackAwareOperator(restarts, "zone-a", "zone-a", "zone-a", "zone-b", "zone-b", "zone-b")
+                .maybeRollingUpdate(a, pod -> true, "zone", 2, false);
+
+        assertEquals(asList("foo-kafka-0", "foo-kafka-1"), completeRestarts(restarts));
+        assertEquals(asList("foo-kafka-2"), completeRestarts(restarts));
+        assertEquals(asList("foo-kafka-3", "foo-kafka-4"), completeRestarts(restarts));
+        assertEquals(asList("foo-kafka-5"), completeRestarts(restarts));
+        assertTrue(result.succeeded());
+    }
+
+    @Test
+    public void testRackRollingUpdateWithUnknownRackRollsOnePodAtATime() {
+        Map<String, Future<Void>> restarts = new LinkedHashMap<>();
+        Future<Void> result = rackAwareOperator(restarts, "zone-a", null, "zone-b")
+                .maybeRollingUpdate(a, pod -> true, "zone", 2, false);
+
+        assertEquals(asList("foo-kafka-0"), completeRestarts(restarts));
+        assertEquals(asList("foo-kafka-1"), completeRestarts(restarts));
+        assertEquals(asList("foo-kafka-2"), completeRestarts(restarts));
+        assertTrue(result.succeeded());
+    }
+
+    @Test
+    public void testRackRollingUpdateWithoutConcurrencyRollsOnePodAtATime() {
+        Map<String, Future<Void>> restarts = new LinkedHashMap<>();
+        Future<Void> result = rackAwareOperator(restarts, "zone-a", "zone-a", "zone-b")
+                .maybeRollingUpdate(a, pod -> true, "zone", 1, false);
+
+        assertEquals(asList("foo-kafka-0"), completeRestarts(restarts));
+        assertEquals(asList("foo-kafka-1"), completeRestarts(restarts));
+        assertEquals(asList("foo-kafka-2"), completeRestarts(restarts));
+        assertTrue(result.succeeded());
+    }
+
+    @Test
+    public void testPartitionAwareRollingUpdateWaitsForThePartitions() {
+        Map<String, Future<Void>> restarts = new LinkedHashMap<>();
+        KafkaSetOperator operator = rackAwareOperator(restarts, "zone-a", "zone-b", "zone-c");
+        when(podOperator.isReady(any())).thenAnswer(invocation -> !"foo-kafka-1".equals(invocation.<Pod>getArgument(0).getMetadata().getName()));
+        List<Future<Void>> canRoll = new ArrayList<>();
+        when(session.awaitCanRoll(anyInt())).thenAnswer(invocation -> {
+            Future<Void> f = Future.future();
+            canRoll.add(f);
+            return f;
+        });
+        when(session.awaitInSync(anyInt())).thenReturn(Future.succeededFuture());
+
+        Future<Void> result = operator.maybeRollingUpdate(a, pod -> true, null, 1, true);
+
+        // The ready pod 0 is only restarted once its partitions allow it
+        assertEquals(1, canRoll.size());
+        assertTrue(restarts.isEmpty());
+        canRoll.get(0).complete();
+        assertEquals(asList("foo-kafka-0"), completeRestarts(restarts));
+        // The pod 1 which is not ready is restarted without waiting
+        assertEquals(asList("foo-kafka-1"), completeRestarts(restarts));
+        assertEquals(2, canRoll.size());
+        assertTrue(restarts.isEmpty());
+        canRoll.get(1).complete();
+        assertEquals(asList("foo-kafka-2"), completeRestarts(restarts));
+        assertTrue(result.succeeded());
+
+        verify(availability).open(eq("test"), eq("foo"));
+        verify(session).awaitCanRoll(eq(0));
+        verify(session, never()).awaitCanRoll(eq(1));
+        verify(session).awaitCanRoll(eq(2));
+        verify(session, times(3)).awaitInSync(anyInt());
+        // The client of the session is closed once the roll has finished
+        verify(session).close();
+    }
+
+    @Test
+    public void testPartitionAwareRackRollingUpdateChecksEachBatchTogether() {
+        a.getSpec().setReplicas(4);
+        Map<String, Future<Void>> restarts = new LinkedHashMap<>();
+        KafkaSetOperator operator = rackAwareOperator(restarts, "zone-a", "zone-a", "zone-b", "zone-b");
+        when(podOperator.isReady(any())).thenReturn(true);
+        // The brokers of zone-a share a partition, those of zone-b do not
+        when(session.reasonNotToRoll(any())).thenAnswer(invocation -> Future.succeededFuture(
+                invocation.<Collection<Integer>>getArgument(0).containsAll(asList(0, 1)) ? "partition my-topic-0 would have fewer than 2 in-sync replicas" : null));
+        when(session.awaitCanRoll(anyInt())).thenReturn(Future.succeededFuture());
+        when(session.awaitInSync(anyInt())).thenReturn(Future.succeededFuture());
+
+        Future<Void> result = operator.maybeRollingUpdate(a, pod -> true, "zone", 2, true);
+
+        // The batch of zone-a is split, and each of its brokers waits until it can be restarted
+        assertEquals(asList("foo-kafka-0"), completeRestarts(restarts));
+        assertEquals(asList("foo-kafka-1"), completeRestarts(restarts));
+        // The batch of zone-b is restarted at once
+        assertEquals(asList("foo-kafka-2", "foo-kafka-3"), completeRestarts(restarts));
+        assertTrue(result.succeeded());
+
+        verify(session).reasonNotToRoll(eq(new TreeSet<>(asList(0, 1))));
+        verify(session).reasonNotToRoll(eq(new TreeSet<>(asList(2, 3))));
+        verify(session).awaitCanRoll(eq(0));
+        verify(session).awaitCanRoll(eq(1));
+        verify(session, never()).awaitCanRoll(eq(2));
+        verify(session, never()).awaitCanRoll(eq(3));
+        verify(session, times(4)).awaitInSync(anyInt());
+    }
+
+    @Test
+    public void testPartitionAwareRollingUpdateClosesSessionWhenItFails() {
+        Map<String, Future<Void>> restarts = new LinkedHashMap<>();
+        KafkaSetOperator operator = rackAwareOperator(restarts, "zone-a", "zone-b", "zone-c");
+        when(podOperator.isReady(any())).thenReturn(true);
+        when(session.awaitCanRoll(anyInt())).thenReturn(Future.failedFuture(new TimeoutException("Broker 0 cannot be restarted")));
+
+        Future<Void> result = operator.maybeRollingUpdate(a, pod -> true, null, 1, true);
+
+        assertTrue(result.failed());
+        assertTrue(restarts.isEmpty());
+        verify(session).close();
+    }
+
+    @Test
+    public void testPartitionAwareRollingUpdateSkipsPodsWhichDoNotNeedRestart() {
+        Map<String, Future<Void>> restarts = new LinkedHashMap<>();
+        KafkaSetOperator operator = rackAwareOperator(restarts, "zone-a", "zone-b", "zone-c");
+        when(podOperator.isReady(any())).thenReturn(true);
+
+        Future<Void> result = operator.maybeRollingUpdate(a, pod -> false, null, 1, true);
+
+        assertEquals(asList("foo-kafka-0"), completeRestarts(restarts));
+        assertEquals(asList("foo-kafka-1"), completeRestarts(restarts));
+        assertEquals(asList("foo-kafka-2"), completeRestarts(restarts));
+        assertTrue(result.succeeded());
+        verify(availability, never()).open(anyString(), anyString());
+        verify(availability, never()).findController(anyString(), anyString());
+    }
+
+    @Test
+    public void testPartitionAwareRollingUpdateRestartsControllerLast() {
+        Map<String, Future<Void>> restarts = new LinkedHashMap<>();
+        KafkaSetOperator operator = rackAwareOperator(restarts, "zone-a", "zone-b", "zone-c");
+        when(podOperator.isReady(any())).thenReturn(true);
+        when(session.findController()).thenReturn(Future.succeededFuture(1));
+        when(session.awaitCanRoll(anyInt())).thenReturn(Future.succeededFuture());
+        when(session.awaitInSync(anyInt())).thenReturn(Future.succeededFuture());
+
+        Future<Void> result = operator.maybeRollingUpdate(a, pod -> true, null, 1, true);
+
+        assertEquals(asList("foo-kafka-0"), completeRestarts(restarts));
+        assertEquals(asList("foo-kafka-2"), completeRestarts(restarts));
+        assertEquals(asList("foo-kafka-1"), completeRestarts(restarts));
+        assertTrue(result.succeeded());
+        verify(session).findController();
+    }
+
+    @Test
+    public void testRollingUpdateRestartsControllerLast() {
+        Map<String, Future<Void>> restarts = new LinkedHashMap<>();
+        KafkaSetOperator operator = rackAwareOperator(restarts, "zone-a", "zone-b", "zone-c");
+        when(availability.findController(anyString(), anyString())).thenReturn(Future.succeededFuture(1));
+
+        Future<Void> result = operator.maybeRollingUpdate(a, pod -> true, null, 1, false);
+
+        assertEquals(asList("foo-kafka-0"), completeRestarts(restarts));
+        assertEquals(asList("foo-kafka-2"), completeRestarts(restarts));
+        assertEquals(asList("foo-kafka-1"), completeRestarts(restarts));
+        assertTrue(result.succeeded());
+        verify(availability).findController(eq("test"), eq("foo"));
+        verify(availability, never()).open(anyString(), anyString());
+    }
+
+    @Test
+    public void testRollingUpdateDoesNotFindControllerWithoutRestarts() {
+        Map<String, Future<Void>> restarts = new LinkedHashMap<>();
+        KafkaSetOperator operator = rackAwareOperator(restarts, "zone-a", "zone-b", "zone-c");
+
+        Future<Void> result = operator.maybeRollingUpdate(a, pod -> false, null, 1, false);
+
+        assertEquals(asList("foo-kafka-0"), completeRestarts(restarts));
+        assertEquals(asList("foo-kafka-1"), completeRestarts(restarts));
+        assertEquals(asList("foo-kafka-2"), completeRestarts(restarts));
+        assertTrue(result.succeeded());
+        verify(availability, never()).findController(anyString(), anyString());
+    }
+
+    @Test
+    public void testControllerLast() {
+        assertEquals(asList(asList("foo-kafka-0"), asList("foo-kafka-1", "foo-kafka-4"), asList("foo-kafka-2", "foo-kafka-5"), asList("foo-kafka-3")),
+                KafkaSetOperator.controllerLast(asList(asList("foo-kafka-0", "foo-kafka-3"), asList("foo-kafka-1", "foo-kafka-4"), asList("foo-kafka-2", "foo-kafka-5")), "foo-kafka-3"));
+        assertEquals(asList(asList("foo-kafka-1"), asList("foo-kafka-2"), asList("foo-kafka-0")),
+                KafkaSetOperator.controllerLast(asList(asList("foo-kafka-0"), asList("foo-kafka-1"), asList("foo-kafka-2")), "foo-kafka-0"));
+        // A controller which is not one of the pods does not change the order
+        assertEquals(asList(asList("foo-kafka-0"), asList("foo-kafka-1")),
+                KafkaSetOperator.controllerLast(asList(asList("foo-kafka-0"), asList("foo-kafka-1")), "foo-kafka-5"));
+    }
 }
@@ -0,0 +1,327 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.resource;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.node.LongNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import io.fabric8.kubernetes.api.model.Container;
+import io.fabric8.kubernetes.api.model.EnvVar;
+import io.fabric8.kubernetes.api.model.PersistentVolumeClaim;
+import io.fabric8.kubernetes.api.model.PersistentVolumeClaimStatusBuilder;
+import io.fabric8.kubernetes.api.model.PodSecurityContext;
+import io.fabric8.kubernetes.api.model.PodSpec;
+import io.fabric8.kubernetes.api.model.Probe;
+import io.fabric8.kubernetes.api.model.Quantity;
+import io.fabric8.kubernetes.api.model.ResourceRequirements;
+import io.fabric8.kubernetes.api.model.ResourceRequirementsBuilder;
+import io.fabric8.kubernetes.api.model.Volume;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.api.model.apps.StatefulSetBuilder;
+import io.fabric8.kubernetes.api.model.apps.StatefulSetStatusBuilder;
+import io.strimzi.api.kafka.model.Kafka;
+import io.strimzi.api.kafka.model.KafkaBuilder;
+import io.strimzi.api.kafka.model.storage.JbodStorageBuilder;
+import io.strimzi.api.kafka.model.storage.PersistentClaimStorageBuilder;
+import io.strimzi.operator.cluster.ResourceUtils;
+import io.strimzi.operator.cluster.model.KafkaCluster;
+import io.strimzi.operator.cluster.model.KafkaVersion;
+import io.strimzi.operator.cluster.model.ZookeeperCluster;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static io.fabric8.kubernetes.client.internal.PatchUtils.patchMapper;
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class StatefulSetComparisonTest {
+
+    private static final KafkaVersion.Lookup VERSIONS = new KafkaVersion.Lookup(emptyMap(), emptyMap(), emptyMap(), emptyMap());
+
+    private static Kafka kafka() {
+        return new KafkaBuilder(ResourceUtils.createKafkaCluster("test", "foo", 3, "bar", 120, 30))
+                .editSpec()
+                    .editKafka()
+                        .withStorage(new JbodStorageBuilder().withVolumes(
+                                new PersistentClaimStorageBuilder().withDeleteClaim(false).withId(0).withSize("100Gi").build(),
+                                new PersistentClaimStorageBuilder().withDeleteClaim(true).withId(1).withSize("100Gi").withStorageClass("foo").build())
+                                .build())
+                        .withResources(new ResourceRequirementsBuilder()
+                                .addToLimits("memory", new Quantity("2Gi"))
+                                .addToLimits("cpu", new Quantity("2"))
+                                .addToRequests("memory", new Quantity("1Gi"))
+                                .addToRequests("cpu", new Quantity("500m"))
+                                .build())
+                        .withLogging(KafkaSetOperatorTest.KAFKA_LOG_CONFIG)
+                    .endKafka()
+                    .editZookeeper()
+                        .withLogging(KafkaSetOperatorTest.ZOOKEEPER_LOG_CONFIG)
+                    .endZookeeper()
+                .endSpec()
+                .build();
+    }
+
+    private static StatefulSet kafkaStatefulSet() {
+        return KafkaCluster.fromCrd(kafka(), VERSIONS).generateStatefulSet(true, null, null);
+    }
+
+    private static StatefulSet zookeeperStatefulSet() {
+        return ZookeeperCluster.fromCrd(kafka(), VERSIONS).generateStatefulSet(false, null, null);
+    }
+
+    private static StatefulSet copy(StatefulSet ss) {
+        return patchMapper().convertValue(ss, StatefulSet.class);
+    }
+
+    /**
+     * @return A copy of the given StatefulSet with the defaults and status which Kubernetes adds to a StatefulSet.
+     */
+    private static StatefulSet withServerDefaults(StatefulSet desired) {
+        StatefulSet ss = copy(desired);
+        ss.getMetadata().setUid("2cbc5f8d-8b56-4a0b-9a0e-5d5c5e1e5c4d");
+        ss.getMetadata().setResourceVersion("12345");
+        ss.getMetadata().setGeneration(1L);
+        ss.getSpec().setRevisionHistoryLimit(10);
+        ss.setStatus(new StatefulSetStatusBuilder().withReplicas(3).withCurrentReplicas(3).build());
+        PodSpec podSpec = ss.getSpec().getTemplate().getSpec();
+        podSpec.setDnsPolicy("ClusterFirst");
+        podSpec.setRestartPolicy("Always");
+        podSpec.setSchedulerName("default-scheduler");
+        if (podSpec.getSecurityContext() == null) {
+            podSpec.setSecurityContext(new PodSecurityContext());
+        }
+        if (podSpec.getTerminationGracePeriodSeconds() == null) {
+            podSpec.setTerminationGracePeriodSeconds(30L);
+        }
+        List<Container> containers = new ArrayList<>(podSpec.getContainers());
+        containers.addAll(podSpec.getInitContainers());
+        for (Container container : containers) {
+            container.setTerminationMessagePath("/dev/termination-log");
+            container.setTerminationMessagePolicy("File");
+            if (container.getResources() == null) {
+                container.setResources(new ResourceRequirements());
+            }
+            for (EnvVar env : container.getEnv()) {
+                if (env.getValueFrom() != null && env.getValueFrom().getFieldRef() != null) {
+                    env.getValueFrom().getFieldRef().setApiVersion("v1");
+                }
+            }
+        }
+        for (Container container : podSpec.getContainers()) {
+            for (Probe probe : new Probe[] {container.getLivenessProbe(), container.getReadinessProbe()}) {
+                if (probe != null) {
+                    probe.setFailureThreshold(3);
+                    probe.setPeriodSeconds(10);
+                    probe.setSuccessThreshold(1);
+                }
+            }
+        }
+        for (Volume volume : podSpec.getVolumes()) {
+            if (volume.getConfigMap() != null) {
+                volume.getConfigMap().setDefaultMode(420);
+            }
+            if (volume.getSecret() != null) {
+                volume.getSecret().setDefaultMode(420);
+            }
+        }
+        for (PersistentVolumeClaim pvc : ss.getSpec().getVolumeClaimTemplates()) {
+            if (pvc.getSpec() != null) {
+                pvc.getSpec().setVolumeMode("Filesystem");
+            }
+            pvc.setStatus(new PersistentVolumeClaimStatusBuilder().withPhase("Pending").build());
+        }
+        return ss;
+    }
+
+    private static String outcome(StatefulSetDiff diff) {
+        return "isEmpty=" + diff.isEmpty()
+                + " changesSpecTemplate=" + diff.changesSpecTemplate()
+                + " changesVolumeClaimTemplates=" + diff.changesVolumeClaimTemplates()
+                + " changesVolumeSize=" + diff.changesVolumeSize()
+                + " changesLabels=" + diff.changesLabels()
+                + " changesSpecReplicas=" + diff.changesSpecReplicas();
+    }
+
+    /**
+     * Asserts that, unless the comparison gives up, it has the same outcome as the JSON diff.
+     * @return Whether the comparison gave up.
+     */
+    private static boolean assertSameOutcome(String description, StatefulSet current, StatefulSet desired) {
+        List<StatefulSetComparison.Difference> differences = StatefulSetComparison.compare(current, desired);
+        if (differences == null) {
+            return true;
+        }
+        assertEquals(description + " with differences " + differences,
+                outcome(new StatefulSetDiff(current, desired, null)),
+                outcome(new StatefulSetDiff(current, desired, differences)));
+        return false;
+    }
+
+    @Test
+    public void testPropertiesMatchTheJson() throws JsonMappingException {
+        for (StatefulSetComparison.Type<?> type : StatefulSetComparison.types()) {
+            JsonSerializer<Object> serializer = patchMapper().getSerializerProviderInstance().findValueSerializer(type.cls);
+            List<String> expected = new ArrayList<>();
+            for (Iterator<PropertyWriter> it = serializer.properties(); it.hasNext();) {
+                expected.add(it.next().getName());
+            }
+            List<String> actual = new ArrayList<>();
+            for (StatefulSetComparison.Property<?> property : type.properties) {
+                actual.add(property.name);
+            }
+            assertEquals(type.cls.getName(), expected, actual);
+        }
+    }
+
+    @Test
+    public void testUnchangedStatefulSetsAreCompared() {
+        for (StatefulSet desired : new StatefulSet[] {kafkaStatefulSet(), zookeeperStatefulSet()}) {
+            StatefulSet current = withServerDefaults(desired);
+            assertNotNull(StatefulSetComparison.compare(copy(desired), desired));
+            assertNotNull(StatefulSetComparison.compare(current, desired));
+            assertTrue(new StatefulSetDiff(copy(desired), desired).isEmpty());
+            assertTrue(new StatefulSetDiff(current, desired).isEmpty());
+            assertTrue(new StatefulSetDiff(current, desired, null).isEmpty());
+        }
+    }
+
+    @Test
+    public void testTypicalChangesAreCompared() {
+        StatefulSet desired = kafkaStatefulSet();
+        StatefulSet current = withServerDefaults(desired);
+
+        StatefulSet image = new StatefulSetBuilder(desired).editSpec().editTemplate().editSpec()
+                .editFirstContainer().withImage("other").endContainer().endSpec().endTemplate().endSpec().build();
+        assertNotNull(StatefulSetComparison.compare(current, image));
+        assertTrue(new StatefulSetDiff(current, image).changesSpecTemplate());
+
+        StatefulSet replicas = new StatefulSetBuilder(desired).editSpec().withReplicas(5).endSpec().build();
+        assertNotNull(StatefulSetComparison.compare(current, replicas));
+        StatefulSetDiff diff = new StatefulSetDiff(current, replicas);
+        assertTrue(diff.changesSpecReplicas());
+        assertEquals(outcome(new StatefulSetDiff(current, replicas, null)), outcome(diff));
+
+        StatefulSet size = new StatefulSetBuilder(desired).editSpec().editFirstVolumeClaimTemplate().editSpec().editResources()
+                .addToRequests("storage", new Quantity("200Gi")).endResources().endSpec().endVolumeClaimTemplate().endSpec().build();
+        assertNotNull(StatefulSetComparison.compare(current, size));
+        diff = new StatefulSetDiff(current, size);
+        assertTrue(diff.changesVolumeSize());
+        assertEquals(outcome(new StatefulSetDiff(current, size, null)), outcome(diff));
+    }
+
+    @Test
+    public void testSameOutcomeAsJsonDiff() throws JsonProcessingException {
+        int compared = 0;
+        int total = 0;
+        for (StatefulSet base : new StatefulSet[] {kafkaStatefulSet(), zookeeperStatefulSet()}) {
+            StatefulSet server = withServerDefaults(base);
+            List<JsonNode> mutations = new ArrayList<>();
+            List<String> descriptions = new ArrayList<>();
+            JsonNode tree = patchMapper().valueToTree(base);
+            mutate(tree, tree, "", mutations, descriptions);
+            for (int i = 0; i < mutations.size(); i++) {
+                StatefulSet mutated = patchMapper().treeToValue(mutations.get(i), StatefulSet.class);
+                String description = descriptions.get(i);
+                List<StatefulSet[]> pairs = new ArrayList<>();
+                pairs.add(new StatefulSet[] {base, mutated});
+                pairs.add(new StatefulSet[] {mutated, base});
+                pairs.add(new StatefulSet[] {server, mutated});
+                if (mutated.getMetadata() != null && mutated.getSpec() != null
+                        && mutated.getSpec().getTemplate() != null && mutated.getSpec().getTemplate().getSpec() != null) {
+                    pairs.add(new StatefulSet[] {withServerDefaults(mutated), base});
+                }
+                for (StatefulSet[] pair : pairs) {
+                    total++;
+                    if (!assertSameOutcome(description, pair[0], pair[1])) {
+                        compared++;
+                    }
+                }
+            }
+        }
+        // Most of the changes are compared property by property, rather than falling back to the JSON diff
+        assertTrue(compared + " of " + total, compared > total / 2);
+    }
+
+    /**
+     * Adds copies of the root, each with a single change to the given node or to one of its descendants.
+     */
+    private static void mutate(JsonNode root, JsonNode node, String path, List<JsonNode> mutations, List<String> descriptions) {
+        if (node instanceof ObjectNode) {
+            ObjectNode object = (ObjectNode) node;
+            List<String> fields = new ArrayList<>();
+            object.fieldNames().forEachRemaining(fields::add);
+            for (String field : fields) {
+                JsonNode value = object.get(field);
+                String fieldPath = path + "/" + field;
+                object.remove(field);
+                add(root, "remove " + fieldPath, mutations, descriptions);
+                object.set(field, value);
+                if (value.isValueNode()) {
+                    object.set(field, changed(value));
+                    add(root, "change " + fieldPath, mutations, descriptions);
+                    object.set(field, value);
+                } else {
+                    mutate(root, value, fieldPath, mutations, descriptions);
+                }
+            }
+            object.put("extra", "value");
+            add(root, "add " + path + "/extra", mutations, descriptions);
+            object.remove("extra");
+        } else if (node instanceof ArrayNode) {
+            ArrayNode array = (ArrayNode) node;
+            for (int i = 0; i < array.size(); i++) {
+                JsonNode value = array.get(i);
+                String itemPath = path + "/" + i;
+                array.remove(i);
+                add(root, "remove " + itemPath, mutations, descriptions);
+                array.insert(i, value);
+                if (value.isValueNode()) {
+                    array.set(i, changed(value));
+                    add(root, "change " + itemPath, mutations, descriptions);
+                    array.set(i, value);
+                } else {
+                    mutate(root, value, itemPath, mutations, descriptions);
+                }
+            }
+            if (array.size() >= 2) {
+                JsonNode first = array.get(0);
+                array.set(0, array.get(1));
+                array.set(1, first);
+                add(root, "swap " + path + "/0 and " + path + "/1", mutations, descriptions);
+                array.set(1, array.get(0));
+                array.set(0, first);
+            }
+        }
+    }
+
+    private static void add(JsonNode root, String description, List<JsonNode> mutations, List<String> descriptions) {
+        mutations.add(root.deepCopy());
+        descriptions.add(description);
+    }
+
+    private static JsonNode changed(JsonNode value) {
+        if (value.isBoolean()) {
+            return BooleanNode.valueOf(!value.booleanValue());
+        } else if (value.isNumber()) {
+            return LongNode.valueOf(value.longValue() + 1);
+        } else {
+            String text = value.asText();
+            // Keep quantities parseable
+            return TextNode.valueOf(!text.isEmpty() && Character.isDigit(text.charAt(0)) ? "1" + text : text + "x");
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.sharding;
+
+import io.strimzi.operator.common.model.NamespaceAndName;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class HashRingTest {
+
+    private static NamespaceAndName assembly(int i) {
+        return new NamespaceAndName("namespace-" + i % 7, "cluster-" + i);
+    }
+
+    @Test
+    public void testEmptyRing() {
+        assertNull(new HashRing(Collections.emptyList()).owner(assembly(0)));
+    }
+
+    @Test
+    public void testOwnerDoesNotDependOnOrderOfMembers() {
+        HashRing ring = new HashRing(asList("a", "b", "c"));
+        HashRing other = new HashRing(asList("c", "a", "b"));
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(ring.owner(assembly(i)), other.owner(assembly(i)));
+        }
+    }
+
+    @Test
+    public void testAssembliesAreSpreadOverMembers() {
+        HashRing ring = new HashRing(asList("a", "b", "c"));
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 3000; i++) {
+            counts.merge(ring.owner(assembly(i)), 1, Integer::sum);
+        }
+        assertEquals(3, counts.size());
+        for (int count : counts.values()) {
+            assertTrue("Unbalanced ring " + counts, count > 700 && count < 1300);
+        }
+    }
+
+    @Test
+    public void testOnlyAssembliesOfNewMemberMove() {
+        HashRing before = new HashRing(asList("a", "b", "c"));
+        HashRing after = new HashRing(asList("a", "b", "c", "d"));
+        int moved = 0;
+        for (int i = 0; i < 3000; i++) {
+            String owner = after.owner(assembly(i));
+            if (!owner.equals(before.owner(assembly(i)))) {
+                assertEquals("d", owner);
+                moved++;
+            }
+        }
+        assertTrue("Moved " + moved, moved > 500 && moved < 1000);
+    }
+}
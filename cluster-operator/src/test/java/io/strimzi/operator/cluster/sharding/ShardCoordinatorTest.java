@@ -0,0 +1,315 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.sharding;
+
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.api.model.ConfigMapList;
+import io.fabric8.kubernetes.api.model.DoneableConfigMap;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
+import io.fabric8.kubernetes.client.dsl.Replaceable;
+import io.fabric8.kubernetes.client.dsl.Resource;
+import io.strimzi.operator.common.model.NamespaceAndName;
+import io.vertx.core.Vertx;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Arrays.asList;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(VertxUnitRunner.class)
+public class ShardCoordinatorTest {
+
+    private static final String NAMESPACE = "operator";
+    private static final String LEASE = "strimzi-cluster-operator";
+    private static final long LEASE_DURATION_MS = 15_000;
+    private static final long RENEW_DEADLINE_MS = 10_000;
+    private static final int ASSEMBLIES = 200;
+
+    private static Vertx vertx;
+
+    private final AtomicLong clock = new AtomicLong();
+    private FakeApiServer server;
+
+    @BeforeClass
+    public static void before() {
+        vertx = Vertx.vertx();
+    }
+
+    @AfterClass
+    public static void after() {
+        vertx.close();
+    }
+
+    @Before
+    public void setup() {
+        clock.set(1_000_000);
+        server = new FakeApiServer();
+    }
+
+    /**
+     * Holds the lease ConfigMap, and like the API server rejects updates based on an outdated resource version.
+     */
+    static class FakeApiServer {
+        private ConfigMap configMap;
+        private int version;
+        private Runnable beforeNextReplace;
+
+        synchronized ConfigMap get() {
+            return configMap != null ? new ConfigMapBuilder(configMap).build() : null;
+        }
+
+        synchronized ConfigMap create(ConfigMap created) {
+            if (configMap != null) {
+                throw new KubernetesClientException("Conflict", 409, null);
+            }
+            return store(created);
+        }
+
+        synchronized ConfigMap replace(String resourceVersion, ConfigMap replaced) {
+            if (beforeNextReplace != null) {
+                Runnable concurrentUpdate = beforeNextReplace;
+                beforeNextReplace = null;
+                concurrentUpdate.run();
+            }
+            if (configMap == null) {
+                throw new KubernetesClientException("Not found", 404, null);
+            } else if (!configMap.getMetadata().getResourceVersion().equals(resourceVersion)) {
+                throw new KubernetesClientException("Conflict", 409, null);
+            }
+            return store(replaced);
+        }
+
+        synchronized ConfigMap store(ConfigMap stored) {
+            configMap = new ConfigMapBuilder(stored)
+                    .editMetadata()
+                        .withResourceVersion(Integer.toString(++version))
+                    .endMetadata()
+                    .build();
+            return get();
+        }
+
+        synchronized Map<String, String> data() {
+            return get().getData();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private KubernetesClient client() {
+        KubernetesClient client = mock(KubernetesClient.class);
+        MixedOperation<ConfigMap, ConfigMapList, DoneableConfigMap, Resource<ConfigMap, DoneableConfigMap>> configMaps = mock(MixedOperation.class);
+        NonNamespaceOperation<ConfigMap, ConfigMapList, DoneableConfigMap, Resource<ConfigMap, DoneableConfigMap>> inNamespace = mock(NonNamespaceOperation.class);
+        Resource<ConfigMap, DoneableConfigMap> resource = mock(Resource.class);
+        when(client.configMaps()).thenReturn(configMaps);
+        when(configMaps.inNamespace(NAMESPACE)).thenReturn(inNamespace);
+        when(inNamespace.withName(LEASE)).thenReturn(resource);
+        when(inNamespace.create(any(ConfigMap.class))).thenAnswer(i -> server.create(i.getArgument(0)));
+        when(resource.get()).thenAnswer(i -> server.get());
+        when(resource.lockResourceVersion(anyString())).thenAnswer(i -> {
+            String resourceVersion = i.getArgument(0);
+            Replaceable<ConfigMap, ConfigMap> locked = mock(Replaceable.class);
+            when(locked.replace(any())).thenAnswer(j -> server.replace(resourceVersion, j.getArgument(0)));
+            return locked;
+        });
+        return client;
+    }
+
+    private ShardCoordinator coordinator(String identity) {
+        return new ShardCoordinator(vertx, client(),
+                new ShardingConfig(LEASE, NAMESPACE, identity, LEASE_DURATION_MS, RENEW_DEADLINE_MS, 2_000),
+                clock::get);
+    }
+
+    private static NamespaceAndName assembly(int i) {
+        return new NamespaceAndName("namespace-" + i % 5, "cluster-" + i);
+    }
+
+    private static void renew(TestContext context, ShardCoordinator... coordinators) {
+        for (ShardCoordinator coordinator : coordinators) {
+            Async async = context.async();
+            coordinator.renew().setHandler(res -> async.complete());
+            async.await();
+        }
+    }
+
+    private static int owned(ShardCoordinator coordinator) {
+        int owned = 0;
+        for (int i = 0; i < ASSEMBLIES; i++) {
+            if (coordinator.owns(assembly(i))) {
+                owned++;
+            }
+        }
+        return owned;
+    }
+
+    /**
+     * Asserts that each assembly is owned by exactly one of the given coordinators.
+     */
+    private static void assertPartitioned(TestContext context, ShardCoordinator... coordinators) {
+        for (int i = 0; i < ASSEMBLIES; i++) {
+            int owners = 0;
+            for (ShardCoordinator coordinator : coordinators) {
+                if (coordinator.owns(assembly(i))) {
+                    owners++;
+                }
+            }
+            context.assertEquals(1, owners, "Owners of " + assembly(i));
+        }
+    }
+
+    /**
+     * @return An assembly which belongs to the given member when the given members share the assemblies.
+     */
+    private static NamespaceAndName assemblyOf(String member, String... members) {
+        HashRing ring = new HashRing(asList(members));
+        for (int i = 0; i < ASSEMBLIES; i++) {
+            if (member.equals(ring.owner(assembly(i)))) {
+                return assembly(i);
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    @Test
+    public void testSingleReplicaOwnsEverything(TestContext context) {
+        ShardCoordinator a = coordinator("a");
+        context.assertEquals(0, owned(a), "Nothing is owned before joining");
+
+        renew(context, a);
+        context.assertTrue(a.isLeader());
+        context.assertEquals(ASSEMBLIES, owned(a));
+        context.assertEquals("a", server.data().get(ShardCoordinator.MEMBERS_KEY));
+    }
+
+    @Test
+    public void testAssembliesAreShardedBetweenReplicas(TestContext context) {
+        ShardCoordinator a = coordinator("a");
+        ShardCoordinator b = coordinator("b");
+        renew(context, a, b);
+        context.assertEquals("a,b", server.data().get(ShardCoordinator.MEMBERS_KEY));
+        // b does not take over any assembly until a has acknowledged the new members
+        context.assertEquals(0, owned(b));
+        assertPartitioned(context, a, b);
+
+        renew(context, a, b);
+        context.assertTrue(a.isLeader());
+        context.assertFalse(b.isLeader());
+        context.assertTrue(owned(a) > 0);
+        context.assertTrue(owned(b) > 0);
+        assertPartitioned(context, a, b);
+    }
+
+    @Test
+    public void testHandoverWaitsForReconciliationInProgress(TestContext context) {
+        ShardCoordinator a = coordinator("a");
+        ShardCoordinator b = coordinator("b");
+        NamespaceAndName moving = assemblyOf("b", "a", "b");
+        NamespaceAndName staying = assemblyOf("a", "a", "b");
+
+        renew(context, a);
+        context.assertTrue(a.tryStart(moving));
+
+        renew(context, b, a, b);
+        // a does not start new reconciliations of the assembly it has lost, but b waits for the one in progress
+        context.assertFalse(a.tryStart(moving));
+        context.assertFalse(b.tryStart(moving));
+        context.assertTrue(a.owns(staying));
+
+        a.finished(moving);
+        renew(context, a, b);
+        context.assertTrue(b.tryStart(moving));
+        b.finished(moving);
+    }
+
+    @Test
+    public void testHandoverListenerIsCalled(TestContext context) {
+        ShardCoordinator a = coordinator("a");
+        ShardCoordinator b = coordinator("b");
+        renew(context, a);
+
+        Async async = context.async();
+        AtomicBoolean handedOver = new AtomicBoolean();
+        b.onHandover(() -> {
+            if (b.owns(assemblyOf("b", "a", "b")) && !handedOver.getAndSet(true)) {
+                async.complete();
+            }
+        });
+        renew(context, b, a, b);
+        async.await();
+    }
+
+    @Test
+    public void testLeaderRemovesExpiredMember(TestContext context) {
+        ShardCoordinator a = coordinator("a");
+        ShardCoordinator b = coordinator("b");
+        renew(context, a, b, a, b, a);
+
+        // b stops renewing its membership
+        clock.addAndGet(RENEW_DEADLINE_MS + 1);
+        renew(context, a);
+        context.assertEquals(0, owned(b), "b has fenced itself");
+        context.assertEquals("a,b", server.data().get(ShardCoordinator.MEMBERS_KEY), "b has not expired yet");
+
+        clock.addAndGet(LEASE_DURATION_MS - RENEW_DEADLINE_MS);
+        renew(context, a);
+        context.assertEquals("a", server.data().get(ShardCoordinator.MEMBERS_KEY));
+        context.assertFalse(server.data().containsKey(ShardCoordinator.MEMBER_KEY_PREFIX + "b"));
+        context.assertEquals(ASSEMBLIES, owned(a));
+
+        // b rejoins
+        renew(context, b, a, b);
+        context.assertEquals("a,b", server.data().get(ShardCoordinator.MEMBERS_KEY));
+        assertPartitioned(context, a, b);
+    }
+
+    @Test
+    public void testLeadershipIsTakenOverFromExpiredLeader(TestContext context) {
+        ShardCoordinator a = coordinator("a");
+        ShardCoordinator b = coordinator("b");
+        renew(context, a, b, a, b);
+        context.assertEquals("a", server.data().get(ShardCoordinator.LEADER_KEY));
+
+        // a stops renewing its membership
+        clock.addAndGet(LEASE_DURATION_MS / 2);
+        renew(context, b);
+        context.assertEquals("a", server.data().get(ShardCoordinator.LEADER_KEY));
+
+        clock.addAndGet(LEASE_DURATION_MS / 2 + 1);
+        renew(context, b);
+        context.assertTrue(b.isLeader());
+        context.assertFalse(a.isLeader());
+        context.assertEquals("b", server.data().get(ShardCoordinator.MEMBERS_KEY));
+        context.assertEquals(ASSEMBLIES, owned(b));
+        context.assertEquals(0, owned(a));
+    }
+
+    @Test
+    public void testConcurrentUpdateIsRetried(TestContext context) {
+        ShardCoordinator a = coordinator("a");
+        ShardCoordinator b = coordinator("b");
+        renew(context, a);
+
+        // Another replica updates the ConfigMap between b reading and writing it
+        server.beforeNextReplace = () -> server.store(server.get());
+        renew(context, b);
+        context.assertEquals("a,b", server.data().get(ShardCoordinator.MEMBERS_KEY));
+    }
+}
@@ -4,22 +4,28 @@
  */
 package io.strimzi.kafka.config.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
 
-import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 
 /**
  * A model of a particular configuration parameter.
+ * The pattern and the allowed items are compiled when they are set, so that validating a value does not
+ * need to compile or copy anything.
  */
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class ConfigModel {
+    private static final Pattern LIST_SEPARATOR = Pattern.compile(" *, *");
+
     private Scope scope;
     private Type type;
     private Number minimum;
@@ -28,6 +34,10 @@ public class ConfigModel {
     @JsonProperty("enum")
     private List<String> values;
     private String pattern;
+    @JsonIgnore
+    private Pattern compiledPattern;
+    @JsonIgnore
+    private Set<String> itemSet;
 
     /**
      * @return The scope of the parameter.
@@ -79,6 +89,7 @@ public class ConfigModel {
 
     public void setItems(List<String> items) {
         this.items = items;
+        this.itemSet = items != null ? new HashSet<>(items) : null;
     }
 
     /**
@@ -101,6 +112,7 @@ public class ConfigModel {
 
     public void setPattern(String pattern) {
         this.pattern = pattern;
+        this.compiledPattern = pattern != null ? Pattern.compile(pattern) : null;
     }
 
     public List<String> validate(String configName, String value) {
@@ -135,8 +147,8 @@ public class ConfigModel {
             errors = new ArrayList<>(1);
             errors.add(configName + " has value '" + value + "' which is not one of the allowed values: " + getValues());
         }
-        if (getPattern() != null
-                && !value.matches(getPattern())) {
+        if (compiledPattern != null
+                && !compiledPattern.matcher(value).matches()) {
             if (errors.isEmpty()) {
                 errors = new ArrayList<>(1);
             }
@@ -146,18 +158,24 @@ public class ConfigModel {
     }
 
     private List<String> validateBoolean(String configName, String value) {
-        if (!value.matches("true|false")) {
+        if (!"true".equals(value) && !"false".equals(value)) {
             return singletonList(configName + " has value '" + value + "' which is not a boolean");
         }
         return emptyList();
     }
 
     private List<String> validateList(String configName, String value) {
-        List<String> l = asList(value.trim().split(" *, *", -1));
-        if (getItems() != null) {
-            HashSet<String> items = new HashSet<>(l);
-            items.removeAll(getItems());
-            if (!items.isEmpty()) {
+        if (itemSet != null) {
+            HashSet<String> items = null;
+            for (String item : LIST_SEPARATOR.split(value.trim(), -1)) {
+                if (!itemSet.contains(item)) {
+                    if (items == null) {
+                        items = new HashSet<>();
+                    }
+                    items.add(item);
+                }
+            }
+            if (items != null) {
                 return singletonList(configName + " contains values " + items + " which are not in the allowed items " + getItems());
             }
         }
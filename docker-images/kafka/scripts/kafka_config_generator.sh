@@ -217,6 +217,10 @@ if [ "$KAFKA_AUTHORIZATION_TYPE" = "simple" ]; then
   ASSEMBLY_NAME=$(echo "${KAFKA_NAME}" | rev | cut -d "-" -f2- | rev)
   SUPER_USERS="super.users=User:CN=${KAFKA_NAME},O=io.strimzi;User:CN=${ASSEMBLY_NAME}-entity-operator,O=io.strimzi;User:CN=${ASSEMBLY_NAME}-kafka-exporter,O=io.strimzi"
 
+  if [ "$KAFKA_CLUSTER_OPERATOR_ACCESS" = "true" ]; then
+    SUPER_USERS="${SUPER_USERS};User:CN=cluster-operator,O=io.strimzi"
+  fi
+
   if [ "$KAFKA_AUTHORIZATION_SUPER_USERS" ]; then
     SUPER_USERS="${SUPER_USERS};${KAFKA_AUTHORIZATION_SUPER_USERS}"
   fi
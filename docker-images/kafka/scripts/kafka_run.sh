@@ -20,6 +20,8 @@ export GC_LOG_ENABLED="false"
 
 if [ -z "$KAFKA_LOG4J_OPTS" ]; then
   export KAFKA_LOG4J_OPTS="-Dlog4j.configuration=file:$KAFKA_HOME/custom-config/log4j.properties"
+  # the logging agent reloads the logging configuration when it changes, so that changing it doesn't need a restart
+  LOGGING_AGENT_OPTS="-javaagent:$(ls $KAFKA_HOME/libs/logging-agent*.jar)=$KAFKA_HOME/custom-config/log4j.properties:${STRIMZI_LOGGING_RELOAD_PERIOD:-10}"
 fi
 
 rm /var/opt/kafka/kafka-ready /var/opt/kafka/zk-connected 2> /dev/null
@@ -30,6 +32,9 @@ if [ "$KAFKA_METRICS_ENABLED" = "true" ]; then
   export KAFKA_OPTS="${KAFKA_OPTS} -javaagent:$(ls $KAFKA_HOME/libs/jmx_prometheus_javaagent*.jar)=9404:$KAFKA_HOME/custom-config/metrics-config.yml"
 fi
 
+# enabling the logging agent (reloads the logging configuration) as Java agent
+export KAFKA_OPTS="$KAFKA_OPTS $LOGGING_AGENT_OPTS"
+
 # We don't need LOG_DIR because we write no log files, but setting it to a
 # directory avoids trying to create it (and logging a permission denied error)
 export LOG_DIR="$KAFKA_HOME"
@@ -31,6 +31,8 @@ echo ""
 
 if [ -z "$KAFKA_LOG4J_OPTS" ]; then
   export KAFKA_LOG4J_OPTS="-Dlog4j.configuration=file:$KAFKA_HOME/custom-config/log4j.properties"
+  # the logging agent reloads the logging configuration when it changes, so that changing it doesn't need a restart
+  LOGGING_AGENT_OPTS="-javaagent:$(ls $KAFKA_HOME/libs/logging-agent*.jar)=$KAFKA_HOME/custom-config/log4j.properties:${STRIMZI_LOGGING_RELOAD_PERIOD:-10}"
 fi
 
 # enabling Prometheus JMX exporter as Java agent
@@ -38,6 +40,9 @@ if [ "$ZOOKEEPER_METRICS_ENABLED" = "true" ]; then
   export KAFKA_OPTS="-javaagent:$(ls $KAFKA_HOME/libs/jmx_prometheus_javaagent*.jar)=9404:$KAFKA_HOME/custom-config/metrics-config.yml"
 fi
 
+# enabling the logging agent (reloads the logging configuration) as Java agent
+export KAFKA_OPTS="$KAFKA_OPTS $LOGGING_AGENT_OPTS"
+
 if [ -z "$KAFKA_HEAP_OPTS" -a -n "${DYNAMIC_HEAP_FRACTION}" ]; then
     . ./dynamic_resources.sh
     # Calculate a max heap size based some DYNAMIC_HEAP_FRACTION of the heap
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.logging.agent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.Properties;
+
+/**
+ * A Java agent which reloads the log4j configuration of Kafka brokers, ZooKeeper, Kafka Connect and Kafka Mirror Maker
+ * when it changes, so that changes to the logging configuration don't need the pods to be restarted.
+ *
+ * The configuration file is mounted from the ConfigMap of the component, and the kubelet updates it in place when the
+ * operator changes the ConfigMap. The agent polls the content of the file, and when it changes it resets the levels of
+ * all the loggers (so that loggers removed from the configuration fall back to the level of their parents) and
+ * applies the new configuration.
+ *
+ * Like the other agents, it logs through the SLF4J API. The log4j 1 classes of the application are only used
+ * through reflection, because the build doesn't allow depending on log4j 1.
+ */
+public class LoggingAgent {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoggingAgent.class);
+
+    private final File configFile;
+    private final long pollInterval;
+    private final Method getCurrentLoggers;
+    private final Method setLevel;
+    private final Method configure;
+    private byte[] config;
+
+    public LoggingAgent(File configFile, long pollInterval) throws ReflectiveOperationException {
+        this.configFile = configFile;
+        this.pollInterval = pollInterval;
+        ClassLoader classLoader = ClassLoader.getSystemClassLoader();
+        Class<?> level = Class.forName("org.apache.log4j.Level", false, classLoader);
+        this.getCurrentLoggers = Class.forName("org.apache.log4j.LogManager", false, classLoader).getMethod("getCurrentLoggers");
+        this.setLevel = Class.forName("org.apache.log4j.Category", false, classLoader).getMethod("setLevel", level);
+        this.configure = Class.forName("org.apache.log4j.PropertyConfigurator", false, classLoader).getMethod("configure", Properties.class);
+    }
+
+    /**
+     * Starts the poller thread.
+     */
+    private void run() {
+        config = read();
+        LOGGER.info("Starting logging configuration poller for {}", configFile);
+        Thread thread = new Thread(configPoller(), "LoggingConfigurationPoller");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Creates the poller thread which reloads the configuration
+     *
+     * @return Runnable for reloading the configuration
+     */
+    private Runnable configPoller() {
+        return new Runnable() {
+            @Override
+            public void run() {
+                while (true) {
+                    byte[] newConfig = read();
+                    if (newConfig != null && !Arrays.equals(config, newConfig)) {
+                        reconfigure(newConfig);
+                        config = newConfig;
+                    }
+
+                    try {
+                        Thread.sleep(pollInterval);
+                    } catch (InterruptedException e) {
+                        // In theory this should never normally happen
+                        LOGGER.warn("Unexpectedly interrupted");
+                        break;
+                    }
+                }
+                LOGGER.debug("Exiting thread");
+            }
+        };
+    }
+
+    private byte[] read() {
+        try {
+            return Files.readAllBytes(configFile.toPath());
+        } catch (IOException e) {
+            LOGGER.error("Could not read logging configuration file {}", configFile, e);
+            return null;
+        }
+    }
+
+    /**
+     * Applies the given log4j configuration.
+     *
+     * @param newConfig The content of the log4j properties file
+     */
+    private void reconfigure(byte[] newConfig) {
+        Properties properties = new Properties();
+        try {
+            properties.load(new ByteArrayInputStream(newConfig));
+        } catch (IOException e) {
+            LOGGER.error("Could not parse logging configuration file {}", configFile, e);
+            return;
+        }
+
+        try {
+            Enumeration<?> loggers = (Enumeration<?>) getCurrentLoggers.invoke(null);
+            while (loggers.hasMoreElements()) {
+                setLevel.invoke(loggers.nextElement(), (Object) null);
+            }
+            configure.invoke(null, properties);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            LOGGER.error("Could not apply logging configuration file {}", configFile, e);
+            return;
+        }
+        LOGGER.info("Reloaded logging configuration from {}", configFile);
+    }
+
+    /**
+     * Agent entry point. Reloading the logging configuration is not essential, so on bad arguments the agent
+     * logs the problem and disables itself, rather than stopping the application.
+     *
+     * @param agentArgs The command line arguments
+     */
+    public static void premain(String agentArgs) {
+        String[] args = agentArgs == null ? new String[0] : agentArgs.split(":");
+
+        if (args.length != 2) {
+            LOGGER.error("Unexpected number of arguments ({}): {}. Logging configuration will not be reloaded", args.length, agentArgs);
+            return;
+        }
+        long pollInterval = 0;
+        try {
+            pollInterval = Long.parseLong(args[1]) * 1000L;
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        if (pollInterval <= 0) {
+            LOGGER.error("Invalid poll interval {}. Logging configuration will not be reloaded", args[1]);
+            return;
+        }
+        LoggingAgent agent;
+        try {
+            agent = new LoggingAgent(new File(args[0]), pollInterval);
+        } catch (ReflectiveOperationException e) {
+            LOGGER.error("log4j is not available. Logging configuration will not be reloaded", e);
+            return;
+        }
+        agent.run();
+    }
+}
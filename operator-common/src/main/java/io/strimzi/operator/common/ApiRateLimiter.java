@@ -0,0 +1,263 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>A token bucket which limits the rate of the requests the operator sends to the Kubernetes API server,
+ * so that a burst of reconciliations does not trip the rate limits of the API server (such as API Priority
+ * and Fairness) and fail with {@code 429 Too Many Requests}.</p>
+ *
+ * <p>The bucket holds up to {@code burst} tokens and is refilled at {@code qps} tokens per second. Each request
+ * takes a token. When there is none the request waits in one of three {@linkplain Lane lanes} until a token is
+ * available. Waiting requests are granted tokens by lane priority: status updates first, as they complete
+ * reconciliations, then writes, then reads, which mostly start new work. The time requests wait is exposed by
+ * the {@linkplain MetricsProvider#rateLimiterWait(String, long) metrics}.</p>
+ *
+ * <p>Rather than only delaying the requests of the reconciliations already running, the limiter also pushes
+ * back on the reconciliation queues: while requests are waiting, {@link #whenAvailable()} returns a future which
+ * completes once they have all been granted, which the queues use to hold back the start of non-priority
+ * reconciliations.</p>
+ *
+ * <p>The {@linkplain #getInstance() shared instance} does not limit the requests until it has been
+ * {@linkplain #setInstance(ApiRateLimiter) replaced} by a limiter with a positive rate.</p>
+ */
+public class ApiRateLimiter {
+
+    private static final Logger log = LogManager.getLogger(ApiRateLimiter.class);
+
+    public static final double DEFAULT_QPS = 0;
+    public static final int DEFAULT_BURST = 100;
+
+    private static volatile ApiRateLimiter instance = new ApiRateLimiter(null, DEFAULT_QPS, DEFAULT_BURST);
+
+    /**
+     * The lanes in which requests wait for a token, in the order of their priority.
+     */
+    public enum Lane {
+        STATUS,
+        WRITES,
+        READS;
+
+        /**
+         * @param verb The verb of a request, as used in the {@linkplain MetricsProvider#apiRequestTimer(String, String) API request metrics}.
+         * @return The lane of requests with this verb.
+         */
+        public static Lane forVerb(String verb) {
+            switch (verb) {
+                case "get":
+                case "list":
+                    return READS;
+                case "update_status":
+                    return STATUS;
+                default:
+                    return WRITES;
+            }
+        }
+    }
+
+    private static class Waiter {
+        final Future<Void> granted = Future.future();
+        final long sinceNanos = System.nanoTime();
+    }
+
+    private final Vertx vertx;
+    private final double qps;
+    private final int burst;
+    private final Map<Lane, Deque<Waiter>> lanes = new EnumMap<>(Lane.class);
+    private List<Future<Void>> drained = new ArrayList<>();
+    private double tokens;
+    private long refilledNanos;
+    private boolean drainScheduled;
+
+    /**
+     * Constructor
+     * @param vertx The Vertx instance, used for the timers which grant tokens to waiting requests.
+     * @param qps The number of requests per second, or 0 for no limit.
+     * @param burst The number of requests which can be sent at once after a period with fewer requests than the limit.
+     */
+    public ApiRateLimiter(Vertx vertx, double qps, int burst) {
+        if (qps > 0 && burst < 1) {
+            throw new IllegalArgumentException("burst must be positive");
+        }
+        this.vertx = vertx;
+        this.qps = qps;
+        this.burst = burst;
+        this.tokens = burst;
+        this.refilledNanos = System.nanoTime();
+        for (Lane lane : Lane.values()) {
+            lanes.put(lane, new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * @return The limiter shared by all the operators of the process.
+     */
+    public static ApiRateLimiter getInstance() {
+        return instance;
+    }
+
+    /**
+     * Replaces the shared limiter.
+     * @param limiter The limiter.
+     */
+    public static void setInstance(ApiRateLimiter limiter) {
+        instance = limiter;
+    }
+
+    /**
+     * @return Whether requests are limited.
+     */
+    public boolean isEnabled() {
+        return qps > 0;
+    }
+
+    /**
+     * Takes a token for a request in the given lane, waiting without blocking the calling thread.
+     * @param lane The lane of the request.
+     * @return A future which completes when the request can be sent.
+     */
+    public Future<Void> acquire(Lane lane) {
+        if (!isEnabled()) {
+            return Future.succeededFuture();
+        }
+        Waiter waiter;
+        synchronized (this) {
+            refill();
+            if (tokens >= 1 && waiting() == 0) {
+                tokens -= 1;
+                waiter = null;
+            } else {
+                waiter = new Waiter();
+                lanes.get(lane).add(waiter);
+                log.trace("{} request waiting for a token, {} requests waiting", lane, waiting());
+                scheduleDrain();
+            }
+        }
+        if (waiter == null) {
+            MetricsProvider.getInstance().rateLimiterWait(lane.name(), 0);
+            return Future.succeededFuture();
+        }
+        return waiter.granted.map(v -> {
+            MetricsProvider.getInstance().rateLimiterWait(lane.name(), System.nanoTime() - waiter.sinceNanos);
+            return null;
+        });
+    }
+
+    /**
+     * Takes a token for a request in the given lane, blocking the calling thread until there is one.
+     * On an event loop thread the token is taken without waiting, which delays the following requests instead.
+     * @param lane The lane of the request.
+     */
+    public void acquireBlocking(Lane lane) {
+        if (!isEnabled()) {
+            return;
+        }
+        if (Context.isOnEventLoopThread()) {
+            synchronized (this) {
+                refill();
+                tokens -= 1;
+            }
+            MetricsProvider.getInstance().rateLimiterWait(lane.name(), 0);
+            return;
+        }
+        CountDownLatch latch = new CountDownLatch(1);
+        acquire(lane).setHandler(ignored -> latch.countDown());
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return A future which is already completed if no requests are waiting for a token,
+     * or which completes once all the requests waiting now and meanwhile have been granted one.
+     */
+    public synchronized Future<Void> whenAvailable() {
+        if (!isEnabled() || waiting() == 0) {
+            return Future.succeededFuture();
+        }
+        Future<Void> result = Future.future();
+        drained.add(result);
+        return result;
+    }
+
+    /**
+     * @return The number of requests waiting for a token.
+     */
+    public synchronized int waiting() {
+        int waiting = 0;
+        for (Deque<Waiter> waiters : lanes.values()) {
+            waiting += waiters.size();
+        }
+        return waiting;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - refilledNanos) * qps / TimeUnit.SECONDS.toNanos(1));
+        refilledNanos = now;
+    }
+
+    private void scheduleDrain() {
+        if (!drainScheduled) {
+            drainScheduled = true;
+            long delayMs = Math.max(1, (long) Math.ceil((1 - tokens) * 1_000 / qps));
+            vertx.setTimer(delayMs, id -> drain());
+        }
+    }
+
+    private void drain() {
+        List<Waiter> granted = new ArrayList<>();
+        List<Future<Void>> nowDrained = null;
+        synchronized (this) {
+            drainScheduled = false;
+            refill();
+            for (Deque<Waiter> waiters : lanes.values()) {
+                while (tokens >= 1 && !waiters.isEmpty()) {
+                    tokens -= 1;
+                    granted.add(waiters.poll());
+                }
+            }
+            if (waiting() > 0) {
+                scheduleDrain();
+            } else {
+                nowDrained = drained;
+                drained = new ArrayList<>();
+            }
+        }
+        for (Waiter waiter : granted) {
+            waiter.granted.complete();
+        }
+        if (nowDrained != null) {
+            for (Future<Void> future : nowDrained) {
+                future.complete();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ApiRateLimiter(" +
+                "qps=" + qps +
+                ",burst=" + burst +
+                ")";
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.vertx.core.Future;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.metrics.MetricsOptions;
+import io.vertx.micrometer.MicrometerMetricsOptions;
+import io.vertx.micrometer.VertxPrometheusOptions;
+import io.vertx.micrometer.backends.BackendRegistries;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * <p>Provides the metrics of the operators, which are exposed in the Prometheus format on the {@code /metrics}
+ * endpoint of their health servers.</p>
+ *
+ * <p>The {@linkplain #getInstance() shared instance} uses the registry of the Vert.x Micrometer metrics
+ * when Vert.x was created with the {@link #vertxMetricsOptions()} (so that the metrics of Vert.x itself,
+ * such as those of the worker pools, are exposed together with the metrics of the operator), or else a
+ * registry of its own.</p>
+ */
+public class MetricsProvider {
+
+    public static final String METRICS_PREFIX = "strimzi.";
+    public static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static volatile MetricsProvider instance;
+
+    private final MeterRegistry registry;
+
+    /**
+     * Constructor
+     * @param registry The registry in which the metrics are registered.
+     */
+    public MetricsProvider(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * @return The metrics provider shared by all the components of the operator.
+     */
+    public static MetricsProvider getInstance() {
+        if (instance == null) {
+            synchronized (MetricsProvider.class) {
+                if (instance == null) {
+                    MeterRegistry registry = BackendRegistries.getDefaultNow();
+                    if (registry == null) {
+                        registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+                    }
+                    instance = new MetricsProvider(registry);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * @return The options for creating Vert.x with metrics which are exposed by the {@linkplain #getInstance() shared instance}.
+     */
+    public static MetricsOptions vertxMetricsOptions() {
+        return new MicrometerMetricsOptions()
+                .setPrometheusOptions(new VertxPrometheusOptions().setEnabled(true))
+                .setJvmMetricsEnabled(true)
+                .setEnabled(true);
+    }
+
+    /**
+     * @return The registry in which the metrics are registered.
+     */
+    public MeterRegistry meterRegistry() {
+        return registry;
+    }
+
+    /**
+     * Gets or creates a counter.
+     * @param name The name of the counter, without the {@link #METRICS_PREFIX}.
+     * @param description The description of the counter.
+     * @param tags The tags of the counter.
+     * @return The counter.
+     */
+    public Counter counter(String name, String description, Tags tags) {
+        return Counter.builder(METRICS_PREFIX + name)
+                .description(description)
+                .tags(tags)
+                .register(registry);
+    }
+
+    /**
+     * Gets or creates a timer, which is exposed as a histogram.
+     * @param name The name of the timer, without the {@link #METRICS_PREFIX}.
+     * @param description The description of the timer.
+     * @param tags The tags of the timer.
+     * @return The timer.
+     */
+    public Timer timer(String name, String description, Tags tags) {
+        return Timer.builder(METRICS_PREFIX + name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Counts a reconciliation of the given kind of resource in the given namespace, and records its duration
+     * and whether it failed.
+     * @param kind The kind of the reconciled resource.
+     * @param namespace The namespace of the reconciled resource.
+     * @param reconciliation Starts the reconciliation.
+     * @param <T> The type of the result of the reconciliation.
+     * @return The future returned by the {@code reconciliation}, completed once the metrics have been recorded.
+     */
+    public <T> Future<T> timeReconciliation(String kind, String namespace, Supplier<Future<T>> reconciliation) {
+        Tags tags = Tags.of("kind", kind, "namespace", namespace);
+        counter("reconciliations", "Number of reconciliations", tags).increment();
+        Timer.Sample sample = Timer.start(registry);
+        Future<T> result = Future.future();
+        Future<T> reconciled;
+        try {
+            reconciled = reconciliation.get();
+        } catch (Throwable t) {
+            reconciled = Future.failedFuture(t);
+        }
+        reconciled.setHandler(ar -> {
+            sample.stop(timer("reconciliations.duration", "The time the reconciliation takes to complete", tags));
+            if (ar.succeeded()) {
+                counter("reconciliations.successful", "Number of reconciliations which completed successfully", tags).increment();
+            } else {
+                counter("reconciliations.failed", "Number of reconciliations which failed", tags).increment();
+            }
+            result.handle(ar);
+        });
+        return result;
+    }
+
+    /**
+     * Records the time spent waiting for a lock on a resource.
+     * @param kind The kind of the locked resource.
+     * @param namespace The namespace of the locked resource.
+     * @param waitNanos The time spent waiting, in nanoseconds.
+     */
+    public void lockWait(String kind, String namespace, long waitNanos) {
+        timer("resource.lock.wait", "The time spent waiting for the lock on a resource",
+                Tags.of("kind", kind, "namespace", namespace)).record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Exposes the state of a reconciliation {@link WorkQueue}: the number of resources with pending and in-flight
+     * reconciliations, and the time the reconciliations waited before being started (the counterpart of the
+     * time spent waiting for a lock on the resource).
+     * @param kind The kind of the reconciled resources.
+     * @param queue The queue.
+     */
+    public void registerWorkQueue(String kind, WorkQueue<?, ?> queue) {
+        Tags tags = Tags.of("kind", kind);
+        Gauge.builder(METRICS_PREFIX + "reconciliations.pending", queue, WorkQueue::pending)
+                .description("Number of resources with a reconciliation waiting to be started")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder(METRICS_PREFIX + "reconciliations.inflight", queue, WorkQueue::inFlight)
+                .description("Number of resources being reconciled")
+                .tags(tags)
+                .register(registry);
+        FunctionTimer.builder(METRICS_PREFIX + "reconciliations.wait", queue, WorkQueue::executed, WorkQueue::totalWaitMs, TimeUnit.MILLISECONDS)
+                .description("The time reconciliations waited before being started")
+                .tags(tags)
+                .register(registry);
+    }
+
+    /**
+     * Exposes the number of resources whose failed reconciliation will be retried after a back-off.
+     * @param kind The kind of the reconciled resources.
+     * @param retries The back-offs of the resources, keyed by resource.
+     */
+    public void registerRetries(String kind, Map<?, ?> retries) {
+        Gauge.builder(METRICS_PREFIX + "reconciliations.retries.pending", retries, Map::size)
+                .description("Number of resources whose failed reconciliation will be retried")
+                .tags(Tags.of("kind", kind))
+                .register(registry);
+    }
+
+    /**
+     * Counts a retry of a failed reconciliation being scheduled.
+     * @param kind The kind of the reconciled resource.
+     * @param namespace The namespace of the reconciled resource.
+     */
+    public void reconciliationRetryScheduled(String kind, String namespace) {
+        counter("reconciliations.retries", "Number of retries of failed reconciliations which were scheduled",
+                Tags.of("kind", kind, "namespace", namespace)).increment();
+    }
+
+    /**
+     * Records the duration of a blocking request to the Kubernetes API server.
+     * @param verb The verb of the request (get, list, create, patch, delete...).
+     * @param kind The kind of the resource.
+     * @param request Sends the request.
+     * @param <T> The type of the response.
+     * @return The response.
+     */
+    public <T> T timeApiRequest(String verb, String kind, Supplier<T> request) {
+        return apiRequestTimer(verb, kind).record(request);
+    }
+
+    /**
+     * Gets or creates the timer recording the duration of the requests to the Kubernetes API server.
+     * @param verb The verb of the requests.
+     * @param kind The kind of the resource.
+     * @return The timer.
+     */
+    public Timer apiRequestTimer(String verb, String kind) {
+        return timer("kubernetes.api.requests", "The time requests to the Kubernetes API server take",
+                Tags.of("verb", verb, "kind", kind));
+    }
+
+    /**
+     * Records the time a request to the Kubernetes API server waited for the {@link ApiRateLimiter}.
+     * @param lane The lane in which the request waited.
+     * @param waitNanos The time spent waiting, in nanoseconds.
+     */
+    public void rateLimiterWait(String lane, long waitNanos) {
+        timer("kubernetes.api.ratelimiter.wait", "The time requests to the Kubernetes API server waited for the rate limiter",
+                Tags.of("lane", lane)).record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counts a patch which was not sent to the Kubernetes API server because it would have left the resource unchanged.
+     * @param kind The kind of the resource.
+     */
+    public void patchAvoided(String kind) {
+        counter("kubernetes.api.patches.avoided", "Number of patches which were not sent because the resource was unchanged",
+                Tags.of("kind", kind)).increment();
+    }
+
+    /**
+     * Counts an update of the status of a custom resource which was not sent to the Kubernetes API server,
+     * because the status was already up to date or because a later update superseded it.
+     * @param kind The kind of the resource.
+     */
+    public void statusUpdateAvoided(String kind) {
+        counter("kubernetes.api.status.updates.avoided", "Number of status updates which were not sent because the status was up to date or superseded",
+                Tags.of("kind", kind)).increment();
+    }
+
+    /**
+     * Counts a watch being recreated after it was closed with an error.
+     * @param kind The kind of the watched resources.
+     * @param namespace The watched namespace.
+     */
+    public void watchReconnected(String kind, String namespace) {
+        counter("watch.reconnects", "Number of times a watch was recreated after being closed with an error",
+                Tags.of("kind", kind, "namespace", namespace)).increment();
+    }
+
+    /**
+     * @return The metrics in the Prometheus text format, or an empty string if the registry is not a Prometheus registry.
+     */
+    public String scrape() {
+        return registry instanceof PrometheusMeterRegistry ? ((PrometheusMeterRegistry) registry).scrape() : "";
+    }
+
+    /**
+     * Answers a request to the {@code /metrics} endpoint of a health server.
+     * @param request The request.
+     */
+    public void handleMetricsRequest(HttpServerRequest request) {
+        request.response()
+                .setStatusCode(200)
+                .putHeader("Content-Type", PROMETHEUS_CONTENT_TYPE)
+                .end(scrape());
+    }
+}
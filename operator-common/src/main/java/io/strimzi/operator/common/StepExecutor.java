@@ -0,0 +1,238 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+import io.vertx.core.Future;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * <p>Executes the steps of a reconciliation, described as a directed acyclic graph of named steps
+ * with explicit dependencies.</p>
+ *
+ * <p>A step is started once all the steps it depends on have completed successfully, and at most
+ * {@code maxParallelSteps} steps are in flight at once. When several steps are ready to start they are started
+ * in the order in which they were {@linkplain #step(String, Function, String...) added}, so with
+ * a {@code maxParallelSteps} of 1 the steps are executed one by one in that order.
+ * Since a step can only depend on steps which were added before it, the graph cannot have cycles.</p>
+ *
+ * <p>When a step fails no further steps are started, and the execution fails with the cause of the first
+ * failure once the steps which are still in flight have completed.</p>
+ *
+ * <p>The duration of each step is recorded and can be obtained from {@link #durationsMs()}.</p>
+ *
+ * <p>An instance describes a single execution, and {@link #execute(Object)} can only be called once.</p>
+ *
+ * @param <S> The type of the state the steps operate on.
+ */
+public class StepExecutor<S> {
+
+    private static final Logger log = LogManager.getLogger(StepExecutor.class);
+
+    private final String name;
+    private final int maxParallelSteps;
+    private final Map<String, Step<S>> steps = new LinkedHashMap<>();
+    private final Map<String, Long> durationsMs = new LinkedHashMap<>();
+
+    private S state;
+    private Future<S> result;
+    private boolean dispatching = false;
+    private boolean finished = false;
+    private int running = 0;
+    private int completed = 0;
+    private Throwable failure;
+    private long startNanos;
+
+    private enum StepState {
+        PENDING, RUNNING, DONE
+    }
+
+    private static class Step<S> {
+        final String name;
+        final Function<S, Future<?>> action;
+        final List<Step<S>> dependencies;
+        StepState state = StepState.PENDING;
+
+        Step(String name, Function<S, Future<?>> action, List<Step<S>> dependencies) {
+            this.name = name;
+            this.action = action;
+            this.dependencies = dependencies;
+        }
+
+        boolean isReady() {
+            if (state != StepState.PENDING) {
+                return false;
+            }
+            for (Step<S> dependency : dependencies) {
+                if (dependency.state != StepState.DONE) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Constructor
+     * @param name The name of the execution (used for logging), e.g. the {@link Reconciliation}.
+     * @param maxParallelSteps The maximum number of steps in flight at once.
+     */
+    public StepExecutor(String name, int maxParallelSteps) {
+        if (maxParallelSteps <= 0) {
+            throw new IllegalArgumentException("maxParallelSteps must be positive");
+        }
+        this.name = name;
+        this.maxParallelSteps = maxParallelSteps;
+    }
+
+    /**
+     * Adds a step.
+     * @param stepName The name of the step, unique within this executor.
+     * @param action The action of the step. It is passed the state and returns a future which completes
+     *               when the step is done.
+     * @param dependencies The names of the steps which must have completed before this step is started.
+     *                     They must have been added already.
+     * @return This executor.
+     */
+    public synchronized StepExecutor<S> step(String stepName, Function<S, Future<?>> action, String... dependencies) {
+        if (result != null) {
+            throw new IllegalStateException("Steps cannot be added once the execution has started");
+        }
+        if (steps.containsKey(stepName)) {
+            throw new IllegalArgumentException("Duplicate step " + stepName);
+        }
+        List<Step<S>> deps = new ArrayList<>(dependencies.length);
+        for (String dependency : dependencies) {
+            Step<S> dep = steps.get(dependency);
+            if (dep == null) {
+                throw new IllegalArgumentException("Step " + stepName + " depends on unknown step " + dependency);
+            }
+            deps.add(dep);
+        }
+        steps.put(stepName, new Step<>(stepName, action, deps));
+        return this;
+    }
+
+    /**
+     * Executes the steps.
+     * @param state The state passed to each step.
+     * @return A future which completes with the given state once all the steps have completed,
+     * or fails with the cause of the first step which failed.
+     */
+    public Future<S> execute(S state) {
+        synchronized (this) {
+            if (result != null) {
+                throw new IllegalStateException("The steps have already been executed");
+            }
+            this.state = state;
+            this.result = Future.future();
+            this.startNanos = System.nanoTime();
+        }
+        dispatch();
+        return result;
+    }
+
+    /**
+     * Starts the steps which are ready until the limit on the steps in flight has been reached,
+     * and completes the result when there is nothing left to do.
+     * Steps completing synchronously call this method recursively, in which case the outer call carries on.
+     */
+    private void dispatch() {
+        synchronized (this) {
+            if (dispatching) {
+                return;
+            }
+            dispatching = true;
+        }
+        while (true) {
+            Step<S> next = null;
+            boolean finish = false;
+            synchronized (this) {
+                if (failure == null && running < maxParallelSteps) {
+                    for (Step<S> step : steps.values()) {
+                        if (step.isReady()) {
+                            next = step;
+                            break;
+                        }
+                    }
+                }
+                if (next == null) {
+                    dispatching = false;
+                    if (running == 0 && !finished) {
+                        finished = true;
+                        finish = true;
+                    }
+                } else {
+                    next.state = StepState.RUNNING;
+                    running++;
+                }
+            }
+            if (next == null) {
+                if (finish) {
+                    finish();
+                }
+                return;
+            }
+            start(next);
+        }
+    }
+
+    private void start(Step<S> step) {
+        log.debug("{}: Starting step {}", name, step.name);
+        long stepStartNanos = System.nanoTime();
+        Future<?> stepResult;
+        try {
+            stepResult = step.action.apply(state);
+        } catch (Throwable t) {
+            stepResult = Future.failedFuture(t);
+        }
+        stepResult.setHandler(ar -> {
+            long durationMs = (System.nanoTime() - stepStartNanos) / 1_000_000;
+            synchronized (this) {
+                running--;
+                durationsMs.put(step.name, durationMs);
+                if (ar.succeeded()) {
+                    step.state = StepState.DONE;
+                    completed++;
+                    log.debug("{}: Step {} completed in {}ms", name, step.name, durationMs);
+                } else {
+                    log.debug("{}: Step {} failed after {}ms", name, step.name, durationMs, ar.cause());
+                    if (failure == null) {
+                        failure = ar.cause();
+                    }
+                }
+            }
+            dispatch();
+        });
+    }
+
+    /**
+     * Completes the result. Called once, when no step is in flight and no step can be started.
+     */
+    private void finish() {
+        long totalMs = (System.nanoTime() - startNanos) / 1_000_000;
+        if (failure != null) {
+            log.debug("{}: {} of {} steps completed in {}ms before failure: {}", name, completed, steps.size(), totalMs, durationsMs);
+            result.fail(failure);
+        } else {
+            log.debug("{}: {} steps completed in {}ms: {}", name, completed, totalMs, durationsMs);
+            result.complete(state);
+        }
+    }
+
+    /**
+     * @return The duration, in milliseconds, of each step which has completed, in completion order.
+     */
+    public synchronized Map<String, Long> durationsMs() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(durationsMs));
+    }
+}
@@ -32,7 +32,7 @@ public class Util {
         Handler<Long> handler = new Handler<Long>() {
             @Override
             public void handle(Long timerId) {
-                vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
+                WorkerPools.readinessPolling(vertx).executeBlocking(
                     future -> {
                         try {
                             if (ready.getAsBoolean())   {
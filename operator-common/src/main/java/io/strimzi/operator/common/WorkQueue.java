@@ -0,0 +1,336 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * <p>A queue of work keyed by the resource the work is about, which ensures that at most one piece of work
+ * is in flight per key.</p>
+ *
+ * <p>Work submitted for a key while other work for the same key is in flight is not dropped and not queued
+ * behind it one by one: all the work submitted meanwhile is collapsed into a single pending run, which is
+ * started once the in-flight work completes. The handlers of all the collapsed submissions are called
+ * with the outcome of that single run.</p>
+ *
+ * <pre>{@literal
+ *     submit(k)  ->  |<------ run #1 ------>|
+ *     submit(k)  ->    pending              |<------ run #2 ------>|
+ *     submit(k)  ->    pending (collapsed)  |
+ * }</pre>
+ *
+ * <p>The number of runs in flight across all keys can be bounded. Pending work which cannot be started because
+ * the bound has been reached waits in one of two lanes: priority work (such as reconciliations triggered by watch
+ * events) is always started before non-priority work (such as periodic reconciliations).
+ * Non-priority work can additionally be held back by a {@linkplain #setGate(Supplier) gate}, for example while
+ * the requests of the work in flight are being throttled by the {@link ApiRateLimiter}.</p>
+ *
+ * @param <K> The type of key.
+ * @param <W> The type of the description of the work (e.g. a {@link Reconciliation}).
+ */
+public class WorkQueue<K, W> {
+
+    private static final Logger log = LogManager.getLogger(WorkQueue.class);
+
+    private final String name;
+    private final Function<W, Future<Void>> worker;
+    private final int maxConcurrent;
+    private final Map<K, Entry<W>> entries = new HashMap<>();
+    private final Deque<K> priorityReady = new ArrayDeque<>();
+    private final Deque<K> ready = new ArrayDeque<>();
+    private int running = 0;
+    private Supplier<Future<Void>> gate;
+    private boolean gateClosed;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong collapsed = new AtomicLong();
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong totalWaitMs = new AtomicLong();
+    private final AtomicLong maxWaitMs = new AtomicLong();
+
+    private static class Entry<W> {
+        boolean inFlight;
+        boolean queued;
+        boolean priority;
+        W pending;
+        long pendingSince;
+        List<Handler<AsyncResult<Void>>> pendingHandlers = new ArrayList<>();
+    }
+
+    /**
+     * Constructor
+     * @param name The name of the queue (used for logging).
+     * @param worker Executes the given work, returning a future which completes when it is done.
+     */
+    public WorkQueue(String name, Function<W, Future<Void>> worker) {
+        this(name, Integer.MAX_VALUE, worker);
+    }
+
+    /**
+     * Constructor
+     * @param name The name of the queue (used for logging).
+     * @param maxConcurrent The maximum number of runs in flight across all keys.
+     * @param worker Executes the given work, returning a future which completes when it is done.
+     */
+    public WorkQueue(String name, int maxConcurrent, Function<W, Future<Void>> worker) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("maxConcurrent must be positive");
+        }
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.worker = worker;
+    }
+
+    /**
+     * Sets the gate of the non-priority work: before starting non-priority work the queue gets a future from
+     * the gate, and if it is not completed yet the queue waits for it to complete before starting any.
+     * @param gate The gate, or null to start non-priority work as soon as the bound on the runs in flight allows.
+     */
+    public synchronized void setGate(Supplier<Future<Void>> gate) {
+        this.gate = gate;
+    }
+
+    /**
+     * Submits priority work for the given key.
+     * @see #submit(Object, Object, boolean, Handler)
+     *
+     * @param key The key.
+     * @param work The work. If there already is pending work for the key, this work replaces it.
+     * @param handler Called with the outcome of the run which covered this work.
+     */
+    public void submit(K key, W work, Handler<AsyncResult<Void>> handler) {
+        submit(key, work, true, handler);
+    }
+
+    /**
+     * Submits work for the given key.
+     * If no work is in flight for the key and the bound on the runs in flight has not been reached the work is
+     * started immediately, otherwise it is collapsed into the pending run for the key.
+     *
+     * @param key The key.
+     * @param work The work. If there already is pending work for the key, this work replaces it.
+     * @param priority Whether the work should be started before any non-priority work.
+     *                 Collapsing priority work into pending non-priority work makes it priority work.
+     * @param handler Called with the outcome of the run which covered this work.
+     */
+    public void submit(K key, W work, boolean priority, Handler<AsyncResult<Void>> handler) {
+        submitted.incrementAndGet();
+        synchronized (this) {
+            Entry<W> entry = entries.computeIfAbsent(key, k -> new Entry<>());
+            if (entry.pending != null) {
+                collapsed.incrementAndGet();
+                log.debug("{}: {} collapsed into already pending {}", name, work, entry.pending);
+            } else {
+                entry.pendingSince = System.currentTimeMillis();
+                entry.priority = false;
+            }
+            entry.pending = work;
+            entry.pendingHandlers.add(handler);
+            if (entry.inFlight) {
+                log.debug("{}: {} is pending until the in-flight work for {} completes", name, work, key);
+                entry.priority |= priority;
+            } else if (!entry.queued) {
+                entry.priority = priority;
+                enqueue(key, entry);
+            } else if (priority && !entry.priority) {
+                ready.remove(key);
+                entry.priority = true;
+                priorityReady.add(key);
+            }
+        }
+        runReady();
+    }
+
+    private void enqueue(K key, Entry<W> entry) {
+        entry.queued = true;
+        if (entry.priority) {
+            priorityReady.add(key);
+        } else {
+            ready.add(key);
+        }
+    }
+
+    /**
+     * Starts ready work until the bound on the runs in flight is reached.
+     */
+    private void runReady() {
+        while (true) {
+            K key;
+            W work;
+            List<Handler<AsyncResult<Void>>> handlers;
+            long waitMs;
+            Future<Void> gateOpened = null;
+            synchronized (this) {
+                if (running >= maxConcurrent) {
+                    if (!priorityReady.isEmpty() || !ready.isEmpty()) {
+                        log.debug("{}: {} runs in flight, {} priority and {} other keys waiting", name, running, priorityReady.size(), ready.size());
+                    }
+                    return;
+                }
+                key = priorityReady.poll();
+                if (key == null && !ready.isEmpty()) {
+                    if (gateClosed) {
+                        return;
+                    }
+                    if (gate != null) {
+                        gateOpened = gate.get();
+                        if (!gateOpened.isComplete()) {
+                            log.debug("{}: gate closed, {} other keys waiting", name, ready.size());
+                            gateClosed = true;
+                        }
+                    }
+                    if (!gateClosed) {
+                        key = ready.poll();
+                    }
+                }
+                if (key == null) {
+                    if (gateOpened == null || !gateClosed) {
+                        return;
+                    }
+                    work = null;
+                    handlers = null;
+                    waitMs = 0;
+                } else {
+                    Entry<W> entry = entries.get(key);
+                    entry.queued = false;
+                    work = entry.pending;
+                    handlers = entry.pendingHandlers;
+                    waitMs = System.currentTimeMillis() - entry.pendingSince;
+                    entry.pending = null;
+                    entry.pendingHandlers = new ArrayList<>();
+                    entry.inFlight = true;
+                    running++;
+                }
+            }
+            if (key == null) {
+                gateOpened.setHandler(ignored -> {
+                    synchronized (this) {
+                        gateClosed = false;
+                    }
+                    runReady();
+                });
+                return;
+            }
+            run(key, work, handlers, waitMs);
+        }
+    }
+
+    private void run(K key, W work, List<Handler<AsyncResult<Void>>> handlers, long waitMs) {
+        executed.incrementAndGet();
+        totalWaitMs.addAndGet(waitMs);
+        maxWaitMs.accumulateAndGet(waitMs, Math::max);
+        log.debug("{}: starting {} after waiting {}ms", name, work, waitMs);
+
+        Future<Void> result;
+        try {
+            result = worker.apply(work);
+        } catch (Throwable t) {
+            result = Future.failedFuture(t);
+        }
+        result.setHandler(ar -> {
+            synchronized (this) {
+                running--;
+                Entry<W> entry = entries.get(key);
+                entry.inFlight = false;
+                if (entry.pending != null) {
+                    enqueue(key, entry);
+                } else {
+                    entries.remove(key);
+                }
+            }
+            for (Handler<AsyncResult<Void>> handler : handlers) {
+                handler.handle(ar);
+            }
+            runReady();
+        });
+    }
+
+    /**
+     * @return The number of keys with work waiting to be started.
+     */
+    public synchronized int pending() {
+        int pending = 0;
+        for (Entry<W> entry : entries.values()) {
+            if (entry.pending != null) {
+                pending++;
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * @return The number of keys with work in flight.
+     */
+    public synchronized int inFlight() {
+        return running;
+    }
+
+    /**
+     * @return The total number of submissions.
+     */
+    public long submitted() {
+        return submitted.get();
+    }
+
+    /**
+     * @return The number of submissions which were collapsed into already pending work.
+     */
+    public long collapsed() {
+        return collapsed.get();
+    }
+
+    /**
+     * @return The number of runs which were started.
+     */
+    public long executed() {
+        return executed.get();
+    }
+
+    /**
+     * @return The total time, in milliseconds, work spent waiting between its submission and the start of its run.
+     */
+    public long totalWaitMs() {
+        return totalWaitMs.get();
+    }
+
+    /**
+     * @return The longest time, in milliseconds, work spent waiting between its submission and the start of its run.
+     */
+    public long maxWaitMs() {
+        return maxWaitMs.get();
+    }
+
+    /**
+     * @return The maximum number of runs in flight across all keys.
+     */
+    public int maxConcurrent() {
+        return maxConcurrent;
+    }
+
+    @Override
+    public String toString() {
+        return name + "(inFlight=" + inFlight()
+                + ", pending=" + pending()
+                + ", submitted=" + submitted()
+                + ", collapsed=" + collapsed()
+                + ", executed=" + executed()
+                + ", maxWaitMs=" + maxWaitMs()
+                + ")";
+    }
+}
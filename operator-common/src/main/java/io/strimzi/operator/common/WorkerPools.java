@@ -0,0 +1,160 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>The named worker pools in which the operators run blocking code. Each pool is sized separately, so that
+ * for example slow certificate generation or long readiness polling cannot take all the threads needed for
+ * requests to the Kubernetes API server.</p>
+ *
+ * <p>The saturation of each pool is exposed by the Vert.x pool metrics ({@code vertx_pool_*}),
+ * with the {@code pool_name} label set to the name of the pool.</p>
+ *
+ * <p>Each pool is opened once per Vertx instance and its executor is kept in the local shared data of that
+ * instance, because every opening of a shared pool holds a reference to it and adds a close hook to the
+ * current context.</p>
+ */
+public class WorkerPools {
+
+    public static final String KUBERNETES_API_READS = "kubernetes-api-reads";
+    public static final String KUBERNETES_API_WRITES = "kubernetes-api-writes";
+    public static final String CERT_GENERATION = "cert-generation";
+    public static final String READINESS_POLLING = "readiness-polling";
+
+    public static final int DEFAULT_KUBERNETES_API_READS_SIZE = 10;
+    public static final int DEFAULT_KUBERNETES_API_WRITES_SIZE = 10;
+    public static final int DEFAULT_CERT_GENERATION_SIZE = 2;
+    public static final int DEFAULT_READINESS_POLLING_SIZE = 5;
+
+    private static final long MAX_EXECUTE_TIME_NS = TimeUnit.SECONDS.toNanos(120);
+    private static final String EXECUTORS_MAP = "strimzi.worker-pools";
+
+    private final int kubernetesApiReadsSize;
+    private final int kubernetesApiWritesSize;
+    private final int certGenerationSize;
+    private final int readinessPollingSize;
+
+    /**
+     * Constructor for pools of the default sizes.
+     */
+    public WorkerPools() {
+        this(DEFAULT_KUBERNETES_API_READS_SIZE, DEFAULT_KUBERNETES_API_WRITES_SIZE, DEFAULT_CERT_GENERATION_SIZE, DEFAULT_READINESS_POLLING_SIZE);
+    }
+
+    /**
+     * Constructor
+     * @param kubernetesApiReadsSize The size of the pool for reading resources from the Kubernetes API server.
+     * @param kubernetesApiWritesSize The size of the pool for creating, updating and deleting resources.
+     * @param certGenerationSize The size of the pool for generating certificates and keys.
+     * @param readinessPollingSize The size of the pool for polling resources until they are ready.
+     */
+    public WorkerPools(int kubernetesApiReadsSize, int kubernetesApiWritesSize, int certGenerationSize, int readinessPollingSize) {
+        this.kubernetesApiReadsSize = kubernetesApiReadsSize;
+        this.kubernetesApiWritesSize = kubernetesApiWritesSize;
+        this.certGenerationSize = certGenerationSize;
+        this.readinessPollingSize = readinessPollingSize;
+    }
+
+    /**
+     * Creates the pools with their configured sizes. A shared pool gets its size when it is first created,
+     * so this must be called before any of the pools is used.
+     * @param vertx The Vertx instance.
+     */
+    public void create(Vertx vertx) {
+        LocalMap<String, Executor> executors = executors(vertx);
+        executors.computeIfAbsent(KUBERNETES_API_READS, name -> new Executor(vertx.createSharedWorkerExecutor(name, kubernetesApiReadsSize, MAX_EXECUTE_TIME_NS)));
+        executors.computeIfAbsent(KUBERNETES_API_WRITES, name -> new Executor(vertx.createSharedWorkerExecutor(name, kubernetesApiWritesSize, MAX_EXECUTE_TIME_NS)));
+        executors.computeIfAbsent(CERT_GENERATION, name -> new Executor(vertx.createSharedWorkerExecutor(name, certGenerationSize, MAX_EXECUTE_TIME_NS)));
+        executors.computeIfAbsent(READINESS_POLLING, name -> new Executor(vertx.createSharedWorkerExecutor(name, readinessPollingSize, MAX_EXECUTE_TIME_NS)));
+    }
+
+    /**
+     * @param vertx The Vertx instance.
+     * @return An executor for reading resources from the Kubernetes API server.
+     */
+    public static WorkerExecutor kubernetesApiReads(Vertx vertx) {
+        return executor(vertx, KUBERNETES_API_READS);
+    }
+
+    /**
+     * @param vertx The Vertx instance.
+     * @return An executor for creating, updating and deleting resources through the Kubernetes API server.
+     */
+    public static WorkerExecutor kubernetesApiWrites(Vertx vertx) {
+        return executor(vertx, KUBERNETES_API_WRITES);
+    }
+
+    /**
+     * @param vertx The Vertx instance.
+     * @return An executor for generating certificates and keys.
+     */
+    public static WorkerExecutor certGeneration(Vertx vertx) {
+        return executor(vertx, CERT_GENERATION);
+    }
+
+    /**
+     * @param vertx The Vertx instance.
+     * @return An executor for polling resources until they are ready.
+     */
+    public static WorkerExecutor readinessPolling(Vertx vertx) {
+        return executor(vertx, READINESS_POLLING);
+    }
+
+    /**
+     * Returns the executor of the given pool, opening the pool with its default size
+     * if {@link #create(Vertx)} has not been called for this Vertx instance.
+     */
+    private static WorkerExecutor executor(Vertx vertx, String name) {
+        return executors(vertx).computeIfAbsent(name, n -> new Executor(vertx.createSharedWorkerExecutor(n))).executor;
+    }
+
+    private static LocalMap<String, Executor> executors(Vertx vertx) {
+        return vertx.sharedData().getLocalMap(EXECUTORS_MAP);
+    }
+
+    public int getKubernetesApiReadsSize() {
+        return kubernetesApiReadsSize;
+    }
+
+    public int getKubernetesApiWritesSize() {
+        return kubernetesApiWritesSize;
+    }
+
+    public int getCertGenerationSize() {
+        return certGenerationSize;
+    }
+
+    public int getReadinessPollingSize() {
+        return readinessPollingSize;
+    }
+
+    @Override
+    public String toString() {
+        return "WorkerPools(" +
+                "kubernetesApiReadsSize=" + kubernetesApiReadsSize +
+                ",kubernetesApiWritesSize=" + kubernetesApiWritesSize +
+                ",certGenerationSize=" + certGenerationSize +
+                ",readinessPollingSize=" + readinessPollingSize +
+                ")";
+    }
+
+    /**
+     * Holds an executor in the local shared data, which accepts only {@link Shareable} values.
+     */
+    private static class Executor implements Shareable {
+        private final WorkerExecutor executor;
+
+        Executor(WorkerExecutor executor) {
+            this.executor = executor;
+        }
+    }
+}
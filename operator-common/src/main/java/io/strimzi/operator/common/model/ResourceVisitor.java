@@ -8,20 +8,40 @@ import io.fabric8.kubernetes.api.model.HasMetadata;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Member;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
+/**
+ * Visits the properties of a resource, and recursively the properties of the objects which they hold.
+ * The properties of each class are found by reflection only once, and cached with their getters.
+ */
 public class ResourceVisitor {
 
     private static final Logger LOGGER = LogManager.getLogger(ResourceVisitor.class);
 
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final ClassValue<PropertyDescriptor<?>[]> PROPERTIES = new ClassValue<PropertyDescriptor<?>[]>() {
+        @Override
+        protected PropertyDescriptor<?>[] computeValue(Class<?> cls) {
+            return properties(cls);
+        }
+    };
+
     public interface Visitor {
         /**
          * Called when a property is visited.
@@ -83,12 +103,21 @@ public class ResourceVisitor {
     }
 
     private static void visit(List<String> path, Object resource, Visitor visitor) throws ReflectiveOperationException {
-        Class<?> cls = resource.getClass();
         visitor.visitObject(path, resource);
+        for (PropertyDescriptor<?> descriptor : PROPERTIES.get(resource.getClass())) {
+            Object propertyValue = descriptor.get(resource);
+            descriptor.visit(path, resource, propertyValue, visitor);
+            visitProperty(path, descriptor.name, descriptor.kind, propertyValue, visitor);
+        }
+    }
+
+    /**
+     * Finds the properties of the given class: its public fields, followed by its public getters.
+     */
+    private static PropertyDescriptor<?>[] properties(Class<?> cls) {
+        List<PropertyDescriptor<?>> properties = new ArrayList<>();
         for (Field field : cls.getFields()) {
-            Object propertyValue = field.get(resource);
-            visitor.visitFieldProperty(path, resource, field, FIELD_PROPERTY, propertyValue);
-            visitProperty(path, field, FIELD_PROPERTY, propertyValue, visitor);
+            properties.add(new PropertyDescriptor<>(field, FIELD_PROPERTY, getter(field)));
         }
         for (Method method : cls.getMethods()) {
             String name = method.getName();
@@ -106,12 +135,109 @@ public class ResourceVisitor {
                     property = IS_METHOD_PROPERTY;
                 }
                 if (property != null) {
-                    Object propertyValue = method.invoke(resource);
-                    visitor.visitMethodProperty(path, resource, method, property, propertyValue);
-                    visitProperty(path, method, property, propertyValue, visitor);
+                    properties.add(new PropertyDescriptor<>(method, property, getter(method)));
                 }
             }
         }
+        return properties.toArray(new PropertyDescriptor<?>[0]);
+    }
+
+    /**
+     * @return A handle of type (Object)Object for reading the field, or null if the field is not accessible,
+     * in which case it is read by reflection.
+     */
+    private static MethodHandle getter(Field field) {
+        try {
+            MethodHandle getter = LOOKUP.unreflectGetter(field);
+            if (Modifier.isStatic(field.getModifiers())) {
+                getter = MethodHandles.dropArguments(getter, 0, Object.class);
+            }
+            return getter.asType(GETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return A handle of type (Object)Object for invoking the getter, or null if the getter is not accessible,
+     * in which case it is invoked by reflection.
+     */
+    private static MethodHandle getter(Method method) {
+        try {
+            return LOOKUP.unreflect(method).asType(GETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * How the value of a property is visited, which only depends on the declared type of the property.
+     */
+    enum Kind {
+        /** An array, whose elements are visited */
+        ARRAY,
+        /** A collection, whose elements are visited */
+        COLLECTION,
+        /** An object, which is visited */
+        OBJECT,
+        /** A scalar, map or enum, which is not visited any further */
+        LEAF;
+
+        static Kind of(Class<?> type) {
+            if (type.isArray()) {
+                return ARRAY;
+            } else if (Collection.class.isAssignableFrom(type)) {
+                return COLLECTION;
+            } else if (!isScalar(type)
+                    && !Map.class.isAssignableFrom(type)
+                    && !type.isEnum()) {
+                return OBJECT;
+            } else {
+                return LEAF;
+            }
+        }
+    }
+
+    /**
+     * A property of a class, with everything needed for visiting it computed up front.
+     * @param <M> The type of member ({@code Field} or {@code Method}).
+     */
+    private static class PropertyDescriptor<M extends AnnotatedElement & Member> {
+        private final M member;
+        private final Property<M> property;
+        private final MethodHandle getter;
+        private final String name;
+        private final Kind kind;
+
+        PropertyDescriptor(M member, Property<M> property, MethodHandle getter) {
+            this.member = member;
+            this.property = property;
+            this.getter = getter;
+            this.name = property.propertyName(member);
+            this.kind = Kind.of(property.type(member));
+        }
+
+        Object get(Object owner) throws ReflectiveOperationException {
+            if (getter == null) {
+                return member instanceof Field ? ((Field) member).get(owner) : ((Method) member).invoke(owner);
+            }
+            try {
+                return getter.invokeExact(owner);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new InvocationTargetException(t);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void visit(List<String> path, Object owner, Object propertyValue, Visitor visitor) {
+            if (member instanceof Field) {
+                visitor.visitFieldProperty(path, owner, (Field) member, (Property<Field>) property, propertyValue);
+            } else {
+                visitor.visitMethodProperty(path, owner, (Method) member, (Property<Method>) property, propertyValue);
+            }
+        }
     }
 
     private static boolean isScalar(Class<?> returnType) {
@@ -128,34 +254,35 @@ public class ResourceVisitor {
                 || isFloat;
     }
 
-    static <M extends AnnotatedElement & Member> void visitProperty(List<String> path, M member,
-                                                                    Property<M> property, Object propertyValue,
-                                                                    Visitor visitor)
+    static void visitProperty(List<String> path, String propertyName, Kind kind, Object propertyValue,
+                              Visitor visitor)
             throws ReflectiveOperationException {
-        String propertyName = property.propertyName(member);
-        Class<?> returnType = property.type(member);
         if (propertyValue != null) {
-            if (returnType.isArray()) {
-                path.add(propertyName);
-                if (propertyValue instanceof Object[]) {
-                    for (Object element : (Object[]) propertyValue) {
+            switch (kind) {
+                case ARRAY:
+                    path.add(propertyName);
+                    if (propertyValue instanceof Object[]) {
+                        for (Object element : (Object[]) propertyValue) {
+                            visit(path, element, visitor);
+                        }
+                    }
+                    // otherwise it's an array of primitives, in which case there are not further objects to visit
+                    path.remove(path.size() - 1);
+                    break;
+                case COLLECTION:
+                    path.add(propertyName);
+                    for (Object element : (Collection<?>) propertyValue) {
                         visit(path, element, visitor);
                     }
-                }
-                // otherwise it's an array of primitives, in which case there are not further objects to visit
-                path.remove(path.size() - 1);
-            } else if (Collection.class.isAssignableFrom(returnType)) {
-                path.add(propertyName);
-                for (Object element : (Collection<?>) propertyValue) {
-                    visit(path, element, visitor);
-                }
-                path.remove(path.size() - 1);
-            } else if (!isScalar(returnType)
-                    && !Map.class.isAssignableFrom(returnType)
-                    && !returnType.isEnum()) {
-                path.add(propertyName);
-                visit(path, propertyValue, visitor);
-                path.remove(path.size() - 1);
+                    path.remove(path.size() - 1);
+                    break;
+                case OBJECT:
+                    path.add(propertyName);
+                    visit(path, propertyValue, visitor);
+                    path.remove(path.size() - 1);
+                    break;
+                default:
+                    break;
             }
         }
     }
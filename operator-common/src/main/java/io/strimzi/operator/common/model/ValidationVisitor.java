@@ -66,11 +66,12 @@ public class ValidationVisitor implements ResourceVisitor.Visitor {
 
     private <M extends AnnotatedElement & Member> void checkForDeprecated(List<String> path,
                                                                           M member,
-                                                                          Object propertyValue,
-                                                                          String propertyName) {
+                                                                          ResourceVisitor.Property<M> property,
+                                                                          Object propertyValue) {
         DeprecatedProperty deprecated = member.getAnnotation(DeprecatedProperty.class);
         if (deprecated != null
             && isPresent(member, propertyValue)) {
+            String propertyName = property.propertyName(member);
             String msg = String.format("In API version %s the property %s at path %s has been deprecated. ",
                     resource.getApiVersion(),
                     propertyName,
@@ -95,7 +96,10 @@ public class ValidationVisitor implements ResourceVisitor.Visitor {
     @Override
     public <M extends AnnotatedElement & Member> void visitProperty(List<String> path, Object resource,
                                     M method, ResourceVisitor.Property<M> property, Object propertyValue) {
-        checkForDeprecated(path, method, propertyValue, property.propertyName(method));
+        // An absent property is never reported, so don't bother looking up its annotations
+        if (propertyValue != null) {
+            checkForDeprecated(path, method, property, propertyValue);
+        }
     }
 
     @Override
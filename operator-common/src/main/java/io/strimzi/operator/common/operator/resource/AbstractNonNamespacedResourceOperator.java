@@ -12,7 +12,10 @@ import io.fabric8.kubernetes.client.Watcher;
 import io.fabric8.kubernetes.client.dsl.FilterWatchListMultiDeletable;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.Resource;
+import io.strimzi.operator.common.ApiRateLimiter;
+import io.strimzi.operator.common.MetricsProvider;
 import io.strimzi.operator.common.Util;
+import io.strimzi.operator.common.WorkerPools;
 import io.strimzi.operator.common.model.Labels;
 import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
@@ -24,6 +27,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * Abstract resource creation, for a generic resource type {@code R}.
@@ -89,9 +93,9 @@ public abstract class AbstractNonNamespacedResourceOperator<C extends Kubernetes
         }
 
         Future<ReconcileResult<T>> fut = Future.future();
-        vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
+        WorkerPools.kubernetesApiWrites(vertx).executeBlocking(
             future -> {
-                T current = operation().withName(name).get();
+                T current = apiRequest("get", () -> operation().withName(name).get());
                 if (desired != null) {
                     if (current == null) {
                         log.debug("{} {} does not exist, creating it", resourceKind, name);
@@ -147,7 +151,7 @@ public abstract class AbstractNonNamespacedResourceOperator<C extends Kubernetes
         vertx.executeBlocking(
             f -> {
                 try {
-                    Boolean delete = operation().withName(name).delete();
+                    Boolean delete = apiRequest("delete", () -> operation().withName(name).delete());
                     if (!Boolean.TRUE.equals(delete)) {
                         f.fail(new RuntimeException(resourceKind + "/" + name + " could not be deleted (returned " + delete + ")"));
                     } else {
@@ -172,7 +176,7 @@ public abstract class AbstractNonNamespacedResourceOperator<C extends Kubernetes
 
     protected Future<ReconcileResult<T>> internalPatch(String name, T current, T desired, boolean cascading) {
         try {
-            T result = operation().withName(name).cascading(cascading).patch(desired);
+            T result = apiRequest("patch", () -> operation().withName(name).cascading(cascading).patch(desired));
             log.debug("{} {} has been patched", resourceKind, name);
             return Future.succeededFuture(wasChanged(current, result) ?
                     ReconcileResult.patched(result) : ReconcileResult.noop(result));
@@ -182,6 +186,19 @@ public abstract class AbstractNonNamespacedResourceOperator<C extends Kubernetes
         }
     }
 
+    /**
+     * Sends a blocking request to the API server once the {@link ApiRateLimiter} allows it, recording its duration
+     * in the {@linkplain MetricsProvider#timeApiRequest(String, String, Supplier) API request metrics}.
+     * @param verb The verb of the request, which also selects its {@linkplain ApiRateLimiter.Lane lane}.
+     * @param request Sends the request.
+     * @param <X> The type of the response.
+     * @return The response.
+     */
+    protected <X> X apiRequest(String verb, Supplier<X> request) {
+        ApiRateLimiter.getInstance().acquireBlocking(ApiRateLimiter.Lane.forVerb(verb));
+        return MetricsProvider.getInstance().timeApiRequest(verb, resourceKind, request);
+    }
+
     private boolean wasChanged(T oldVersion, T newVersion) {
         if (oldVersion != null
                 && oldVersion.getMetadata() != null
@@ -200,7 +217,7 @@ public abstract class AbstractNonNamespacedResourceOperator<C extends Kubernetes
     @SuppressWarnings("unchecked")
     protected Future<ReconcileResult<T>> internalCreate(String name, T desired) {
         try {
-            ReconcileResult<T> result = ReconcileResult.created(operation().withName(name).create(desired));
+            ReconcileResult<T> result = ReconcileResult.created(apiRequest("create", () -> operation().withName(name).create(desired)));
             log.debug("{} {} has been created", resourceKind, name);
             return Future.succeededFuture(result);
         } catch (Exception e) {
@@ -215,7 +232,7 @@ public abstract class AbstractNonNamespacedResourceOperator<C extends Kubernetes
      * @return The resource, or null if it doesn't exist.
      */
     public T get(String name) {
-        return operation().withName(name).get();
+        return apiRequest("get", () -> operation().withName(name).get());
     }
 
     /**
@@ -225,7 +242,7 @@ public abstract class AbstractNonNamespacedResourceOperator<C extends Kubernetes
      */
     public Future<T> getAsync(String name) {
         Future<T> result = Future.future();
-        vertx.createSharedWorkerExecutor("kubernetes-ops-tool").executeBlocking(
+        WorkerPools.kubernetesApiReads(vertx).executeBlocking(
             future -> {
                 T resource = get(name);
                 future.complete(resource);
@@ -249,13 +266,13 @@ public abstract class AbstractNonNamespacedResourceOperator<C extends Kubernetes
 
         if (selector != null) {
             Map<String, String> labels = selector.toMap();
-            return operation.withLabels(labels)
+            return apiRequest("list", () -> operation.withLabels(labels)
                     .list()
-                    .getItems();
+                    .getItems());
         } else {
-            return operation
+            return apiRequest("list", () -> operation
                     .list()
-                    .getItems();
+                    .getItems());
         }
     }
 
@@ -41,7 +41,21 @@ public abstract class AbstractReadyResourceOperator<C extends KubernetesClient,
     }
 
     public Future<Void> readiness(String namespace, String name, long pollIntervalMs, long timeoutMs) {
-        return waitFor(namespace, name, pollIntervalMs, timeoutMs, this::isReady);
+        return waitFor(namespace, name, pollIntervalMs, timeoutMs, this::isReady, this::isReady);
+    }
+
+    /**
+     * Check if the given resource is in the Ready state.
+     *
+     * @param resource The resource, or null if it does not exist.
+     * @return Whether the resource in in the Ready state.
+     */
+    public boolean isReady(T resource) {
+        if (resource != null)   {
+            return !Readiness.isReadinessApplicable(resource.getClass()) || Readiness.isReady(resource);
+        } else {
+            return false;
+        }
     }
 
     /**
@@ -7,13 +7,17 @@ package io.strimzi.operator.common.operator.resource;
 import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.api.model.KubernetesResourceList;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
 import io.fabric8.kubernetes.client.Watch;
 import io.fabric8.kubernetes.client.Watcher;
 import io.fabric8.kubernetes.client.dsl.FilterWatchListMultiDeletable;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
 import io.fabric8.kubernetes.client.dsl.Resource;
+import io.strimzi.operator.common.ApiRateLimiter;
+import io.strimzi.operator.common.MetricsProvider;
 import io.strimzi.operator.common.Util;
+import io.strimzi.operator.common.WorkerPools;
 import io.strimzi.operator.common.model.Labels;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
@@ -23,7 +27,13 @@ import org.apache.logging.log4j.Logger;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
 
 /**
  * Abstract resource creation, for a generic resource type {@code R}.
@@ -42,6 +52,9 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
     protected final Vertx vertx;
     protected final C client;
     protected final String resourceKind;
+    private final Map<String, ResourceCache<T>> caches = new ConcurrentHashMap<>();
+    private final Map<String, ResourceWaiter<T>> waiters = new ConcurrentHashMap<>();
+    private volatile AsyncApiClient asyncClient;
 
     /**
      * Constructor.
@@ -57,6 +70,26 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
 
     protected abstract MixedOperation<T, L, D, R> operation();
 
+    /**
+     * Makes the asynchronous methods of this operator, such as {@link #getAsync(String, String)},
+     * {@link #listAsync(String, Labels)}, {@link #reconcile(String, String, HasMetadata)} and the watches, send their
+     * requests with the given client from the event loop, rather than with the fabric8 client from a worker thread.
+     * The synchronous methods such as {@link #get(String, String)} still use the fabric8 client.
+     * The {@link #internalCreate}, {@link #internalPatch} and {@link #internalDelete} methods are then called on the
+     * event loop, so an operator which overrides them with blocking code must not be given a client.
+     * @param asyncClient The client, or null to use the fabric8 client.
+     */
+    public void setAsyncClient(AsyncApiClient asyncClient) {
+        this.asyncClient = asyncClient;
+    }
+
+    /**
+     * @return The client for sending requests from the event loop, or null if the fabric8 client is used.
+     */
+    protected AsyncApiClient asyncClient() {
+        return asyncClient;
+    }
+
     /**
      * Asynchronously create or update the given {@code resource} depending on whether it already exists,
      * returning a future for the outcome.
@@ -86,34 +119,49 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
             return Future.failedFuture("Given name " + name + " incompatible with desired name " + desired.getMetadata().getName());
         }
 
-        Future<ReconcileResult<T>> fut = Future.future();
-        vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
-            future -> {
-                T current = operation().inNamespace(namespace).withName(name).get();
-                if (desired != null) {
-                    if (current == null) {
-                        log.debug("{} {}/{} does not exist, creating it", resourceKind, namespace, name);
-                        internalCreate(namespace, name, desired).setHandler(future);
-                    } else {
-                        log.debug("{} {}/{} already exists, patching it", resourceKind, namespace, name);
-                        internalPatch(namespace, name, current, desired).setHandler(future);
-                    }
+        Future<ReconcileResult<T>> fut;
+        if (asyncClient != null) {
+            fut = getAsync(namespace, name).compose(current -> reconcile(namespace, name, current, desired));
+        } else {
+            fut = Future.future();
+            WorkerPools.kubernetesApiWrites(vertx).executeBlocking(
+                future -> reconcile(namespace, name, get(namespace, name), desired).setHandler(future),
+                false,
+                fut
+            );
+        }
+        return fut.map(result -> {
+            ResourceCache<T> cache = cache(namespace);
+            if (cache != null) {
+                if (result == ReconcileResult.<T>deleted()) {
+                    cache.remove(namespace, name);
                 } else {
-                    if (current != null) {
-                        // Deletion is desired
-                        log.debug("{} {}/{} exist, deleting it", resourceKind, namespace, name);
-                        internalDelete(namespace, name).setHandler(future);
-                    } else {
-                        log.debug("{} {}/{} does not exist, noop", resourceKind, namespace, name);
-                        future.complete(ReconcileResult.noop(null));
-                    }
+                    cache.update(result.resource());
                 }
+            }
+            return result;
+        });
+    }
 
-            },
-            false,
-            fut
-        );
-        return fut;
+    private Future<ReconcileResult<T>> reconcile(String namespace, String name, T current, T desired) {
+        if (desired != null) {
+            if (current == null) {
+                log.debug("{} {}/{} does not exist, creating it", resourceKind, namespace, name);
+                return internalCreate(namespace, name, desired);
+            } else {
+                log.debug("{} {}/{} already exists, patching it", resourceKind, namespace, name);
+                return internalPatch(namespace, name, current, desired);
+            }
+        } else {
+            if (current != null) {
+                // Deletion is desired
+                log.debug("{} {}/{} exist, deleting it", resourceKind, namespace, name);
+                return internalDelete(namespace, name);
+            } else {
+                log.debug("{} {}/{} does not exist, noop", resourceKind, namespace, name);
+                return Future.succeededFuture(ReconcileResult.noop(null));
+            }
+        }
     }
 
     /**
@@ -140,8 +188,19 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
      */
 
     protected Future<ReconcileResult<T>> internalDelete(String namespace, String name, boolean cascading) {
+        if (asyncClient != null) {
+            return apiRequestAsync("delete", () -> asyncClient.delete(operation().inNamespace(namespace).withName(name).cascading(cascading)))
+                .map(deleted -> {
+                    log.debug("{} {} in namespace {} has been deleted", resourceKind, name, namespace);
+                    return ReconcileResult.<T>deleted();
+                })
+                .recover(e -> {
+                    log.debug("Caught exception while deleting {} {} in namespace {}", resourceKind, name, namespace, e);
+                    return Future.failedFuture(e);
+                });
+        }
         try {
-            operation().inNamespace(namespace).withName(name).cascading(cascading).delete();
+            apiRequest("delete", () -> operation().inNamespace(namespace).withName(name).cascading(cascading).delete());
             log.debug("{} {} in namespace {} has been deleted", resourceKind, name, namespace);
             return Future.succeededFuture(ReconcileResult.deleted());
         } catch (Exception e) {
@@ -160,7 +219,21 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
 
     protected Future<ReconcileResult<T>> internalPatch(String namespace, String name, T current, T desired, boolean cascading) {
         try {
-            T result = operation().inNamespace(namespace).withName(name).cascading(cascading).patch(desired);
+            if (isUnchanged(namespace, name, current, desired)) {
+                return Future.succeededFuture(ReconcileResult.noop(current));
+            }
+            if (asyncClient != null) {
+                return apiRequestAsync("patch", () -> asyncClient.patch(operation().inNamespace(namespace).withName(name).cascading(cascading), current, desired))
+                    .map(result -> {
+                        log.debug("{} {} in namespace {} has been patched", resourceKind, name, namespace);
+                        return wasChanged(current, result) ? ReconcileResult.patched(result) : ReconcileResult.noop(result);
+                    })
+                    .recover(e -> {
+                        log.debug("Caught exception while patching {} {} in namespace {}", resourceKind, name, namespace, e);
+                        return Future.failedFuture(e);
+                    });
+            }
+            T result = apiRequest("patch", () -> operation().inNamespace(namespace).withName(name).cascading(cascading).patch(desired));
             log.debug("{} {} in namespace {} has been patched", resourceKind, name, namespace);
             return Future.succeededFuture(wasChanged(current, result) ? ReconcileResult.patched(result) : ReconcileResult.noop(result));
         } catch (Exception e) {
@@ -169,6 +242,67 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
         }
     }
 
+    /**
+     * Checks whether patching the resource to the desired state would leave it unchanged, in which case
+     * the patch is not sent and is counted in the {@linkplain MetricsProvider#patchAvoided(String) metrics}.
+     * @param namespace The namespace of the resource.
+     * @param name The name of the resource.
+     * @param current The current state of the resource.
+     * @param desired The desired state of the resource.
+     * @return Whether the resource is unchanged.
+     */
+    protected boolean isUnchanged(String namespace, String name, T current, T desired) {
+        if (new ResourceDiff<>(resourceKind, current, desired, serverDefaultedPaths()).isEmpty()) {
+            log.debug("{} {} in namespace {} has not been patched because it is unchanged", resourceKind, name, namespace);
+            MetricsProvider.getInstance().patchAvoided(resourceKind);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return Matches the JSON pointer paths of the fields of the resource which are defaulted by the API server,
+     * and which can therefore be left out of the desired resource without the resource being changed, or null
+     * if there are none.
+     */
+    protected Pattern serverDefaultedPaths() {
+        return null;
+    }
+
+    /**
+     * Sends a blocking request to the API server once the {@link ApiRateLimiter} allows it, recording its duration
+     * in the {@linkplain MetricsProvider#timeApiRequest(String, String, Supplier) API request metrics}.
+     * @param verb The verb of the request, which also selects its {@linkplain ApiRateLimiter.Lane lane}.
+     * @param request Sends the request.
+     * @param <X> The type of the response.
+     * @return The response.
+     */
+    protected <X> X apiRequest(String verb, Supplier<X> request) {
+        ApiRateLimiter.getInstance().acquireBlocking(ApiRateLimiter.Lane.forVerb(verb));
+        return MetricsProvider.getInstance().timeApiRequest(verb, resourceKind, request);
+    }
+
+    /**
+     * Sends an asynchronous request to the API server once the {@link ApiRateLimiter} allows it, recording its
+     * duration in the same {@linkplain MetricsProvider#apiRequestTimer(String, String) API request metrics} as
+     * {@link #apiRequest(String, Supplier)}.
+     * @param verb The verb of the request, which also selects its {@linkplain ApiRateLimiter.Lane lane}.
+     * @param request Sends the request.
+     * @param <X> The type of the response.
+     * @return A future for the response.
+     */
+    protected <X> Future<X> apiRequestAsync(String verb, Supplier<Future<X>> request) {
+        return ApiRateLimiter.getInstance().acquire(ApiRateLimiter.Lane.forVerb(verb)).compose(ignored -> {
+            long startNanos = System.nanoTime();
+            Future<X> result = Future.future();
+            request.get().setHandler(res -> {
+                MetricsProvider.getInstance().apiRequestTimer(verb, resourceKind).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                result.handle(res);
+            });
+            return result;
+        });
+    }
+
     protected boolean wasChanged(T oldVersion, T newVersion) {
         if (oldVersion != null
                 && oldVersion.getMetadata() != null
@@ -186,8 +320,19 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
      */
     @SuppressWarnings("unchecked")
     protected Future<ReconcileResult<T>> internalCreate(String namespace, String name, T desired) {
+        if (asyncClient != null) {
+            return apiRequestAsync("create", () -> asyncClient.create(operation().inNamespace(namespace), desired))
+                .map(created -> {
+                    log.debug("{} {} in namespace {} has been created", resourceKind, name, namespace);
+                    return ReconcileResult.created(created);
+                })
+                .recover(e -> {
+                    log.debug("Caught exception while creating {} {} in namespace {}", resourceKind, name, namespace, e);
+                    return Future.failedFuture(e);
+                });
+        }
         try {
-            ReconcileResult<T> result = ReconcileResult.created(operation().inNamespace(namespace).withName(name).create(desired));
+            ReconcileResult<T> result = ReconcileResult.created(apiRequest("create", () -> operation().inNamespace(namespace).withName(name).create(desired)));
             log.debug("{} {} in namespace {} has been created", resourceKind, name, namespace);
             return Future.succeededFuture(result);
         } catch (Exception e) {
@@ -203,7 +348,18 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
      * @return The resource, or null if it doesn't exist.
      */
     public T get(String namespace, String name) {
-        return operation().inNamespace(namespace).withName(name).get();
+        ResourceCache<T> cache = cache(namespace);
+        if (cache != null) {
+            T resource = cache.get(namespace, name);
+            if (resource != null) {
+                return resource;
+            }
+            log.trace("{} {}/{} not found in cache, getting it from the API server", resourceKind, namespace, name);
+            resource = apiRequest("get", () -> operation().inNamespace(namespace).withName(name).get());
+            cache.update(resource);
+            return resource;
+        }
+        return apiRequest("get", () -> operation().inNamespace(namespace).withName(name).get());
     }
 
     /**
@@ -213,8 +369,24 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
      * @return A Future for the result.
      */
     public Future<T> getAsync(String namespace, String name) {
+        ResourceCache<T> cache = cache(namespace);
+        if (cache != null) {
+            T resource = cache.get(namespace, name);
+            if (resource != null) {
+                return Future.succeededFuture(resource);
+            }
+        }
+        if (asyncClient != null) {
+            return apiRequestAsync("get", () -> asyncClient.get(operation().inNamespace(namespace).withName(name)))
+                .map(resource -> {
+                    if (cache != null) {
+                        cache.update(resource);
+                    }
+                    return resource;
+                });
+        }
         Future<T> result = Future.future();
-        vertx.createSharedWorkerExecutor("kubernetes-ops-tool").executeBlocking(
+        WorkerPools.kubernetesApiReads(vertx).executeBlocking(
             future -> {
                 T resource = get(namespace, name);
                 future.complete(resource);
@@ -231,7 +403,10 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
      */
     @SuppressWarnings("unchecked")
     public List<T> list(String namespace, Labels selector) {
-        if (AbstractWatchableResourceOperator.ANY_NAMESPACE.equals(namespace))  {
+        ResourceCache<T> cache = cache(namespace);
+        if (cache != null) {
+            return cache.list(namespace, selector);
+        } else if (AbstractWatchableResourceOperator.ANY_NAMESPACE.equals(namespace))  {
             return listInAnyNamespace(selector);
         } else {
             return listInNamespace(namespace, selector);
@@ -244,13 +419,13 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
 
         if (selector != null) {
             Map<String, String> labels = selector.toMap();
-            return operation.withLabels(labels)
+            return apiRequest("list", () -> operation.withLabels(labels)
                     .list()
-                    .getItems();
+                    .getItems());
         } else {
-            return operation
+            return apiRequest("list", () -> operation
                     .list()
-                    .getItems();
+                    .getItems());
         }
     }
 
@@ -260,13 +435,13 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
 
         if (selector != null) {
             Map<String, String> labels = selector.toMap();
-            return tldrNonNamespaceOperation.withLabels(labels)
+            return apiRequest("list", () -> tldrNonNamespaceOperation.withLabels(labels)
                     .list()
-                    .getItems();
+                    .getItems());
         } else {
-            return tldrNonNamespaceOperation
+            return apiRequest("list", () -> tldrNonNamespaceOperation
                     .list()
-                    .getItems();
+                    .getItems());
         }
     }
 
@@ -277,24 +452,111 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
      * @param selector The selector.
      * @return A Future with a list of matching resources.
      */
+    @SuppressWarnings("unchecked") // due to L extends KubernetesResourceList/*<T>*/
     public Future<List<T>> listAsync(String namespace, Labels selector) {
+        if (asyncClient != null && cache(namespace) == null) {
+            FilterWatchListMultiDeletable<T, L, Boolean, Watch, Watcher<T>> operation = AbstractWatchableResourceOperator.ANY_NAMESPACE.equals(namespace)
+                    ? operation().inAnyNamespace() : operation().inNamespace(namespace);
+            return apiRequestAsync("list", () -> asyncClient.list(selector != null ? operation.withLabels(selector.toMap()) : operation))
+                .map(list -> (List<T>) list.getItems());
+        }
         Future<List<T>> result = Future.future();
-        vertx.createSharedWorkerExecutor("kubernetes-ops-tool").executeBlocking(
+        WorkerPools.kubernetesApiReads(vertx).executeBlocking(
             future -> {
-                List<T> resources;
+                future.complete(list(namespace, selector));
+            }, true, result
+        );
+        return result;
+    }
 
-                if (AbstractWatchableResourceOperator.ANY_NAMESPACE.equals(namespace))  {
-                    resources = listInAnyNamespace(selector);
-                } else {
-                    resources = listInNamespace(namespace, selector);
+    /**
+     * Asynchronously starts caching the resources in the given {@code namespace}.
+     * The cache is populated by a list operation and kept up to date by a watch.
+     * Once it is synced {@link #get(String, String)}, {@link #getAsync(String, String)}, {@link #list(String, Labels)},
+     * {@link #listAsync(String, Labels)} and {@link #reconcile(String, String, HasMetadata)} read from it rather than
+     * from the API server. If the watch is closed the cache is not used until it has been re-populated.
+     *
+     * @param namespace The namespace, or {@link AbstractWatchableResourceOperator#ANY_NAMESPACE}.
+     * @return A future which completes when the cache has been populated.
+     */
+    public Future<Void> enableCache(String namespace) {
+        ResourceCache<T> cache = caches.computeIfAbsent(namespace, ns -> new ResourceCache<>(resourceKind, ns, new Consumer<KubernetesClientException>() {
+            @Override
+            public void accept(KubernetesClientException e) {
+                if (e != null) {
+                    log.warn("{} cache watch in namespace {} closed with exception, re-syncing the cache", resourceKind, ns, e);
+                    MetricsProvider.getInstance().watchReconnected(resourceKind, ns);
+                    syncCache(caches.get(ns)).setHandler(res -> {
+                        if (res.failed()) {
+                            log.error("Failed to re-sync {} cache in namespace {}", resourceKind, ns, res.cause());
+                        }
+                    });
                 }
+            }
+        }));
+        return syncCache(cache);
+    }
 
-                future.complete(resources);
+    /**
+     * Stops caching the resources in the given {@code namespace}.
+     * @param namespace The namespace.
+     */
+    public void disableCache(String namespace) {
+        ResourceCache<T> cache = caches.remove(namespace);
+        if (cache != null) {
+            cache.close();
+        }
+    }
+
+    @SuppressWarnings("unchecked") // due to L extends KubernetesResourceList/*<T>*/
+    private Future<Void> syncCache(ResourceCache<T> cache) {
+        if (asyncClient != null) {
+            String namespace = cache.namespace();
+            FilterWatchListMultiDeletable<T, L, Boolean, Watch, Watcher<T>> operation = AbstractWatchableResourceOperator.ANY_NAMESPACE.equals(namespace)
+                    ? operation().inAnyNamespace() : operation().inNamespace(namespace);
+            return apiRequestAsync("list", () -> asyncClient.list(operation)).map(list -> {
+                cache.replace(list.getItems(), list.getMetadata().getResourceVersion());
+                cache.watching(asyncClient.watch(operation.withResourceVersion(list.getMetadata().getResourceVersion()), cache));
+                return null;
+            });
+        }
+        Future<Void> result = Future.future();
+        WorkerPools.kubernetesApiReads(vertx).executeBlocking(
+            future -> {
+                String namespace = cache.namespace();
+                L list;
+                Watch watch;
+                if (AbstractWatchableResourceOperator.ANY_NAMESPACE.equals(namespace)) {
+                    list = apiRequest("list", () -> operation().inAnyNamespace().list());
+                    cache.replace(list.getItems(), list.getMetadata().getResourceVersion());
+                    watch = operation().inAnyNamespace().withResourceVersion(list.getMetadata().getResourceVersion()).watch(cache);
+                } else {
+                    list = apiRequest("list", () -> operation().inNamespace(namespace).list());
+                    cache.replace(list.getItems(), list.getMetadata().getResourceVersion());
+                    watch = operation().inNamespace(namespace).withResourceVersion(list.getMetadata().getResourceVersion()).watch(cache);
+                }
+                cache.watching(watch);
+                future.complete();
             }, true, result
         );
         return result;
     }
 
+    /**
+     * @param namespace The namespace.
+     * @return The synced cache holding the resources of the given namespace, or null if there is none.
+     */
+    protected ResourceCache<T> cache(String namespace) {
+        if (caches.isEmpty()) {
+            return null;
+        }
+        ResourceCache<T> cache = caches.get(namespace);
+        if (cache == null) {
+            cache = caches.get(AbstractWatchableResourceOperator.ANY_NAMESPACE);
+        }
+        return cache != null && cache.isSynced() && cache.covers(namespace) ? cache : null;
+    }
+
     /**
      * Returns a future that completes when the resource identified by the given {@code namespace} and {@code name}
      * is ready.
@@ -314,4 +576,42 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
             timeoutMs,
             () -> predicate.test(namespace, name));
     }
+
+    /**
+     * Returns a future that completes when the resource identified by the given {@code namespace} and {@code name}
+     * reaches the state given by {@code ready}. Rather than being polled, the resource is checked once and then
+     * on every event of a watch which is shared by all the waits for this kind of resource in the namespace.
+     *
+     * @param namespace The namespace.
+     * @param name The resource name.
+     * @param pollIntervalMs The poll interval in milliseconds, used only if the resource cannot be watched.
+     * @param timeoutMs The timeout, in milliseconds.
+     * @param ready Whether the resource is in the desired state. It is given null when the resource does not exist.
+     * @return A future that completes when the resource identified by the given {@code namespace} and {@code name}
+     * is in the desired state.
+     */
+    public Future<Void> waitFor(String namespace, String name, long pollIntervalMs, long timeoutMs, Predicate<T> ready) {
+        return waitFor(namespace, name, pollIntervalMs, timeoutMs, ready, (ns, n) -> ready.test(get(ns, n)));
+    }
+
+    /**
+     * Like {@link #waitFor(String, String, long, long, Predicate)}, but with a separate {@code check} which gets
+     * the resource from the API server, used for the initial check and when the resource cannot be watched.
+     *
+     * @param namespace The namespace.
+     * @param name The resource name.
+     * @param pollIntervalMs The poll interval in milliseconds, used only if the resource cannot be watched.
+     * @param timeoutMs The timeout, in milliseconds.
+     * @param ready Whether the resource received in a watch event is in the desired state.
+     *              It is given null when the resource has been deleted.
+     * @param check Whether the resource is in the desired state.
+     * @return A future that completes when the resource identified by the given {@code namespace} and {@code name}
+     * is in the desired state.
+     */
+    protected Future<Void> waitFor(String namespace, String name, long pollIntervalMs, long timeoutMs, Predicate<T> ready, BiPredicate<String, String> check) {
+        ResourceWaiter<T> waiter = waiters.computeIfAbsent(namespace, ns -> new ResourceWaiter<>(vertx, resourceKind, ns,
+            watcher -> asyncClient != null ? asyncClient.watch(operation().inNamespace(ns), watcher) : operation().inNamespace(ns).watch(watcher),
+            ResourceWaiter.IDLE_CLOSE_DELAY_MS));
+        return waiter.waitFor(name, pollIntervalMs, timeoutMs, ready, () -> check.test(namespace, name));
+    }
 }
@@ -10,6 +10,7 @@ import io.fabric8.kubernetes.api.model.KubernetesResourceList;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.dsl.ScalableResource;
 import io.strimzi.operator.common.Annotations;
+import io.strimzi.operator.common.WorkerPools;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import org.apache.logging.log4j.LogManager;
@@ -67,13 +68,13 @@ public abstract class AbstractScalableResourceOperator<C extends KubernetesClien
      */
     public Future<Integer> scaleUp(String namespace, String name, int scaleTo) {
         Future<Integer> fut = Future.future();
-        vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
+        WorkerPools.kubernetesApiWrites(vertx).executeBlocking(
             future -> {
                 try {
                     Integer currentScale = currentScale(namespace, name);
                     if (currentScale != null && currentScale < scaleTo) {
                         log.info("Scaling up to {} replicas", scaleTo);
-                        resource(namespace, name).scale(scaleTo, true);
+                        apiRequest("scale", () -> resource(namespace, name).scale(scaleTo, true));
                         currentScale = scaleTo;
                     }
                     future.complete(currentScale);
@@ -103,7 +104,7 @@ public abstract class AbstractScalableResourceOperator<C extends KubernetesClien
      */
     public Future<Integer> scaleDown(String namespace, String name, int scaleTo) {
         Future<Integer> fut = Future.future();
-        vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
+        WorkerPools.kubernetesApiWrites(vertx).executeBlocking(
             future -> {
                 try {
                     Integer nextReplicas = currentScale(namespace, name);
@@ -111,7 +112,8 @@ public abstract class AbstractScalableResourceOperator<C extends KubernetesClien
                         while (nextReplicas > scaleTo) {
                             nextReplicas--;
                             log.info("Scaling down from {} to {}", nextReplicas + 1, nextReplicas);
-                            resource(namespace, name).scale(nextReplicas, true);
+                            int replicas = nextReplicas;
+                            apiRequest("scale", () -> resource(namespace, name).scale(replicas, true));
                         }
                     }
                     future.complete(nextReplicas);
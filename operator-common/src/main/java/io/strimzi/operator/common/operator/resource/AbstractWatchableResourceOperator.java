@@ -37,10 +37,18 @@ public abstract class AbstractWatchableResourceOperator<
     }
 
     protected Watch watchInAnyNamespace(Watcher<T> watcher) {
+        AsyncApiClient asyncClient = asyncClient();
+        if (asyncClient != null) {
+            return asyncClient.watch(operation().inAnyNamespace(), watcher);
+        }
         return operation().inAnyNamespace().watch(watcher);
     }
 
     protected Watch watchInNamespace(String namespace, Watcher<T> watcher) {
+        AsyncApiClient asyncClient = asyncClient();
+        if (asyncClient != null) {
+            return asyncClient.watch(operation().inNamespace(namespace), watcher);
+        }
         return operation().inNamespace(namespace).watch(watcher);
     }
 
@@ -53,10 +61,18 @@ public abstract class AbstractWatchableResourceOperator<
     }
 
     protected Watch watchInAnyNamespace(Labels selector, Watcher<T> watcher) {
+        AsyncApiClient asyncClient = asyncClient();
+        if (asyncClient != null) {
+            return asyncClient.watch(operation().inAnyNamespace().withLabels(selector.toMap()), watcher);
+        }
         return operation().inAnyNamespace().withLabels(selector.toMap()).watch(watcher);
     }
 
     protected Watch watchInNamespace(String namespace, Labels selector, Watcher<T> watcher) {
+        AsyncApiClient asyncClient = asyncClient();
+        if (asyncClient != null) {
+            return asyncClient.watch(operation().inNamespace(namespace).withLabels(selector.toMap()), watcher);
+        }
         return operation().inNamespace(namespace).withLabels(selector.toMap()).watch(watcher);
     }
 
@@ -0,0 +1,584 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common.operator.resource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.api.model.Status;
+import io.fabric8.kubernetes.client.Config;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.dsl.Createable;
+import io.fabric8.kubernetes.client.dsl.Deletable;
+import io.fabric8.kubernetes.client.dsl.Gettable;
+import io.fabric8.kubernetes.client.dsl.Listable;
+import io.fabric8.kubernetes.client.dsl.Patchable;
+import io.fabric8.kubernetes.client.dsl.Watchable;
+import io.fabric8.kubernetes.client.dsl.base.BaseOperation;
+import io.fabric8.kubernetes.client.dsl.base.OperationSupport;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import io.fabric8.zjsonpatch.JsonDiff;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.net.PemKeyCertOptions;
+import io.vertx.core.net.PemTrustOptions;
+import io.vertx.core.parsetools.RecordParser;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static io.fabric8.kubernetes.client.internal.PatchUtils.patchMapper;
+
+/**
+ * <p>Sends requests to the Kubernetes API server with the Vert.x HTTP client, from the event loop, so that a request
+ * waiting for its response does not take a worker thread. Requests beyond the size of the connection pool wait
+ * in the pool's queue rather than in a thread.</p>
+ *
+ * <p>The request is described by a fabric8 operation, built as for the blocking fabric8 client
+ * (for example {@code client.configMaps().inNamespace(namespace).withName(name)}), but which is not executed:
+ * only its URL, labels, resource version and types are used, so it must have been created by a fabric8 client
+ * rather than be a mock. The results are the same as those of the corresponding fabric8 methods, and failures are
+ * reported as {@link KubernetesClientException}s.</p>
+ *
+ * <p>Like the fabric8 client, when the API server rejects a bearer token, the token is read again, from the token
+ * provider of the configuration or else from the kubeconfig file or the service account token file, which may have
+ * been rotated, and a request is retried once with the new token.</p>
+ */
+public class AsyncApiClient {
+
+    private static final Logger log = LogManager.getLogger(AsyncApiClient.class);
+
+    public static final int DEFAULT_MAX_POOL_SIZE = 20;
+
+    static final String JSON = "application/json";
+    static final String JSON_PATCH = "application/json-patch+json";
+
+    private final Vertx vertx;
+    private final Config config;
+    private final HttpClient httpClient;
+    private final HttpClient watchClient;
+    private final long requestTimeoutMs;
+    private volatile String authorization;
+
+    /**
+     * Constructor
+     * @param vertx The Vertx instance.
+     * @param config The configuration of the fabric8 client, giving the address of the API server and the credentials.
+     * @param maxPoolSize The maximum number of connections used for requests other than watches.
+     */
+    public AsyncApiClient(Vertx vertx, Config config, int maxPoolSize) {
+        this.vertx = vertx;
+        this.config = config;
+        this.httpClient = vertx.createHttpClient(options(config).setMaxPoolSize(maxPoolSize));
+        // Each watch keeps its connection for as long as it is open
+        this.watchClient = vertx.createHttpClient(options(config).setMaxPoolSize(Integer.MAX_VALUE));
+        this.requestTimeoutMs = config.getRequestTimeout();
+        if (config.getOauthTokenProvider() != null) {
+            this.authorization = bearer(config.getOauthTokenProvider().getToken());
+        } else if (config.getOauthToken() != null) {
+            this.authorization = bearer(config.getOauthToken());
+        } else if (config.getUsername() != null && config.getPassword() != null) {
+            this.authorization = "Basic " + Base64.getEncoder().encodeToString(
+                    (config.getUsername() + ":" + config.getPassword()).getBytes(StandardCharsets.UTF_8));
+        } else {
+            this.authorization = null;
+        }
+    }
+
+    private static String bearer(String token) {
+        return token != null ? "Bearer " + token : null;
+    }
+
+    /**
+     * Reads the bearer token again, unless it has already been read again since the given authorization was sent.
+     * @param sent The authorization which the API server rejected.
+     * @return A future for whether the authorization has changed, so the request can be retried.
+     */
+    private Future<Boolean> refreshAuthorization(String sent) {
+        if (sent == null || !sent.startsWith("Bearer ")) {
+            return Future.succeededFuture(false);
+        }
+        Future<Boolean> result = Future.future();
+        vertx.<Boolean>executeBlocking(future -> {
+            synchronized (this) {
+                if (!sent.equals(authorization)) {
+                    future.complete(true);
+                    return;
+                }
+                String token = config.getOauthTokenProvider() != null ? config.getOauthTokenProvider().getToken()
+                        : Config.autoConfigure(null).getOauthToken();
+                String refreshed = bearer(token);
+                if (refreshed != null && !refreshed.equals(sent)) {
+                    log.info("The API server rejected the bearer token, using the token which has been read again");
+                    authorization = refreshed;
+                    future.complete(true);
+                } else {
+                    future.complete(false);
+                }
+            }
+        }, false, result);
+        return result.otherwise(e -> {
+            log.warn("Failed to read the bearer token again", e);
+            return false;
+        });
+    }
+
+    private static boolean isUnauthorized(Throwable e) {
+        return e instanceof KubernetesClientException && ((KubernetesClientException) e).getCode() == 401;
+    }
+
+    private static HttpClientOptions options(Config config) {
+        HttpClientOptions options = new HttpClientOptions()
+                .setKeepAlive(true)
+                .setConnectTimeout(config.getConnectionTimeout());
+        if (config.getMasterUrl().startsWith("https")) {
+            options.setSsl(true);
+            if (config.isTrustCerts()) {
+                options.setTrustAll(true).setVerifyHost(false);
+            } else if (config.getCaCertData() != null) {
+                options.setPemTrustOptions(new PemTrustOptions().addCertValue(pem(config.getCaCertData())));
+            } else if (config.getCaCertFile() != null) {
+                options.setPemTrustOptions(new PemTrustOptions().addCertPath(config.getCaCertFile()));
+            }
+            PemKeyCertOptions keyCert = new PemKeyCertOptions();
+            if (config.getClientCertData() != null) {
+                keyCert.setCertValue(pem(config.getClientCertData()));
+            } else if (config.getClientCertFile() != null) {
+                keyCert.setCertPath(config.getClientCertFile());
+            }
+            if (config.getClientKeyData() != null) {
+                keyCert.setKeyValue(pem(config.getClientKeyData()));
+            } else if (config.getClientKeyFile() != null) {
+                keyCert.setKeyPath(config.getClientKeyFile());
+            }
+            if (keyCert.getCertValue() != null || keyCert.getCertPath() != null) {
+                options.setPemKeyCertOptions(keyCert);
+            }
+        }
+        return options;
+    }
+
+    /**
+     * The certificates and keys in the fabric8 configuration are either PEM or base64 encoded PEM.
+     */
+    private static Buffer pem(String data) {
+        if (data.startsWith("-----BEGIN")) {
+            return Buffer.buffer(data);
+        }
+        return Buffer.buffer(Base64.getMimeDecoder().decode(data));
+    }
+
+    /**
+     * Asynchronously gets a resource, like {@link Gettable#get()}.
+     * @param resource The operation for the resource, with its namespace and name.
+     * @param <T> The type of the resource.
+     * @return A future for the resource, or for null if it does not exist.
+     */
+    public <T> Future<T> get(Gettable<T> resource) {
+        try {
+            BaseOperation<T, ?, ?, ?> operation = base(resource);
+            return request(HttpMethod.GET, operation.getResourceUrl(), null, null)
+                    .map(body -> decode(operation, body, operation.getType()))
+                    .recover(ifNotFound(null));
+        } catch (MalformedURLException | RuntimeException e) {
+            return Future.failedFuture(e);
+        }
+    }
+
+    /**
+     * Asynchronously lists resources, like {@link Listable#list()}.
+     * @param resources The operation for the resources, with their namespace (or any namespace) and labels.
+     * @param <L> The type of the list.
+     * @return A future for the list.
+     */
+    public <L extends KubernetesResourceList> Future<L> list(Listable<L> resources) {
+        try {
+            BaseOperation<?, L, ?, ?> operation = base(resources);
+            Map<String, String> query = new LinkedHashMap<>();
+            query.put("labelSelector", operation.getLabelQueryParam());
+            return request(HttpMethod.GET, withQuery(operation.getNamespacedUrl(), query), null, null)
+                    .map(body -> decode(operation, body, operation.getListType()));
+        } catch (MalformedURLException | RuntimeException e) {
+            return Future.failedFuture(e);
+        }
+    }
+
+    /**
+     * Asynchronously creates a resource, like {@link Createable#create(Object[])}.
+     * @param resources The operation for the kind of resource.
+     * @param resource The resource to create, with its namespace.
+     * @param <T> The type of the resource.
+     * @return A future for the created resource.
+     */
+    public <T> Future<T> create(Createable<T, T, ?> resources, T resource) {
+        try {
+            BaseOperation<T, ?, ?, ?> operation = base(resources);
+            Buffer body = Buffer.buffer(Serialization.jsonMapper().writeValueAsBytes(resource));
+            return request(HttpMethod.POST, operation.getNamespacedUrl(resource), JSON, body)
+                    .map(created -> decode(operation, created, operation.getType()));
+        } catch (IOException | RuntimeException e) {
+            return Future.failedFuture(e);
+        }
+    }
+
+    /**
+     * Asynchronously patches a resource from its current state to the desired one with a JSON patch,
+     * like {@link Patchable#patch(Object)}, but without getting the current state again.
+     * @param resource The operation for the resource, with its namespace and name.
+     * @param current The current state of the resource.
+     * @param desired The desired state of the resource.
+     * @param <T> The type of the resource.
+     * @return A future for the patched resource.
+     */
+    public <T> Future<T> patch(Patchable<T, T> resource, T current, T desired) {
+        try {
+            BaseOperation<T, ?, ?, ?> operation = base(resource);
+            // Like fabric8, using the mapper which leaves out the resource version, so the patch does not depend on it
+            ObjectMapper mapper = patchMapper();
+            JsonNode diff = JsonDiff.asJson(mapper.valueToTree(current), mapper.valueToTree(desired));
+            return request(HttpMethod.PATCH, operation.getResourceUrl(), JSON_PATCH, Buffer.buffer(mapper.writeValueAsBytes(diff)))
+                    .map(patched -> decode(operation, patched, operation.getType()));
+        } catch (IOException | RuntimeException e) {
+            return Future.failedFuture(e);
+        }
+    }
+
+    /**
+     * Asynchronously deletes a resource, like {@link Deletable#delete()}.
+     * @param resource The operation for the resource, with its namespace, name and whether the deletion cascades.
+     * @return A future for whether the resource was deleted, which is false if it did not exist.
+     */
+    public Future<Boolean> delete(Deletable<Boolean> resource) {
+        try {
+            BaseOperation<?, ?, ?, ?> operation = base(resource);
+            Map<String, Object> options = new LinkedHashMap<>();
+            options.put("apiVersion", "v1");
+            options.put("kind", "DeleteOptions");
+            options.put("orphanDependents", !Boolean.TRUE.equals(operation.isCascading()));
+            Buffer body = Buffer.buffer(Serialization.jsonMapper().writeValueAsBytes(options));
+            return request(HttpMethod.DELETE, operation.getResourceUrl(), JSON, body)
+                    .map(Boolean.TRUE)
+                    .recover(ifNotFound(Boolean.FALSE));
+        } catch (IOException | RuntimeException e) {
+            return Future.failedFuture(e);
+        }
+    }
+
+    /**
+     * Watches resources, like {@link Watchable#watch(Object)}. The watch is opened asynchronously, and is
+     * re-opened from the last received resource version whenever the API server ends it. If it cannot be opened,
+     * fails or the API server reports an error, it is closed and the watcher's {@link Watcher#onClose} is called
+     * with the cause.
+     * @param resources The operation for the resources, with their namespace (or any namespace), labels, and
+     *                  optionally name and resource version.
+     * @param watcher The watcher, whose methods are called on the event loop.
+     * @param <T> The type of the resources.
+     * @return The watch.
+     */
+    public <T> Watch watch(Watchable<Watch, Watcher<T>> resources, Watcher<T> watcher) {
+        BaseOperation<T, ?, ?, ?> operation = base(resources);
+        AsyncWatch<T> watch = new AsyncWatch<>(operation, watcher);
+        watch.open();
+        return watch;
+    }
+
+    /**
+     * Closes the connections to the API server.
+     */
+    public void close() {
+        httpClient.close();
+        watchClient.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T, L extends KubernetesResourceList> BaseOperation<T, L, ?, ?> base(Object operation) {
+        if (!(operation instanceof BaseOperation)) {
+            throw new IllegalArgumentException("Not an operation of a fabric8 client: " + operation);
+        }
+        return (BaseOperation<T, L, ?, ?>) operation;
+    }
+
+    private static <X> Function<Throwable, Future<X>> ifNotFound(X value) {
+        return e -> e instanceof KubernetesClientException && ((KubernetesClientException) e).getCode() == 404
+                ? Future.succeededFuture(value) : Future.failedFuture(e);
+    }
+
+    private static URL withQuery(URL url, Map<String, String> query) throws MalformedURLException {
+        StringBuilder sb = new StringBuilder(url.toString());
+        char separator = url.getQuery() == null ? '?' : '&';
+        try {
+            for (Map.Entry<String, String> param : query.entrySet()) {
+                if (param.getValue() != null && !param.getValue().isEmpty()) {
+                    sb.append(separator).append(param.getKey()).append('=').append(URLEncoder.encode(param.getValue(), "UTF-8"));
+                    separator = '&';
+                }
+            }
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+        return new URL(sb.toString());
+    }
+
+    @SuppressWarnings("deprecation") // The replacement of the response handler comes only with Vert.x 3.8
+    private HttpClientRequest newRequest(HttpClient client, HttpMethod method, URL url, String authorization, Handler<HttpClientResponse> responseHandler) {
+        HttpClientRequest request = client.requestAbs(method, url.toString(), responseHandler);
+        request.putHeader(HttpHeaders.ACCEPT, JSON);
+        if (authorization != null) {
+            request.putHeader(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        return request;
+    }
+
+    /**
+     * Sends a request and returns a future for the body of its response,
+     * which fails with a {@link KubernetesClientException} if the response is not successful.
+     * If the API server rejects the bearer token, the request is sent again once the token has been read again.
+     */
+    private Future<Buffer> request(HttpMethod method, URL url, String contentType, Buffer body) {
+        String sent = authorization;
+        return send(method, url, contentType, body, sent).recover(e -> {
+            if (!isUnauthorized(e)) {
+                return Future.failedFuture(e);
+            }
+            return refreshAuthorization(sent).compose(refreshed -> refreshed
+                    ? send(method, url, contentType, body, authorization)
+                    : Future.failedFuture(e));
+        });
+    }
+
+    private Future<Buffer> send(HttpMethod method, URL url, String contentType, Buffer body, String authorization) {
+        Future<Buffer> result = Future.future();
+        HttpClientRequest request = newRequest(httpClient, method, url, authorization, response -> {
+            response.exceptionHandler(e -> result.tryFail(new KubernetesClientException("Error receiving the response of " + method + " at: " + url, e)));
+            response.bodyHandler(responseBody -> {
+                if (response.statusCode() / 100 == 2) {
+                    result.tryComplete(responseBody);
+                } else {
+                    result.tryFail(requestFailure(method, url, response.statusCode(), responseBody));
+                }
+            });
+        });
+        request.exceptionHandler(e -> result.tryFail(new KubernetesClientException("Error executing: " + method + " at: " + url, e)));
+        if (requestTimeoutMs > 0) {
+            request.setTimeout(requestTimeoutMs);
+        }
+        if (body != null) {
+            request.putHeader(HttpHeaders.CONTENT_TYPE, contentType).end(body);
+        } else {
+            request.end();
+        }
+        return result;
+    }
+
+    static KubernetesClientException requestFailure(HttpMethod method, URL url, int code, Buffer body) {
+        Status status;
+        try {
+            status = Serialization.jsonMapper().readValue(body.getBytes(), Status.class);
+        } catch (IOException | RuntimeException e) {
+            status = null;
+        }
+        if (status == null || status.getCode() == null) {
+            status = OperationSupport.createStatus(code, body.toString());
+        }
+        return new KubernetesClientException("Failure executing: " + method + " at: " + url + ". Message: "
+                + status.getMessage() + ". Received status: " + status + ".", code, status);
+    }
+
+    /**
+     * Decodes a resource or a list of resources, setting their apiVersion as fabric8 does when the API server
+     * leaves it out (as it does for the items of a list).
+     */
+    private static <X> X decode(BaseOperation<?, ?, ?, ?> operation, Buffer body, Class<X> type) {
+        try {
+            return withApiVersion(operation, Serialization.jsonMapper().readValue(body.getBytes(), type));
+        } catch (IOException e) {
+            throw new KubernetesClientException("Failed to decode " + type.getSimpleName(), e);
+        }
+    }
+
+    private static <X> X withApiVersion(BaseOperation<?, ?, ?, ?> operation, X decoded) {
+        String apiVersion = operation.getApiVersion();
+        if (apiVersion == null) {
+            return decoded;
+        }
+        if (decoded instanceof HasMetadata && ((HasMetadata) decoded).getApiVersion() == null) {
+            ((HasMetadata) decoded).setApiVersion(apiVersion);
+        } else if (decoded instanceof KubernetesResourceList) {
+            List<?> items = ((KubernetesResourceList<?>) decoded).getItems();
+            if (items != null) {
+                for (Object item : items) {
+                    if (item instanceof HasMetadata && ((HasMetadata) item).getApiVersion() == null) {
+                        ((HasMetadata) item).setApiVersion(apiVersion);
+                    }
+                }
+            }
+        }
+        return decoded;
+    }
+
+    /**
+     * A watch, reading the events from a single streamed response, and re-opened when the API server ends it.
+     */
+    private class AsyncWatch<T> implements Watch {
+        private final BaseOperation<T, ?, ?, ?> operation;
+        private final Watcher<T> watcher;
+        private String resourceVersion;
+        private HttpClientRequest request;
+        private boolean closed;
+
+        AsyncWatch(BaseOperation<T, ?, ?, ?> operation, Watcher<T> watcher) {
+            this.operation = operation;
+            this.watcher = watcher;
+            this.resourceVersion = operation.getResourceVersion();
+        }
+
+        synchronized void open() {
+            if (closed) {
+                return;
+            }
+            URL url;
+            try {
+                Map<String, String> query = new LinkedHashMap<>();
+                query.put("watch", "true");
+                query.put("labelSelector", operation.getLabelQueryParam());
+                if (operation.getName() != null) {
+                    query.put("fieldSelector", "metadata.name=" + operation.getName());
+                }
+                query.put("resourceVersion", resourceVersion);
+                url = withQuery(operation.getNamespacedUrl(), query);
+            } catch (MalformedURLException | RuntimeException e) {
+                failed(new KubernetesClientException("Failed to watch " + operation.getResourceT(), e));
+                return;
+            }
+            String sent = authorization;
+            HttpClientRequest request = newRequest(watchClient, HttpMethod.GET, url, sent, response -> {
+                if (response.statusCode() != 200) {
+                    response.bodyHandler(body -> {
+                        KubernetesClientException failure = requestFailure(HttpMethod.GET, url, response.statusCode(), body);
+                        if (isUnauthorized(failure)) {
+                            // The watch which replaces this one uses the token which has been read again
+                            refreshAuthorization(sent).setHandler(refreshed -> failed(failure));
+                        } else {
+                            failed(failure);
+                        }
+                    });
+                    return;
+                }
+                response.handler(RecordParser.newDelimited("\n", this::event));
+                response.exceptionHandler(e -> failed(new KubernetesClientException("Watch at: " + url + " failed", e)));
+                response.endHandler(v -> {
+                    log.debug("Watch at: {} ended by the API server, re-opening it", url);
+                    open();
+                });
+            });
+            request.exceptionHandler(e -> failed(new KubernetesClientException("Error executing: GET at: " + url, e)));
+            request.end();
+            this.request = request;
+        }
+
+        private void event(Buffer line) {
+            if (line.length() == 0) {
+                return;
+            }
+            Watcher.Action action;
+            JsonNode object;
+            try {
+                JsonNode event = Serialization.jsonMapper().readTree(line.getBytes());
+                action = Watcher.Action.valueOf(event.get("type").asText());
+                object = event.get("object");
+            } catch (IOException | RuntimeException e) {
+                failed(new KubernetesClientException("Failed to decode watch event " + line, e));
+                return;
+            }
+            if (action == Watcher.Action.ERROR) {
+                Status status;
+                try {
+                    status = Serialization.jsonMapper().treeToValue(object, Status.class);
+                } catch (IOException e) {
+                    status = OperationSupport.createStatus(500, object.toString());
+                }
+                failed(new KubernetesClientException(status));
+                return;
+            }
+            T resource;
+            try {
+                resource = withApiVersion(operation, Serialization.jsonMapper().treeToValue(object, operation.getType()));
+            } catch (IOException e) {
+                failed(new KubernetesClientException("Failed to decode watch event " + line, e));
+                return;
+            }
+            if (resource instanceof HasMetadata && ((HasMetadata) resource).getMetadata() != null) {
+                synchronized (this) {
+                    resourceVersion = ((HasMetadata) resource).getMetadata().getResourceVersion();
+                }
+            }
+            if (!isClosed()) {
+                watcher.eventReceived(action, resource);
+            }
+        }
+
+        private synchronized boolean isClosed() {
+            return closed;
+        }
+
+        /**
+         * Closes the watch because of the given cause, unless it was already closed.
+         */
+        private void failed(KubernetesClientException cause) {
+            if (closeRequest()) {
+                log.debug("Watch of {} closed", operation.getResourceT(), cause);
+                watcher.onClose(cause);
+            }
+        }
+
+        /**
+         * @return Whether the watch was open.
+         */
+        private boolean closeRequest() {
+            HttpClientRequest request;
+            synchronized (this) {
+                if (closed) {
+                    return false;
+                }
+                closed = true;
+                request = this.request;
+                this.request = null;
+            }
+            if (request != null) {
+                request.reset();
+            }
+            return true;
+        }
+
+        @Override
+        public void close() {
+            if (closeRequest()) {
+                watcher.onClose(null);
+            }
+        }
+    }
+}
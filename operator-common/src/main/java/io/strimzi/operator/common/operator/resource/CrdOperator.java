@@ -23,6 +23,9 @@ import io.strimzi.api.kafka.model.KafkaConnectS2I;
 import io.strimzi.api.kafka.model.KafkaMirrorMaker;
 import io.strimzi.api.kafka.model.KafkaTopic;
 import io.strimzi.api.kafka.model.KafkaUser;
+import io.strimzi.operator.common.ApiRateLimiter;
+import io.strimzi.operator.common.MetricsProvider;
+import io.strimzi.operator.common.WorkerPools;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import okhttp3.OkHttpClient;
@@ -33,6 +36,7 @@ import okhttp3.Response;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collections;
+import java.util.concurrent.TimeUnit;
 
 @SuppressFBWarnings(value = "RCN_REDUNDANT_NULLCHECK_OF_NONNULL_VALUE",
         justification = "Erroneous on Java 11: https://github.com/spotbugs/spotbugs/issues/756")
@@ -85,10 +89,20 @@ public class CrdOperator<C extends KubernetesClient,
         return Crds.operation(client, cls, listCls, doneableCls);
     }
 
+    /**
+     * Asynchronously replaces the status of the given custom resource, once the {@link ApiRateLimiter} allows it
+     * in the {@linkplain ApiRateLimiter.Lane#STATUS status lane}.
+     * @param resource The resource with the new status.
+     * @return A future for the updated resource.
+     */
     public Future<T> updateStatusAsync(T resource) {
+        return ApiRateLimiter.getInstance().acquire(ApiRateLimiter.Lane.STATUS).compose(ignored -> updateStatus(resource));
+    }
+
+    private Future<T> updateStatus(T resource) {
         Future<T> blockingFuture = Future.future();
 
-        vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(future -> {
+        WorkerPools.kubernetesApiWrites(vertx).executeBlocking(future -> {
             try {
 
                 OkHttpClient client = this.client.adapt(OkHttpClient.class);
@@ -99,7 +113,13 @@ public class CrdOperator<C extends KubernetesClient,
                                 + "/" + this.plural + "/" + resource.getMetadata().getName() + "/status").build();
 
                 String method = request.method();
-                Response response = client.newCall(request).execute();
+                long startNanos = System.nanoTime();
+                Response response;
+                try {
+                    response = client.newCall(request).execute();
+                } finally {
+                    MetricsProvider.getInstance().apiRequestTimer("update_status", resourceKind).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                }
                 T returnedResource = null;
                 try {
                     final int code = response.code();
@@ -16,11 +16,32 @@ import io.strimzi.operator.common.model.Labels;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 
+import java.util.regex.Pattern;
+
 /**
  * Operations for {@code Deployment}s.
  */
 public class DeploymentOperator extends AbstractScalableResourceOperator<KubernetesClient, Deployment, DeploymentList, DoneableDeployment, RollableScalableResource<Deployment, DoneableDeployment>> {
 
+    private static final Pattern SERVER_DEFAULTED_PATHS = Pattern.compile(
+        "^(/spec/progressDeadlineSeconds"
+        + "|/spec/revisionHistoryLimit"
+        + "|/spec/strategy/rollingUpdate"
+        + "|/spec/strategy/type"
+        + "|/spec/template/metadata/creationTimestamp"
+        + "|/spec/template/spec/(?:initContainers|containers)/[0-9]+/env/[0-9]+/valueFrom/fieldRef/apiVersion"
+        + "|/spec/template/spec/(?:initContainers|containers)/[0-9]+/imagePullPolicy"
+        + "|/spec/template/spec/(?:initContainers|containers)/[0-9]+/(?:livenessProbe|readinessProbe)/(?:failureThreshold|periodSeconds|successThreshold|timeoutSeconds)"
+        + "|/spec/template/spec/(?:initContainers|containers)/[0-9]+/ports/[0-9]+/protocol"
+        + "|/spec/template/spec/(?:initContainers|containers)/[0-9]+/terminationMessagePath"
+        + "|/spec/template/spec/(?:initContainers|containers)/[0-9]+/terminationMessagePolicy"
+        + "|/spec/template/spec/dnsPolicy"
+        + "|/spec/template/spec/restartPolicy"
+        + "|/spec/template/spec/schedulerName"
+        + "|/spec/template/spec/serviceAccount"
+        + "|/spec/template/spec/terminationGracePeriodSeconds"
+        + "|/spec/template/spec/volumes/[0-9]+/(?:configMap|secret)/defaultMode)$");
+
     private final PodOperator podOperations;
 
     /**
@@ -42,6 +63,11 @@ public class DeploymentOperator extends AbstractScalableResourceOperator<Kuberne
         return client.apps().deployments();
     }
 
+    @Override
+    protected Pattern serverDefaultedPaths() {
+        return SERVER_DEFAULTED_PATHS;
+    }
+
     @Override
     protected Integer currentScale(String namespace, String name) {
         Deployment deployment = get(namespace, name);
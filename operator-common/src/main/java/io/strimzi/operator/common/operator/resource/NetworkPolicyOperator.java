@@ -12,8 +12,14 @@ import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.Resource;
 import io.vertx.core.Vertx;
 
+import java.util.regex.Pattern;
+
 public class NetworkPolicyOperator extends AbstractResourceOperator<KubernetesClient, NetworkPolicy, NetworkPolicyList, DoneableNetworkPolicy, Resource<NetworkPolicy, DoneableNetworkPolicy>> {
 
+    private static final Pattern SERVER_DEFAULTED_PATHS = Pattern.compile(
+        "^(/spec/policyTypes"
+        + "|/spec/ingress/[0-9]+/ports/[0-9]+/protocol)$");
+
     public NetworkPolicyOperator(Vertx vertx, KubernetesClient client) {
         super(vertx, client, "NetworkPolicy");
 
@@ -23,4 +29,9 @@ public class NetworkPolicyOperator extends AbstractResourceOperator<KubernetesCl
     protected MixedOperation<NetworkPolicy, NetworkPolicyList, DoneableNetworkPolicy, Resource<NetworkPolicy, DoneableNetworkPolicy>> operation() {
         return client.network().networkPolicies();
     }
+
+    @Override
+    protected Pattern serverDefaultedPaths() {
+        return SERVER_DEFAULTED_PATHS;
+    }
 }
@@ -26,6 +26,9 @@ public class PodDisruptionBudgetOperator extends AbstractResourceOperator<Kubern
 
     @Override
     protected Future<ReconcileResult<PodDisruptionBudget>> internalPatch(String namespace, String name, PodDisruptionBudget current, PodDisruptionBudget desired, boolean cascading) {
+        if (isUnchanged(namespace, name, current, desired)) {
+            return Future.succeededFuture(ReconcileResult.noop(current));
+        }
         Future<ReconcileResult<PodDisruptionBudget>> fut = Future.future();
         internalDelete(namespace, name).setHandler(delRes -> {
             if (delRes.succeeded())    {
@@ -41,6 +41,10 @@ public class PodOperator extends AbstractReadyResourceOperator<KubernetesClient,
      * @return The watch
      */
     public Watch watch(String namespace, String name, Watcher<Pod> watcher) {
+        AsyncApiClient asyncClient = asyncClient();
+        if (asyncClient != null) {
+            return asyncClient.watch(operation().inNamespace(namespace).withName(name), watcher);
+        }
         return operation().inNamespace(namespace).withName(name).watch(watcher);
     }
 }
@@ -0,0 +1,284 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common.operator.resource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import io.strimzi.operator.common.model.Labels;
+import io.strimzi.operator.common.model.NamespaceAndName;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * <p>An in-memory copy of all the resources of one kind in one namespace (or in all namespaces),
+ * kept up to date by a watch.</p>
+ *
+ * <p>The cache is populated by {@link #replace(List, String)} with the result of a list operation and then
+ * updated from the events of a watch started at the resourceVersion of that list.
+ * Writes made by the operator itself are recorded with {@link #update(HasMetadata)} and {@link #remove(String, String)}
+ * so that subsequent reads see them even before the corresponding watch event has been received.
+ * Events and writes only replace an entry when they carry a newer resourceVersion than the one already cached.</p>
+ *
+ * <p>A cache which is not {@linkplain #isSynced() synced} (because it has not been populated yet or because its
+ * watch was closed or reported an error) must not be used for reads.</p>
+ *
+ * @param <T> The Kubernetes resource type.
+ */
+public class ResourceCache<T extends HasMetadata> implements Watcher<T> {
+
+    private static final Logger log = LogManager.getLogger(ResourceCache.class);
+
+    private final String resourceKind;
+    private final String namespace;
+    private final Consumer<KubernetesClientException> onClose;
+    private final Map<NamespaceAndName, T> resources = new ConcurrentHashMap<>();
+    // The last known resourceVersion of resources which were deleted, so that late events can be ignored
+    private final Map<NamespaceAndName, String> deleted = new ConcurrentHashMap<>();
+
+    private volatile boolean synced = false;
+    private volatile Watch watch;
+
+    /**
+     * Constructor
+     * @param resourceKind The kind of the cached resources (used for logging).
+     * @param namespace The namespace of the cached resources, or {@link AbstractWatchableResourceOperator#ANY_NAMESPACE}.
+     * @param onClose Called when the watch feeding this cache is closed.
+     */
+    public ResourceCache(String resourceKind, String namespace, Consumer<KubernetesClientException> onClose) {
+        this.resourceKind = resourceKind;
+        this.namespace = namespace;
+        this.onClose = onClose;
+    }
+
+    /**
+     * @return The namespace of the cached resources.
+     */
+    public String namespace() {
+        return namespace;
+    }
+
+    /**
+     * @return Whether the cache reflects the state of the API server and can be used for reads.
+     */
+    public boolean isSynced() {
+        return synced;
+    }
+
+    /**
+     * @param namespace The namespace.
+     * @return Whether this cache holds the resources of the given namespace.
+     */
+    public boolean covers(String namespace) {
+        return AbstractWatchableResourceOperator.ANY_NAMESPACE.equals(this.namespace) || this.namespace.equals(namespace);
+    }
+
+    /**
+     * Replaces the whole content of the cache with the given {@code items}, as returned by a list operation.
+     * @param items The listed resources.
+     * @param listResourceVersion The resourceVersion of the list.
+     */
+    public void replace(List<T> items, String listResourceVersion) {
+        Set<NamespaceAndName> listed = new HashSet<>(items.size());
+        for (T item : items) {
+            NamespaceAndName key = key(item);
+            listed.add(key);
+            resources.put(key, item);
+        }
+        resources.keySet().retainAll(listed);
+        deleted.clear();
+        synced = true;
+        log.debug("{} cache for namespace {} synced with {} resources at resourceVersion {}", resourceKind, namespace, items.size(), listResourceVersion);
+    }
+
+    /**
+     * Sets the watch which feeds this cache.
+     * @param watch The watch.
+     */
+    public void watching(Watch watch) {
+        this.watch = watch;
+    }
+
+    /**
+     * Stops the watch and marks the cache as not synced.
+     */
+    public void close() {
+        synced = false;
+        Watch watch = this.watch;
+        if (watch != null) {
+            watch.close();
+        }
+    }
+
+    /**
+     * Gets a copy of the cached resource with the given namespace and name.
+     * @param namespace The namespace.
+     * @param name The name.
+     * @return A copy of the cached resource, or null if it is not in the cache.
+     */
+    public T get(String namespace, String name) {
+        T resource = resources.get(new NamespaceAndName(namespace, name));
+        return resource != null ? copy(resource) : null;
+    }
+
+    /**
+     * Lists copies of the cached resources in the given {@code namespace} matching the given {@code selector}.
+     * @param namespace The namespace, or {@link AbstractWatchableResourceOperator#ANY_NAMESPACE}.
+     * @param selector The selector, or null to match all resources.
+     * @return A list of copies of matching resources.
+     */
+    public List<T> list(String namespace, Labels selector) {
+        Map<String, String> labels = selector != null ? selector.toMap() : null;
+        boolean anyNamespace = AbstractWatchableResourceOperator.ANY_NAMESPACE.equals(namespace);
+        List<T> result = new ArrayList<>();
+        for (T resource : resources.values()) {
+            if ((anyNamespace || namespace.equals(resource.getMetadata().getNamespace()))
+                    && matches(resource, labels)) {
+                result.add(copy(resource));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Records a resource which was created or modified by the operator.
+     * @param resource The resource returned by the API server.
+     */
+    public void update(T resource) {
+        if (resource != null && resource.getMetadata() != null) {
+            put(resource);
+        }
+    }
+
+    /**
+     * Records the deletion of a resource by the operator.
+     * @param namespace The namespace.
+     * @param name The name.
+     */
+    public void remove(String namespace, String name) {
+        NamespaceAndName key = new NamespaceAndName(namespace, name);
+        T previous = resources.remove(key);
+        if (previous != null) {
+            deleted.put(key, previous.getMetadata().getResourceVersion());
+        }
+    }
+
+    @Override
+    public void eventReceived(Action action, T resource) {
+        switch (action) {
+            case ADDED:
+            case MODIFIED:
+                put(resource);
+                break;
+            case DELETED:
+                NamespaceAndName key = key(resource);
+                T cached = resources.get(key);
+                if (cached == null || !isNewer(resource, cached)) {
+                    resources.remove(key);
+                }
+                deleted.remove(key);
+                break;
+            case ERROR:
+            default:
+                // The fabric8 client keeps the watch open after an error other than 410 Gone,
+                // so it is closed here and the cache is re-synced as if the API server had closed it
+                log.warn("{} cache for namespace {} received {} event, re-syncing it", resourceKind, namespace, action);
+                synced = false;
+                Watch watch = this.watch;
+                this.watch = null;
+                if (watch != null) {
+                    watch.close();
+                }
+                onClose.accept(new KubernetesClientException(resourceKind + " cache watch for namespace " + namespace + " received " + action + " event"));
+        }
+    }
+
+    @Override
+    public void onClose(KubernetesClientException cause) {
+        log.debug("{} cache watch for namespace {} closed", resourceKind, namespace, cause);
+        // Without a cause the watch was closed by the operator, which has already marked the cache as not synced
+        // and may have started re-syncing it
+        if (cause != null) {
+            synced = false;
+            onClose.accept(cause);
+        }
+    }
+
+    /**
+     * @return The number of cached resources.
+     */
+    public int size() {
+        return resources.size();
+    }
+
+    private void put(T resource) {
+        NamespaceAndName key = key(resource);
+        String tombstone = deleted.get(key);
+        if (tombstone != null) {
+            if (compareResourceVersions(resource.getMetadata().getResourceVersion(), tombstone) <= 0) {
+                log.trace("Ignoring stale {} {} for deleted resource", resourceKind, key);
+                return;
+            }
+            deleted.remove(key);
+        }
+        resources.compute(key, (k, cached) -> cached == null || isNewer(cached, resource) ? resource : cached);
+    }
+
+    private static NamespaceAndName key(HasMetadata resource) {
+        return new NamespaceAndName(resource.getMetadata().getNamespace(), resource.getMetadata().getName());
+    }
+
+    /**
+     * @return Whether {@code candidate} is a newer version of the {@code cached} resource.
+     */
+    private static boolean isNewer(HasMetadata cached, HasMetadata candidate) {
+        return compareResourceVersions(candidate.getMetadata().getResourceVersion(), cached.getMetadata().getResourceVersion()) > 0;
+    }
+
+    /**
+     * Compare resourceVersions. Kubernetes documents them as opaque strings, but they are
+     * monotonically increasing integers in practice. When they cannot be compared as integers
+     * any differing version is considered newer.
+     */
+    static int compareResourceVersions(String a, String b) {
+        if (a == null || b == null) {
+            return a == null && b == null ? 0 : 1;
+        }
+        try {
+            return Long.compare(Long.parseLong(a), Long.parseLong(b));
+        } catch (NumberFormatException e) {
+            return a.equals(b) ? 0 : 1;
+        }
+    }
+
+    private static boolean matches(HasMetadata resource, Map<String, String> selector) {
+        if (selector == null || selector.isEmpty()) {
+            return true;
+        }
+        Map<String, String> labels = resource.getMetadata().getLabels();
+        return labels != null && labels.entrySet().containsAll(selector.entrySet());
+    }
+
+    /**
+     * Callers are free to modify the resources they get, so they are given a copy rather than the cached instance.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T extends HasMetadata> T copy(T resource) {
+        ObjectMapper mapper = Serialization.jsonMapper();
+        // Converting from the tree, because converting the resource itself to its own class would return it as-is
+        return (T) mapper.convertValue(mapper.valueToTree(resource), resource.getClass());
+    }
+}
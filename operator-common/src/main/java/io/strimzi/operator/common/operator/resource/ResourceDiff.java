@@ -0,0 +1,105 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common.operator.resource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.zjsonpatch.JsonDiff;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static io.fabric8.kubernetes.client.internal.PatchUtils.patchMapper;
+
+/**
+ * <p>The difference between the current and the desired state of a resource, computed in the same way as the
+ * JSON patch which the Kubernetes client sends when patching the resource.</p>
+ *
+ * <p>Differences in the fields which are managed by the API server (such as the resource version or the status)
+ * are ignored. So is the removal of fields which the API server defaults when they are not set (such as the
+ * cluster IP of a Service), since patching them away would just cause them to be defaulted again. Those fields
+ * are given for each kind of resource by a pattern matching their JSON pointer paths.</p>
+ */
+public class ResourceDiff<T extends HasMetadata> extends AbstractResourceDiff {
+
+    private static final Logger log = LogManager.getLogger(ResourceDiff.class.getName());
+
+    private static final Pattern SERVER_MANAGED_PATHS = Pattern.compile(
+        "^(/metadata/creationTimestamp"
+        + "|/metadata/generation"
+        + "|/metadata/managedFields(/.*)?"
+        + "|/metadata/resourceVersion"
+        + "|/metadata/selfLink"
+        + "|/metadata/uid"
+        + "|/status(/.*)?)$");
+
+    private final boolean isEmpty;
+
+    /**
+     * Constructor
+     * @param resourceKind The kind of the resource (used for logging).
+     * @param current The current state of the resource.
+     * @param desired The desired state of the resource.
+     * @param serverDefaultedPaths Matches the paths of the fields which are defaulted by the API server,
+     *                             or null if there are none.
+     */
+    public ResourceDiff(String resourceKind, T current, T desired, Pattern serverDefaultedPaths) {
+        JsonNode source = patchMapper().valueToTree(current);
+        JsonNode target = patchMapper().valueToTree(desired);
+        JsonNode diff = JsonDiff.asJson(source, target);
+        int num = 0;
+        for (JsonNode d : diff) {
+            String pathValue = d.get("path").asText();
+            String op = d.path("op").asText();
+            if (SERVER_MANAGED_PATHS.matcher(pathValue).matches()
+                    || "remove".equals(op) && onlyServerDefaulted(pathValue, lookupPath(source, pathValue), serverDefaultedPaths)
+                    || "add".equals(op) && isEmptyContainer(d.path("value"))) {
+                log.trace("{} {}/{} ignoring diff {}", resourceKind, current.getMetadata().getNamespace(), current.getMetadata().getName(), d);
+                continue;
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("{} {}/{} differs: {}", resourceKind, current.getMetadata().getNamespace(), current.getMetadata().getName(), d);
+            }
+            num++;
+        }
+        this.isEmpty = num == 0;
+    }
+
+    private static boolean isEmptyContainer(JsonNode node) {
+        return node.isContainerNode() && node.size() == 0;
+    }
+
+    /**
+     * Whether the removed value, or every leaf of it if it is an object, is either empty or defaulted by the
+     * API server. So that, for example, removing the annotations of a Deployment is ignored when the only
+     * annotation is the revision set by the API server.
+     */
+    private static boolean onlyServerDefaulted(String path, JsonNode removed, Pattern serverDefaultedPaths) {
+        if (isEmptyContainer(removed)) {
+            return true;
+        } else if (serverDefaultedPaths != null && serverDefaultedPaths.matcher(path).matches()) {
+            return true;
+        } else if (removed.isObject()) {
+            for (Iterator<Map.Entry<String, JsonNode>> fields = removed.fields(); fields.hasNext();) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                String fieldPath = path + "/" + field.getKey().replace("~", "~0").replace("/", "~1");
+                if (!onlyServerDefaulted(fieldPath, field.getValue(), serverDefaultedPaths)) {
+                    return false;
+                }
+            }
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return isEmpty;
+    }
+}
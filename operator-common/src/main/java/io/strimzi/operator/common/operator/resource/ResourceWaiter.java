@@ -0,0 +1,320 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common.operator.resource;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.strimzi.operator.common.MetricsProvider;
+import io.strimzi.operator.common.Util;
+import io.strimzi.operator.common.WorkerPools;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * <p>Waits for resources of one kind in one namespace to reach a desired state, driven by the events of a single
+ * watch which is shared by all the waits in the namespace, rather than by polling the API server.</p>
+ *
+ * <p>Each wait checks the current state of its resource once when it starts, and then every event for the
+ * resource until it reaches the desired state or its timeout expires. The watch is opened by the first wait and
+ * closed once there have been no waits for a while, so that waits started one after another (for example while
+ * rolling the pods of a StatefulSet) share it. If the watch cannot be opened, the waits fall back to polling.</p>
+ *
+ * @param <T> The Kubernetes resource type.
+ */
+public class ResourceWaiter<T extends HasMetadata> implements Watcher<T> {
+
+    private static final Logger log = LogManager.getLogger(ResourceWaiter.class);
+
+    /**
+     * How long the watch is kept open after the last wait has completed.
+     */
+    public static final long IDLE_CLOSE_DELAY_MS = 60_000;
+
+    private final Vertx vertx;
+    private final String resourceKind;
+    private final String namespace;
+    private final Function<Watcher<T>, Watch> openWatch;
+    private final long idleCloseDelayMs;
+
+    // The waits by resource name, the watch and the timer closing it are guarded by this
+    private final Map<String, List<Wait>> waits = new HashMap<>();
+    private Watch watch;
+    private long closeTimerId = -1;
+
+    /**
+     * Constructor
+     * @param vertx The Vertx instance.
+     * @param resourceKind The kind of the resources (used for logging).
+     * @param namespace The namespace of the resources.
+     * @param openWatch Opens a watch on the resources in the namespace, which reports its events to the given watcher.
+     * @param idleCloseDelayMs How long the watch is kept open after the last wait has completed.
+     */
+    public ResourceWaiter(Vertx vertx, String resourceKind, String namespace, Function<Watcher<T>, Watch> openWatch, long idleCloseDelayMs) {
+        this.vertx = vertx;
+        this.resourceKind = resourceKind;
+        this.namespace = namespace;
+        this.openWatch = openWatch;
+        this.idleCloseDelayMs = idleCloseDelayMs;
+    }
+
+    /**
+     * Asynchronously waits for the resource with the given {@code name} to reach the desired state.
+     *
+     * @param name The name of the resource.
+     * @param pollIntervalMs The poll interval in milliseconds, used only if the wait falls back to polling.
+     * @param timeoutMs The timeout, in milliseconds.
+     * @param ready Whether the resource received in a watch event is in the desired state.
+     *              It is given null when the resource has been deleted.
+     * @param check Whether the resource is in the desired state, getting it from the API server.
+     *              It is used for the initial check and when polling.
+     * @return A future that completes when the resource is in the desired state,
+     * or fails with a {@link TimeoutException} if it does not get there within the timeout.
+     */
+    public Future<Void> waitFor(String name, long pollIntervalMs, long timeoutMs, Predicate<T> ready, BooleanSupplier check) {
+        Wait wait = new Wait(name, pollIntervalMs, timeoutMs, ready, check);
+        log.debug("Waiting for {} to get ready", wait.logContext);
+        WorkerPools.readinessPolling(vertx).<Boolean>executeBlocking(
+            future -> {
+                if (register(wait)) {
+                    // The resource might already be in the desired state, in which case there might be no more events
+                    wait.check();
+                    future.complete(true);
+                } else {
+                    future.complete(false);
+                }
+            },
+            false,
+            res -> {
+                if (res.failed() || !res.result()) {
+                    wait.poll();
+                }
+            });
+        return wait.result;
+    }
+
+    /**
+     * Registers the given wait and opens the watch, unless it is already open.
+     * @return Whether the watch is open.
+     */
+    private synchronized boolean register(Wait wait) {
+        waits.computeIfAbsent(wait.name, k -> new ArrayList<>(1)).add(wait);
+        if (closeTimerId != -1) {
+            vertx.cancelTimer(closeTimerId);
+            closeTimerId = -1;
+        }
+        return watch();
+    }
+
+    private synchronized boolean watch() {
+        if (watch == null) {
+            try {
+                watch = openWatch.apply(this);
+            } catch (RuntimeException e) {
+                log.warn("Failed to watch {} resources in namespace {}, falling back to polling", resourceKind, namespace, e);
+            }
+        }
+        return watch != null;
+    }
+
+    /**
+     * Removes the given wait and schedules the closing of the watch if it was the last one.
+     * @return Whether the wait was still registered.
+     */
+    private synchronized boolean remove(Wait wait) {
+        List<Wait> forName = waits.get(wait.name);
+        if (forName == null || !forName.remove(wait)) {
+            return false;
+        }
+        if (forName.isEmpty()) {
+            waits.remove(wait.name);
+        }
+        if (waits.isEmpty() && watch != null && closeTimerId == -1) {
+            closeTimerId = vertx.setTimer(idleCloseDelayMs, id -> closeIfIdle());
+        }
+        return true;
+    }
+
+    private void closeIfIdle() {
+        Watch idle = null;
+        synchronized (this) {
+            closeTimerId = -1;
+            if (waits.isEmpty()) {
+                idle = watch;
+                watch = null;
+            }
+        }
+        if (idle != null) {
+            log.debug("Closing idle {} readiness watch in namespace {}", resourceKind, namespace);
+            idle.close();
+        }
+    }
+
+    private synchronized List<Wait> waits(String name) {
+        List<Wait> forName = waits.get(name);
+        return forName != null ? new ArrayList<>(forName) : null;
+    }
+
+    @Override
+    public void eventReceived(Action action, T resource) {
+        if (action == Action.ERROR) {
+            log.warn("{} readiness watch in namespace {} received {} event", resourceKind, namespace, action);
+            return;
+        }
+        List<Wait> forName = waits(resource.getMetadata().getName());
+        if (forName != null) {
+            T state = action == Action.DELETED ? null : resource;
+            for (Wait wait : forName) {
+                wait.test(state);
+            }
+        }
+    }
+
+    @Override
+    public void onClose(KubernetesClientException cause) {
+        if (cause == null) {
+            // Closed by closeIfIdle()
+            log.debug("{} readiness watch in namespace {} closed", resourceKind, namespace);
+            return;
+        }
+        log.warn("{} readiness watch in namespace {} closed with exception, re-opening it", resourceKind, namespace, cause);
+        MetricsProvider.getInstance().watchReconnected(resourceKind, namespace);
+        List<Wait> pending = new ArrayList<>();
+        synchronized (this) {
+            watch = null;
+            waits.values().forEach(pending::addAll);
+        }
+        if (!pending.isEmpty()) {
+            WorkerPools.readinessPolling(vertx).<Boolean>executeBlocking(
+                future -> {
+                    if (watch()) {
+                        // Events might have been missed while there was no watch
+                        pending.forEach(Wait::check);
+                        future.complete(true);
+                    } else {
+                        future.complete(false);
+                    }
+                },
+                false,
+                res -> {
+                    if (res.failed() || !res.result()) {
+                        pending.forEach(Wait::poll);
+                    }
+                });
+        }
+    }
+
+    /**
+     * @return The number of waits which have neither completed nor timed out.
+     */
+    synchronized int size() {
+        return waits.values().stream().mapToInt(List::size).sum();
+    }
+
+    /**
+     * @return Whether the watch is open.
+     */
+    synchronized boolean isWatching() {
+        return watch != null;
+    }
+
+    private class Wait {
+        private final String name;
+        private final String logContext;
+        private final long pollIntervalMs;
+        private final long timeoutMs;
+        private final long deadline;
+        private final Predicate<T> ready;
+        private final BooleanSupplier check;
+        private final Context context;
+        private final Future<Void> result = Future.future();
+        private final long timerId;
+
+        Wait(String name, long pollIntervalMs, long timeoutMs, Predicate<T> ready, BooleanSupplier check) {
+            this.name = name;
+            this.logContext = String.format("%s resource %s in namespace %s", resourceKind, name, namespace);
+            this.pollIntervalMs = pollIntervalMs;
+            this.timeoutMs = timeoutMs;
+            this.deadline = System.currentTimeMillis() + timeoutMs;
+            this.ready = ready;
+            this.check = check;
+            this.context = vertx.getOrCreateContext();
+            this.timerId = vertx.setTimer(timeoutMs, id -> timeout());
+        }
+
+        /**
+         * Tests the state of the resource received in a watch event.
+         */
+        void test(T resource) {
+            boolean done;
+            try {
+                done = ready.test(resource);
+            } catch (Throwable e) {
+                log.warn("Caught exception while waiting for {} to get ready", logContext, e);
+                done = false;
+            }
+            done(done);
+        }
+
+        /**
+         * Checks the state of the resource in the API server. Must be called from a worker thread.
+         */
+        void check() {
+            boolean done;
+            try {
+                done = check.getAsBoolean();
+            } catch (Throwable e) {
+                log.warn("Caught exception while waiting for {} to get ready", logContext, e);
+                done = false;
+            }
+            done(done);
+        }
+
+        private void done(boolean done) {
+            if (!done) {
+                log.trace("{} is not ready", logContext);
+            } else if (remove(this)) {
+                vertx.cancelTimer(timerId);
+                // Events are received on a thread of the Kubernetes client, so complete on the context of the caller
+                context.runOnContext(v -> {
+                    log.debug("{} is ready", logContext);
+                    result.tryComplete();
+                });
+            }
+        }
+
+        private void timeout() {
+            if (remove(this)) {
+                String exceptionMessage = String.format("Exceeded timeout of %dms while waiting for %s to be ready", timeoutMs, logContext);
+                log.error(exceptionMessage);
+                result.tryFail(new TimeoutException(exceptionMessage));
+            }
+        }
+
+        /**
+         * Falls back to polling for the rest of the timeout.
+         */
+        void poll() {
+            if (remove(this)) {
+                vertx.cancelTimer(timerId);
+                long timeLeft = Math.max(0, deadline - System.currentTimeMillis());
+                Util.waitFor(vertx, logContext, pollIntervalMs, timeLeft, check).setHandler(result);
+            }
+        }
+    }
+}
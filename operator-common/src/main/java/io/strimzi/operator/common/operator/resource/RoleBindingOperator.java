@@ -12,11 +12,16 @@ import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.Resource;
 import io.vertx.core.Vertx;
 
+import java.util.regex.Pattern;
+
 
 public class RoleBindingOperator extends AbstractResourceOperator<KubernetesClient, RoleBinding,
         RoleBindingList, DoneableRoleBinding, Resource<RoleBinding,
         DoneableRoleBinding>> {
 
+    private static final Pattern SERVER_DEFAULTED_PATHS = Pattern.compile(
+        "^(/subjects/[0-9]+/apiGroup)$");
+
     /**
      * Constructor
      * @param vertx The Vertx instance
@@ -31,4 +36,9 @@ public class RoleBindingOperator extends AbstractResourceOperator<KubernetesClie
             Resource<RoleBinding, DoneableRoleBinding>> operation() {
         return client.rbac().roleBindings();
     }
+
+    @Override
+    protected Pattern serverDefaultedPaths() {
+        return SERVER_DEFAULTED_PATHS;
+    }
 }
@@ -13,10 +13,19 @@ import io.fabric8.openshift.client.OpenShiftClient;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 
+import java.util.regex.Pattern;
+
 /**
  * Operations for {@code Route}s.
  */
 public class RouteOperator extends AbstractResourceOperator<OpenShiftClient, Route, RouteList, DoneableRoute, Resource<Route, DoneableRoute>> {
+
+    private static final Pattern SERVER_DEFAULTED_PATHS = Pattern.compile(
+        "^(/metadata/annotations/openshift.io~1host.generated"
+        + "|/spec/host"
+        + "|/spec/to/weight"
+        + "|/spec/wildcardPolicy)$");
+
     /**
      * Constructor
      * @param vertx The Vertx instance
@@ -31,6 +40,11 @@ public class RouteOperator extends AbstractResourceOperator<OpenShiftClient, Rou
         return client.routes();
     }
 
+    @Override
+    protected Pattern serverDefaultedPaths() {
+        return SERVER_DEFAULTED_PATHS;
+    }
+
     /**
      * Succeeds when the Route has an assigned address.
      *
@@ -12,11 +12,16 @@ import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.Resource;
 import io.vertx.core.Vertx;
 
+import java.util.regex.Pattern;
+
 /**
  * Operations for {@code Secret}s.
  */
 public class SecretOperator extends AbstractResourceOperator<KubernetesClient, Secret, SecretList, DoneableSecret, Resource<Secret, DoneableSecret>> {
 
+    private static final Pattern SERVER_DEFAULTED_PATHS = Pattern.compile(
+        "^(/type)$");
+
     /**
      * Constructor
      * @param vertx The Vertx instance
@@ -30,4 +35,9 @@ public class SecretOperator extends AbstractResourceOperator<KubernetesClient, S
     protected MixedOperation<Secret, SecretList, DoneableSecret, Resource<Secret, DoneableSecret>> operation() {
         return client.secrets();
     }
+
+    @Override
+    protected Pattern serverDefaultedPaths() {
+        return SERVER_DEFAULTED_PATHS;
+    }
 }
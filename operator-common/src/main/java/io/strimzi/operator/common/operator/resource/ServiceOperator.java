@@ -14,11 +14,22 @@ import io.fabric8.kubernetes.client.dsl.ServiceResource;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 
+import java.util.regex.Pattern;
+
 /**
  * Operations for {@code Service}s.
  */
 public class ServiceOperator extends AbstractResourceOperator<KubernetesClient, Service, ServiceList, DoneableService, ServiceResource<Service, DoneableService>> {
 
+    private static final Pattern SERVER_DEFAULTED_PATHS = Pattern.compile(
+        "^(/spec/clusterIP"
+        + "|/spec/externalTrafficPolicy"
+        + "|/spec/sessionAffinity"
+        + "|/spec/type"
+        + "|/spec/ports/[0-9]+/nodePort"
+        + "|/spec/ports/[0-9]+/protocol"
+        + "|/spec/ports/[0-9]+/targetPort)$");
+
     private final EndpointOperator endpointOperations;
     /**
      * Constructor
@@ -35,6 +46,11 @@ public class ServiceOperator extends AbstractResourceOperator<KubernetesClient,
         return client.services();
     }
 
+    @Override
+    protected Pattern serverDefaultedPaths() {
+        return SERVER_DEFAULTED_PATHS;
+    }
+
     /**
      * Patches the resource with the given namespace and name to match the given desired resource
      * and completes the given future accordingly.
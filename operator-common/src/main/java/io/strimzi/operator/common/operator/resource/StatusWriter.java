@@ -0,0 +1,241 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common.operator.resource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.fabric8.kubernetes.client.CustomResource;
+import io.strimzi.api.kafka.model.status.Status;
+import io.strimzi.operator.cluster.model.StatusDiff;
+import io.strimzi.operator.common.MetricsProvider;
+import io.strimzi.operator.common.Reconciliation;
+import io.strimzi.operator.common.model.NamespaceAndName;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static io.fabric8.kubernetes.client.internal.PatchUtils.patchMapper;
+
+/**
+ * <p>Updates the status of custom resources, remembering for each resource the status it last wrote.</p>
+ *
+ * <p>Updating the status takes a GET of the resource, a {@link StatusDiff} of its current status against
+ * the desired status, and a PUT of the new status if they differ. When the resource still has the resourceVersion
+ * it had after the status was last written (so nothing, including the status, has changed since), and the desired
+ * status is the one which was written apart from the transition times of its conditions, the update completes
+ * without sending any request.</p>
+ *
+ * <p>The updates of the status of a resource are done one at a time. An update requested while another is in
+ * progress waits for it, and replaces any update which is already waiting, so that successive updates in quick
+ * succession result in a single write of the latest status.</p>
+ *
+ * @param <T> The type of the custom resources.
+ * @param <S> The type of their status.
+ */
+public class StatusWriter<T extends CustomResource, S extends Status> {
+
+    private static final Logger log = LogManager.getLogger(StatusWriter.class);
+
+    private static final String LAST_TRANSITION_TIME = "lastTransitionTime";
+
+    private class Entry {
+        String writtenResourceVersion;
+        JsonNode writtenStatus;
+        boolean updating;
+        Reconciliation nextReconciliation;
+        T nextResource;
+        S nextStatus;
+        List<Future<Void>> nextWaiters;
+    }
+
+    private final CrdOperator<?, T, ?, ?> resourceOperator;
+    private final Function<T, S> getStatus;
+    private final BiFunction<T, S, T> withStatus;
+    private final Map<NamespaceAndName, Entry> entries = new HashMap<>();
+
+    /**
+     * Constructor
+     * @param resourceOperator The operator of the custom resources.
+     * @param getStatus Gets the status of a resource.
+     * @param withStatus Builds a copy of a resource with the given status.
+     */
+    public StatusWriter(CrdOperator<?, T, ?, ?> resourceOperator, Function<T, S> getStatus, BiFunction<T, S, T> withStatus) {
+        this.resourceOperator = resourceOperator;
+        this.getStatus = getStatus;
+        this.withStatus = withStatus;
+    }
+
+    /**
+     * Updates the status of the given resource, unless it would leave it unchanged.
+     * @param reconciliation The reconciliation.
+     * @param resource The resource, as read at the start of the reconciliation.
+     * @param desiredStatus The status which should be set.
+     * @return A future which completes when the status has been updated, or found to be up to date.
+     */
+    public Future<Void> updateStatus(Reconciliation reconciliation, T resource, S desiredStatus) {
+        NamespaceAndName key = new NamespaceAndName(resource.getMetadata().getNamespace(), resource.getMetadata().getName());
+        JsonNode normalizedStatus = normalize(desiredStatus);
+        Future<Void> result = Future.future();
+        synchronized (entries) {
+            Entry entry = entries.computeIfAbsent(key, k -> new Entry());
+            if (entry.updating) {
+                if (entry.nextWaiters == null) {
+                    entry.nextWaiters = new ArrayList<>();
+                } else {
+                    log.debug("{}: Status update requested by {} superseded", reconciliation, entry.nextReconciliation);
+                    MetricsProvider.getInstance().statusUpdateAvoided(resource.getKind());
+                }
+                entry.nextReconciliation = reconciliation;
+                entry.nextResource = resource;
+                entry.nextStatus = desiredStatus;
+                entry.nextWaiters.add(result);
+                return result;
+            }
+            if (entry.writtenResourceVersion != null
+                    && entry.writtenResourceVersion.equals(resource.getMetadata().getResourceVersion())
+                    && normalizedStatus.equals(entry.writtenStatus)) {
+                log.debug("{}: Status did not change since it was last written", reconciliation);
+                MetricsProvider.getInstance().statusUpdateAvoided(resource.getKind());
+                return Future.succeededFuture();
+            }
+            entry.updating = true;
+        }
+        write(reconciliation, resource, desiredStatus).setHandler(written -> {
+            finish(key, normalizedStatus, written);
+            result.handle(written.map((Void) null));
+        });
+        return result;
+    }
+
+    /**
+     * Forgets the status last written for a resource, for example once it has been deleted.
+     * @param namespace The namespace of the resource.
+     * @param name The name of the resource.
+     */
+    public void forget(String namespace, String name) {
+        synchronized (entries) {
+            entries.remove(new NamespaceAndName(namespace, name));
+        }
+    }
+
+    /**
+     * @return The resourceVersion of the resource after the status was written, or null if it is not known.
+     */
+    private Future<String> write(Reconciliation reconciliation, T resource, S desiredStatus) {
+        Future<String> updateStatusFuture = Future.future();
+        String kind = resource.getKind();
+
+        resourceOperator.getAsync(resource.getMetadata().getNamespace(), resource.getMetadata().getName()).setHandler(getRes -> {
+            if (getRes.succeeded()) {
+                T current = getRes.result();
+
+                if (current != null) {
+                    if (StatusUtils.isResourceV1alpha1(current)) {
+                        log.warn("{}: The resource needs to be upgraded from version {} to 'v1beta1' to use the status field", reconciliation, current.getApiVersion());
+                        updateStatusFuture.complete();
+                    } else {
+                        S currentStatus = getStatus.apply(current);
+
+                        StatusDiff ksDiff = new StatusDiff(currentStatus, desiredStatus);
+
+                        if (!ksDiff.isEmpty()) {
+                            T resourceWithNewStatus = withStatus.apply(current, desiredStatus);
+
+                            resourceOperator.updateStatusAsync(resourceWithNewStatus).setHandler(updateRes -> {
+                                if (updateRes.succeeded()) {
+                                    log.debug("{}: Completed status update", reconciliation);
+                                    updateStatusFuture.complete(resourceVersion(updateRes.result()));
+                                } else {
+                                    log.error("{}: Failed to update status", reconciliation, updateRes.cause());
+                                    updateStatusFuture.fail(updateRes.cause());
+                                }
+                            });
+                        } else {
+                            log.debug("{}: Status did not change", reconciliation);
+                            updateStatusFuture.complete(resourceVersion(current));
+                        }
+                    }
+                } else {
+                    log.error("{}: Current {} resource not found", reconciliation, kind);
+                    updateStatusFuture.fail("Current " + kind + " resource not found");
+                }
+            } else {
+                log.error("{}: Failed to get the current {} resource and its status", reconciliation, kind, getRes.cause());
+                updateStatusFuture.fail(getRes.cause());
+            }
+        });
+
+        return updateStatusFuture;
+    }
+
+    /**
+     * Records the outcome of a write and starts the update which waited for it, if any.
+     */
+    private void finish(NamespaceAndName key, JsonNode normalizedStatus, AsyncResult<String> written) {
+        Reconciliation nextReconciliation;
+        T nextResource;
+        S nextStatus;
+        List<Future<Void>> nextWaiters;
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return;
+            }
+            entry.updating = false;
+            if (written.succeeded() && written.result() != null) {
+                entry.writtenResourceVersion = written.result();
+                entry.writtenStatus = normalizedStatus;
+            } else {
+                entry.writtenResourceVersion = null;
+                entry.writtenStatus = null;
+            }
+            if (entry.nextWaiters == null) {
+                return;
+            }
+            nextReconciliation = entry.nextReconciliation;
+            nextResource = entry.nextResource;
+            nextStatus = entry.nextStatus;
+            nextWaiters = entry.nextWaiters;
+            entry.nextReconciliation = null;
+            entry.nextResource = null;
+            entry.nextStatus = null;
+            entry.nextWaiters = null;
+        }
+        updateStatus(nextReconciliation, nextResource, nextStatus).setHandler(next -> {
+            for (Future<Void> waiter : nextWaiters) {
+                waiter.handle(next);
+            }
+        });
+    }
+
+    private static String resourceVersion(CustomResource resource) {
+        return resource != null && resource.getMetadata() != null ? resource.getMetadata().getResourceVersion() : null;
+    }
+
+    /**
+     * @return The status as a JSON tree, without the transition times of its conditions, which the
+     * {@link StatusDiff} ignores as well.
+     */
+    /* test */ static JsonNode normalize(Status status) {
+        JsonNode tree = status == null ? patchMapper().createObjectNode() : patchMapper().valueToTree(status);
+        JsonNode conditions = tree.get("conditions");
+        if (conditions != null) {
+            for (JsonNode condition : conditions) {
+                if (condition instanceof ObjectNode) {
+                    ((ObjectNode) condition).remove(LAST_TRANSITION_TIME);
+                }
+            }
+        }
+        return tree;
+    }
+}
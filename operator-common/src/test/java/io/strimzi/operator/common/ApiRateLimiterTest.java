@@ -0,0 +1,96 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+
+@RunWith(VertxUnitRunner.class)
+public class ApiRateLimiterTest {
+
+    private Vertx vertx;
+
+    @Before
+    public void createVertx() {
+        vertx = Vertx.vertx();
+    }
+
+    @After
+    public void closeVertx() {
+        vertx.close();
+    }
+
+    @Test
+    public void testDisabledLimiterDoesNotWait(TestContext context) {
+        ApiRateLimiter limiter = new ApiRateLimiter(vertx, 0, 1);
+        for (int i = 0; i < 100; i++) {
+            context.assertTrue(limiter.acquire(ApiRateLimiter.Lane.READS).succeeded());
+        }
+        context.assertTrue(limiter.whenAvailable().succeeded());
+    }
+
+    @Test
+    public void testBurstIsGrantedAtOnce(TestContext context) {
+        ApiRateLimiter limiter = new ApiRateLimiter(vertx, 1, 3);
+        context.assertTrue(limiter.acquire(ApiRateLimiter.Lane.READS).succeeded());
+        context.assertTrue(limiter.acquire(ApiRateLimiter.Lane.WRITES).succeeded());
+        context.assertTrue(limiter.acquire(ApiRateLimiter.Lane.STATUS).succeeded());
+
+        Future<Void> fourth = limiter.acquire(ApiRateLimiter.Lane.READS);
+        context.assertFalse(fourth.isComplete());
+        context.assertEquals(1, limiter.waiting());
+        context.assertFalse(limiter.whenAvailable().isComplete());
+    }
+
+    @Test
+    public void testWaitingRequestsAreGrantedByLanePriority(TestContext context) {
+        ApiRateLimiter limiter = new ApiRateLimiter(vertx, 20, 1);
+        context.assertTrue(limiter.acquire(ApiRateLimiter.Lane.READS).succeeded());
+
+        List<ApiRateLimiter.Lane> granted = new ArrayList<>();
+        Async async = context.async();
+        for (ApiRateLimiter.Lane lane : asList(ApiRateLimiter.Lane.READS, ApiRateLimiter.Lane.WRITES, ApiRateLimiter.Lane.STATUS)) {
+            limiter.acquire(lane).setHandler(context.asyncAssertSuccess(v -> granted.add(lane)));
+        }
+        context.assertEquals(3, limiter.waiting());
+
+        Future<Void> drained = limiter.whenAvailable();
+        context.assertFalse(drained.isComplete());
+        drained.setHandler(context.asyncAssertSuccess(v -> {
+            context.assertEquals(asList(ApiRateLimiter.Lane.STATUS, ApiRateLimiter.Lane.WRITES, ApiRateLimiter.Lane.READS), granted);
+            context.assertEquals(0, limiter.waiting());
+            async.complete();
+        }));
+    }
+
+    @Test
+    public void testBlockingAcquireWaitsForToken(TestContext context) {
+        ApiRateLimiter limiter = new ApiRateLimiter(vertx, 10, 1);
+        Async async = context.async();
+        vertx.executeBlocking(future -> {
+            long start = System.nanoTime();
+            limiter.acquireBlocking(ApiRateLimiter.Lane.WRITES);
+            limiter.acquireBlocking(ApiRateLimiter.Lane.WRITES);
+            limiter.acquireBlocking(ApiRateLimiter.Lane.WRITES);
+            future.complete((System.nanoTime() - start) / 1_000_000);
+        }, context.asyncAssertSuccess(elapsedMs -> {
+            // The first token is in the bucket, the next two are refilled at 10 per second
+            context.assertTrue((Long) elapsedMs >= 150, "Waited only " + elapsedMs + "ms");
+            async.complete();
+        }));
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.vertx.core.Future;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class MetricsProviderTest {
+
+    private final MeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+    private final MetricsProvider metrics = new MetricsProvider(registry);
+
+    private double count(String name, String kind, String namespace) {
+        return registry.get(MetricsProvider.METRICS_PREFIX + name).tag("kind", kind).tag("namespace", namespace).counter().count();
+    }
+
+    @Test
+    public void testTimeReconciliation() {
+        Future<Void> reconciliation = Future.future();
+        Future<Void> result = metrics.timeReconciliation("Kafka", "ns", () -> reconciliation);
+        assertEquals(1.0, count("reconciliations", "Kafka", "ns"), 0.0);
+        assertFalse(result.isComplete());
+
+        reconciliation.complete();
+        assertTrue(result.succeeded());
+        assertEquals(1.0, count("reconciliations.successful", "Kafka", "ns"), 0.0);
+        assertEquals(1L, registry.get(MetricsProvider.METRICS_PREFIX + "reconciliations.duration")
+                .tag("kind", "Kafka").tag("namespace", "ns").timer().count());
+
+        result = metrics.timeReconciliation("Kafka", "ns", () -> Future.failedFuture("boom"));
+        assertTrue(result.failed());
+        assertEquals("boom", result.cause().getMessage());
+        assertEquals(2.0, count("reconciliations", "Kafka", "ns"), 0.0);
+        assertEquals(1.0, count("reconciliations.failed", "Kafka", "ns"), 0.0);
+
+        result = metrics.timeReconciliation("Kafka", "other", () -> {
+            throw new RuntimeException("thrown");
+        });
+        assertTrue(result.failed());
+        assertEquals(1.0, count("reconciliations.failed", "Kafka", "other"), 0.0);
+    }
+
+    @Test
+    public void testTimeApiRequest() {
+        assertEquals("result", metrics.timeApiRequest("get", "Secret", () -> "result"));
+        assertEquals(1L, registry.get(MetricsProvider.METRICS_PREFIX + "kubernetes.api.requests")
+                .tag("verb", "get").tag("kind", "Secret").timer().count());
+    }
+
+    @Test
+    public void testWorkQueueMetrics() {
+        Future<Void> running = Future.future();
+        WorkQueue<String, String> queue = new WorkQueue<>("test", 1, work -> running);
+        metrics.registerWorkQueue("Kafka", queue);
+
+        queue.submit("a", "a1", ar -> { });
+        queue.submit("a", "a2", ar -> { });
+        assertEquals(1.0, registry.get(MetricsProvider.METRICS_PREFIX + "reconciliations.inflight").tag("kind", "Kafka").gauge().value(), 0.0);
+        assertEquals(1.0, registry.get(MetricsProvider.METRICS_PREFIX + "reconciliations.pending").tag("kind", "Kafka").gauge().value(), 0.0);
+        assertEquals(1.0, registry.get(MetricsProvider.METRICS_PREFIX + "reconciliations.wait").tag("kind", "Kafka").functionTimer().count(), 0.0);
+    }
+
+    @Test
+    public void testScrape() {
+        metrics.watchReconnected("KafkaUser", "ns");
+        metrics.lockWait("KafkaTopic", "ns", TimeUnit.MILLISECONDS.toNanos(5));
+        String scraped = metrics.scrape();
+        assertThat(scraped, containsString("strimzi_watch_reconnects_total{kind=\"KafkaUser\",namespace=\"ns\",} 1.0"));
+        assertThat(scraped, containsString("strimzi_resource_lock_wait_seconds_count{kind=\"KafkaTopic\",namespace=\"ns\",} 1.0"));
+        assertThat(scraped, containsString("strimzi_resource_lock_wait_seconds_bucket"));
+    }
+}
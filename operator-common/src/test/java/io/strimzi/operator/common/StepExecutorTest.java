@@ -0,0 +1,140 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+import io.vertx.core.Future;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StepExecutorTest {
+
+    private final List<String> started = new ArrayList<>();
+    private final Map<String, Future<Void>> running = new HashMap<>();
+
+    private Future<?> step(String name) {
+        started.add(name);
+        Future<Void> future = Future.future();
+        running.put(name, future);
+        return future;
+    }
+
+    @Test
+    public void testStepsRunInDependencyOrder() {
+        Future<String> result = new StepExecutor<String>("test", 10)
+                .step("a", s -> step("a"))
+                .step("b", s -> step("b"), "a")
+                .step("c", s -> step("c"), "a")
+                .step("d", s -> step("d"), "b", "c")
+                .execute("state");
+
+        assertEquals(asList("a"), started);
+        running.get("a").complete();
+        // b and c are independent, so they run in parallel
+        assertEquals(asList("a", "b", "c"), started);
+        running.get("c").complete();
+        assertEquals(asList("a", "b", "c"), started);
+        running.get("b").complete();
+        assertEquals(asList("a", "b", "c", "d"), started);
+        assertFalse(result.isComplete());
+        running.get("d").complete();
+        assertTrue(result.succeeded());
+        assertEquals("state", result.result());
+    }
+
+    @Test
+    public void testMaxParallelSteps() {
+        StepExecutor<String> executor = new StepExecutor<String>("test", 2)
+                .step("a", s -> step("a"))
+                .step("b", s -> step("b"))
+                .step("c", s -> step("c"));
+        Future<String> result = executor.execute("state");
+
+        assertEquals(asList("a", "b"), started);
+        running.get("b").complete();
+        assertEquals(asList("a", "b", "c"), started);
+        running.get("a").complete();
+        running.get("c").complete();
+        assertTrue(result.succeeded());
+        assertEquals(asList("b", "a", "c"), new ArrayList<>(executor.durationsMs().keySet()));
+    }
+
+    @Test
+    public void testSynchronousStepsRunSequentiallyInOrder() {
+        Future<String> result = new StepExecutor<String>("test", 1)
+                .step("a", s -> {
+                    started.add("a");
+                    return Future.succeededFuture();
+                })
+                .step("b", s -> {
+                    started.add("b");
+                    return Future.succeededFuture();
+                })
+                .step("c", s -> {
+                    started.add("c");
+                    return Future.succeededFuture();
+                }, "a")
+                .execute("state");
+
+        assertEquals(asList("a", "b", "c"), started);
+        assertTrue(result.succeeded());
+    }
+
+    @Test
+    public void testFailureStopsFurtherSteps() {
+        Future<String> result = new StepExecutor<String>("test", 10)
+                .step("a", s -> step("a"))
+                .step("b", s -> step("b"))
+                .step("c", s -> step("c"), "a", "b")
+                .execute("state");
+
+        running.get("a").fail("boom");
+        // The execution waits for the steps still in flight
+        assertFalse(result.isComplete());
+        running.get("b").complete();
+        assertEquals(asList("a", "b"), started);
+        assertTrue(result.failed());
+        assertEquals("boom", result.cause().getMessage());
+    }
+
+    @Test
+    public void testThrowingStep() {
+        Future<String> result = new StepExecutor<String>("test", 10)
+                .step("a", s -> {
+                    throw new RuntimeException("thrown");
+                })
+                .step("b", s -> step("b"), "a")
+                .execute("state");
+
+        assertTrue(result.failed());
+        assertEquals("thrown", result.cause().getMessage());
+        assertTrue(started.isEmpty());
+    }
+
+    @Test
+    public void testNoSteps() {
+        assertTrue(new StepExecutor<String>("test", 1).execute("state").succeeded());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownDependency() {
+        new StepExecutor<String>("test", 1).step("a", s -> step("a"), "b");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateStep() {
+        new StepExecutor<String>("test", 1)
+                .step("a", s -> step("a"))
+                .step("a", s -> step("a"));
+    }
+}
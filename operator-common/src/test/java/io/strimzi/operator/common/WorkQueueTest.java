@@ -0,0 +1,173 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class WorkQueueTest {
+
+    private final List<String> started = new ArrayList<>();
+    private final List<Future<Void>> running = new ArrayList<>();
+
+    private WorkQueue<String, String> queue() {
+        return queue(Integer.MAX_VALUE);
+    }
+
+    private WorkQueue<String, String> queue(int maxConcurrent) {
+        return new WorkQueue<>("test", maxConcurrent, work -> {
+            started.add(work);
+            Future<Void> future = Future.future();
+            running.add(future);
+            return future;
+        });
+    }
+
+    @Test
+    public void testDifferentKeysRunConcurrently() {
+        WorkQueue<String, String> queue = queue();
+        queue.submit("a", "a1", ar -> { });
+        queue.submit("b", "b1", ar -> { });
+
+        assertEquals(asList("a1", "b1"), started);
+        assertEquals(2, queue.inFlight());
+        assertEquals(0, queue.pending());
+    }
+
+    @Test
+    public void testSameKeyIsCollapsedAndRerunAfterInFlight() {
+        WorkQueue<String, String> queue = queue();
+        List<String> completed = new ArrayList<>();
+        queue.submit("a", "a1", ar -> completed.add("a1"));
+        queue.submit("a", "a2", ar -> completed.add("a2"));
+        queue.submit("a", "a3", ar -> completed.add("a3"));
+
+        assertEquals(asList("a1"), started);
+        assertEquals(1, queue.inFlight());
+        assertEquals(1, queue.pending());
+        assertEquals(1, queue.collapsed());
+
+        running.get(0).complete();
+        // The pending submissions are run once, as the latest work
+        assertEquals(asList("a1", "a3"), started);
+        assertEquals(asList("a1"), completed);
+        assertEquals(0, queue.pending());
+
+        running.get(1).complete();
+        assertEquals(asList("a1", "a2", "a3"), completed);
+        assertEquals(0, queue.inFlight());
+        assertEquals(3, queue.submitted());
+        assertEquals(2, queue.executed());
+    }
+
+    @Test
+    public void testFailureIsPassedToAllCollapsedHandlers() {
+        WorkQueue<String, String> queue = queue();
+        List<AsyncResult<Void>> results = new ArrayList<>();
+        queue.submit("a", "a1", results::add);
+        queue.submit("a", "a2", results::add);
+        queue.submit("a", "a3", results::add);
+
+        running.get(0).fail("boom");
+        running.get(1).fail("bang");
+
+        assertEquals(3, results.size());
+        assertEquals("boom", results.get(0).cause().getMessage());
+        assertEquals("bang", results.get(1).cause().getMessage());
+        assertEquals("bang", results.get(2).cause().getMessage());
+    }
+
+    @Test
+    public void testWorkerThrowing() {
+        List<AsyncResult<Void>> results = new ArrayList<>();
+        WorkQueue<String, String> queue = new WorkQueue<>("test", work -> {
+            throw new RuntimeException("thrown");
+        });
+        queue.submit("a", "a1", results::add);
+        queue.submit("a", "a2", results::add);
+
+        assertEquals(2, results.size());
+        assertTrue(results.get(0).failed());
+        assertTrue(results.get(1).failed());
+        assertEquals(0, queue.inFlight());
+    }
+
+    @Test
+    public void testMaxConcurrent() {
+        WorkQueue<String, String> queue = queue(2);
+        queue.submit("a", "a1", ar -> { });
+        queue.submit("b", "b1", ar -> { });
+        queue.submit("c", "c1", ar -> { });
+
+        assertEquals(asList("a1", "b1"), started);
+        assertEquals(2, queue.inFlight());
+        assertEquals(1, queue.pending());
+
+        running.get(1).complete();
+        assertEquals(asList("a1", "b1", "c1"), started);
+        assertEquals(2, queue.inFlight());
+        assertEquals(0, queue.pending());
+    }
+
+    @Test
+    public void testPriorityWorkIsStartedFirst() {
+        WorkQueue<String, String> queue = queue(1);
+        queue.submit("a", "a1", false, ar -> { });
+        queue.submit("b", "b1", false, ar -> { });
+        queue.submit("c", "c1", false, ar -> { });
+        queue.submit("d", "d1", true, ar -> { });
+        // Collapsing priority work into pending non-priority work promotes it
+        queue.submit("c", "c2", true, ar -> { });
+
+        assertEquals(asList("a1"), started);
+        running.get(0).complete();
+        running.get(1).complete();
+        running.get(2).complete();
+        running.get(3).complete();
+        assertEquals(asList("a1", "d1", "c2", "b1"), started);
+        assertEquals(0, queue.inFlight());
+        assertEquals(0, queue.pending());
+    }
+
+    @Test
+    public void testPendingWorkForInFlightKeyWaitsForSlot() {
+        WorkQueue<String, String> queue = queue(1);
+        queue.submit("a", "a1", ar -> { });
+        queue.submit("b", "b1", false, ar -> { });
+        queue.submit("a", "a2", ar -> { });
+
+        running.get(0).complete();
+        // a2 became ready after b1, but it is priority work
+        assertEquals(asList("a1", "a2"), started);
+        running.get(1).complete();
+        assertEquals(asList("a1", "a2", "b1"), started);
+    }
+
+    @Test
+    public void testClosedGateHoldsBackNonPriorityWork() {
+        WorkQueue<String, String> queue = queue();
+        Future<Void> gateOpened = Future.future();
+        queue.setGate(() -> gateOpened.isComplete() ? Future.succeededFuture() : gateOpened);
+        queue.submit("a", "a1", false, ar -> { });
+        queue.submit("b", "b1", false, ar -> { });
+        queue.submit("c", "c1", true, ar -> { });
+
+        // Priority work is started regardless of the gate
+        assertEquals(asList("c1"), started);
+        assertEquals(2, queue.pending());
+
+        gateOpened.complete();
+        assertEquals(asList("c1", "a1", "b1"), started);
+        assertEquals(0, queue.pending());
+    }
+}
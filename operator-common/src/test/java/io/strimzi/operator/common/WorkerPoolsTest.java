@@ -0,0 +1,64 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(VertxUnitRunner.class)
+public class WorkerPoolsTest {
+
+    private Vertx vertx;
+
+    @Before
+    public void createVertx() {
+        vertx = Vertx.vertx();
+    }
+
+    @After
+    public void closeVertx() {
+        vertx.close();
+    }
+
+    @Test
+    public void testExecutorsAreCreatedOnce(TestContext context) {
+        new WorkerPools(1, 1, 1, 1).create(vertx);
+        WorkerExecutor reads = WorkerPools.kubernetesApiReads(vertx);
+        context.assertTrue(reads == WorkerPools.kubernetesApiReads(vertx));
+        context.assertTrue(WorkerPools.kubernetesApiWrites(vertx) == WorkerPools.kubernetesApiWrites(vertx));
+        context.assertTrue(WorkerPools.certGeneration(vertx) == WorkerPools.certGeneration(vertx));
+        context.assertTrue(WorkerPools.readinessPolling(vertx) == WorkerPools.readinessPolling(vertx));
+        context.assertFalse(reads == WorkerPools.kubernetesApiWrites(vertx));
+
+        Async async = context.async();
+        reads.executeBlocking(future -> future.complete(Thread.currentThread().getName()), context.asyncAssertSuccess(thread -> {
+            context.assertTrue(((String) thread).startsWith(WorkerPools.KUBERNETES_API_READS));
+            async.complete();
+        }));
+    }
+
+    @Test
+    public void testExecutorsAreCreatedOnUseWithoutCreate(TestContext context) {
+        WorkerExecutor readiness = WorkerPools.readinessPolling(vertx);
+        context.assertTrue(readiness == WorkerPools.readinessPolling(vertx));
+    }
+
+    @Test
+    public void testExecutorsAreSeparatePerVertx(TestContext context) {
+        Vertx other = Vertx.vertx();
+        try {
+            context.assertFalse(WorkerPools.kubernetesApiReads(vertx) == WorkerPools.kubernetesApiReads(other));
+        } finally {
+            other.close();
+        }
+    }
+}
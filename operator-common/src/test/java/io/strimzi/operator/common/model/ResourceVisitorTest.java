@@ -10,9 +10,12 @@ import org.junit.Test;
 
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Member;
+import java.util.ArrayList;
 import java.util.List;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 public class ResourceVisitorTest {
 
@@ -33,4 +36,30 @@ public class ResourceVisitorTest {
         });
     }
 
+    private static List<String> visitedPaths(Kafka k) {
+        List<String> paths = new ArrayList<>();
+        ResourceVisitor.visit(k, new ResourceVisitor.Visitor() {
+            @Override
+            public <M extends AnnotatedElement & Member> void visitProperty(List<String> path, Object owner, M member, ResourceVisitor.Property<M> property, Object propertyValue) {
+                paths.add(String.join(".", path) + "." + property.propertyName(member));
+            }
+
+            @Override
+            public void visitObject(List<String> path, Object object) {
+                paths.add(String.join(".", path));
+            }
+        });
+        return paths;
+    }
+
+    @Test
+    public void testVisitsTheSamePropertiesEachTime() {
+        Kafka k = TestUtils.fromYaml("/example.yaml", Kafka.class, true);
+        List<String> paths = visitedPaths(k);
+        assertTrue(paths.contains("spec.kafka.listeners.plain"));
+        assertTrue(paths.contains("spec.kafka.replicas"));
+        assertTrue(paths.contains("spec.zookeeper.storage"));
+        assertTrue(paths.contains("metadata.name"));
+        assertEquals(paths, visitedPaths(k));
+    }
 }
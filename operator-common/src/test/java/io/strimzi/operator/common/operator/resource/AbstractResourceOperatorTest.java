@@ -21,6 +21,7 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import static java.util.Collections.singletonMap;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -85,6 +86,8 @@ public abstract class AbstractResourceOperatorTest<C extends KubernetesClient, T
 
     public void createWhenExistsIsAPatch(TestContext context, boolean cascade) {
         T resource = resource();
+        // The current resource differs from the desired one, so it needs to be patched
+        resource.getMetadata().setAnnotations(singletonMap("test", "current"));
         Resource mockResource = mock(resourceType());
         when(mockResource.get()).thenReturn(resource);
         when(mockResource.cascading(cascade)).thenReturn(mockResource);
@@ -117,6 +120,35 @@ public abstract class AbstractResourceOperatorTest<C extends KubernetesClient, T
         });
     }
 
+    @Test
+    public void createWhenExistsAndUnchangedIsANoop(TestContext context) {
+        T resource = resource();
+        Resource mockResource = mock(resourceType());
+        when(mockResource.get()).thenReturn(resource);
+
+        NonNamespaceOperation mockNameable = mock(NonNamespaceOperation.class);
+        when(mockNameable.withName(matches(resource.getMetadata().getName()))).thenReturn(mockResource);
+
+        MixedOperation mockCms = mock(MixedOperation.class);
+        when(mockCms.inNamespace(matches(resource.getMetadata().getNamespace()))).thenReturn(mockNameable);
+
+        C mockClient = mock(clientType());
+        mocker(mockClient, mockCms);
+
+        AbstractResourceOperator<C, T, L, D, R> op = createResourceOperations(vertx, mockClient);
+
+        Async async = context.async();
+        op.createOrUpdate(resource).setHandler(ar -> {
+            assertTrue(ar.succeeded());
+            assertTrue(ar.result() instanceof ReconcileResult.Noop);
+            verify(mockResource).get();
+            verify(mockResource, never()).patch(any());
+            verify(mockResource, never()).create(any());
+            verify(mockResource, never()).delete();
+            async.complete();
+        });
+    }
+
     @Test
     public void existenceCheckThrows(TestContext context) {
         T resource = resource();
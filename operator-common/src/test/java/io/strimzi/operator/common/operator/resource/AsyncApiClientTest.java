@@ -0,0 +1,358 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common.operator.resource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.api.model.ConfigMapListBuilder;
+import io.fabric8.kubernetes.api.model.StatusBuilder;
+import io.fabric8.kubernetes.client.Config;
+import io.fabric8.kubernetes.client.ConfigBuilder;
+import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
+
+@RunWith(VertxUnitRunner.class)
+public class AsyncApiClientTest {
+
+    private static final String NAMESPACE = "test";
+    private static final String CONFIG_MAPS_PATH = "/api/v1/namespaces/" + NAMESPACE + "/configmaps";
+
+    private static Vertx vertx;
+    private static HttpServer server;
+    private static volatile Handler<HttpServerRequest> api;
+
+    private KubernetesClient kubernetes;
+    private AsyncApiClient client;
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+
+    @BeforeClass
+    public static void before(TestContext context) {
+        vertx = Vertx.vertx();
+        server = vertx.createHttpServer().requestHandler(request -> api.handle(request));
+        server.listen(0, context.asyncAssertSuccess());
+    }
+
+    @AfterClass
+    public static void after() {
+        vertx.close();
+    }
+
+    @Before
+    public void setup() {
+        requests.clear();
+        kubernetes = new DefaultKubernetesClient(new ConfigBuilder()
+                .withMasterUrl("http://localhost:" + server.actualPort())
+                .withOauthToken("my-token")
+                .build());
+        client = new AsyncApiClient(vertx, kubernetes.getConfiguration(), AsyncApiClient.DEFAULT_MAX_POOL_SIZE);
+    }
+
+    @After
+    public void teardown() {
+        client.close();
+        kubernetes.close();
+    }
+
+    /**
+     * Serves the requests with the given handler, recording their method and URI.
+     */
+    private void serve(TestContext context, Handler<HttpServerRequest> handler) {
+        api = request -> {
+            requests.add(request.method() + " " + request.uri());
+            context.assertEquals("Bearer my-token", request.getHeader("Authorization"));
+            handler.handle(request);
+        };
+    }
+
+    private static void respond(HttpServerRequest request, int status, Object body) {
+        request.response()
+                .setStatusCode(status)
+                .putHeader("Content-Type", AsyncApiClient.JSON)
+                .end(Serialization.asJson(body));
+    }
+
+    private static ConfigMap configMap(String name, String resourceVersion, String value) {
+        return new ConfigMapBuilder()
+                .withNewMetadata()
+                    .withNamespace(NAMESPACE)
+                    .withName(name)
+                    .withResourceVersion(resourceVersion)
+                .endMetadata()
+                .addToData("key", value)
+                .build();
+    }
+
+    private static String event(String type, Object object) {
+        return "{\"type\":\"" + type + "\",\"object\":" + Serialization.asJson(object) + "}\n";
+    }
+
+    @Test
+    public void testGet(TestContext context) {
+        serve(context, request -> {
+            if (request.path().equals(CONFIG_MAPS_PATH + "/my-cm")) {
+                respond(request, 200, configMap("my-cm", "1", "value"));
+            } else {
+                respond(request, 404, new StatusBuilder().withCode(404).withReason("NotFound").build());
+            }
+        });
+
+        Async async = context.async(2);
+        client.get(kubernetes.configMaps().inNamespace(NAMESPACE).withName("my-cm")).setHandler(context.asyncAssertSuccess(cm -> {
+            context.assertEquals("value", cm.getData().get("key"));
+            async.countDown();
+        }));
+        client.get(kubernetes.configMaps().inNamespace(NAMESPACE).withName("other")).setHandler(context.asyncAssertSuccess(cm -> {
+            context.assertNull(cm);
+            async.countDown();
+        }));
+    }
+
+    @Test
+    public void testListWithLabels(TestContext context) {
+        serve(context, request -> {
+            context.assertEquals("app=my-app", request.getParam("labelSelector"));
+            ConfigMap item = configMap("my-cm", "1", "value");
+            // The API server leaves out the apiVersion of the items of a list
+            item.setApiVersion(null);
+            respond(request, 200, new ConfigMapListBuilder().withItems(item).withNewMetadata().withResourceVersion("5").endMetadata().build());
+        });
+
+        client.list(kubernetes.configMaps().inNamespace(NAMESPACE).withLabels(singletonMap("app", "my-app"))).setHandler(context.asyncAssertSuccess(list -> {
+            context.assertEquals("5", list.getMetadata().getResourceVersion());
+            context.assertEquals(1, list.getItems().size());
+            context.assertEquals("v1", list.getItems().get(0).getApiVersion());
+            context.assertEquals(asList("GET " + CONFIG_MAPS_PATH + "?labelSelector=app%3Dmy-app"), requests);
+        }));
+    }
+
+    @Test
+    public void testCreate(TestContext context) {
+        serve(context, request -> request.bodyHandler(body -> {
+            context.assertEquals(AsyncApiClient.JSON, request.getHeader("Content-Type"));
+            ConfigMap created = Serialization.unmarshal(body.toString(), ConfigMap.class);
+            created.getMetadata().setResourceVersion("1");
+            respond(request, 201, created);
+        }));
+
+        client.create(kubernetes.configMaps().inNamespace(NAMESPACE), configMap("my-cm", null, "value")).setHandler(context.asyncAssertSuccess(cm -> {
+            context.assertEquals("1", cm.getMetadata().getResourceVersion());
+            context.assertEquals(asList("POST " + CONFIG_MAPS_PATH), requests);
+        }));
+    }
+
+    @Test
+    public void testPatch(TestContext context) {
+        serve(context, request -> request.bodyHandler(body -> {
+            context.assertEquals(AsyncApiClient.JSON_PATCH, request.getHeader("Content-Type"));
+            try {
+                JsonNode patch = Serialization.jsonMapper().readTree(body.getBytes());
+                // Only the data changed, the resource versions are left out of the patch
+                context.assertEquals(1, patch.size(), patch.toString());
+                context.assertEquals("replace", patch.get(0).get("op").asText());
+                context.assertEquals("/data/key", patch.get(0).get("path").asText());
+                context.assertEquals("new", patch.get(0).get("value").asText());
+            } catch (IOException e) {
+                context.fail(e);
+            }
+            respond(request, 200, configMap("my-cm", "2", "new"));
+        }));
+
+        client.patch(kubernetes.configMaps().inNamespace(NAMESPACE).withName("my-cm").cascading(true),
+                configMap("my-cm", "1", "old"), configMap("my-cm", null, "new")).setHandler(context.asyncAssertSuccess(cm -> {
+                    context.assertEquals("2", cm.getMetadata().getResourceVersion());
+                    context.assertEquals(asList("PATCH " + CONFIG_MAPS_PATH + "/my-cm"), requests);
+                }));
+    }
+
+    @Test
+    public void testDelete(TestContext context) {
+        AtomicInteger deletes = new AtomicInteger();
+        serve(context, request -> request.bodyHandler(body -> {
+            Map<?, ?> options = Serialization.unmarshal(body.toString(), Map.class);
+            context.assertEquals(Boolean.FALSE, options.get("orphanDependents"));
+            if (deletes.getAndIncrement() == 0) {
+                respond(request, 200, new StatusBuilder().withStatus("Success").build());
+            } else {
+                respond(request, 404, new StatusBuilder().withCode(404).withReason("NotFound").build());
+            }
+        }));
+
+        Async async = context.async();
+        client.delete(kubernetes.configMaps().inNamespace(NAMESPACE).withName("my-cm").cascading(true)).setHandler(context.asyncAssertSuccess(deleted -> {
+            context.assertTrue(deleted);
+            client.delete(kubernetes.configMaps().inNamespace(NAMESPACE).withName("my-cm").cascading(true)).setHandler(context.asyncAssertSuccess(again -> {
+                context.assertFalse(again, "Already deleted");
+                async.complete();
+            }));
+        }));
+    }
+
+    @Test
+    public void testFailedRequest(TestContext context) {
+        serve(context, request -> respond(request, 409,
+                new StatusBuilder().withCode(409).withReason("AlreadyExists").withMessage("configmaps \"my-cm\" already exists").build()));
+
+        client.create(kubernetes.configMaps().inNamespace(NAMESPACE), configMap("my-cm", null, "value")).setHandler(context.asyncAssertFailure(e -> {
+            context.assertTrue(e instanceof KubernetesClientException);
+            context.assertEquals(409, ((KubernetesClientException) e).getCode());
+            context.assertEquals("AlreadyExists", ((KubernetesClientException) e).getStatus().getReason());
+        }));
+    }
+
+    @Test
+    public void testRotatedTokenIsReadAgain(TestContext context) {
+        AtomicReference<String> token = new AtomicReference<>("old-token");
+        Config config = new ConfigBuilder(kubernetes.getConfiguration()).withOauthToken(null).build();
+        config.setOauthTokenProvider(token::get);
+        AsyncApiClient rotatingClient = new AsyncApiClient(vertx, config, AsyncApiClient.DEFAULT_MAX_POOL_SIZE);
+        api = request -> {
+            requests.add(request.getHeader("Authorization"));
+            if ("Bearer new-token".equals(request.getHeader("Authorization"))) {
+                respond(request, 200, configMap("my-cm", "1", "value"));
+            } else {
+                respond(request, 401, new StatusBuilder().withCode(401).withReason("Unauthorized").build());
+            }
+        };
+
+        Async async = context.async();
+        rotatingClient.get(kubernetes.configMaps().inNamespace(NAMESPACE).withName("my-cm")).setHandler(context.asyncAssertFailure(e -> {
+            context.assertEquals(401, ((KubernetesClientException) e).getCode());
+            // The token is rotated
+            token.set("new-token");
+            rotatingClient.get(kubernetes.configMaps().inNamespace(NAMESPACE).withName("my-cm")).setHandler(context.asyncAssertSuccess(cm -> {
+                context.assertEquals("value", cm.getData().get("key"));
+                context.assertEquals(asList("Bearer old-token", "Bearer old-token", "Bearer new-token"), requests);
+                rotatingClient.close();
+                async.complete();
+            }));
+        }));
+    }
+
+    @Test
+    public void testWatchIsReopenedFromLastResourceVersion(TestContext context) {
+        AtomicInteger watches = new AtomicInteger();
+        serve(context, request -> {
+            context.assertEquals("true", request.getParam("watch"));
+            if (watches.getAndIncrement() == 0) {
+                context.assertNull(request.getParam("resourceVersion"));
+                request.response().setChunked(true);
+                request.response().write(event("ADDED", configMap("my-cm", "1", "a")));
+                // The API server ends the watch after a while
+                request.response().end(event("MODIFIED", configMap("my-cm", "2", "b")));
+            } else {
+                context.assertEquals("2", request.getParam("resourceVersion"));
+                request.response().setChunked(true);
+                request.response().end(event("ERROR", new StatusBuilder().withCode(410).withReason("Expired").build()));
+            }
+        });
+
+        List<String> events = new CopyOnWriteArrayList<>();
+        Async closed = context.async();
+        client.watch(kubernetes.configMaps().inNamespace(NAMESPACE), new Watcher<ConfigMap>() {
+            @Override
+            public void eventReceived(Action action, ConfigMap resource) {
+                events.add(action + " " + resource.getMetadata().getResourceVersion());
+            }
+
+            @Override
+            public void onClose(KubernetesClientException cause) {
+                context.assertNotNull(cause);
+                context.assertEquals(410, cause.getCode());
+                closed.complete();
+            }
+        });
+        closed.await();
+        context.assertEquals(asList("ADDED 1", "MODIFIED 2"), events);
+        context.assertEquals(2, watches.get());
+    }
+
+    @Test
+    public void testWatchClose(TestContext context) {
+        Async opened = context.async();
+        serve(context, request -> {
+            context.assertEquals("metadata.name=my-cm", request.getParam("fieldSelector"));
+            request.response().setChunked(true);
+            request.response().write(event("ADDED", configMap("my-cm", "1", "a")));
+            opened.complete();
+        });
+
+        AtomicInteger closes = new AtomicInteger();
+        Async closed = context.async();
+        Watch watch = client.watch(kubernetes.configMaps().inNamespace(NAMESPACE).withName("my-cm"), new Watcher<ConfigMap>() {
+            @Override
+            public void eventReceived(Action action, ConfigMap resource) {
+            }
+
+            @Override
+            public void onClose(KubernetesClientException cause) {
+                context.assertNull(cause);
+                context.assertEquals(1, closes.incrementAndGet());
+                closed.complete();
+            }
+        });
+        opened.await();
+        watch.close();
+        watch.close();
+        closed.await();
+    }
+
+    @Test
+    public void testOperatorReconcilesWithAsyncClient(TestContext context) {
+        serve(context, request -> {
+            if (request.method() == HttpMethod.GET) {
+                if (requests.size() == 1) {
+                    respond(request, 404, new StatusBuilder().withCode(404).withReason("NotFound").build());
+                } else {
+                    respond(request, 200, configMap("my-cm", "1", "old"));
+                }
+            } else {
+                request.bodyHandler(body -> respond(request, request.method() == HttpMethod.POST ? 201 : 200, configMap("my-cm", "2", "new")));
+            }
+        });
+
+        ConfigMapOperator operator = new ConfigMapOperator(vertx, kubernetes);
+        operator.setAsyncClient(client);
+
+        Async async = context.async();
+        operator.reconcile(NAMESPACE, "my-cm", configMap("my-cm", null, "new")).setHandler(context.asyncAssertSuccess(created -> {
+            context.assertTrue(created instanceof ReconcileResult.Created);
+            operator.reconcile(NAMESPACE, "my-cm", configMap("my-cm", null, "new")).setHandler(context.asyncAssertSuccess(patched -> {
+                context.assertTrue(patched instanceof ReconcileResult.Patched);
+                context.assertEquals(asList("GET " + CONFIG_MAPS_PATH + "/my-cm", "POST " + CONFIG_MAPS_PATH,
+                        "GET " + CONFIG_MAPS_PATH + "/my-cm", "PATCH " + CONFIG_MAPS_PATH + "/my-cm"), requests);
+                async.complete();
+            }));
+        }));
+    }
+}
@@ -13,7 +13,10 @@ import io.fabric8.kubernetes.client.dsl.AppsAPIGroupDSL;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.RollableScalableResource;
 import io.vertx.core.Vertx;
+import org.junit.Test;
 
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -48,4 +51,43 @@ public class DeploymentOperatorTest extends
     protected DeploymentOperator createResourceOperations(Vertx vertx, KubernetesClient mockClient) {
         return new DeploymentOperator(vertx, mockClient);
     }
+
+    private static Deployment deploymentWithSecurityContext(Long fsGroup) {
+        return new DeploymentBuilder()
+                .withNewMetadata()
+                    .withNamespace(NAMESPACE)
+                    .withName(RESOURCE_NAME)
+                .endMetadata()
+                .withNewSpec()
+                    .withNewTemplate()
+                        .withNewSpec()
+                            .withNewSecurityContext()
+                                .withFsGroup(fsGroup)
+                            .endSecurityContext()
+                        .endSpec()
+                    .endTemplate()
+                .endSpec()
+                .build();
+    }
+
+    private boolean isEmpty(Deployment current, Deployment desired) {
+        DeploymentOperator op = createResourceOperations(vertx, mock(KubernetesClient.class));
+        return new ResourceDiff<>("Deployment", current, desired, op.serverDefaultedPaths()).isEmpty();
+    }
+
+    @Test
+    public void testDiffIgnoresEmptySecurityContextDefaultedByServer() {
+        Deployment desired = new DeploymentBuilder(deploymentWithSecurityContext(null))
+                .editSpec().editTemplate().editSpec().withSecurityContext(null).endSpec().endTemplate().endSpec()
+                .build();
+        assertTrue(isEmpty(deploymentWithSecurityContext(null), desired));
+    }
+
+    @Test
+    public void testDiffDetectsRemovedSecurityContext() {
+        Deployment desired = new DeploymentBuilder(deploymentWithSecurityContext(null))
+                .editSpec().editTemplate().editSpec().withSecurityContext(null).endSpec().endTemplate().endSpec()
+                .build();
+        assertFalse(isEmpty(deploymentWithSecurityContext(1001L), desired));
+    }
 }
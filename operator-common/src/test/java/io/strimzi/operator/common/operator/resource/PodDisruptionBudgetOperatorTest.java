@@ -4,6 +4,7 @@
  */
 package io.strimzi.operator.common.operator.resource;
 
+import io.fabric8.kubernetes.api.model.IntOrString;
 import io.fabric8.kubernetes.api.model.policy.DoneablePodDisruptionBudget;
 import io.fabric8.kubernetes.api.model.policy.PodDisruptionBudget;
 import io.fabric8.kubernetes.api.model.policy.PodDisruptionBudgetBuilder;
@@ -68,6 +69,7 @@ public class PodDisruptionBudgetOperatorTest extends AbstractResourceOperatorTes
     @Override
     public void createWhenExistsIsAPatch(TestContext context, boolean cascade) {
         PodDisruptionBudget resource = resource();
+        resource.getSpec().setMaxUnavailable(new IntOrString(2));
         Resource mockResource = mock(resourceType());
         when(mockResource.get()).thenReturn(resource);
         when(mockResource.cascading(cascade)).thenReturn(mockResource);
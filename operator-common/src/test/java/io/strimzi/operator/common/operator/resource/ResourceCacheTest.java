@@ -0,0 +1,225 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common.operator.resource;
+
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.api.model.ConfigMapList;
+import io.fabric8.kubernetes.api.model.ConfigMapListBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
+import io.fabric8.kubernetes.client.dsl.Resource;
+import io.fabric8.kubernetes.client.dsl.Watchable;
+import io.strimzi.operator.common.model.Labels;
+import io.vertx.core.Vertx;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(VertxUnitRunner.class)
+public class ResourceCacheTest {
+
+    private static final String NAMESPACE = "test";
+
+    private static Vertx vertx;
+
+    @BeforeClass
+    public static void before() {
+        vertx = Vertx.vertx();
+    }
+
+    @AfterClass
+    public static void after() {
+        vertx.close();
+    }
+
+    private static ConfigMap configMap(String name, String resourceVersion, String value) {
+        return new ConfigMapBuilder()
+                .withNewMetadata()
+                    .withNamespace(NAMESPACE)
+                    .withName(name)
+                    .withResourceVersion(resourceVersion)
+                    .withLabels(singletonMap("app", name))
+                .endMetadata()
+                .addToData("key", value)
+                .build();
+    }
+
+    private static ResourceCache<ConfigMap> syncedCache(ConfigMap... items) {
+        ResourceCache<ConfigMap> cache = new ResourceCache<>("ConfigMap", NAMESPACE, e -> { });
+        cache.replace(asList(items), "10");
+        return cache;
+    }
+
+    @Test
+    public void testGetReturnsCopy() {
+        ConfigMap cm = configMap("a", "1", "x");
+        ResourceCache<ConfigMap> cache = syncedCache(cm);
+
+        assertTrue(cache.isSynced());
+        ConfigMap cached = cache.get(NAMESPACE, "a");
+        assertEquals(cm, cached);
+        assertNotSame(cm, cached);
+
+        cached.getData().put("key", "modified");
+        assertEquals("x", cache.get(NAMESPACE, "a").getData().get("key"));
+        assertNull(cache.get(NAMESPACE, "b"));
+    }
+
+    @Test
+    public void testStaleEventsAreIgnored() {
+        ResourceCache<ConfigMap> cache = syncedCache(configMap("a", "5", "x"));
+
+        cache.eventReceived(Watcher.Action.MODIFIED, configMap("a", "4", "old"));
+        assertEquals("x", cache.get(NAMESPACE, "a").getData().get("key"));
+
+        cache.eventReceived(Watcher.Action.MODIFIED, configMap("a", "6", "new"));
+        assertEquals("new", cache.get(NAMESPACE, "a").getData().get("key"));
+
+        // Our own write was newer than the watch event which follows it
+        cache.update(configMap("a", "8", "written"));
+        cache.eventReceived(Watcher.Action.MODIFIED, configMap("a", "7", "event"));
+        assertEquals("written", cache.get(NAMESPACE, "a").getData().get("key"));
+    }
+
+    @Test
+    public void testDeletion() {
+        ResourceCache<ConfigMap> cache = syncedCache(configMap("a", "5", "x"), configMap("b", "5", "y"));
+
+        cache.remove(NAMESPACE, "a");
+        assertNull(cache.get(NAMESPACE, "a"));
+        // A late event about the deleted resource must not resurrect it
+        cache.eventReceived(Watcher.Action.MODIFIED, configMap("a", "5", "x"));
+        assertNull(cache.get(NAMESPACE, "a"));
+        // But it can be re-created
+        cache.eventReceived(Watcher.Action.ADDED, configMap("a", "9", "z"));
+        assertEquals("z", cache.get(NAMESPACE, "a").getData().get("key"));
+
+        cache.eventReceived(Watcher.Action.DELETED, configMap("b", "6", "y"));
+        assertNull(cache.get(NAMESPACE, "b"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testList() {
+        ResourceCache<ConfigMap> cache = syncedCache(configMap("a", "1", "x"), configMap("b", "1", "y"));
+
+        assertEquals(2, cache.list(NAMESPACE, null).size());
+        assertEquals(2, cache.list(AbstractWatchableResourceOperator.ANY_NAMESPACE, Labels.EMPTY).size());
+        List<ConfigMap> selected = cache.list(NAMESPACE, Labels.fromMap(singletonMap("app", "b")));
+        assertEquals(1, selected.size());
+        assertEquals("b", selected.get(0).getMetadata().getName());
+        assertTrue(cache.list("other", null).isEmpty());
+    }
+
+    @Test
+    public void testWatchErrorUnsyncs() {
+        ResourceCache<ConfigMap> cache = syncedCache(configMap("a", "1", "x"));
+        cache.eventReceived(Watcher.Action.ERROR, configMap("a", "1", "x"));
+        assertTrue(!cache.isSynced());
+    }
+
+    @Test
+    public void testWatchErrorClosesWatchAndResyncs() {
+        List<KubernetesClientException> closes = new ArrayList<>();
+        ResourceCache<ConfigMap> cache = new ResourceCache<>("ConfigMap", NAMESPACE, closes::add);
+        cache.replace(asList(configMap("a", "1", "x")), "10");
+        Watch watch = mock(Watch.class);
+        doAnswer(invocation -> {
+            // Like the fabric8 client, closing the watch notifies the watcher without a cause
+            cache.onClose(null);
+            return null;
+        }).when(watch).close();
+        cache.watching(watch);
+
+        // The fabric8 client reports errors other than 410 Gone without a resource
+        cache.eventReceived(Watcher.Action.ERROR, null);
+
+        verify(watch).close();
+        assertFalse(cache.isSynced());
+        assertEquals(1, closes.size());
+        assertNotNull(closes.get(0));
+
+        // The re-sync is not undone by the closure of the previous watch
+        cache.replace(asList(configMap("a", "2", "y")), "20");
+        cache.onClose(null);
+        assertTrue(cache.isSynced());
+    }
+
+    @Test
+    public void testResourceVersionComparison() {
+        assertTrue(ResourceCache.compareResourceVersions("10", "9") > 0);
+        assertTrue(ResourceCache.compareResourceVersions("9", "10") < 0);
+        assertEquals(0, ResourceCache.compareResourceVersions("9", "9"));
+        assertEquals(0, ResourceCache.compareResourceVersions("abc", "abc"));
+        assertTrue(ResourceCache.compareResourceVersions("abc", "abd") > 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testOperatorReadsFromCache(TestContext context) {
+        ConfigMap cm = configMap("a", "1", "x");
+        ConfigMapList list = new ConfigMapListBuilder()
+                .withNewMetadata().withResourceVersion("10").endMetadata()
+                .withItems(cm)
+                .build();
+
+        Resource mockResource = mock(Resource.class);
+        NonNamespaceOperation mockNameable = mock(NonNamespaceOperation.class);
+        when(mockNameable.withName(any())).thenReturn(mockResource);
+        when(mockNameable.list()).thenReturn(list);
+        Watchable mockWatchable = mock(Watchable.class);
+        when(mockWatchable.watch(any(Watcher.class))).thenReturn(mock(Watch.class));
+        when(mockNameable.withResourceVersion(eq("10"))).thenReturn(mockWatchable);
+
+        MixedOperation mockCms = mock(MixedOperation.class);
+        when(mockCms.inNamespace(eq(NAMESPACE))).thenReturn(mockNameable);
+
+        KubernetesClient mockClient = mock(KubernetesClient.class);
+        when(mockClient.configMaps()).thenReturn(mockCms);
+
+        ConfigMapOperator op = new ConfigMapOperator(vertx, mockClient);
+
+        Async async = context.async();
+        op.enableCache(NAMESPACE).compose(v -> {
+            context.assertEquals(cm, op.get(NAMESPACE, "a"));
+            context.assertEquals(1, op.list(NAMESPACE, Labels.EMPTY).size());
+            verify(mockResource, never()).get();
+            return op.reconcile(NAMESPACE, "a", configMap("a", "1", "x"));
+        }).setHandler(context.asyncAssertSuccess(result -> {
+            context.assertTrue(result instanceof ReconcileResult.Noop);
+            verify(mockResource, never()).get();
+            verify(mockResource, never()).patch(any());
+            async.complete();
+        }));
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common.operator.resource;
+
+import io.fabric8.kubernetes.api.model.IntOrString;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceBuilder;
+import io.fabric8.openshift.api.model.Route;
+import io.fabric8.openshift.api.model.RouteBuilder;
+import org.junit.Test;
+
+import java.util.regex.Pattern;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ResourceDiffTest {
+
+    private static final Pattern SERVICE_DEFAULTED_PATHS = Pattern.compile("^(/spec/clusterIP|/spec/ports/[0-9]+/protocol)$");
+
+    private static Service desiredService() {
+        return new ServiceBuilder()
+                .withNewMetadata()
+                    .withName("my-service")
+                    .withNamespace("my-namespace")
+                    .withLabels(singletonMap("app", "strimzi"))
+                .endMetadata()
+                .withNewSpec()
+                    .addNewPort()
+                        .withName("clients")
+                        .withPort(9092)
+                        .withTargetPort(new IntOrString(9092))
+                    .endPort()
+                .endSpec()
+                .build();
+    }
+
+    private static Service currentService() {
+        return new ServiceBuilder(desiredService())
+                .editMetadata()
+                    .withResourceVersion("123")
+                    .withUid("4c0ad8d7-6b40-4b6b-8c1b-4c5b1a2a0b60")
+                    .withCreationTimestamp("2019-10-01T00:00:00Z")
+                .endMetadata()
+                .editSpec()
+                    .withClusterIP("10.0.0.1")
+                    .editFirstPort()
+                        .withProtocol("TCP")
+                    .endPort()
+                .endSpec()
+                .withNewStatus()
+                    .withNewLoadBalancer()
+                    .endLoadBalancer()
+                .endStatus()
+                .build();
+    }
+
+    private static boolean isEmpty(Service current, Service desired) {
+        return new ResourceDiff<>("Service", current, desired, SERVICE_DEFAULTED_PATHS).isEmpty();
+    }
+
+    @Test
+    public void testServerManagedAndDefaultedFieldsAreIgnored() {
+        assertTrue(isEmpty(currentService(), desiredService()));
+    }
+
+    @Test
+    public void testChangesAreDetected() {
+        Service desired = desiredService();
+        desired.getMetadata().setLabels(singletonMap("app", "other"));
+        assertFalse(isEmpty(currentService(), desired));
+
+        desired = desiredService();
+        desired.getSpec().getPorts().get(0).setPort(9093);
+        assertFalse(isEmpty(currentService(), desired));
+    }
+
+    @Test
+    public void testChangingADefaultedFieldIsDetected() {
+        Service desired = desiredService();
+        desired.getSpec().setClusterIP("10.0.0.2");
+        assertFalse(isEmpty(currentService(), desired));
+    }
+
+    @Test
+    public void testRemovingAFieldIsDetected() {
+        Service current = currentService();
+        current.getMetadata().setAnnotations(singletonMap("strimzi.io/test", "value"));
+        assertFalse(isEmpty(current, desiredService()));
+        assertFalse(new ResourceDiff<>("Service", current, desiredService(), null).isEmpty());
+    }
+
+    @Test
+    public void testRemovingOnlyDefaultedAnnotationsIsIgnored() {
+        Route desired = new RouteBuilder()
+                .withNewMetadata()
+                    .withName("my-route")
+                    .withNamespace("my-namespace")
+                .endMetadata()
+                .withNewSpec()
+                    .withNewTo()
+                        .withKind("Service")
+                        .withName("my-service")
+                    .endTo()
+                .endSpec()
+                .build();
+        Route current = new RouteBuilder(desired)
+                .editMetadata()
+                    .withAnnotations(singletonMap("openshift.io/host.generated", "true"))
+                .endMetadata()
+                .editSpec()
+                    .withHost("my-route-my-namespace.apps.example.com")
+                .endSpec()
+                .build();
+        Pattern routeDefaultedPaths = Pattern.compile("^(/metadata/annotations/openshift.io~1host.generated|/spec/host)$");
+
+        assertTrue(new ResourceDiff<>("Route", current, desired, routeDefaultedPaths).isEmpty());
+        assertFalse(new ResourceDiff<>("Route", current, desired, null).isEmpty());
+    }
+
+    @Test
+    public void testEmptyAndMissingValuesAreEqual() {
+        Service current = currentService();
+        current.getMetadata().setOwnerReferences(emptyList());
+        assertTrue(isEmpty(current, desiredService()));
+
+        Service desired = desiredService();
+        desired.getMetadata().setAnnotations(emptyMap());
+        assertTrue(isEmpty(currentService(), desired));
+    }
+}
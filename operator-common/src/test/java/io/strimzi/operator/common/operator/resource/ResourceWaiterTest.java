@@ -0,0 +1,198 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common.operator.resource;
+
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@RunWith(VertxUnitRunner.class)
+public class ResourceWaiterTest {
+
+    private static final String NAMESPACE = "test";
+
+    private static Vertx vertx;
+
+    private final AtomicInteger watchesOpened = new AtomicInteger();
+    private Watch watch;
+    private volatile Watcher<ConfigMap> watcher;
+
+    @BeforeClass
+    public static void before() {
+        vertx = Vertx.vertx();
+    }
+
+    @AfterClass
+    public static void after() {
+        vertx.close();
+    }
+
+    @Before
+    public void setup() {
+        watchesOpened.set(0);
+        watch = mock(Watch.class);
+        watcher = null;
+    }
+
+    private ResourceWaiter<ConfigMap> waiter() {
+        return new ResourceWaiter<>(vertx, "ConfigMap", NAMESPACE, w -> {
+            watchesOpened.incrementAndGet();
+            watcher = w;
+            return watch;
+        }, 1);
+    }
+
+    private static ConfigMap configMap(String name, String value) {
+        return new ConfigMapBuilder()
+                .withNewMetadata()
+                    .withNamespace(NAMESPACE)
+                    .withName(name)
+                .endMetadata()
+                .addToData("key", value)
+                .build();
+    }
+
+    private static Predicate<ConfigMap> hasValue(String value) {
+        return cm -> cm != null && value.equals(cm.getData().get("key"));
+    }
+
+    /**
+     * Starts a wait whose initial check fails, and returns once that check has been made,
+     * so that any event sent afterwards is one the wait must act on.
+     */
+    private Future<Void> waitFor(TestContext context, ResourceWaiter<ConfigMap> waiter, String name, long timeoutMs, Predicate<ConfigMap> ready) {
+        Async checked = context.async();
+        Future<Void> result = waiter.waitFor(name, 20, timeoutMs, ready, () -> {
+            checked.complete();
+            return false;
+        });
+        checked.await();
+        return result;
+    }
+
+    @Test
+    public void testCompletesOnEvent(TestContext context) {
+        ResourceWaiter<ConfigMap> waiter = waiter();
+        Future<Void> result = waitFor(context, waiter, "a", 5_000, hasValue("ready"));
+
+        watcher.eventReceived(Watcher.Action.MODIFIED, configMap("b", "ready"));
+        watcher.eventReceived(Watcher.Action.MODIFIED, configMap("a", "not-ready"));
+        context.assertFalse(result.isComplete());
+
+        Async async = context.async();
+        watcher.eventReceived(Watcher.Action.MODIFIED, configMap("a", "ready"));
+        result.setHandler(ar -> {
+            context.assertTrue(ar.succeeded());
+            async.complete();
+        });
+        async.await();
+        context.assertEquals(0, waiter.size());
+        // The watch is closed once it is idle
+        verify(watch, timeout(1_000)).close();
+    }
+
+    @Test
+    public void testCompletesOnDeletion(TestContext context) {
+        ResourceWaiter<ConfigMap> waiter = waiter();
+        Future<Void> result = waitFor(context, waiter, "a", 5_000, cm -> cm == null);
+
+        watcher.eventReceived(Watcher.Action.MODIFIED, configMap("a", "terminating"));
+        context.assertFalse(result.isComplete());
+
+        watcher.eventReceived(Watcher.Action.DELETED, configMap("a", "terminating"));
+        result.setHandler(context.asyncAssertSuccess());
+    }
+
+    @Test
+    public void testCompletesOnInitialCheck(TestContext context) {
+        ResourceWaiter<ConfigMap> waiter = waiter();
+        waiter.waitFor("a", 20, 5_000, hasValue("ready"), () -> true).setHandler(context.asyncAssertSuccess());
+    }
+
+    @Test
+    public void testTimeout(TestContext context) {
+        ResourceWaiter<ConfigMap> waiter = waiter();
+        Future<Void> result = waitFor(context, waiter, "a", 100, hasValue("ready"));
+
+        watcher.eventReceived(Watcher.Action.MODIFIED, configMap("a", "not-ready"));
+        result.setHandler(context.asyncAssertFailure(e -> {
+            context.assertTrue(e instanceof TimeoutException);
+            context.assertEquals(0, waiter.size());
+        }));
+    }
+
+    @Test
+    public void testWaitsShareTheWatch(TestContext context) {
+        ResourceWaiter<ConfigMap> waiter = waiter();
+        Future<Void> a = waitFor(context, waiter, "a", 5_000, hasValue("ready"));
+        Future<Void> b = waitFor(context, waiter, "b", 5_000, hasValue("ready"));
+        Future<Void> b2 = waitFor(context, waiter, "b", 5_000, hasValue("ready"));
+        context.assertEquals(1, watchesOpened.get());
+        context.assertEquals(3, waiter.size());
+
+        watcher.eventReceived(Watcher.Action.MODIFIED, configMap("b", "ready"));
+        watcher.eventReceived(Watcher.Action.MODIFIED, configMap("a", "ready"));
+        a.setHandler(context.asyncAssertSuccess());
+        b.setHandler(context.asyncAssertSuccess());
+        b2.setHandler(context.asyncAssertSuccess());
+    }
+
+    @Test
+    public void testFallsBackToPollingWithoutWatch(TestContext context) {
+        ResourceWaiter<ConfigMap> waiter = new ResourceWaiter<>(vertx, "ConfigMap", NAMESPACE, w -> {
+            throw new KubernetesClientException("Forbidden");
+        }, 1);
+        AtomicInteger checks = new AtomicInteger();
+        BooleanSupplier check = () -> checks.incrementAndGet() > 2;
+
+        waiter.waitFor("a", 20, 5_000, hasValue("ready"), check).setHandler(context.asyncAssertSuccess(v -> {
+            context.assertEquals(3, checks.get());
+            context.assertFalse(waiter.isWatching());
+        }));
+    }
+
+    @Test
+    public void testRewatchesAfterWatchError(TestContext context) {
+        ResourceWaiter<ConfigMap> waiter = waiter();
+        AtomicInteger checks = new AtomicInteger();
+        Async checked = context.async();
+        // The resource becomes ready after the initial check, while the watch is down, so its event is missed
+        Future<Void> result = waiter.waitFor("a", 20, 5_000, hasValue("ready"), () -> {
+            if (checks.getAndIncrement() == 0) {
+                checked.complete();
+                return false;
+            }
+            return true;
+        });
+        checked.await();
+
+        watcher.onClose(new KubernetesClientException("Connection reset"));
+        result.setHandler(context.asyncAssertSuccess(v -> {
+            context.assertEquals(2, watchesOpened.get());
+            context.assertEquals(2, checks.get());
+        }));
+    }
+}
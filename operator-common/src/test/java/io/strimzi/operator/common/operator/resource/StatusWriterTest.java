@@ -0,0 +1,165 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common.operator.resource;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import io.strimzi.api.kafka.model.Kafka;
+import io.strimzi.api.kafka.model.KafkaBuilder;
+import io.strimzi.api.kafka.model.status.ConditionBuilder;
+import io.strimzi.api.kafka.model.status.KafkaStatus;
+import io.strimzi.api.kafka.model.status.KafkaStatusBuilder;
+import io.strimzi.operator.common.Reconciliation;
+import io.strimzi.operator.common.model.ResourceType;
+import io.vertx.core.Future;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StatusWriterTest {
+
+    private static final String NAMESPACE = "ns";
+    private static final String NAME = "my-cluster";
+
+    private final Reconciliation reconciliation = new Reconciliation("test", ResourceType.KAFKA, NAMESPACE, NAME);
+    private final List<Future<Kafka>> updates = new ArrayList<>();
+    private final ArgumentCaptor<Kafka> updated = ArgumentCaptor.forClass(Kafka.class);
+    private CrdOperator<?, Kafka, ?, ?> mockKafkaOps;
+    private StatusWriter<Kafka, KafkaStatus> writer;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        mockKafkaOps = mock(CrdOperator.class);
+        when(mockKafkaOps.getAsync(anyString(), anyString())).thenAnswer(invocation -> Future.succeededFuture(kafka("1", null)));
+        when(mockKafkaOps.updateStatusAsync(updated.capture())).thenAnswer(invocation -> {
+            Future<Kafka> update = Future.future();
+            updates.add(update);
+            return update;
+        });
+        writer = new StatusWriter<>(mockKafkaOps, Kafka::getStatus, (resource, status) -> new KafkaBuilder(resource).withStatus(status).build());
+    }
+
+    private static Kafka kafka(String resourceVersion, KafkaStatus status) {
+        return new KafkaBuilder()
+                .withApiVersion("kafka.strimzi.io/v1beta1")
+                .withNewMetadata()
+                    .withNamespace(NAMESPACE)
+                    .withName(NAME)
+                    .withResourceVersion(resourceVersion)
+                .endMetadata()
+                .withStatus(status)
+                .build();
+    }
+
+    private static KafkaStatus status(String type, String lastTransitionTime) {
+        return new KafkaStatusBuilder()
+                .withObservedGeneration(1L)
+                .withConditions(new ConditionBuilder().withType(type).withStatus("True").withLastTransitionTime(lastTransitionTime).build())
+                .build();
+    }
+
+    @Test
+    public void testUnchangedStatusIsNotReadOrWrittenAgain() {
+        Future<Void> first = writer.updateStatus(reconciliation, kafka("1", null), status("Ready", "2019-10-01T10:00:00Z"));
+        updates.get(0).complete(kafka("2", status("Ready", "2019-10-01T10:00:00Z")));
+        assertTrue(first.succeeded());
+
+        Future<Void> second = writer.updateStatus(reconciliation, kafka("2", null), status("Ready", "2019-10-01T10:05:00Z"));
+        assertTrue(second.succeeded());
+        verify(mockKafkaOps, times(1)).getAsync(NAMESPACE, NAME);
+        verify(mockKafkaOps, times(1)).updateStatusAsync(any());
+    }
+
+    @Test
+    public void testChangedStatusOrResourceIsWritten() {
+        writer.updateStatus(reconciliation, kafka("1", null), status("Ready", "2019-10-01T10:00:00Z"));
+        updates.get(0).complete(kafka("2", null));
+
+        // The resource changed since the status was written
+        writer.updateStatus(reconciliation, kafka("3", null), status("Ready", "2019-10-01T10:05:00Z"));
+        verify(mockKafkaOps, times(2)).getAsync(NAMESPACE, NAME);
+        updates.get(1).complete(kafka("4", null));
+
+        // The status changed
+        writer.updateStatus(reconciliation, kafka("4", null), status("NotReady", "2019-10-01T10:05:00Z"));
+        verify(mockKafkaOps, times(3)).getAsync(NAMESPACE, NAME);
+        verify(mockKafkaOps, times(3)).updateStatusAsync(any());
+    }
+
+    @Test
+    public void testMissingStatusIsNotWrittenAgain() {
+        // The current resource has no status either, so nothing is written
+        Future<Void> first = writer.updateStatus(reconciliation, kafka("1", null), null);
+        assertTrue(first.succeeded());
+        assertEquals(JsonNodeFactory.instance.objectNode(), StatusWriter.normalize(null));
+
+        Future<Void> second = writer.updateStatus(reconciliation, kafka("1", null), null);
+        assertTrue(second.succeeded());
+        verify(mockKafkaOps, times(1)).getAsync(NAMESPACE, NAME);
+
+        writer.updateStatus(reconciliation, kafka("1", null), status("Ready", null));
+        verify(mockKafkaOps, times(2)).getAsync(NAMESPACE, NAME);
+        verify(mockKafkaOps, times(1)).updateStatusAsync(any());
+    }
+
+    @Test
+    public void testUpdatesDuringAWriteAreCoalesced() {
+        Future<Void> first = writer.updateStatus(reconciliation, kafka("1", null), status("NotReady", null));
+        Future<Void> second = writer.updateStatus(reconciliation, kafka("1", null), status("NotReady", null));
+        Future<Void> third = writer.updateStatus(reconciliation, kafka("1", null), status("Ready", null));
+        assertEquals(1, updates.size());
+
+        updates.get(0).complete(kafka("2", null));
+        assertTrue(first.succeeded());
+        assertEquals(2, updates.size());
+        assertEquals("Ready", updated.getValue().getStatus().getConditions().get(0).getType());
+
+        updates.get(1).complete(kafka("3", null));
+        assertTrue(second.succeeded());
+        assertTrue(third.succeeded());
+    }
+
+    @Test
+    public void testFailedWriteIsNotRemembered() {
+        Future<Void> first = writer.updateStatus(reconciliation, kafka("1", null), status("Ready", null));
+        updates.get(0).fail("failure");
+        assertTrue(first.failed());
+
+        writer.updateStatus(reconciliation, kafka("1", null), status("Ready", null));
+        verify(mockKafkaOps, times(2)).updateStatusAsync(any());
+    }
+
+    @Test
+    public void testForgottenStatusIsReadAgain() {
+        writer.updateStatus(reconciliation, kafka("1", null), status("Ready", null));
+        updates.get(0).complete(kafka("2", null));
+        writer.forget(NAMESPACE, NAME);
+
+        writer.updateStatus(reconciliation, kafka("2", null), status("Ready", null));
+        verify(mockKafkaOps, times(2)).getAsync(NAMESPACE, NAME);
+    }
+
+    @Test
+    public void testStatusOfV1alpha1ResourceIsNotWritten() {
+        when(mockKafkaOps.getAsync(anyString(), anyString())).thenReturn(Future.succeededFuture(
+                new KafkaBuilder(kafka("1", null)).withApiVersion("kafka.strimzi.io/v1alpha1").build()));
+
+        assertTrue(writer.updateStatus(reconciliation, kafka("1", null), status("Ready", null)).succeeded());
+        verify(mockKafkaOps, never()).updateStatusAsync(any());
+    }
+}
@@ -14,6 +14,7 @@ import io.strimzi.api.kafka.model.status.KafkaTopicStatus;
 import io.strimzi.operator.cluster.model.StatusDiff;
 import io.strimzi.operator.common.BackOff;
 import io.strimzi.operator.common.MaxAttemptsExceededException;
+import io.strimzi.operator.common.MetricsProvider;
 import io.strimzi.operator.common.operator.resource.StatusUtils;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.CompositeFuture;
@@ -402,11 +403,13 @@ class TopicOperator {
                 return waiters + 1;
             }
         });
+        long lockRequestedNanos = System.nanoTime();
         vertx.sharedData().getLockWithTimeout(lockName, timeoutMs, lockResult -> {
+            MetricsProvider.getInstance().lockWait(KafkaTopic.RESOURCE_KIND, namespace, System.nanoTime() - lockRequestedNanos);
             if (lockResult.succeeded()) {
                 LOGGER.debug("{}: Lock acquired", logContext);
                 LOGGER.debug("{}: Executing action {} on topic {}", logContext, action, lockName);
-                action.execute().setHandler(actionResult -> {
+                MetricsProvider.getInstance().timeReconciliation(KafkaTopic.RESOURCE_KIND, namespace, action::execute).setHandler(actionResult -> {
                     LOGGER.debug("{}: Executing handler for action {} on topic {}", logContext, action, lockName);
                     action.result = actionResult;
                     // Update status with lock held so that event is ignored via statusUpdateGeneration
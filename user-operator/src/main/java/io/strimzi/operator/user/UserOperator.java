@@ -8,6 +8,8 @@ import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.KubernetesClientException;
 import io.fabric8.kubernetes.client.Watch;
 
+import io.strimzi.operator.common.MetricsProvider;
+import io.strimzi.operator.common.WorkerPools;
 import io.strimzi.operator.common.model.Labels;
 import io.strimzi.operator.user.operator.KafkaUserOperator;
 
@@ -57,6 +59,7 @@ public class UserOperator extends AbstractVerticle {
             public void accept(KubernetesClientException e) {
                 if (e != null) {
                     log.error("Watcher closed with exception in namespace {}", namespace, e);
+                    MetricsProvider.getInstance().watchReconnected("KafkaUser", namespace);
                     op.createWatch(namespace, selector, this);
                 } else {
                     log.info("Watcher closed in namespace {}", namespace);
@@ -70,8 +73,9 @@ public class UserOperator extends AbstractVerticle {
     public void start(Future<Void> start) {
         log.info("Starting UserOperator for namespace {}", namespace);
 
-        // Configure the executor here, but it is used only in other places
+        // Configure the executors here, but they are used only in other places
         getVertx().createSharedWorkerExecutor("kubernetes-ops-pool", 10, TimeUnit.SECONDS.toNanos(120));
+        new WorkerPools().create(getVertx());
 
         kafkaUserOperator.createWatch(namespace, selector, recreateWatch(kafkaUserOperator))
             .compose(w -> {
@@ -81,7 +85,7 @@ public class UserOperator extends AbstractVerticle {
                 log.info("Setting up periodic reconciliation for namespace {}", namespace);
                 this.reconcileTimer = vertx.setPeriodic(this.reconciliationInterval, res2 -> {
                     log.info("Triggering periodic reconciliation for namespace {}...", namespace);
-                    reconcileAll("timer");
+                    reconcileAll("timer", reconciliationInterval / 2);
                 });
 
                 return startHealthServer().map((Void) null);
@@ -102,10 +106,11 @@ public class UserOperator extends AbstractVerticle {
     }
 
     /**
-      Periodical reconciliation (in case we lost some event)
+      Periodical reconciliation (in case we lost some event).
+      The reconciliations are spread over {@code spreadMs}.
      */
-    private void reconcileAll(String trigger) {
-        kafkaUserOperator.reconcileAll(trigger, namespace, selector);
+    private void reconcileAll(String trigger, long spreadMs) {
+        kafkaUserOperator.reconcileAll(trigger, namespace, selector, spreadMs);
     }
 
     /**
@@ -119,6 +124,8 @@ public class UserOperator extends AbstractVerticle {
                         request.response().setStatusCode(200).end();
                     } else if (request.path().equals("/ready")) {
                         request.response().setStatusCode(200).end();
+                    } else if (request.path().equals("/metrics")) {
+                        MetricsProvider.getInstance().handleMetricsRequest(request);
                     }
                 })
                 .listen(HEALTH_SERVER_PORT, ar -> {
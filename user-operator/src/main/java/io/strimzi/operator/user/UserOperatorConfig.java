@@ -25,10 +25,12 @@ public class UserOperatorConfig {
     public static final String STRIMZI_ZOOKEEPER_SESSION_TIMEOUT_MS = "STRIMZI_ZOOKEEPER_SESSION_TIMEOUT_MS";
     public static final String STRIMZI_CLIENTS_CA_VALIDITY = "STRIMZI_CA_VALIDITY";
     public static final String STRIMZI_CLIENTS_CA_RENEWAL = "STRIMZI_CA_RENEWAL";
+    public static final String STRIMZI_MAX_CONCURRENT_RECONCILIATIONS = "STRIMZI_MAX_CONCURRENT_RECONCILIATIONS";
 
     public static final long DEFAULT_FULL_RECONCILIATION_INTERVAL_MS = 120_000;
     public static final String DEFAULT_ZOOKEEPER_CONNECT = "localhost:2181";
     public static final long DEFAULT_ZOOKEEPER_SESSION_TIMEOUT_MS = 6_000;
+    public static final int DEFAULT_MAX_CONCURRENT_RECONCILIATIONS = 10;
 
     private final String namespace;
     private final long reconciliationIntervalMs;
@@ -38,6 +40,7 @@ public class UserOperatorConfig {
     private final String caCertSecretName;
     private final String caKeySecretName;
     private final String caNamespace;
+    private final int maxConcurrentReconciliations;
 
     /**
      * Constructor
@@ -58,6 +61,31 @@ public class UserOperatorConfig {
                               Labels labels, String caCertSecretName,
                               String caKeySecretName,
                               String caNamespace) {
+        this(namespace, reconciliationIntervalMs, zookeperConnect, zookeeperSessionTimeoutMs, labels, caCertSecretName,
+                caKeySecretName, caNamespace, DEFAULT_MAX_CONCURRENT_RECONCILIATIONS);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param namespace namespace in which the operator will run and create resources.
+     * @param reconciliationIntervalMs How many milliseconds between reconciliation runs.
+     * @param zookeperConnect Connecton URL for Zookeeper.
+     * @param zookeeperSessionTimeoutMs Session timeout for Zookeeper connections.
+     * @param labels Map with labels which should be used to find the KafkaUser resources.
+     * @param caCertSecretName Name of the secret containing the Certification Authority certificate.
+     * @param caKeySecretName The name of the secret containing the Certification Authority key.
+     * @param caNamespace Namespace with the CA secret.
+     * @param maxConcurrentReconciliations The maximum number of users reconciled at the same time.
+     */
+    public UserOperatorConfig(String namespace,
+                              long reconciliationIntervalMs,
+                              String zookeperConnect,
+                              long zookeeperSessionTimeoutMs,
+                              Labels labels, String caCertSecretName,
+                              String caKeySecretName,
+                              String caNamespace,
+                              int maxConcurrentReconciliations) {
         this.namespace = namespace;
         this.reconciliationIntervalMs = reconciliationIntervalMs;
         this.zookeperConnect = zookeperConnect;
@@ -66,6 +94,7 @@ public class UserOperatorConfig {
         this.caCertSecretName = caCertSecretName;
         this.caKeySecretName = caKeySecretName;
         this.caNamespace = caNamespace;
+        this.maxConcurrentReconciliations = maxConcurrentReconciliations;
     }
 
     /**
@@ -122,7 +151,22 @@ public class UserOperatorConfig {
             caNamespace = namespace;
         }
 
-        return new UserOperatorConfig(namespace, reconciliationInterval, zookeeperConnect, zookeeperSessionTimeoutMs, labels, caCertSecretName, caKeySecretName, caNamespace);
+        int maxConcurrentReconciliations = parseMaxConcurrentReconciliations(map.get(UserOperatorConfig.STRIMZI_MAX_CONCURRENT_RECONCILIATIONS));
+
+        return new UserOperatorConfig(namespace, reconciliationInterval, zookeeperConnect, zookeeperSessionTimeoutMs, labels, caCertSecretName, caKeySecretName, caNamespace, maxConcurrentReconciliations);
+    }
+
+    private static int parseMaxConcurrentReconciliations(String maxConcurrentReconciliationsEnvVar) {
+        int maxConcurrentReconciliations = DEFAULT_MAX_CONCURRENT_RECONCILIATIONS;
+
+        if (maxConcurrentReconciliationsEnvVar != null) {
+            maxConcurrentReconciliations = Integer.parseInt(maxConcurrentReconciliationsEnvVar.trim());
+            if (maxConcurrentReconciliations <= 0) {
+                throw new InvalidConfigurationException(UserOperatorConfig.STRIMZI_MAX_CONCURRENT_RECONCILIATIONS + " must be a positive number");
+            }
+        }
+
+        return maxConcurrentReconciliations;
     }
 
     public static int getClientsCaValidityDays() {
@@ -198,6 +242,13 @@ public class UserOperatorConfig {
         return zookeeperSessionTimeoutMs;
     }
 
+    /**
+     * @return  The maximum number of users reconciled at the same time
+     */
+    public int getMaxConcurrentReconciliations() {
+        return maxConcurrentReconciliations;
+    }
+
     @Override
     public String toString() {
         return "ClusterOperatorConfig(" +
@@ -208,6 +259,7 @@ public class UserOperatorConfig {
                 ",labels=" + labels +
                 ",caName=" + caCertSecretName +
                 ",caNamespace=" + caNamespace +
+                ",maxConcurrentReconciliations=" + maxConcurrentReconciliations +
                 ")";
     }
 }
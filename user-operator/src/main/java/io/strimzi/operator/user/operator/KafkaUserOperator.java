@@ -15,14 +15,17 @@ import io.strimzi.api.kafka.model.KafkaUser;
 import io.strimzi.api.kafka.model.KafkaUserBuilder;
 import io.strimzi.api.kafka.model.status.KafkaUserStatus;
 import io.strimzi.certs.CertManager;
-import io.strimzi.operator.cluster.model.StatusDiff;
 import io.strimzi.operator.common.Reconciliation;
+import io.strimzi.operator.common.MetricsProvider;
+import io.strimzi.operator.common.WorkQueue;
 import io.strimzi.operator.common.model.Labels;
+import io.strimzi.operator.common.model.NamespaceAndName;
 import io.strimzi.operator.common.model.ResourceType;
 import io.strimzi.operator.common.operator.resource.CrdOperator;
 import io.strimzi.operator.common.operator.resource.ReconcileResult;
 import io.strimzi.operator.common.operator.resource.SecretOperator;
 import io.strimzi.operator.common.operator.resource.StatusUtils;
+import io.strimzi.operator.common.operator.resource.StatusWriter;
 import io.strimzi.operator.user.model.KafkaUserModel;
 import io.strimzi.operator.user.model.acl.SimpleAclRule;
 import io.vertx.core.AsyncResult;
@@ -30,7 +33,6 @@ import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
-import io.vertx.core.shareddata.Lock;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -48,10 +50,10 @@ import java.util.stream.Collectors;
  */
 public class KafkaUserOperator {
     private static final Logger log = LogManager.getLogger(KafkaUserOperator.class.getName());
-    private static final int LOCK_TIMEOUT_MS = 10;
     private static final String RESOURCE_KIND = "KafkaUser";
     private final Vertx vertx;
     private final CrdOperator<KubernetesClient, KafkaUser, KafkaUserList, DoneableKafkaUser> crdOperator;
+    private final StatusWriter<KafkaUser, KafkaUserStatus> statusWriter;
     private final SecretOperator secretOperations;
     private final SimpleAclOperator aclOperations;
     private final CertManager certManager;
@@ -59,6 +61,7 @@ public class KafkaUserOperator {
     private final String caKeyName;
     private final String caNamespace;
     private final ScramShaCredentialsOperator scramShaCredentialOperator;
+    private final WorkQueue<NamespaceAndName, Reconciliation> workQueue;
     private PasswordGenerator passwordGenerator = new PasswordGenerator(12,
             "abcdefghijklmnopqrstuvwxyz" +
                     "ABCDEFGHIJKLMNOPQRSTUVWXYZ",
@@ -83,26 +86,43 @@ public class KafkaUserOperator {
                              SecretOperator secretOperations,
                              ScramShaCredentialsOperator scramShaCredentialOperator,
                              SimpleAclOperator aclOperations, String caCertName, String caKeyName, String caNamespace) {
+        this(vertx, certManager, crdOperator, secretOperations, scramShaCredentialOperator, aclOperations,
+                caCertName, caKeyName, caNamespace, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param vertx The Vertx instance.
+     * @param certManager For managing certificates.
+     * @param crdOperator For operating on Custom Resources.
+     * @param secretOperations For operating on Secrets.
+     * @param scramShaCredentialOperator For operating on SCRAM SHA credentials.
+     * @param aclOperations For operating on ACLs.
+     * @param caCertName The name of the Secret containing the clients CA certificate.
+     * @param caKeyName The name of the Secret containing the clients CA private key.
+     * @param caNamespace The namespace of the Secret containing the clients CA certificate and private key.
+     * @param maxConcurrentReconciliations The maximum number of users reconciled at the same time.
+     */
+    public KafkaUserOperator(Vertx vertx,
+                             CertManager certManager,
+                             CrdOperator<KubernetesClient, KafkaUser, KafkaUserList, DoneableKafkaUser> crdOperator,
+                             SecretOperator secretOperations,
+                             ScramShaCredentialsOperator scramShaCredentialOperator,
+                             SimpleAclOperator aclOperations, String caCertName, String caKeyName, String caNamespace,
+                             int maxConcurrentReconciliations) {
         this.vertx = vertx;
         this.certManager = certManager;
         this.secretOperations = secretOperations;
         this.scramShaCredentialOperator = scramShaCredentialOperator;
         this.crdOperator = crdOperator;
+        this.statusWriter = new StatusWriter<>(crdOperator, KafkaUser::getStatus,
+            (resource, status) -> new KafkaUserBuilder(resource).withStatus(status).build());
         this.aclOperations = aclOperations;
         this.caCertName = caCertName;
         this.caKeyName = caKeyName;
         this.caNamespace = caNamespace;
-    }
-
-    /**
-     * Gets the name of the lock to be used for operating on the given {@code namespace} and
-     * cluster {@code name}
-     *
-     * @param namespace The namespace containing the cluster
-     * @param name The name of the cluster
-     */
-    private final String getLockName(String namespace, String name) {
-        return "lock::" + namespace + "::" + RESOURCE_KIND + "::" + name;
+        this.workQueue = new WorkQueue<>(RESOURCE_KIND + "-reconciliations", maxConcurrentReconciliations,
+            reconciliation -> MetricsProvider.getInstance().timeReconciliation(RESOURCE_KIND, reconciliation.namespace(), () -> doReconcile(reconciliation)));
+        MetricsProvider.getInstance().registerWorkQueue(RESOURCE_KIND, workQueue);
     }
 
     /**
@@ -182,8 +202,9 @@ public class KafkaUserOperator {
     }
 
     /**
-     * Updates the Status field of the Kafka User CR. It diffs the desired status against the current status and calls
-     * the update only when there is any difference in non-timestamp fields.
+     * Updates the Status field of the Kafka User CR through the {@link StatusWriter}. It diffs the desired status against
+     * the current status and calls the update only when there is any difference in non-timestamp fields, without
+     * reading the current status when the CR did not change since its status was last written.
      *
      * @param kafkaUserAssembly The CR of Kafka user
      * @param reconciliation Reconciliation information
@@ -192,49 +213,7 @@ public class KafkaUserOperator {
      * @return
      */
     Future<Void> updateStatus(KafkaUser kafkaUserAssembly, Reconciliation reconciliation, KafkaUserStatus desiredStatus) {
-        Future<Void> updateStatusFuture = Future.future();
-
-        crdOperator.getAsync(kafkaUserAssembly.getMetadata().getNamespace(), kafkaUserAssembly.getMetadata().getName()).setHandler(getRes -> {
-            if (getRes.succeeded()) {
-                KafkaUser user = getRes.result();
-
-                if (user != null) {
-                    if (StatusUtils.isResourceV1alpha1(user)) {
-                        log.warn("{}: The resource needs to be upgraded from version {} to 'v1beta1' to use the status field", reconciliation, user.getApiVersion());
-                        updateStatusFuture.complete();
-                    } else {
-                        KafkaUserStatus currentStatus = user.getStatus();
-
-                        StatusDiff ksDiff = new StatusDiff(currentStatus, desiredStatus);
-
-                        if (!ksDiff.isEmpty()) {
-                            KafkaUser resourceWithNewStatus = new KafkaUserBuilder(user).withStatus(desiredStatus).build();
-
-                            crdOperator.updateStatusAsync(resourceWithNewStatus).setHandler(updateRes -> {
-                                if (updateRes.succeeded()) {
-                                    log.debug("{}: Completed status update", reconciliation);
-                                    updateStatusFuture.complete();
-                                } else {
-                                    log.error("{}: Failed to update status", reconciliation, updateRes.cause());
-                                    updateStatusFuture.fail(updateRes.cause());
-                                }
-                            });
-                        } else {
-                            log.debug("{}: Status did not change", reconciliation);
-                            updateStatusFuture.complete();
-                        }
-                    }
-                } else {
-                    log.error("{}: Current Kafka resource not found", reconciliation);
-                    updateStatusFuture.fail("Current Kafka User resource not found");
-                }
-            } else {
-                log.error("{}: Failed to get the current Kafka User resource and its status", reconciliation, getRes.cause());
-                updateStatusFuture.fail(getRes.cause());
-            }
-        });
-
-        return updateStatusFuture;
+        return statusWriter.updateStatus(reconciliation, kafkaUserAssembly, desiredStatus);
     }
 
     /**
@@ -257,62 +236,74 @@ public class KafkaUserOperator {
      * Reconcile assembly resources in the given namespace having the given {@code name}.
      * Reconciliation works by getting the assembly resource (e.g. {@code KafkaUser}) in the given namespace with the given name and
      * comparing with the corresponding resource.
+     * The reconciliation is started before any reconciliation of a periodic {@link #reconcileAll} which is waiting for its turn.
      * @param reconciliation The reconciliation.
      * @param handler The result handler.
      */
     public final void reconcile(Reconciliation reconciliation, Handler<AsyncResult<Void>> handler) {
+        reconcile(reconciliation, true, handler);
+    }
+
+    private void reconcile(Reconciliation reconciliation, boolean priority, Handler<AsyncResult<Void>> handler) {
+        workQueue.submit(new NamespaceAndName(reconciliation.namespace(), reconciliation.name()), reconciliation, priority, result -> {
+            if (result.succeeded() || !(result.cause() instanceof CreateOrUpdateFailedException)) {
+                handler.handle(result);
+            }
+        });
+    }
+
+    /**
+     * The outcome of a failed createOrUpdate, which is only logged rather than being passed to the handler
+     * of {@link #reconcile(Reconciliation, Handler)}.
+     */
+    private static class CreateOrUpdateFailedException extends RuntimeException {
+        CreateOrUpdateFailedException(Throwable cause) {
+            super(cause);
+        }
+    }
+
+    /**
+     * Run by the {@link #workQueue}, so there is at most one reconciliation in flight per user.
+     */
+    private Future<Void> doReconcile(Reconciliation reconciliation) {
         String namespace = reconciliation.namespace();
         String name = reconciliation.name();
-        final String lockName = getLockName(namespace, name);
-        vertx.sharedData().getLockWithTimeout(lockName, LOCK_TIMEOUT_MS, res -> {
-            if (res.succeeded()) {
-                log.debug("{}: Lock {} acquired", reconciliation, lockName);
-                Lock lock = res.result();
+        Future<Void> result = Future.future();
 
-                try {
-                    KafkaUser cr = (KafkaUser) crdOperator.get(namespace, name);
-
-                    if (cr != null) {
-                        log.info("{}: User {} should be created or updated", reconciliation, name);
-                        Secret clientsCaCert = secretOperations.get(caNamespace, caCertName);
-                        Secret clientsCaKey = secretOperations.get(caNamespace, caKeyName);
-                        Secret userSecret = secretOperations.get(namespace, KafkaUserModel.getSecretName(name));
-
-                        createOrUpdate(reconciliation, cr, clientsCaCert, clientsCaKey, userSecret, createResult -> {
-                            lock.release();
-                            log.debug("{}: Lock {} released", reconciliation, lockName);
-                            if (createResult.failed()) {
-                                log.error("{}: createOrUpdate failed", reconciliation, createResult.cause());
-                            } else {
-                                handler.handle(createResult);
-                            }
-                        });
+        try {
+            KafkaUser cr = (KafkaUser) crdOperator.get(namespace, name);
+
+            if (cr != null) {
+                log.info("{}: User {} should be created or updated", reconciliation, name);
+                Secret clientsCaCert = secretOperations.get(caNamespace, caCertName);
+                Secret clientsCaKey = secretOperations.get(caNamespace, caKeyName);
+                Secret userSecret = secretOperations.get(namespace, KafkaUserModel.getSecretName(name));
+
+                createOrUpdate(reconciliation, cr, clientsCaCert, clientsCaKey, userSecret, createResult -> {
+                    if (createResult.failed()) {
+                        log.error("{}: createOrUpdate failed", reconciliation, createResult.cause());
+                        result.fail(new CreateOrUpdateFailedException(createResult.cause()));
                     } else {
-                        log.info("{}: User {} should be deleted", reconciliation, name);
-                        delete(reconciliation, deleteResult -> {
-                            if (deleteResult.succeeded())   {
-                                log.info("{}: User {} deleted", reconciliation, name);
-                                lock.release();
-                                log.debug("{}: Lock {} released", reconciliation, lockName);
-                                handler.handle(deleteResult);
-                            } else {
-                                log.error("{}: Deletion of user {} failed", reconciliation, name, deleteResult.cause());
-                                lock.release();
-                                log.debug("{}: Lock {} released", reconciliation, lockName);
-                                handler.handle(deleteResult);
-                            }
-                        });
+                        result.handle(createResult);
                     }
-                } catch (Throwable ex) {
-                    lock.release();
-                    log.error("{}: Reconciliation failed", reconciliation, ex);
-                    log.debug("{}: Lock {} released", reconciliation, lockName);
-                    handler.handle(Future.failedFuture(ex));
-                }
+                });
             } else {
-                log.warn("{}: Failed to acquire lock {}.", reconciliation, lockName);
+                log.info("{}: User {} should be deleted", reconciliation, name);
+                statusWriter.forget(namespace, name);
+                delete(reconciliation, deleteResult -> {
+                    if (deleteResult.succeeded())   {
+                        log.info("{}: User {} deleted", reconciliation, name);
+                    } else {
+                        log.error("{}: Deletion of user {} failed", reconciliation, name, deleteResult.cause());
+                    }
+                    result.handle(deleteResult);
+                });
             }
-        });
+        } catch (Throwable ex) {
+            log.error("{}: Reconciliation failed", reconciliation, ex);
+            result.fail(ex);
+        }
+        return result;
     }
 
     /**
@@ -326,6 +317,21 @@ public class KafkaUserOperator {
      * @return A latch for awaiting the reconciliation.
      */
     public final CountDownLatch reconcileAll(String trigger, String namespace, Labels selector) {
+        return reconcileAll(trigger, namespace, selector, 0);
+    }
+
+    /**
+     * Like {@link #reconcileAll(String, String, Labels)}, but the reconciliations are submitted evenly over the given
+     * {@code spreadMs} rather than all at once. These reconciliations are started only after any reconciliation
+     * triggered by a watch event which is waiting for its turn.
+     *
+     * @param trigger A description of the triggering event (timer or watch), used for logging
+     * @param namespace The namespace
+     * @param selector The labels used to select the resources
+     * @param spreadMs The period of time over which to spread the reconciliations.
+     * @return A latch for awaiting the reconciliation.
+     */
+    public final CountDownLatch reconcileAll(String trigger, String namespace, Labels selector, long spreadMs) {
         List<KafkaUser> desiredResources = crdOperator.list(namespace, selector);
         Set<String> desiredNames = desiredResources.stream().map(cm -> cm.getMetadata().getName()).collect(Collectors.toSet());
         log.debug("reconcileAll({}, {}): desired resources with labels {}: {}", RESOURCE_KIND, trigger, selector, desiredNames);
@@ -350,14 +356,21 @@ public class KafkaUserOperator {
                     // Using futures would be more complex for no benefit
                     AtomicInteger counter = new AtomicInteger(desiredNames.size());
 
+                    int index = 0;
                     for (String name : desiredNames) {
                         Reconciliation reconciliation = new Reconciliation(trigger, ResourceType.USER, namespace, name);
-                        reconcile(reconciliation, result -> {
+                        Handler<Void> submit = ignored -> reconcile(reconciliation, false, result -> {
                             handleResult(reconciliation, result);
                             if (counter.getAndDecrement() == 0) {
                                 outerLatch.countDown();
                             }
                         });
+                        long delayMs = spreadMs * index++ / desiredNames.size();
+                        if (delayMs > 0) {
+                            vertx.setTimer(delayMs, timerId -> submit.handle(null));
+                        } else {
+                            submit.handle(null);
+                        }
                     }
                 } else {
                     log.error("Error while getting users with ACLs");
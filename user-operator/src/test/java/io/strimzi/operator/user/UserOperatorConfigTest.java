@@ -72,6 +72,23 @@ public class UserOperatorConfigTest {
         assertEquals(UserOperatorConfig.DEFAULT_FULL_RECONCILIATION_INTERVAL_MS, config.getReconciliationIntervalMs());
     }
 
+    @Test
+    public void testMaxConcurrentReconciliations()  {
+        Map<String, String> envVars = new HashMap<>(UserOperatorConfigTest.envVars);
+        assertEquals(UserOperatorConfig.DEFAULT_MAX_CONCURRENT_RECONCILIATIONS, UserOperatorConfig.fromMap(envVars).getMaxConcurrentReconciliations());
+
+        envVars.put(UserOperatorConfig.STRIMZI_MAX_CONCURRENT_RECONCILIATIONS, "5");
+        assertEquals(5, UserOperatorConfig.fromMap(envVars).getMaxConcurrentReconciliations());
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void testInvalidMaxConcurrentReconciliations()  {
+        Map<String, String> envVars = new HashMap<>(UserOperatorConfigTest.envVars);
+        envVars.put(UserOperatorConfig.STRIMZI_MAX_CONCURRENT_RECONCILIATIONS, "-1");
+
+        UserOperatorConfig.fromMap(envVars);
+    }
+
     @Test
     public void testMissingLabels()  {
         Map<String, String> envVars = new HashMap<>(UserOperatorConfigTest.envVars);